@@ -22,6 +22,7 @@ import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 import com.beust.jcommander.Parameters;
 
+import com.liferay.blade.cli.cds.CdsArchive;
 import com.liferay.blade.cli.command.BaseArgs;
 import com.liferay.blade.cli.command.BaseCommand;
 import com.liferay.blade.cli.command.BladeProfile;
@@ -31,24 +32,29 @@ import com.liferay.blade.cli.command.UpdateCommand;
 import com.liferay.blade.cli.command.VersionCommand;
 import com.liferay.blade.cli.command.validator.ParameterPossibleValues;
 import com.liferay.blade.cli.command.validator.ParametersValidator;
+import com.liferay.blade.cli.daemon.DaemonClient;
 import com.liferay.blade.cli.gradle.GradleExecutionException;
+import com.liferay.blade.cli.util.BladeUtil;
 import com.liferay.blade.cli.util.CombinedClassLoader;
+import com.liferay.blade.cli.util.ExecutorUtil;
 import com.liferay.blade.cli.util.FileUtil;
-import com.liferay.blade.cli.util.ProcessesUtil;
 import com.liferay.blade.cli.util.Prompter;
+import com.liferay.blade.cli.util.TempDirUtil;
+import com.liferay.blade.cli.util.TemplateCatalog;
+import com.liferay.blade.cli.util.WorkspaceCache;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
 import java.io.PrintStream;
 
 import java.lang.reflect.Field;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -64,12 +70,14 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Scanner;
 import java.util.ServiceLoader;
 import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
@@ -129,6 +137,14 @@ public class BladeCLI {
 	}
 
 	public static void main(String[] args) {
+		if (DaemonClient.isEnabled(args)) {
+			Integer exitCode = DaemonClient.run(args);
+
+			if (exitCode != null) {
+				System.exit(exitCode);
+			}
+		}
+
 		BladeCLI bladeCLI = new BladeCLI();
 
 		try {
@@ -167,6 +183,23 @@ public class BladeCLI {
 		data.forEach(error::println);
 	}
 
+	/**
+	 * Starts checking for blade updates in a daemon thread, at most once a day.
+	 * The check is abandoned if blade exits first, and its result is printed
+	 * after a later command.
+	 */
+	public void checkForUpdatesInBackground(String[] args) {
+		List<String> argsList = Arrays.asList(args);
+
+		if (argsList.contains("update") || argsList.contains("-q") || argsList.contains("--quiet") ||
+			!_isUpdateCheckDue()) {
+
+			return;
+		}
+
+		ExecutorUtil.execute("blade-update-check", this::_checkForUpdates);
+	}
+
 	public PrintStream error() {
 		return _error;
 	}
@@ -237,6 +270,17 @@ public class BladeCLI {
 		return extensions;
 	}
 
+	/**
+	 * Returns the catalog of the project templates, loaded once per command.
+	 */
+	public TemplateCatalog getTemplateCatalog() throws Exception {
+		if (_templateCatalog == null) {
+			_templateCatalog = TemplateCatalog.load(this);
+		}
+
+		return _templateCatalog;
+	}
+
 	public Path getUserBladePath() {
 		Path userHomePath = _USER_HOME_DIR.toPath();
 
@@ -258,27 +302,7 @@ public class BladeCLI {
 	}
 
 	public WorkspaceProvider getWorkspaceProvider(File dir) {
-		try {
-			Collection<WorkspaceProvider> providers = _getWorkspaceProviders();
-
-			for (WorkspaceProvider provider : providers) {
-				try {
-					boolean workspace = provider.isWorkspace(dir);
-
-					if (workspace) {
-						return provider;
-					}
-				}
-				catch (Throwable throwable) {
-					throw new RuntimeException("_getWorkspaceProvider error", throwable);
-				}
-			}
-		}
-		catch (Throwable throwable) {
-			throw new RuntimeException("_getWorkspaceProvider error", throwable);
-		}
-
-		return null;
+		return WorkspaceCache.resolve("workspaceProvider", dir, this::_getWorkspaceProvider);
 	}
 
 	public InputStream in() {
@@ -296,25 +320,9 @@ public class BladeCLI {
 	}
 
 	public boolean isWorkspaceDir(File dir) {
-		try {
-			Collection<WorkspaceProvider> providers = _getWorkspaceProviders();
-
-			for (WorkspaceProvider provider : providers) {
-				try {
-					boolean workspace = provider.isWorkspace(dir);
-
-					if (workspace) {
-						return true;
-					}
-				}
-				catch (Throwable throwable) {
-				}
-			}
-		}
-		catch (Throwable throwable) {
-		}
+		Boolean workspaceDir = WorkspaceCache.resolve("workspaceDir", dir, this::_isWorkspaceDir);
 
-		return false;
+		return workspaceDir;
 	}
 
 	public PrintStream out() {
@@ -326,16 +334,22 @@ public class BladeCLI {
 	}
 
 	public void postRunCommand() {
-		if (_shouldCheckForUpdates()) {
-			try {
-				_writeLastUpdateCheck();
+		long start = _timings.start();
 
+		if (_shouldPrintUpdateNotice()) {
+			try {
 				_printUpdateIfAvailable();
 			}
 			catch (IOException ioException) {
 				error(ioException);
 			}
 		}
+
+		_timings.record("updateCheck", start);
+
+		if (!Objects.equals(_command, "cds")) {
+			_regenerateStaleCdsArchive();
+		}
 	}
 
 	public void printUsage() {
@@ -351,8 +365,18 @@ public class BladeCLI {
 
 		jCommander.setProgramName("blade");
 
-		for (String command : _commands.keySet()) {
-			BaseCommand<? extends BaseArgs> baseCommand = _commands.get(command);
+		Map<String, BaseCommand<? extends BaseArgs>> commands = _commands;
+
+		try {
+			Extensions extensions = getExtensions();
+
+			commands = extensions.getCommands(_profileName);
+		}
+		catch (Exception exception) {
+		}
+
+		for (String command : commands.keySet()) {
+			BaseCommand<? extends BaseArgs> baseCommand = commands.get(command);
 
 			BaseArgs baseArgs = baseCommand.getArgs();
 
@@ -397,21 +421,41 @@ public class BladeCLI {
 	}
 
 	public void printUsage(String command) {
-		_jCommander.usage(command);
+		JCommander jCommander = _getUsageJCommander(command);
+
+		jCommander.usage(command);
 	}
 
 	public void printUsage(String command, String message) {
 		out(message);
 
-		_jCommander.usage(command);
+		JCommander jCommander = _getUsageJCommander(command);
+
+		jCommander.usage(command);
 	}
 
 	public void run(String[] args) throws Exception {
+		_timings = Timings.of(args);
+
+		args = Timings.removeOptions(args);
+
+		WorkspaceCache.startRun();
+
 		try {
+			long start = _timings.start();
+
 			_removeOutDatedTempDir();
 
+			_timings.record("removeOutDatedTempDir", start);
+
+			checkForUpdatesInBackground(args);
+
+			start = _timings.start();
+
 			Extensions extensions = getExtensions();
 
+			_timings.record("getExtensions", start);
+
 			String basePath = _extractBasePath(args);
 
 			String profileName = _extractProfileName(args);
@@ -426,6 +470,8 @@ public class BladeCLI {
 
 			System.setErr(error());
 
+			start = _timings.start();
+
 			BladeSettings bladeSettings = getBladeSettings();
 
 			if (profileName != null) {
@@ -436,11 +482,27 @@ public class BladeCLI {
 				bladeSettings.migrateWorkspaceIfNecessary(this);
 			}
 
-			_commands = extensions.getCommands(bladeSettings.getProfileName());
+			_profileName = bladeSettings.getProfileName();
+
+			_timings.record("BladeSettings", start);
+
+			start = _timings.start();
+
+			args = Extensions.sortArgs(extensions.getCommandNames(_profileName), args);
+
+			_timings.record("Extensions.sortArgs", start);
+
+			start = _timings.start();
+
+			_commands = extensions.getCommands(_profileName, args);
 
-			args = Extensions.sortArgs(_commands, args);
+			_timings.record("Extensions.getCommands", start);
 
-			_jCommander = _buildJCommanderWithCommandMap(args, _commands);
+			start = _timings.start();
+
+			_jCommander = _buildJCommanderWithCommandMap(args, _getInvokedCommands(args));
+
+			_timings.record("buildJCommanderWithCommandMap", start);
 
 			if ((args.length == 1) && args[0].equals("--help")) {
 				printUsage();
@@ -451,6 +513,8 @@ public class BladeCLI {
 
 					ParameterException parameterException1 = null;
 
+					start = _timings.start();
+
 					try {
 						_jCommander.parse(args);
 					}
@@ -463,6 +527,9 @@ public class BladeCLI {
 
 						parameterException1 = parameterException2;
 					}
+					finally {
+						_timings.record("parse", start);
+					}
 
 					String command = _jCommander.getParsedCommand();
 
@@ -475,8 +542,12 @@ public class BladeCLI {
 
 						Object commandArgs = objects.get(0);
 
+						start = _timings.start();
+
 						_validateParameters((BaseArgs)commandArgs);
 
+						_timings.record("validateParameters", start);
+
 						String parameterMessage = null;
 
 						if (parameterException1 != null) {
@@ -503,8 +574,12 @@ public class BladeCLI {
 							_args.setBase(baseDir);
 
 							try {
+								start = _timings.start();
+
 								runCommand();
 
+								_timings.record("execute", start);
+
 								postRunCommand();
 							}
 							catch (ParameterException parameterException2) {
@@ -550,7 +625,7 @@ public class BladeCLI {
 
 								args = fixedArgs.toArray(new String[0]);
 
-								args = Extensions.sortArgs(_commands, args);
+								args = Extensions.sortArgs(extensions.getCommandNames(_profileName), args);
 							}
 							else if (parameterMessage.contains("Main parameters are required")) {
 								String value = _promptForMissingParameter(
@@ -560,16 +635,18 @@ public class BladeCLI {
 
 								args = fixedArgs.toArray(new String[0]);
 
-								args = Extensions.sortArgs(_commands, args);
+								args = Extensions.sortArgs(extensions.getCommandNames(_profileName), args);
 							}
 							else {
 								throw parameterException1;
 							}
 
+							start = _timings.start();
+
 							try {
 								parameterException1 = null;
 
-								_jCommander = _buildJCommanderWithCommandMap(args, _commands);
+								_jCommander = _buildJCommanderWithCommandMap(args, _getInvokedCommands(args));
 
 								_jCommander.parse(args);
 							}
@@ -578,6 +655,9 @@ public class BladeCLI {
 
 								continue;
 							}
+							finally {
+								_timings.record("parse", start);
+							}
 
 							jCommands = _jCommander.getCommands();
 
@@ -603,8 +683,12 @@ public class BladeCLI {
 								_args.setBase(baseDir);
 
 								try {
+									start = _timings.start();
+
 									runCommand();
 
+									_timings.record("execute", start);
+
 									postRunCommand();
 								}
 								catch (ParameterException parameterException2) {
@@ -649,6 +733,10 @@ public class BladeCLI {
 			if (_extensions != null) {
 				_extensions.close();
 			}
+
+			WorkspaceCache.endRun();
+
+			_timings.print(error(), _command);
 		}
 	}
 
@@ -802,6 +890,43 @@ public class BladeCLI {
 		}
 	}
 
+	private void _checkForUpdates() {
+		try {
+			Properties properties = _readUpdateCheck();
+
+			properties.setProperty(_LAST_UPDATE_CHECK_KEY, String.valueOf(System.currentTimeMillis()));
+
+			_writeUpdateCheck(properties);
+
+			UpdateArgs updateArgs = new UpdateArgs();
+
+			updateArgs.setCheckOnly(true);
+
+			UpdateCommand updateCommand = new UpdateCommand();
+
+			updateCommand.setArgs(updateArgs);
+
+			updateCommand.checkForUpdates();
+
+			Properties results = new Properties();
+
+			results.setProperty(_BLADE_VERSION_KEY, VersionCommand.getBladeCLIVersion());
+			results.setProperty(_LAST_UPDATE_CHECK_KEY, String.valueOf(System.currentTimeMillis()));
+
+			Optional<String> releaseUpdateVersion = updateCommand.getReleaseUpdateVersion();
+
+			releaseUpdateVersion.ifPresent(version -> results.setProperty(_RELEASE_UPDATE_VERSION_KEY, version));
+
+			Optional<String> snapshotUpdateVersion = updateCommand.getSnapshotUpdateVersion();
+
+			snapshotUpdateVersion.ifPresent(version -> results.setProperty(_SNAPSHOT_UPDATE_VERSION_KEY, version));
+
+			_writeUpdateCheck(results);
+		}
+		catch (Throwable throwable) {
+		}
+	}
+
 	private String _extractBasePath(String[] args) {
 		String defaultBasePath = ".";
 
@@ -896,6 +1021,23 @@ public class BladeCLI {
 		return profile;
 	}
 
+	/**
+	 * Returns only the command named by the first of the sorted arguments, so
+	 * that JCommander does not have to reflect over the arguments of every
+	 * other command. Usage output builds its own JCommander with all commands.
+	 */
+	private Map<String, BaseCommand<? extends BaseArgs>> _getInvokedCommands(String[] args) {
+		if (args.length > 0) {
+			BaseCommand<? extends BaseArgs> baseCommand = _commands.get(args[0]);
+
+			if (baseCommand != null) {
+				return Collections.singletonMap(args[0], baseCommand);
+			}
+		}
+
+		return _commands;
+	}
+
 	private String _getMessageFromPossibleValues(Map<String, String> optionsMap) {
 		StringBuilder sb = new StringBuilder();
 
@@ -1022,89 +1164,158 @@ public class BladeCLI {
 		return userBladePath.resolve("updateCheck.properties");
 	}
 
-	private Optional<String> _getUpdateVersionIfAvailable(boolean snapshots) {
-		UpdateArgs updateArgs = new UpdateArgs();
+	private JCommander _getUsageJCommander(String command) {
+		Map<String, JCommander> jCommands = _jCommander.getCommands();
 
-		updateArgs.setCheckOnly(true);
+		if (jCommands.containsKey(command)) {
+			return _jCommander;
+		}
 
-		UpdateCommand updateCommand = new UpdateCommand();
+		try {
+			Extensions extensions = getExtensions();
 
-		updateCommand.setArgs(updateArgs);
+			return _buildJCommanderWithCommandMap(new String[0], extensions.getCommands(_profileName));
+		}
+		catch (Exception exception) {
+			return _jCommander;
+		}
+	}
 
-		updateCommand.setBlade(this);
+	private WorkspaceProvider _getWorkspaceProvider(File dir) {
+		try {
+			Iterable<WorkspaceProvider> providers = _getWorkspaceProviders();
 
-		StringPrintStream stdOut = StringPrintStream.newInstance();
+			for (WorkspaceProvider provider : providers) {
+				try {
+					boolean workspace = provider.isWorkspace(dir);
+
+					if (workspace) {
+						return provider;
+					}
+				}
+				catch (Throwable throwable) {
+					throw new RuntimeException("_getWorkspaceProvider error", throwable);
+				}
+			}
+		}
+		catch (Throwable throwable) {
+			throw new RuntimeException("_getWorkspaceProvider error", throwable);
+		}
 
-		PrintStream currentStdOut = System.out;
+		return null;
+	}
 
-		try {
-			System.setOut(stdOut);
+	/**
+	 * Returns the workspace providers, loading each provider only once the ones
+	 * before it have been tried, so that an extension contributing a provider
+	 * is not opened when a built-in provider recognizes the workspace.
+	 */
+	private Iterable<WorkspaceProvider> _getWorkspaceProviders() {
+		if (_workspaceProviders == null) {
+			_workspaceProviders = new ArrayList<>();
 
-			_out = System.out;
+			ServiceLoader<WorkspaceProvider> serviceLoader = ServiceLoader.load(
+				WorkspaceProvider.class, _getClassLoader());
 
-			updateCommand.execute();
+			_workspaceProviderIterator = serviceLoader.iterator();
 		}
-		finally {
-			System.setOut(currentStdOut);
 
-			_out = System.out;
-		}
+		return () -> new Iterator<WorkspaceProvider>() {
 
-		if (snapshots) {
-			Optional<String> snapshotUpdateVersionOpt = updateCommand.getSnapshotUpdateVersion();
+			@Override
+			public boolean hasNext() {
+				if (_index < _workspaceProviders.size()) {
+					return true;
+				}
 
-			if (!snapshotUpdateVersionOpt.isPresent()) {
-				return Optional.empty();
+				return _loadNextWorkspaceProvider();
 			}
 
-			String snapshotUpdateVersion = snapshotUpdateVersionOpt.get();
-
-			snapshotUpdateVersion = snapshotUpdateVersion.substring(0, 14) + snapshotUpdateVersion.substring(15, 19);
+			@Override
+			public WorkspaceProvider next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
 
-			snapshotUpdateVersion = snapshotUpdateVersion.replace('-', '.');
+				return _workspaceProviders.get(_index++);
+			}
 
-			return Optional.of(snapshotUpdateVersion.trim());
-		}
+			private int _index;
 
-		return updateCommand.getReleaseUpdateVersion();
+		};
 	}
 
-	private Collection<WorkspaceProvider> _getWorkspaceProviders() throws Exception {
-		if (_workspaceProviders == null) {
-			_workspaceProviders = new ArrayList<>();
+	private boolean _isUpdateCheckDue() {
+		try {
+			Properties properties = _readUpdateCheck();
 
-			ServiceLoader<WorkspaceProvider> serviceLoader = ServiceLoader.load(
-				WorkspaceProvider.class, _getClassLoader());
+			String lastUpdateCheck = properties.getProperty(_LAST_UPDATE_CHECK_KEY);
+
+			if (lastUpdateCheck == null) {
+				return true;
+			}
+
+			Instant now = Instant.now();
+
+			Instant yesterday = now.minus(1, ChronoUnit.DAYS);
+
+			return yesterday.isAfter(Instant.ofEpochMilli(Long.parseLong(lastUpdateCheck)));
+		}
+		catch (Exception exception) {
+		}
+
+		return false;
+	}
 
-			Iterator<WorkspaceProvider> workspaceProviderIterator = serviceLoader.iterator();
+	private boolean _isWorkspaceDir(File dir) {
+		try {
+			Iterable<WorkspaceProvider> providers = _getWorkspaceProviders();
 
-			while (workspaceProviderIterator.hasNext()) {
+			for (WorkspaceProvider provider : providers) {
 				try {
-					WorkspaceProvider workspaceProvider = workspaceProviderIterator.next();
+					boolean workspace = provider.isWorkspace(dir);
 
-					_workspaceProviders.add(workspaceProvider);
+					if (workspace) {
+						return true;
+					}
 				}
 				catch (Throwable throwable) {
-					Class<?> throwableClass = throwable.getClass();
+				}
+			}
+		}
+		catch (Throwable throwable) {
+		}
 
-					System.err.println(
-						"Exception thrown while loading WorkspaceProvider." + System.lineSeparator() + "Exception: " +
-							throwableClass.getName() + ": " + throwable.getMessage());
+		return false;
+	}
 
-					Throwable cause = throwable.getCause();
+	private boolean _loadNextWorkspaceProvider() {
+		while (_workspaceProviderIterator.hasNext()) {
+			try {
+				WorkspaceProvider workspaceProvider = _workspaceProviderIterator.next();
 
-					if (cause != null) {
-						Class<?> throwableCauseClass = cause.getClass();
+				_workspaceProviders.add(workspaceProvider);
 
-						System.err.print(throwableCauseClass.getName() + ": " + cause.getMessage());
-					}
-				}
+				return true;
 			}
+			catch (Throwable throwable) {
+				Class<?> throwableClass = throwable.getClass();
+
+				System.err.println(
+					"Exception thrown while loading WorkspaceProvider." + System.lineSeparator() + "Exception: " +
+						throwableClass.getName() + ": " + throwable.getMessage());
+
+				Throwable cause = throwable.getCause();
+
+				if (cause != null) {
+					Class<?> throwableCauseClass = cause.getClass();
 
-			return _workspaceProviders;
+					System.err.print(throwableCauseClass.getName() + ": " + cause.getMessage());
+				}
+			}
 		}
 
-		return _workspaceProviders;
+		return false;
 	}
 
 	private void _migrateBladeSettingsFile(File settingsFile) throws IOException {
@@ -1128,10 +1339,23 @@ public class BladeCLI {
 	}
 
 	private void _printUpdateIfAvailable() throws IOException {
-		Optional<String> releaseUpdateVersion = _getUpdateVersionIfAvailable(false);
+		Properties properties = _readUpdateCheck();
 
 		String currentVersion = VersionCommand.getBladeCLIVersion();
 
+		if (!Objects.equals(properties.getProperty(_BLADE_VERSION_KEY), currentVersion) ||
+			Boolean.parseBoolean(properties.getProperty(_UPDATE_NOTIFIED_KEY))) {
+
+			return;
+		}
+
+		properties.setProperty(_UPDATE_NOTIFIED_KEY, Boolean.TRUE.toString());
+
+		_writeUpdateCheck(properties);
+
+		Optional<String> releaseUpdateVersion = Optional.ofNullable(
+			properties.getProperty(_RELEASE_UPDATE_VERSION_KEY));
+
 		boolean currentVersionIsSnapshot = currentVersion.contains("SNAPSHOT");
 
 		currentVersion = currentVersion.replace("SNAPSHOT", "");
@@ -1141,7 +1365,15 @@ public class BladeCLI {
 		}
 
 		if (currentVersionIsSnapshot) {
-			Optional<String> snapshotUpdateVersion = _getUpdateVersionIfAvailable(true);
+			Optional<String> snapshotUpdateVersion = Optional.ofNullable(
+				properties.getProperty(_SNAPSHOT_UPDATE_VERSION_KEY)
+			).map(
+				version -> version.substring(0, 14) + version.substring(15, 19)
+			).map(
+				version -> version.replace('-', '.')
+			).map(
+				String::trim
+			);
 
 			if (releaseUpdateVersion.isPresent() && snapshotUpdateVersion.isPresent()) {
 				out("Updates available to the installed version: " + currentVersion);
@@ -1266,53 +1498,42 @@ public class BladeCLI {
 		return value;
 	}
 
-	private void _removeOutDatedTempDir() {
-		List<Long> processIdList = ProcessesUtil.getAllProcessIds();
-
-		String tmpdir = System.getProperty("java.io.tmpdir");
-
-		File tmpFile = new File(tmpdir);
-
-		Thread thread = new Thread() {
-
-			@Override
-			public void run() {
-				try {
-					Stream.of(
-						tmpFile.listFiles()
-					).filter(
-						file -> {
-							String fileName = file.getName();
+	private Properties _readUpdateCheck() throws IOException {
+		Properties properties = new Properties();
 
-							if (fileName.startsWith(Extensions.TEMP_EXTENSIONS_PREFIX) ||
-								fileName.startsWith(Extensions.TEMP_TEMPLATES_PREFIX)) {
+		Path updateCheckPath = _getUpdateCheckPath();
 
-								String[] segments = fileName.split("-");
+		if (Files.exists(updateCheckPath)) {
+			try (InputStream inputStream = Files.newInputStream(updateCheckPath)) {
+				properties.load(inputStream);
+			}
+		}
 
-								String pid = segments[2];
+		return properties;
+	}
 
-								return !processIdList.contains(Long.parseLong(pid));
-							}
+	private void _regenerateStaleCdsArchive() {
+		CdsArchive cdsArchive = new CdsArchive(BladeUtil.getBladeCachePath(), getExtensionsPath());
 
-							return false;
-						}
-					).forEach(
-						file -> {
-							try {
-								FileUtil.deleteDirIfExists(file.toPath());
-							}
-							catch (Exception exception) {
-							}
-						}
-					);
-				}
-				catch (Exception exception) {
-				}
+		if (cdsArchive.isStale()) {
+			try {
+				cdsArchive.generateInBackground();
+			}
+			catch (IOException ioException) {
 			}
+		}
+	}
 
-		};
+	private void _removeOutDatedTempDir() {
+		Path tempDirPath = Paths.get(System.getProperty("java.io.tmpdir"));
 
-		thread.start();
+		Path bladeCachePath = BladeUtil.getBladeCachePath();
+
+		ExecutorUtil.execute(
+			"blade-temp-dir-reaper",
+			() -> TempDirUtil.reapOrphanedTempDirs(
+				tempDirPath, Arrays.asList(Extensions.TEMP_EXTENSIONS_PREFIX, Extensions.TEMP_TEMPLATES_PREFIX),
+				bladeCachePath.resolve(_TEMP_DIRS_REAPED_FILE_NAME), _TEMP_DIRS_REAP_INTERVAL));
 	}
 
 	private void _runCommand() throws Exception {
@@ -1363,45 +1584,14 @@ public class BladeCLI {
 		}
 	}
 
-	private boolean _shouldCheckForUpdates() {
-		try {
-			if (_command.contains("update")) {
-				return false;
-			}
-
-			BaseArgs baseArgs = getArgs();
-
-			if (baseArgs.isQuiet()) {
-				return false;
-			}
-
-			Path updateCheckPath = _getUpdateCheckPath();
-
-			if (!Files.exists(updateCheckPath)) {
-				return true;
-			}
-
-			Properties properties = new Properties();
-
-			try (InputStream inputStream = Files.newInputStream(updateCheckPath)) {
-				properties.load(inputStream);
-			}
-
-			Instant lastUpdateCheck = Instant.ofEpochMilli(
-				Long.parseLong(properties.getProperty(_LAST_UPDATE_CHECK_KEY)));
-
-			Instant now = Instant.now();
-
-			Instant yesterday = now.minus(1, ChronoUnit.DAYS);
-
-			if (yesterday.isAfter(lastUpdateCheck)) {
-				return true;
-			}
-		}
-		catch (Exception exception) {
+	private boolean _shouldPrintUpdateNotice() {
+		if ((_command == null) || _command.contains("update")) {
+			return false;
 		}
 
-		return false;
+		BaseArgs baseArgs = getArgs();
+
+		return !baseArgs.isQuiet();
 	}
 
 	@SuppressWarnings("unchecked")
@@ -1430,28 +1620,30 @@ public class BladeCLI {
 		}
 	}
 
-	private void _writeLastUpdateCheck() throws IOException {
-		Path updateCheckPath = _getUpdateCheckPath();
-
-		Properties properties = new Properties();
-
-		Instant now = Instant.now();
-
-		properties.put(_LAST_UPDATE_CHECK_KEY, String.valueOf(now.toEpochMilli()));
-
-		try (OutputStream outputStream = Files.newOutputStream(updateCheckPath)) {
-			properties.store(outputStream, null);
-		}
+	private void _writeUpdateCheck(Properties properties) throws IOException {
+		FileUtil.write(_getUpdateCheckPath(), properties);
 	}
 
 	private static final String _BLADE_PROPERTIES = ".blade.properties";
 
+	private static final String _BLADE_VERSION_KEY = "bladeVersion";
+
 	private static final String _LAST_UPDATE_CHECK_KEY = "lastUpdateCheck";
 
 	private static final String _MESSAGE_OPTION_IS_REQUIRED = "The following option is required: ";
 
 	private static final String _MESSAGE_OPTIONS_ARE_REQUIRED = "The following options are required: ";
 
+	private static final String _RELEASE_UPDATE_VERSION_KEY = "releaseUpdateVersion";
+
+	private static final String _SNAPSHOT_UPDATE_VERSION_KEY = "snapshotUpdateVersion";
+
+	private static final long _TEMP_DIRS_REAP_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+	private static final String _TEMP_DIRS_REAPED_FILE_NAME = "temp-dirs.reaped";
+
+	private static final String _UPDATE_NOTIFIED_KEY = "updateNotified";
+
 	private static final File _USER_HOME_DIR = new File(System.getProperty("user.home"));
 
 	private static final Map<String, String> _mavenLiferayVersionPossibleValuesMap = new HashMap<String, String>() {
@@ -1480,6 +1672,10 @@ public class BladeCLI {
 	private final InputStream _in;
 	private JCommander _jCommander;
 	private PrintStream _out;
-	private Collection<WorkspaceProvider> _workspaceProviders = null;
+	private String _profileName;
+	private TemplateCatalog _templateCatalog;
+	private Timings _timings = Timings.disabled();
+	private Iterator<WorkspaceProvider> _workspaceProviderIterator;
+	private List<WorkspaceProvider> _workspaceProviders = null;
 
 }
\ No newline at end of file
@@ -0,0 +1,473 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli;
+
+import com.beust.jcommander.Parameters;
+
+import com.liferay.blade.cli.command.BaseArgs;
+import com.liferay.blade.cli.command.BaseCommand;
+import com.liferay.blade.cli.command.BladeProfile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Index of the commands declared in <code>META-INF/services</code>, generated
+ * when blade.jar is built and when an extension is installed, so that only the
+ * invoked command has to be loaded. Jars without an index (or with an index
+ * that no longer matches their service declarations) are introspected the same
+ * way <code>ServiceLoader</code> would.
+ *
+ * @author Gregory Amerson
+ */
+public class CommandIndex {
+
+	public static final String INDEX_RESOURCE = "META-INF/blade/commands.properties";
+
+	public static final String SERVICES_RESOURCE = "META-INF/services/" + BaseCommand.class.getName();
+
+	public static Properties buildIndex(ClassLoader classLoader, Collection<String> commandClassNames)
+		throws Exception {
+
+		Properties properties = new Properties();
+
+		for (String commandClassName : commandClassNames) {
+			Class<?> commandClass = Class.forName(commandClassName, true, classLoader);
+
+			BaseCommand<?> baseCommand = (BaseCommand<?>)commandClass.newInstance();
+
+			Entry entry = _createEntry(baseCommand);
+
+			properties.setProperty(commandClassName, entry._toIndexValue());
+		}
+
+		return properties;
+	}
+
+	/**
+	 * Copies an extension jar, adding an up to date command index to it. Jars
+	 * that do not contribute commands are copied unchanged.
+	 */
+	public static void copyWithIndex(Path sourcePath, Path targetPath) throws IOException {
+		List<String> commandClassNames;
+
+		try (ZipFile zipFile = new ZipFile(sourcePath.toFile())) {
+			ZipEntry servicesEntry = zipFile.getEntry(SERVICES_RESOURCE);
+
+			if (servicesEntry == null) {
+				Files.copy(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+
+				return;
+			}
+
+			try (InputStream inputStream = zipFile.getInputStream(servicesEntry)) {
+				commandClassNames = readServices(inputStream);
+			}
+		}
+
+		Properties index;
+
+		try (URLClassLoader urlClassLoader = new URLClassLoader(
+				new URL[] {sourcePath.toUri().toURL()}, CommandIndex.class.getClassLoader())) {
+
+			index = buildIndex(urlClassLoader, commandClassNames);
+		}
+		catch (Throwable throwable) {
+			Files.copy(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+
+			return;
+		}
+
+		Path absoluteTargetPath = targetPath.toAbsolutePath();
+
+		Path tempPath = Files.createTempFile(
+			absoluteTargetPath.getParent(), String.valueOf(targetPath.getFileName()), ".tmp");
+
+		try (ZipFile zipFile = new ZipFile(sourcePath.toFile());
+			ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(tempPath))) {
+
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+			while (entries.hasMoreElements()) {
+				ZipEntry zipEntry = entries.nextElement();
+
+				if (Objects.equals(zipEntry.getName(), INDEX_RESOURCE)) {
+					continue;
+				}
+
+				ZipEntry newZipEntry = new ZipEntry(zipEntry.getName());
+
+				newZipEntry.setTime(zipEntry.getTime());
+
+				zipOutputStream.putNextEntry(newZipEntry);
+
+				try (InputStream inputStream = zipFile.getInputStream(zipEntry)) {
+					StringConverter.readInputStreamToOutputStream(inputStream, zipOutputStream);
+				}
+
+				zipOutputStream.closeEntry();
+			}
+
+			zipOutputStream.putNextEntry(new ZipEntry(INDEX_RESOURCE));
+
+			index.store(zipOutputStream, null);
+
+			zipOutputStream.closeEntry();
+		}
+
+		Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	public static CommandIndex load(ClassLoader classLoader) {
+		CommandIndex commandIndex = new CommandIndex(classLoader);
+
+		try {
+			Enumeration<URL> servicesUrls = classLoader.getResources(SERVICES_RESOURCE);
+
+			Set<String> urls = new HashSet<>();
+
+			while (servicesUrls.hasMoreElements()) {
+				URL servicesUrl = servicesUrls.nextElement();
+
+				if (urls.add(servicesUrl.toExternalForm())) {
+					commandIndex._addSource(servicesUrl);
+				}
+			}
+		}
+		catch (IOException ioException) {
+			commandIndex._entries.clear();
+		}
+
+		return commandIndex;
+	}
+
+	/**
+	 * Writes the index of the commands declared in a services file. Used by the
+	 * build to add the index to blade.jar and to extension jars.
+	 *
+	 * @param args the services file and the index file to write
+	 */
+	public static void main(String[] args) throws Exception {
+		Path servicesPath = Paths.get(args[0]);
+		Path indexPath = Paths.get(args[1]);
+
+		List<String> commandClassNames;
+
+		try (InputStream inputStream = Files.newInputStream(servicesPath)) {
+			commandClassNames = readServices(inputStream);
+		}
+
+		Properties index = buildIndex(CommandIndex.class.getClassLoader(), commandClassNames);
+
+		Files.createDirectories(indexPath.getParent());
+
+		try (OutputStream outputStream = Files.newOutputStream(indexPath)) {
+			index.store(outputStream, null);
+		}
+	}
+
+	/**
+	 * Returns the class names declared in a <code>META-INF/services</code> file,
+	 * in order and without duplicates.
+	 */
+	public static List<String> readServices(InputStream inputStream) throws IOException {
+		List<String> classNames = new ArrayList<>();
+
+		try (BufferedReader bufferedReader = new BufferedReader(
+				new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+
+			String line;
+
+			while ((line = bufferedReader.readLine()) != null) {
+				int commentIndex = line.indexOf('#');
+
+				if (commentIndex >= 0) {
+					line = line.substring(0, commentIndex);
+				}
+
+				line = line.trim();
+
+				if (!line.isEmpty() && !classNames.contains(line)) {
+					classNames.add(line);
+				}
+			}
+		}
+
+		return classNames;
+	}
+
+	public Collection<String> getCommandNames(String profileName) {
+		Map<String, Entry> entries = _getEntries(profileName);
+
+		return entries.keySet();
+	}
+
+	public Entry getEntry(String profileName, String commandName) {
+		Map<String, Entry> entries = _getEntries(profileName);
+
+		return entries.get(commandName);
+	}
+
+	public boolean isEmpty() {
+		return _entries.isEmpty();
+	}
+
+	public static class Entry {
+
+		public String getArgsClassName() {
+			return _argsClassName;
+		}
+
+		public String getClassName() {
+			return _className;
+		}
+
+		public String[] getCommandNames() {
+			return _commandNames;
+		}
+
+		public Collection<String> getProfileNames() {
+			return _profileNames;
+		}
+
+		/**
+		 * Returns the command ready to be registered, or <code>null</code> if
+		 * the index entry no longer matches the class.
+		 */
+		public BaseCommand<? extends BaseArgs> newCommand(ClassLoader classLoader) throws Exception {
+			BaseCommand<? extends BaseArgs> baseCommand = _baseCommand;
+
+			if (baseCommand == null) {
+				Class<?> commandClass = Class.forName(_className, true, classLoader);
+
+				baseCommand = (BaseCommand<?>)commandClass.newInstance();
+			}
+
+			Class<? extends BaseArgs> argsClass = baseCommand.getArgsClass();
+
+			if (!Objects.equals(argsClass.getName(), _argsClassName)) {
+				return null;
+			}
+
+			baseCommand.setArgs(argsClass.newInstance());
+			baseCommand.setClassLoader(classLoader);
+
+			return baseCommand;
+		}
+
+		private Entry(
+			String className, String argsClassName, String[] commandNames, Collection<String> profileNames,
+			BaseCommand<? extends BaseArgs> baseCommand) {
+
+			_className = className;
+			_argsClassName = argsClassName;
+			_commandNames = commandNames;
+			_profileNames = profileNames;
+			_baseCommand = baseCommand;
+		}
+
+		private String _toIndexValue() {
+			return _argsClassName + ";" + String.join(",", _commandNames) + ";" + String.join(",", _profileNames);
+		}
+
+		private final String _argsClassName;
+		private final BaseCommand<? extends BaseArgs> _baseCommand;
+		private final String _className;
+		private final String[] _commandNames;
+		private final Collection<String> _profileNames;
+
+	}
+
+	private static Entry _createEntry(BaseCommand<? extends BaseArgs> baseCommand) {
+		Class<?> commandClass = baseCommand.getClass();
+
+		Class<? extends BaseArgs> argsClass = baseCommand.getArgsClass();
+
+		Parameters parameters = argsClass.getAnnotation(Parameters.class);
+
+		if (parameters == null) {
+			throw new IllegalArgumentException(
+				"Loaded base command class that does not have a Parameters annotation " + argsClass.getName());
+		}
+
+		Collection<String> profileNames = Stream.of(
+			commandClass.getAnnotationsByType(BladeProfile.class)
+		).map(
+			BladeProfile::value
+		).collect(
+			Collectors.toList()
+		);
+
+		return new Entry(
+			commandClass.getName(), argsClass.getName(), parameters.commandNames(), profileNames, baseCommand);
+	}
+
+	private static Entry _parseEntry(String className, String value) {
+		String[] parts = value.split(";", -1);
+
+		if (parts.length != 3) {
+			return null;
+		}
+
+		Collection<String> profileNames = Collections.emptyList();
+
+		if (!parts[2].isEmpty()) {
+			profileNames = Arrays.asList(parts[2].split(","));
+		}
+
+		return new Entry(className, parts[0], parts[1].split(","), profileNames, null);
+	}
+
+	private CommandIndex(ClassLoader classLoader) {
+		_classLoader = classLoader;
+	}
+
+	private void _addSource(URL servicesUrl) throws IOException {
+		List<String> commandClassNames;
+
+		try (InputStream inputStream = servicesUrl.openStream()) {
+			commandClassNames = readServices(inputStream);
+		}
+
+		commandClassNames.removeIf(_classNames::contains);
+
+		if (commandClassNames.isEmpty()) {
+			return;
+		}
+
+		_classNames.addAll(commandClassNames);
+
+		Properties index = _loadIndex(servicesUrl);
+
+		Set<Object> indexedClassNames = index.keySet();
+
+		if (indexedClassNames.containsAll(commandClassNames)) {
+			for (String commandClassName : commandClassNames) {
+				Entry entry = _parseEntry(commandClassName, index.getProperty(commandClassName));
+
+				if (entry != null) {
+					_entries.add(entry);
+				}
+			}
+
+			return;
+		}
+
+		for (String commandClassName : commandClassNames) {
+			try {
+				Class<?> commandClass = Class.forName(commandClassName, true, _classLoader);
+
+				BaseCommand<?> baseCommand = (BaseCommand<?>)commandClass.newInstance();
+
+				_entries.add(_createEntry(baseCommand));
+			}
+			catch (Throwable throwable) {
+				Class<?> throwableClass = throwable.getClass();
+
+				System.err.println(
+					"Exception thrown while loading extension." + System.lineSeparator() + "Exception: " +
+						throwableClass.getName() + ": " + throwable.getMessage() + System.lineSeparator());
+			}
+		}
+	}
+
+	private Map<String, Entry> _getEntries(String profileName) {
+		return _entriesByProfile.computeIfAbsent(
+			String.valueOf(profileName),
+			key -> {
+				Map<String, Entry> entries = new TreeMap<>();
+
+				if ((profileName != null) && !profileName.isEmpty()) {
+					for (Entry entry : _entries) {
+						if (entry._profileNames.contains(profileName)) {
+							for (String commandName : entry._commandNames) {
+								entries.putIfAbsent(commandName, entry);
+							}
+						}
+					}
+				}
+
+				for (Entry entry : _entries) {
+					if (entry._profileNames.isEmpty()) {
+						for (String commandName : entry._commandNames) {
+							entries.putIfAbsent(commandName, entry);
+						}
+					}
+				}
+
+				return entries;
+			});
+	}
+
+	private Properties _loadIndex(URL servicesUrl) {
+		Properties properties = new Properties();
+
+		String servicesUrlString = servicesUrl.toExternalForm();
+
+		if (!servicesUrlString.endsWith(SERVICES_RESOURCE)) {
+			return properties;
+		}
+
+		String indexUrlString =
+			servicesUrlString.substring(0, servicesUrlString.length() - SERVICES_RESOURCE.length()) + INDEX_RESOURCE;
+
+		try (InputStream inputStream = new URL(servicesUrl, indexUrlString).openStream()) {
+			properties.load(inputStream);
+		}
+		catch (IOException ioException) {
+		}
+
+		return properties;
+	}
+
+	private final Set<String> _classNames = new HashSet<>();
+	private final ClassLoader _classLoader;
+	private final List<Entry> _entries = new ArrayList<>();
+	private final Map<String, Map<String, Entry>> _entriesByProfile = new LinkedHashMap<>();
+
+}
@@ -0,0 +1,671 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli;
+
+import com.liferay.blade.cli.util.FileUtil;
+import com.liferay.blade.cli.util.NestedJar;
+import com.liferay.blade.cli.util.NestedJarClassLoader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Registry of the extension jars available to blade. The service declarations
+ * of every extension are read once into an index that is persisted until the
+ * jar changes, and an extension jar is only opened, in a class loader of its
+ * own, when one of the classes it declares as a service is loaded.
+ *
+ * <p>
+ * Service lookups through {@link #getClassLoader()} are answered from the
+ * index, with <code>blade-extension:</code> URLs. Other classes and resources
+ * are looked up in the extensions whose indexed directories contain them,
+ * opening those extensions on demand.
+ * </p>
+ *
+ * @author Gregory Amerson
+ */
+public class ExtensionRegistry implements Closeable {
+
+	public static final String PROTOCOL = "blade-extension";
+
+	public ExtensionRegistry(Path indexPath, ClassLoader parentClassLoader) {
+		_indexPath = indexPath;
+		_parentClassLoader = parentClassLoader;
+
+		_registryClassLoader = new RegistryClassLoader(this, parentClassLoader);
+	}
+
+	/**
+	 * Adds an extension jar found on disk, replacing any extension with the
+	 * same file name.
+	 */
+	public void addExtension(Path jarPath) {
+		File jarFile = jarPath.toFile();
+
+		String name = String.valueOf(jarPath.getFileName());
+
+		_extensions.put(name, new Extension(name, jarFile.length() + "|" + jarFile.lastModified(), jarPath, null));
+	}
+
+	/**
+	 * Adds an extension jar embedded in another jar, such as blade.jar,
+	 * replacing any extension with the same file name.
+	 */
+	public void addExtension(NestedJar outerJar, String entryName) {
+		_extensions.put(
+			entryName, new Extension(entryName, "embedded|" + outerJar.getLastModified(), null, outerJar));
+	}
+
+	@Override
+	public void close() throws IOException {
+		for (Extension extension : _extensions.values()) {
+			extension._close();
+		}
+	}
+
+	public ClassLoader getClassLoader() {
+		return _registryClassLoader;
+	}
+
+	public Collection<String> getExtensionNames() {
+		return Collections.unmodifiableSet(_extensions.keySet());
+	}
+
+	/**
+	 * Returns the names of the extensions whose jar has been opened to load
+	 * classes.
+	 */
+	public Collection<String> getOpenedExtensionNames() {
+		List<Extension> openedExtensions = _getOpenedExtensions();
+
+		Stream<Extension> stream = openedExtensions.stream();
+
+		return stream.map(
+			extension -> extension._name
+		).collect(
+			Collectors.toList()
+		);
+	}
+
+	private static String _getDirName(String entryName) {
+		int index = entryName.lastIndexOf('/');
+
+		if (index == -1) {
+			return _ROOT_DIR_NAME;
+		}
+
+		return entryName.substring(0, index + 1);
+	}
+
+	private static String _getExtensionName(String key) {
+		return key.substring(0, key.indexOf('|'));
+	}
+
+	private synchronized Properties _getIndex() {
+		if (_index != null) {
+			return _index;
+		}
+
+		Properties storedIndex = new Properties();
+
+		if (Files.exists(_indexPath)) {
+			try (InputStream inputStream = Files.newInputStream(_indexPath)) {
+				storedIndex.load(inputStream);
+			}
+			catch (IOException ioException) {
+				storedIndex.clear();
+			}
+		}
+
+		Set<String> indexedNames = new HashSet<>();
+
+		for (Extension extension : _extensions.values()) {
+			if (Objects.equals(extension._stamp, storedIndex.getProperty(extension._name + _STAMP_SUFFIX)) &&
+				(storedIndex.getProperty(extension._name + _DIRS_SUFFIX) != null)) {
+
+				indexedNames.add(extension._name);
+			}
+		}
+
+		Properties index = new Properties();
+
+		for (String key : storedIndex.stringPropertyNames()) {
+			if (indexedNames.contains(_getExtensionName(key))) {
+				index.setProperty(key, storedIndex.getProperty(key));
+			}
+		}
+
+		for (Extension extension : _extensions.values()) {
+			if (indexedNames.contains(extension._name)) {
+				continue;
+			}
+
+			try {
+				extension._scan(index);
+			}
+			catch (IOException ioException) {
+				System.err.println(
+					"Error encountered while loading custom extensions." + System.lineSeparator() +
+						ioException.getMessage() + System.lineSeparator() + "Not loading extension " +
+							extension._name + "." + System.lineSeparator());
+			}
+		}
+
+		if (!index.equals(storedIndex)) {
+			_storeIndex(index);
+		}
+
+		Map<String, List<Extension>> dirOwners = new HashMap<>();
+
+		for (Extension extension : _extensions.values()) {
+			String dirNames = index.getProperty(extension._name + _DIRS_SUFFIX);
+
+			if ((dirNames == null) || dirNames.isEmpty()) {
+				continue;
+			}
+
+			for (String dirName : dirNames.split(",")) {
+				List<Extension> extensions = dirOwners.computeIfAbsent(dirName, key -> new ArrayList<>());
+
+				extensions.add(extension);
+			}
+		}
+
+		Map<String, Extension> serviceProviders = new HashMap<>();
+
+		for (String key : index.stringPropertyNames()) {
+			if (!key.contains(_SERVICE_INFIX)) {
+				continue;
+			}
+
+			Extension extension = _extensions.get(_getExtensionName(key));
+
+			String value = index.getProperty(key);
+
+			for (String className : value.split(",")) {
+				serviceProviders.putIfAbsent(className, extension);
+			}
+		}
+
+		_dirOwners = dirOwners;
+		_serviceProviders = serviceProviders;
+
+		_index = index;
+
+		return _index;
+	}
+
+	private byte[] _getIndexedResource(String name, String resourceName) throws IOException {
+		Properties index = _getIndex();
+
+		if (resourceName.startsWith(_SERVICES_PREFIX)) {
+			String classNames = index.getProperty(
+				name + _SERVICE_INFIX + resourceName.substring(_SERVICES_PREFIX.length()));
+
+			if (classNames == null) {
+				return null;
+			}
+
+			classNames = classNames.replace(',', '\n');
+
+			return classNames.getBytes(StandardCharsets.UTF_8);
+		}
+
+		if (!Objects.equals(resourceName, CommandIndex.INDEX_RESOURCE)) {
+			return null;
+		}
+
+		Properties commandIndex = new Properties();
+
+		String prefix = name + _COMMAND_INFIX;
+
+		for (String key : index.stringPropertyNames()) {
+			if (key.startsWith(prefix)) {
+				commandIndex.setProperty(key.substring(prefix.length()), index.getProperty(key));
+			}
+		}
+
+		if (commandIndex.isEmpty()) {
+			return null;
+		}
+
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		commandIndex.store(byteArrayOutputStream, null);
+
+		return byteArrayOutputStream.toByteArray();
+	}
+
+	private List<Extension> _getOpenedExtensions() {
+		List<Extension> extensions = new ArrayList<>();
+
+		for (Extension extension : _extensions.values()) {
+			if (extension._classLoader != null) {
+				extensions.add(extension);
+			}
+		}
+
+		return extensions;
+	}
+
+	/**
+	 * Returns the extensions whose index lists the directory of the resource,
+	 * in the order of their names. Class files are resources too.
+	 */
+	private List<Extension> _getOwningExtensions(String resourceName) {
+		_getIndex();
+
+		Map<String, List<Extension>> dirOwners = _dirOwners;
+
+		return dirOwners.getOrDefault(_getDirName(resourceName), Collections.emptyList());
+	}
+
+	private List<URL> _getServiceURLs(String resourceName) {
+		Properties index = _getIndex();
+
+		String serviceName = resourceName.substring(_SERVICES_PREFIX.length());
+
+		List<URL> urls = new ArrayList<>();
+
+		for (String name : _extensions.keySet()) {
+			if (index.getProperty(name + _SERVICE_INFIX + serviceName) == null) {
+				continue;
+			}
+
+			try {
+				urls.add(new URL(PROTOCOL, null, -1, name + _SEPARATOR + resourceName, _urlStreamHandler));
+			}
+			catch (MalformedURLException malformedURLException) {
+			}
+		}
+
+		return urls;
+	}
+
+	private void _storeIndex(Properties index) {
+		try {
+			FileUtil.write(_indexPath, index);
+		}
+		catch (IOException ioException) {
+		}
+	}
+
+	private static final String _COMMAND_INFIX = "|command|";
+
+	private static final String _DIRS_SUFFIX = "|dirs";
+
+	private static final String _ROOT_DIR_NAME = "/";
+
+	private static final String _SEPARATOR = "!/";
+
+	private static final String _SERVICE_INFIX = "|service|";
+
+	private static final String _SERVICES_PREFIX = "META-INF/services/";
+
+	private static final String _STAMP_SUFFIX = "|stamp";
+
+	private volatile Map<String, List<Extension>> _dirOwners;
+	private final Map<String, Extension> _extensions = new TreeMap<>();
+	private Properties _index;
+	private final Path _indexPath;
+	private final ClassLoader _parentClassLoader;
+	private final ClassLoader _registryClassLoader;
+	private volatile Map<String, Extension> _serviceProviders;
+	private final URLStreamHandler _urlStreamHandler = new IndexURLStreamHandler();
+
+	private class Extension {
+
+		private Extension(String name, String stamp, Path jarPath, NestedJar outerJar) {
+			_name = name;
+			_stamp = stamp;
+			_jarPath = jarPath;
+			_outerJar = outerJar;
+		}
+
+		private void _close() throws IOException {
+			if (_classLoader instanceof Closeable) {
+				Closeable closeable = (Closeable)_classLoader;
+
+				closeable.close();
+			}
+
+			if (_nestedJar != null) {
+				_nestedJar.close();
+			}
+		}
+
+		private URL _findResource(String resourceName) {
+			if (_nestedJar != null) {
+				return _nestedJar.getURL(resourceName);
+			}
+
+			URLClassLoader urlClassLoader = (URLClassLoader)_classLoader;
+
+			return urlClassLoader.findResource(resourceName);
+		}
+
+		private synchronized ClassLoader _getClassLoader() throws IOException {
+			if (_classLoader != null) {
+				return _classLoader;
+			}
+
+			if (_jarPath != null) {
+				URI uri = _jarPath.toUri();
+
+				URL url = uri.toURL();
+
+				_classLoader = new URLClassLoader(new URL[] {url}, _parentClassLoader);
+			}
+			else {
+				_classLoader = new NestedJarClassLoader(Collections.singleton(_getNestedJar()), _parentClassLoader);
+			}
+
+			return _classLoader;
+		}
+
+		private synchronized NestedJar _getNestedJar() throws IOException {
+			if (_nestedJar == null) {
+				_nestedJar = _outerJar.getNestedJar(_name);
+
+				if (_nestedJar == null) {
+					throw new FileNotFoundException(_outerJar + _SEPARATOR + _name);
+				}
+			}
+
+			return _nestedJar;
+		}
+
+		private boolean _isIndexed(String entryName) {
+			if (Objects.equals(entryName, CommandIndex.INDEX_RESOURCE)) {
+				return true;
+			}
+
+			if (entryName.startsWith(_SERVICES_PREFIX) && (entryName.indexOf('/', _SERVICES_PREFIX.length()) == -1)) {
+				return true;
+			}
+
+			return false;
+		}
+
+		/**
+		 * Returns the contents of the indexed resources of the jar, and adds
+		 * the directories of all its entries to the directory names.
+		 */
+		private Map<String, byte[]> _readIndexedResources(Set<String> dirNames) throws IOException {
+			Map<String, byte[]> resources = new TreeMap<>();
+
+			if (_jarPath == null) {
+				NestedJar nestedJar = _getNestedJar();
+
+				for (String entryName : nestedJar.getEntryNames()) {
+					if (entryName.endsWith("/")) {
+						continue;
+					}
+
+					dirNames.add(_getDirName(entryName));
+
+					if (_isIndexed(entryName)) {
+						resources.put(entryName, nestedJar.getBytes(entryName));
+					}
+				}
+
+				return resources;
+			}
+
+			try (ZipFile zipFile = new ZipFile(_jarPath.toFile())) {
+				Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+				while (entries.hasMoreElements()) {
+					ZipEntry zipEntry = entries.nextElement();
+
+					if (zipEntry.isDirectory()) {
+						continue;
+					}
+
+					dirNames.add(_getDirName(zipEntry.getName()));
+
+					if (!_isIndexed(zipEntry.getName())) {
+						continue;
+					}
+
+					ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+					try (InputStream inputStream = zipFile.getInputStream(zipEntry)) {
+						StringConverter.readInputStreamToOutputStream(inputStream, byteArrayOutputStream);
+					}
+
+					resources.put(zipEntry.getName(), byteArrayOutputStream.toByteArray());
+				}
+			}
+
+			return resources;
+		}
+
+		private void _scan(Properties index) throws IOException {
+			Set<String> dirNames = new TreeSet<>();
+
+			for (Map.Entry<String, byte[]> entry : _readIndexedResources(dirNames).entrySet()) {
+				String entryName = entry.getKey();
+
+				InputStream inputStream = new ByteArrayInputStream(entry.getValue());
+
+				if (Objects.equals(entryName, CommandIndex.INDEX_RESOURCE)) {
+					Properties commandIndex = new Properties();
+
+					commandIndex.load(inputStream);
+
+					for (String className : commandIndex.stringPropertyNames()) {
+						index.setProperty(_name + _COMMAND_INFIX + className, commandIndex.getProperty(className));
+					}
+
+					continue;
+				}
+
+				List<String> classNames = CommandIndex.readServices(inputStream);
+
+				if (!classNames.isEmpty()) {
+					index.setProperty(
+						_name + _SERVICE_INFIX + entryName.substring(_SERVICES_PREFIX.length()),
+						String.join(",", classNames));
+				}
+			}
+
+			index.setProperty(_name + _DIRS_SUFFIX, String.join(",", dirNames));
+			index.setProperty(_name + _STAMP_SUFFIX, _stamp);
+		}
+
+		private volatile ClassLoader _classLoader;
+		private final Path _jarPath;
+		private final String _name;
+		private NestedJar _nestedJar;
+		private final NestedJar _outerJar;
+		private final String _stamp;
+
+	}
+
+	private static class IndexURLConnection extends URLConnection {
+
+		@Override
+		public void connect() {
+			connected = true;
+		}
+
+		@Override
+		public long getContentLengthLong() {
+			return _bytes.length;
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return new ByteArrayInputStream(_bytes);
+		}
+
+		private IndexURLConnection(URL url, byte[] bytes) {
+			super(url);
+
+			_bytes = bytes;
+		}
+
+		private final byte[] _bytes;
+
+	}
+
+	private class IndexURLStreamHandler extends URLStreamHandler {
+
+		@Override
+		protected URLConnection openConnection(URL url) throws IOException {
+			String file = url.getFile();
+
+			int index = file.indexOf(_SEPARATOR);
+
+			if (index == -1) {
+				throw new FileNotFoundException(String.valueOf(url));
+			}
+
+			byte[] bytes = _getIndexedResource(file.substring(0, index), file.substring(index + _SEPARATOR.length()));
+
+			if (bytes == null) {
+				throw new FileNotFoundException(String.valueOf(url));
+			}
+
+			return new IndexURLConnection(url, bytes);
+		}
+
+	}
+
+	private static class RegistryClassLoader extends ClassLoader {
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			_extensionRegistry._getIndex();
+
+			Map<String, Extension> serviceProviders = _extensionRegistry._serviceProviders;
+
+			Extension extension = serviceProviders.get(name);
+
+			if (extension != null) {
+				try {
+					ClassLoader classLoader = extension._getClassLoader();
+
+					return classLoader.loadClass(name);
+				}
+				catch (IOException ioException) {
+					throw new ClassNotFoundException(name, ioException);
+				}
+			}
+
+			String resourceName = name.replace('.', '/') + ".class";
+
+			for (Extension owningExtension : _extensionRegistry._getOwningExtensions(resourceName)) {
+				try {
+					ClassLoader classLoader = owningExtension._getClassLoader();
+
+					return classLoader.loadClass(name);
+				}
+				catch (ClassNotFoundException | IOException exception) {
+				}
+			}
+
+			throw new ClassNotFoundException(name);
+		}
+
+		@Override
+		protected URL findResource(String name) {
+			Enumeration<URL> urls = findResources(name);
+
+			if (urls.hasMoreElements()) {
+				return urls.nextElement();
+			}
+
+			return null;
+		}
+
+		@Override
+		protected Enumeration<URL> findResources(String name) {
+			if (name.startsWith(_SERVICES_PREFIX)) {
+				return Collections.enumeration(_extensionRegistry._getServiceURLs(name));
+			}
+
+			List<URL> urls = new ArrayList<>();
+
+			for (Extension extension : _extensionRegistry._getOwningExtensions(name)) {
+				try {
+					extension._getClassLoader();
+				}
+				catch (IOException ioException) {
+					continue;
+				}
+
+				URL url = extension._findResource(name);
+
+				if (url != null) {
+					urls.add(url);
+				}
+			}
+
+			return Collections.enumeration(urls);
+		}
+
+		private RegistryClassLoader(ExtensionRegistry extensionRegistry, ClassLoader parentClassLoader) {
+			super(parentClassLoader);
+
+			_extensionRegistry = extensionRegistry;
+		}
+
+		static {
+			ClassLoader.registerAsParallelCapable();
+		}
+
+		private final ExtensionRegistry _extensionRegistry;
+
+	}
+
+}
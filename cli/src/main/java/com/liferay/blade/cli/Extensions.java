@@ -21,28 +21,37 @@ import com.beust.jcommander.Parameters;
 
 import com.liferay.blade.cli.command.BaseArgs;
 import com.liferay.blade.cli.command.BaseCommand;
+import com.liferay.blade.cli.command.VersionCommand;
+import com.liferay.blade.cli.util.BladeUtil;
 import com.liferay.blade.cli.util.FileUtil;
-import com.liferay.blade.cli.util.ProcessesUtil;
+import com.liferay.project.templates.extensions.util.ProjectTemplatesUtil;
 
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 
 import java.lang.reflect.Field;
 
+import java.net.URL;
+import java.net.URLConnection;
+
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
-import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -54,6 +63,10 @@ public class Extensions implements Closeable {
 
 	public static final String TEMP_EXTENSIONS_PREFIX = "blade-extensions-";
 
+	/**
+	 * Prefix of the temporary template directories of older blade versions,
+	 * which are still removed when orphaned.
+	 */
 	public static final String TEMP_TEMPLATES_PREFIX = "blade-templates-";
 
 	public static Collection<String> getCommandNames(Collection<Class<? extends BaseArgs>> argsClass) {
@@ -74,34 +87,11 @@ public class Extensions implements Closeable {
 		);
 	}
 
-	public static String[] sortArgs(Map<String, BaseCommand<? extends BaseArgs>> commands, String[] args)
-		throws Exception {
-
+	public static String[] sortArgs(Collection<String> commandNames, String[] args) throws Exception {
 		List<String> argsList = new ArrayList<>(Arrays.asList(args));
 
 		Collection<String> addLast = new ArrayList<>();
 
-		Collection<BaseArgs> argList = new HashSet<>();
-
-		Collection<BaseCommand<? extends BaseArgs>> values = commands.values();
-
-		Stream<BaseCommand<? extends BaseArgs>> valuesStream = values.stream();
-
-		valuesStream.map(
-			command -> command.getArgs()
-		).forEach(
-			argList::add
-		);
-
-		Stream<BaseArgs> argStream = argList.stream();
-
-		Collection<String> commandNames = getCommandNames(
-			argStream.map(
-				BaseArgs::getClass
-			).collect(
-				Collectors.toSet()
-			));
-
 		Stream<String> commandNamesStream = commandNames.stream();
 
 		Collection<String> spaceCommandCollection = commandNamesStream.filter(
@@ -203,19 +193,61 @@ public class Extensions implements Closeable {
 		return argsList.toArray(new String[0]);
 	}
 
+	public static String[] sortArgs(Map<String, BaseCommand<? extends BaseArgs>> commands, String[] args)
+		throws Exception {
+
+		Collection<BaseArgs> argList = new HashSet<>();
+
+		Collection<BaseCommand<? extends BaseArgs>> values = commands.values();
+
+		Stream<BaseCommand<? extends BaseArgs>> valuesStream = values.stream();
+
+		valuesStream.map(
+			command -> command.getArgs()
+		).forEach(
+			argList::add
+		);
+
+		Stream<BaseArgs> argStream = argList.stream();
+
+		Collection<String> commandNames = getCommandNames(
+			argStream.map(
+				BaseArgs::getClass
+			).collect(
+				Collectors.toSet()
+			));
+
+		return sortArgs(commandNames, args);
+	}
+
 	public Extensions(ClassLoader classLoader) {
 		_serviceLoaderClassLoader = classLoader;
 	}
 
 	@Override
 	public void close() throws IOException {
-		if ((_embeddedTemplatesPath != null) && Files.exists(_embeddedTemplatesPath)) {
-			try {
-				FileUtil.deleteDirIfExists(_embeddedTemplatesPath);
-			}
-			catch (Exception exception) {
+	}
+
+	/**
+	 * Returns the names of the commands available for the profile, read from
+	 * the command index so that no command has to be instantiated.
+	 */
+	public Collection<String> getCommandNames(String profileName) throws Exception {
+		if (profileName == null) {
+			profileName = "gradle";
+		}
+
+		if (_commands == null) {
+			CommandIndex commandIndex = _getCommandIndex();
+
+			if (!commandIndex.isEmpty()) {
+				return commandIndex.getCommandNames(profileName);
 			}
 		}
+
+		Map<String, BaseCommand<? extends BaseArgs>> commands = _getCommands(profileName);
+
+		return commands.keySet();
 	}
 
 	public Map<String, BaseCommand<? extends BaseArgs>> getCommands() throws Exception {
@@ -230,66 +262,166 @@ public class Extensions implements Closeable {
 		return _getCommands(profileName);
 	}
 
-	public Path getTemplatesPath() throws IOException {
-		if (_embeddedTemplatesPath == null) {
-			long pid = ProcessesUtil.getCurrentProcessId();
+	/**
+	 * Returns only the command invoked by the (sorted) arguments when it can be
+	 * resolved through the command index, or every command of the profile
+	 * otherwise.
+	 */
+	public Map<String, BaseCommand<? extends BaseArgs>> getCommands(String profileName, String[] args)
+		throws Exception {
 
-			_embeddedTemplatesPath = Files.createTempDirectory(TEMP_TEMPLATES_PREFIX + pid + "-");
+		if (profileName == null) {
+			profileName = "gradle";
+		}
 
-			try (InputStream inputStream = Extensions.class.getResourceAsStream(
-					"/blade-extensions-versions.properties")) {
+		if ((_commands == null) && (args.length > 0)) {
+			CommandIndex commandIndex = _getCommandIndex();
 
-				if (inputStream != null) {
-					Properties properties = new Properties();
+			CommandIndex.Entry entry = commandIndex.getEntry(profileName, args[0]);
 
-					properties.load(inputStream);
+			if (entry != null) {
+				BaseCommand<? extends BaseArgs> baseCommand = entry.newCommand(_serviceLoaderClassLoader);
 
-					Set<String> templates = new HashSet<>();
-					ClassLoader classLoader = Extensions.class.getClassLoader();
+				if (baseCommand != null) {
+					return Collections.singletonMap(args[0], baseCommand);
+				}
+			}
+		}
 
-					for (Object key : properties.keySet()) {
-						String jarResource = key.toString() + "-" + properties.getProperty(key.toString()) + ".jar";
+		return _getCommands(profileName);
+	}
 
-						if (jarResource.startsWith("com.liferay.project.templates") &&
-							(classLoader.getResource(jarResource) != null)) {
+	/**
+	 * Returns the names of the project templates embedded in blade, without
+	 * extracting them.
+	 */
+	public Collection<String> getEmbeddedTemplateNames() {
+		Map<String, String> embeddedTemplates = _getEmbeddedTemplates();
 
-							templates.add(jarResource);
-						}
-					}
+		return embeddedTemplates.keySet();
+	}
 
-					for (String template : templates) {
-						try (InputStream extensionInputStream = classLoader.getResourceAsStream(template)) {
-							Path extensionPath = _embeddedTemplatesPath.resolve(template);
+	/**
+	 * Returns the directory of the project templates embedded in blade,
+	 * extracting the templates that are not there yet. The directory is kept in
+	 * the blade cache, so a template is extracted once per blade version.
+	 */
+	public Path getTemplatesPath() throws IOException {
+		return getTemplatesPath(null);
+	}
 
-							Files.copy(extensionInputStream, extensionPath, StandardCopyOption.REPLACE_EXISTING);
-						}
-						catch (Throwable th) {
-							StringBuilder sb = new StringBuilder();
+	/**
+	 * Returns the same directory as {@link #getTemplatesPath()}, only
+	 * extracting the embedded template with the given name, if any.
+	 */
+	public Path getTemplatesPath(String templateName) throws IOException {
+		Path templatesPath = _getTemplatesPath();
+
+		Map<String, String> embeddedTemplates = _getEmbeddedTemplates();
 
-							sb.append("Error encountered while loading embedded custom template.");
-							sb.append(System.lineSeparator());
-							sb.append(th.getMessage());
-							sb.append(System.lineSeparator());
-							sb.append("Not loading template " + template + ".");
-							sb.append(System.lineSeparator());
+		for (Map.Entry<String, String> entry : embeddedTemplates.entrySet()) {
+			if ((templateName != null) && !Objects.equals(templateName, entry.getKey())) {
+				continue;
+			}
 
-							String errorString = sb.toString();
+			String jarResource = entry.getValue();
 
-							System.err.println(errorString);
-						}
-					}
-				}
+			try {
+				_extractTemplate(templatesPath, jarResource);
 			}
 			catch (Throwable th) {
-				String errorMessage = "Error encountered while loading custom extensions." + System.lineSeparator();
+				StringBuilder sb = new StringBuilder();
+
+				sb.append("Error encountered while loading embedded custom template.");
+				sb.append(System.lineSeparator());
+				sb.append(th.getMessage());
+				sb.append(System.lineSeparator());
+				sb.append("Not loading template " + jarResource + ".");
+				sb.append(System.lineSeparator());
+
+				String errorString = sb.toString();
+
+				System.err.println(errorString);
+			}
+		}
+
+		return templatesPath;
+	}
+
+	private static void _extractTemplate(Path templatesPath, String jarResource) throws IOException {
+		ClassLoader classLoader = Extensions.class.getClassLoader();
+
+		URL url = classLoader.getResource(jarResource);
+
+		URLConnection urlConnection = url.openConnection();
+
+		urlConnection.setUseCaches(false);
+
+		Path templatePath = templatesPath.resolve(jarResource);
+
+		if (Files.exists(templatePath) && (Files.size(templatePath) == urlConnection.getContentLengthLong())) {
+			return;
+		}
+
+		Path tempPath = Files.createTempFile(templatesPath, jarResource, ".tmp");
+
+		try {
+			try (InputStream inputStream = urlConnection.getInputStream()) {
+				Files.copy(inputStream, tempPath, StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			Files.move(tempPath, templatePath, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (IOException ioException) {
+
+			// In use by another blade process (Windows)
+
+			if (Files.notExists(templatePath)) {
+				throw ioException;
+			}
+		}
+		finally {
+			Files.deleteIfExists(tempPath);
+		}
+	}
+
+	/**
+	 * Returns the jar resources of the embedded project templates keyed by
+	 * template name.
+	 */
+	private static Map<String, String> _getEmbeddedTemplates() {
+		Map<String, String> embeddedTemplates = new TreeMap<>();
+
+		try (InputStream inputStream = Extensions.class.getResourceAsStream("/blade-extensions-versions.properties")) {
+			if (inputStream == null) {
+				return embeddedTemplates;
+			}
+
+			Properties properties = new Properties();
+
+			properties.load(inputStream);
+
+			ClassLoader classLoader = Extensions.class.getClassLoader();
+
+			for (String name : properties.stringPropertyNames()) {
+				String jarResource = name + "-" + properties.getProperty(name) + ".jar";
 
-				System.err.println(errorMessage);
+				if (name.startsWith("com.liferay.project.templates") &&
+					(classLoader.getResource(jarResource) != null)) {
 
-				System.err.println(th.getMessage());
+					embeddedTemplates.put(ProjectTemplatesUtil.getTemplateName(jarResource), jarResource);
+				}
 			}
 		}
+		catch (Throwable th) {
+			String errorMessage = "Error encountered while loading custom extensions." + System.lineSeparator();
+
+			System.err.println(errorMessage);
 
-		return _embeddedTemplatesPath;
+			System.err.println(th.getMessage());
+		}
+
+		return embeddedTemplates;
 	}
 
 	private static Collection<String> _getFlags(Class<? extends BaseArgs> clazz, boolean withArguments) {
@@ -318,6 +450,14 @@ public class Extensions implements Closeable {
 		return flags;
 	}
 
+	private CommandIndex _getCommandIndex() {
+		if (_commandIndex == null) {
+			_commandIndex = CommandIndex.load(_serviceLoaderClassLoader);
+		}
+
+		return _commandIndex;
+	}
+
 	private Map<String, BaseCommand<? extends BaseArgs>> _getCommands(String profileName) throws Exception {
 		if (_commands == null) {
 			ClassLoader serviceLoaderClassLoader = _serviceLoaderClassLoader;
@@ -328,8 +468,63 @@ public class Extensions implements Closeable {
 		return _commands;
 	}
 
+	private Path _getTemplatesPath() throws IOException {
+		if (_templatesPath != null) {
+			return _templatesPath;
+		}
+
+		String bladeVersion = null;
+
+		try {
+			bladeVersion = VersionCommand.getBladeCLIVersion();
+		}
+		catch (IOException ioException) {
+		}
+
+		if (BladeUtil.isEmpty(bladeVersion)) {
+			bladeVersion = "unknown";
+		}
+
+		Path bladeCachePath = BladeUtil.getBladeCachePath();
+
+		Path templatesPath = bladeCachePath.resolve("templates");
+
+		_templatesPath = templatesPath.resolve(bladeVersion.replaceAll("[^A-Za-z0-9._-]", "_"));
+
+		Files.createDirectories(_templatesPath);
+
+		Files.setLastModifiedTime(_templatesPath, FileTime.fromMillis(System.currentTimeMillis()));
+
+		long staleMillis = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(_STALE_TEMPLATES_DAYS);
+
+		try (Stream<Path> versionPaths = Files.list(templatesPath)) {
+			versionPaths.filter(
+				path -> !Objects.equals(path, _templatesPath)
+			).filter(
+				path -> {
+					File file = path.toFile();
+
+					return file.lastModified() < staleMillis;
+				}
+			).forEach(
+				path -> {
+					try {
+						FileUtil.deleteDirIfExists(path);
+					}
+					catch (IOException ioException) {
+					}
+				}
+			);
+		}
+
+		return _templatesPath;
+	}
+
+	private static final long _STALE_TEMPLATES_DAYS = 30;
+
+	private CommandIndex _commandIndex;
 	private Map<String, BaseCommand<? extends BaseArgs>> _commands;
-	private Path _embeddedTemplatesPath = null;
 	private ClassLoader _serviceLoaderClassLoader = null;
+	private Path _templatesPath;
 
 }
\ No newline at end of file
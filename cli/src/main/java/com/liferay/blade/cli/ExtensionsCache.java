@@ -0,0 +1,363 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli;
+
+import com.liferay.blade.cli.util.FileUtil;
+import com.liferay.blade.cli.util.StringUtil;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Persistent, content addressed store of extension jars. Jars are materialized
+ * once under <code>&lt;cache&gt;/&lt;blade version&gt;/&lt;sha-1&gt;/</code>,
+ * marked read-only and shared by every blade process of the same version.
+ *
+ * @author Gregory Amerson
+ */
+public class ExtensionsCache {
+
+	public ExtensionsCache(Path cachePath, String bladeVersion) {
+		_cachePath = cachePath;
+
+		if ((bladeVersion == null) || bladeVersion.isEmpty()) {
+			bladeVersion = "unknown";
+		}
+
+		_versionPath = cachePath.resolve(bladeVersion.replaceAll("[^A-Za-z0-9._-]", "_"));
+	}
+
+	/**
+	 * Removes every entry of this blade version that was not resolved during
+	 * this run nor by any other blade process for 7 days, and every other blade
+	 * version that has not been used for 30 days. Entries resolved recently are
+	 * kept, as watch and daemon processes of the same version may still load
+	 * them.
+	 */
+	public synchronized void evictUnreferenced() {
+		long unusedMillis = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(_UNUSED_ENTRY_DAYS);
+
+		try (Stream<Path> entries = Files.list(_versionPath)) {
+			entries.filter(
+				Files::isDirectory
+			).filter(
+				path -> !_referencedHashes.contains(String.valueOf(path.getFileName()))
+			).filter(
+				path -> {
+					File file = path.toFile();
+
+					return file.lastModified() < unusedMillis;
+				}
+			).forEach(
+				ExtensionsCache::_deleteQuietly
+			);
+		}
+		catch (IOException ioException) {
+		}
+
+		_loadIndex();
+
+		Set<Object> keys = _index.keySet();
+
+		if (keys.removeIf(key -> !Files.isDirectory(_versionPath.resolve(_index.getProperty((String)key))))) {
+			_indexChanged = true;
+		}
+
+		_storeIndex();
+
+		long staleMillis = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(_STALE_VERSION_DAYS);
+
+		try (Stream<Path> versions = Files.list(_cachePath)) {
+			versions.filter(
+				path -> !Objects.equals(path, _versionPath)
+			).filter(
+				Files::isDirectory
+			).filter(
+				path -> {
+					File file = path.toFile();
+
+					return file.lastModified() < staleMillis;
+				}
+			).forEach(
+				ExtensionsCache::_deleteQuietly
+			);
+		}
+		catch (IOException ioException) {
+		}
+	}
+
+	public Path getVersionPath() {
+		return _versionPath;
+	}
+
+	/**
+	 * Returns the cached, read-only copy of an extension jar found on disk. The
+	 * jar is only read when its size or modification time changed since the
+	 * last run.
+	 */
+	public Path materialize(Path jarPath) throws IOException {
+		File jarFile = jarPath.toFile();
+
+		String key = jarPath.toAbsolutePath() + "|" + jarFile.length() + "|" + jarFile.lastModified();
+
+		return _materialize(key, String.valueOf(jarPath.getFileName()), () -> Files.newInputStream(jarPath));
+	}
+
+	/**
+	 * Returns the cached, read-only copy of an extension jar embedded in
+	 * blade.jar (or any other classpath resource).
+	 */
+	public Path materialize(URL resourceUrl, String fileName) throws IOException {
+		URLConnection urlConnection = resourceUrl.openConnection();
+
+		urlConnection.setUseCaches(false);
+
+		String key;
+
+		if (urlConnection instanceof JarURLConnection) {
+			JarURLConnection jarURLConnection = (JarURLConnection)urlConnection;
+
+			try (JarFile jarFile = jarURLConnection.getJarFile()) {
+				JarEntry jarEntry = jarFile.getJarEntry(jarURLConnection.getEntryName());
+
+				if (jarEntry == null) {
+					throw new FileNotFoundException(String.valueOf(resourceUrl));
+				}
+
+				key =
+					"embedded:" + fileName + "|" + jarEntry.getSize() + "|" + jarEntry.getCrc() + "|" +
+						jarEntry.getTime();
+			}
+		}
+		else {
+			try (InputStream inputStream = urlConnection.getInputStream()) {
+				key =
+					"embedded:" + fileName + "|" + urlConnection.getContentLengthLong() + "|" +
+						urlConnection.getLastModified();
+			}
+		}
+
+		return _materialize(
+			key, fileName,
+			() -> {
+				URLConnection streamUrlConnection = resourceUrl.openConnection();
+
+				streamUrlConnection.setUseCaches(false);
+
+				return streamUrlConnection.getInputStream();
+			});
+	}
+
+	private static void _deleteQuietly(Path path) {
+		try {
+			try (Stream<Path> files = Files.walk(path)) {
+				files.map(
+					Path::toFile
+				).forEach(
+					file -> file.setWritable(true)
+				);
+			}
+
+			FileUtil.deleteDirIfExists(path);
+		}
+		catch (IOException ioException) {
+
+			// In use by another process (Windows), try again next run
+
+		}
+	}
+
+	private static void _touch(Path path) {
+		try {
+			Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+		}
+		catch (IOException ioException) {
+		}
+	}
+
+	private Path _copyAndHash(InputStreamSupplier inputStreamSupplier, String fileName) throws IOException {
+		Path tempPath = Files.createTempFile(_versionPath, fileName, ".tmp");
+
+		try {
+			MessageDigest messageDigest = StringUtil.getSha1MessageDigest();
+
+			try (InputStream inputStream = new DigestInputStream(inputStreamSupplier.get(), messageDigest);
+				OutputStream outputStream = Files.newOutputStream(tempPath)) {
+
+				byte[] buffer = new byte[65536];
+
+				int count;
+
+				while ((count = inputStream.read(buffer)) != -1) {
+					outputStream.write(buffer, 0, count);
+				}
+			}
+
+			String hash = StringUtil.toHex(messageDigest.digest());
+
+			Path entryPath = _versionPath.resolve(hash);
+
+			Files.createDirectories(entryPath);
+
+			Path jarPath = entryPath.resolve(fileName);
+
+			if (Files.exists(jarPath)) {
+				return jarPath;
+			}
+
+			try {
+				Files.move(tempPath, jarPath, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+				Files.move(tempPath, jarPath);
+			}
+			catch (FileAlreadyExistsException fileAlreadyExistsException) {
+
+				// Materialized concurrently by another blade process
+
+			}
+
+			File jarFile = jarPath.toFile();
+
+			jarFile.setReadOnly();
+
+			return jarPath;
+		}
+		finally {
+			Files.deleteIfExists(tempPath);
+		}
+	}
+
+	private void _loadIndex() {
+		if (_indexLoaded) {
+			return;
+		}
+
+		_indexLoaded = true;
+
+		Path indexPath = _versionPath.resolve(_INDEX_FILE_NAME);
+
+		if (Files.exists(indexPath)) {
+			try (InputStream inputStream = Files.newInputStream(indexPath)) {
+				_index.load(inputStream);
+			}
+			catch (IOException ioException) {
+				_index.clear();
+			}
+		}
+	}
+
+	private synchronized Path _materialize(String key, String fileName, InputStreamSupplier inputStreamSupplier)
+		throws IOException {
+
+		Files.createDirectories(_versionPath);
+
+		_loadIndex();
+
+		String hash = _index.getProperty(key);
+
+		if (hash != null) {
+			Path jarPath = _versionPath.resolve(hash + File.separator + fileName);
+
+			if (Files.exists(jarPath)) {
+				_touch(jarPath.getParent());
+
+				_referencedHashes.add(hash);
+
+				return jarPath;
+			}
+		}
+
+		Path jarPath = _copyAndHash(inputStreamSupplier, fileName);
+
+		Path hashPath = jarPath.getParent();
+
+		_touch(hashPath);
+
+		hash = String.valueOf(hashPath.getFileName());
+
+		_index.setProperty(key, hash);
+
+		_referencedHashes.add(hash);
+
+		_indexChanged = true;
+
+		return jarPath;
+	}
+
+	private void _storeIndex() {
+		try {
+			Files.setLastModifiedTime(_versionPath, FileTime.fromMillis(System.currentTimeMillis()));
+
+			if (!_indexChanged) {
+				return;
+			}
+
+			FileUtil.write(_versionPath.resolve(_INDEX_FILE_NAME), _index);
+
+			_indexChanged = false;
+		}
+		catch (IOException ioException) {
+		}
+	}
+
+	private static final String _INDEX_FILE_NAME = "index.properties";
+
+	private static final int _STALE_VERSION_DAYS = 30;
+
+	private static final int _UNUSED_ENTRY_DAYS = 7;
+
+	private final Path _cachePath;
+	private final Properties _index = new Properties();
+	private boolean _indexChanged;
+	private boolean _indexLoaded;
+	private final Set<String> _referencedHashes = new HashSet<>();
+	private final Path _versionPath;
+
+	private interface InputStreamSupplier {
+
+		public InputStream get() throws IOException;
+
+	}
+
+}
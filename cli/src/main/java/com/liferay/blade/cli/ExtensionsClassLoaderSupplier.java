@@ -16,23 +16,19 @@
 
 package com.liferay.blade.cli;
 
-import com.liferay.blade.cli.util.CombinedClassLoader;
-import com.liferay.blade.cli.util.FileUtil;
-import com.liferay.blade.cli.util.ProcessesUtil;
+import com.liferay.blade.cli.command.VersionCommand;
+import com.liferay.blade.cli.util.BladeUtil;
+import com.liferay.blade.cli.util.ExecutorUtil;
+import com.liferay.blade.cli.util.NestedJar;
 
-import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 
-import java.net.MalformedURLException;
-import java.net.URI;
-import java.net.URL;
-import java.net.URLClassLoader;
-
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.NoSuchElementException;
 import java.util.Properties;
@@ -47,67 +43,72 @@ import java.util.stream.Stream;
 public class ExtensionsClassLoaderSupplier implements AutoCloseable, Supplier<ClassLoader> {
 
 	public ExtensionsClassLoaderSupplier(Path extensionsPath) {
+		this(extensionsPath, _getDefaultCachePath(extensionsPath));
+	}
+
+	public ExtensionsClassLoaderSupplier(Path extensionsPath, Path cachePath) {
 		_extensionsPath = extensionsPath;
+		_cachePath = cachePath;
 	}
 
 	@Override
 	public void close() throws Exception {
-		if ((_serviceLoaderClassLoader != null) && (_serviceLoaderClassLoader instanceof Closeable)) {
-			Closeable closeable = (Closeable)_serviceLoaderClassLoader;
-
-			closeable.close();
+		if (_extensionRegistry != null) {
+			_extensionRegistry.close();
 		}
 
-		if ((_tempExtensionsDirectory != null) && Files.exists(_tempExtensionsDirectory)) {
-			try {
-				FileUtil.deleteDirIfExists(_tempExtensionsDirectory);
-			}
-			catch (IOException ioException) {
-			}
+		if (_bladeJar != null) {
+			_bladeJar.close();
 		}
 	}
 
 	@Override
 	public ClassLoader get() {
 		try {
-			if (_serviceLoaderClassLoader == null) {
-				long pid = ProcessesUtil.getCurrentProcessId();
-
-				_tempExtensionsDirectory = Files.createTempDirectory("blade-extensions-" + pid + "-");
+			if (_extensionRegistry == null) {
+				ExtensionsCache extensionsCache = new ExtensionsCache(_cachePath, _getBladeVersion());
 
-				FileUtil.copyDir(_extensionsPath, _tempExtensionsDirectory);
+				Path versionPath = extensionsCache.getVersionPath();
 
-				_extractBladeExtensions(_tempExtensionsDirectory);
+				ExtensionRegistry extensionRegistry = new ExtensionRegistry(
+					versionPath.resolve(_SERVICES_INDEX_FILE_NAME), getClass().getClassLoader());
 
-				URL[] jarUrls = _getJarUrls(_tempExtensionsDirectory);
-
-				Thread thread = Thread.currentThread();
+				for (Path jarPath : _getInstalledExtensions(extensionsCache)) {
+					extensionRegistry.addExtension(jarPath);
+				}
 
-				ClassLoader currentClassLoader = thread.getContextClassLoader();
+				_addBladeExtensions(extensionsCache, extensionRegistry);
 
-				ClassLoader urlClassLoader = new URLClassLoader(jarUrls, getClass().getClassLoader());
+				ExecutorUtil.execute("blade-extensions-evict", extensionsCache::evictUnreferenced);
 
-				_serviceLoaderClassLoader = new CombinedClassLoader(currentClassLoader, urlClassLoader);
+				_extensionRegistry = extensionRegistry;
 			}
 
-			return _serviceLoaderClassLoader;
+			return _extensionRegistry.getClassLoader();
 		}
 		catch (Throwable throwable) {
 			throw new RuntimeException(throwable);
 		}
 	}
 
-	private static URL _convertUriToUrl(URI uri) {
+	private static String _getBladeVersion() {
 		try {
-			return uri.toURL();
+			return VersionCommand.getBladeCLIVersion();
 		}
-		catch (MalformedURLException malformedURLException) {
+		catch (IOException ioException) {
+			return null;
 		}
+	}
+
+	private static Path _getDefaultCachePath(Path extensionsPath) {
+		Path userBladePath = extensionsPath.getParent();
 
-		return null;
+		return userBladePath.resolve("cache/extensions");
 	}
 
-	private void _extractBladeExtensions(Path extensionsDirectory) throws IOException {
+	private void _addBladeExtensions(ExtensionsCache extensionsCache, ExtensionRegistry extensionRegistry)
+		throws IOException {
+
 		try (InputStream inputStream = Extensions.class.getResourceAsStream("/blade-extensions-versions.properties")) {
 			if (inputStream == null) {
 				return;
@@ -137,11 +138,17 @@ public class ExtensionsClassLoaderSupplier implements AutoCloseable, Supplier<Cl
 					}
 				}
 
-				for (String extension : extensions) {
-					try (InputStream extensionInputStream = classLoader.getResourceAsStream(extension)) {
-						Path extensionPath = extensionsDirectory.resolve(extension);
+				NestedJar bladeJar = _getBladeJar();
 
-						Files.copy(extensionInputStream, extensionPath, StandardCopyOption.REPLACE_EXISTING);
+				for (String extension : extensions) {
+					try {
+						if ((bladeJar != null) && bladeJar.hasEntry(extension)) {
+							extensionRegistry.addExtension(bladeJar, extension);
+						}
+						else {
+							extensionRegistry.addExtension(
+								extensionsCache.materialize(classLoader.getResource(extension), extension));
+						}
 					}
 					catch (Throwable throwable) {
 						StringBuilder sb = new StringBuilder();
@@ -181,30 +188,67 @@ public class ExtensionsClassLoaderSupplier implements AutoCloseable, Supplier<Cl
 		}
 	}
 
-	private URL[] _getJarUrls(Path jarsPath) throws IOException {
-		try (Stream<Path> files = Files.list(jarsPath)) {
-			return files.filter(
+	/**
+	 * Returns blade.jar when blade runs from it, so the embedded extensions can
+	 * be read in place instead of being copied to the extensions cache.
+	 */
+	private NestedJar _getBladeJar() {
+		if (_bladeJar != null) {
+			return _bladeJar;
+		}
+
+		try {
+			Path bladeJarPath = BladeUtil.getBladeJarPath();
+
+			if (Files.isRegularFile(bladeJarPath)) {
+				_bladeJar = NestedJar.open(bladeJarPath);
+			}
+		}
+		catch (Exception exception) {
+		}
+
+		return _bladeJar;
+	}
+
+	private Collection<Path> _getInstalledExtensions(ExtensionsCache extensionsCache) throws IOException {
+		Collection<Path> jarPaths = new ArrayList<>();
+
+		if (Files.notExists(_extensionsPath)) {
+			return jarPaths;
+		}
+
+		try (Stream<Path> files = Files.list(_extensionsPath)) {
+			Collection<Path> extensionPaths = files.filter(
 				path -> {
 					String file = path.toString();
 
-					return file.endsWith(".jar");
+					return file.endsWith(".jar") && Files.isRegularFile(path);
 				}
-			).map(
-				Path::toUri
-			).map(
-				ExtensionsClassLoaderSupplier::_convertUriToUrl
-			).filter(
-				url -> url != null
 			).collect(
-				Collectors.toSet()
-			).toArray(
-				new URL[0]
+				Collectors.toList()
 			);
+
+			for (Path extensionPath : extensionPaths) {
+				try {
+					jarPaths.add(extensionsCache.materialize(extensionPath));
+				}
+				catch (IOException ioException) {
+					System.err.println(
+						"Error encountered while loading custom extensions." + System.lineSeparator() +
+							ioException.getMessage() + System.lineSeparator() + "Not loading extension " +
+								extensionPath.getFileName() + "." + System.lineSeparator());
+				}
+			}
 		}
+
+		return jarPaths;
 	}
 
+	private static final String _SERVICES_INDEX_FILE_NAME = "services.properties";
+
+	private NestedJar _bladeJar;
+	private final Path _cachePath;
+	private ExtensionRegistry _extensionRegistry;
 	private final Path _extensionsPath;
-	private ClassLoader _serviceLoaderClassLoader = null;
-	private Path _tempExtensionsDirectory;
 
 }
\ No newline at end of file
@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.blade.cli;
+
+import java.io.PrintStream;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each phase of a blade invocation takes, enabled through the
+ * global <code>--timings</code> option. <code>--timings=json</code> prints the
+ * same data as JSON so builds can track startup regressions.
+ *
+ * @author Gregory Amerson
+ */
+public class Timings {
+
+	public static final String OPTION = "--timings";
+
+	public static final String OPTION_JSON = OPTION + "=json";
+
+	public static Timings disabled() {
+		return new Timings(false, false);
+	}
+
+	public static Timings of(String[] args) {
+		for (String arg : args) {
+			if (OPTION.equals(arg)) {
+				return new Timings(true, false);
+			}
+			else if (OPTION_JSON.equals(arg)) {
+				return new Timings(true, true);
+			}
+		}
+
+		return disabled();
+	}
+
+	/**
+	 * Returns the arguments without the <code>--timings</code> options, which
+	 * are handled before the arguments are parsed.
+	 */
+	public static String[] removeOptions(String[] args) {
+		int count = 0;
+
+		for (String arg : args) {
+			if (!OPTION.equals(arg) && !OPTION_JSON.equals(arg)) {
+				count++;
+			}
+		}
+
+		if (count == args.length) {
+			return args;
+		}
+
+		String[] remainingArgs = new String[count];
+
+		int i = 0;
+
+		for (String arg : args) {
+			if (!OPTION.equals(arg) && !OPTION_JSON.equals(arg)) {
+				remainingArgs[i++] = arg;
+			}
+		}
+
+		return remainingArgs;
+	}
+
+	public boolean isEnabled() {
+		return _enabled;
+	}
+
+	public boolean isJson() {
+		return _json;
+	}
+
+	public void print(PrintStream printStream, String command) {
+		if (!_enabled) {
+			return;
+		}
+
+		long total = System.nanoTime() - _start;
+
+		if (_json) {
+			printStream.println(toJson(command, total));
+		}
+		else {
+			printStream.println(toTable(total));
+		}
+	}
+
+	/**
+	 * Adds the time elapsed since <code>start</code> to the phase. Phases that
+	 * run more than once, such as parsing after prompting for a missing
+	 * parameter, accumulate.
+	 *
+	 * @param start the value returned by {@link #start()}
+	 */
+	public void record(String phase, long start) {
+		if (!_enabled) {
+			return;
+		}
+
+		_phases.merge(phase, System.nanoTime() - start, Long::sum);
+	}
+
+	public long start() {
+		if (!_enabled) {
+			return 0;
+		}
+
+		return System.nanoTime();
+	}
+
+	public String toJson(String command, long total) {
+		StringBuilder sb = new StringBuilder();
+
+		sb.append("{\"command\":");
+
+		if (command == null) {
+			sb.append("null");
+		}
+		else {
+			sb.append('"');
+			sb.append(_escape(command));
+			sb.append('"');
+		}
+
+		sb.append(",\"jvmUptimeMillis\":");
+		sb.append(_jvmUptime);
+		sb.append(",\"phases\":[");
+
+		boolean first = true;
+
+		for (Map.Entry<String, Long> entry : _phases.entrySet()) {
+			if (!first) {
+				sb.append(',');
+			}
+
+			first = false;
+
+			sb.append("{\"name\":\"");
+			sb.append(_escape(entry.getKey()));
+			sb.append("\",\"nanos\":");
+			sb.append(entry.getValue());
+			sb.append('}');
+		}
+
+		sb.append("],\"totalNanos\":");
+		sb.append(total);
+		sb.append('}');
+
+		return sb.toString();
+	}
+
+	public String toTable(long total) {
+		StringBuilder sb = new StringBuilder();
+
+		sb.append(String.format("%-40s %10s%n", "Phase", "Time (ms)"));
+		sb.append(String.format("%-40s %10d%n", "JVM startup (uptime at run)", _jvmUptime));
+
+		for (Map.Entry<String, Long> entry : _phases.entrySet()) {
+			sb.append(String.format("%-40s %10.1f%n", entry.getKey(), _toMillis(entry.getValue())));
+		}
+
+		sb.append(String.format("%-40s %10.1f", "Total", _toMillis(total)));
+
+		return sb.toString();
+	}
+
+	private static String _escape(String s) {
+		StringBuilder sb = new StringBuilder(s.length());
+
+		for (char c : s.toCharArray()) {
+			if ((c == '"') || (c == '\\')) {
+				sb.append('\\');
+				sb.append(c);
+			}
+			else if (c < 0x20) {
+				sb.append(String.format("\\u%04x", (int)c));
+			}
+			else {
+				sb.append(c);
+			}
+		}
+
+		return sb.toString();
+	}
+
+	private static double _toMillis(long nanos) {
+		return nanos / (double)TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	private Timings(boolean enabled, boolean json) {
+		_enabled = enabled;
+		_json = json;
+
+		if (enabled) {
+			RuntimeMXBean runtimeMXBean = ManagementFactory.getRuntimeMXBean();
+
+			_jvmUptime = runtimeMXBean.getUptime();
+		}
+		else {
+			_jvmUptime = 0;
+		}
+
+		_start = System.nanoTime();
+	}
+
+	private final boolean _enabled;
+	private final boolean _json;
+	private final long _jvmUptime;
+	private final Map<String, Long> _phases = new LinkedHashMap<>();
+	private final long _start;
+
+}
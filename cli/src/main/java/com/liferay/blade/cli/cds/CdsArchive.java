@@ -0,0 +1,378 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.cds;
+
+import com.liferay.blade.cli.command.VersionCommand;
+import com.liferay.blade.cli.util.FileUtil;
+import com.liferay.blade.cli.util.StringUtil;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Application class data sharing (AppCDS) archive of the classes blade loads
+ * for its common commands. The archive is keyed by the blade version, the JVM
+ * and the installed extensions, and is kept under
+ * <code>~/.blade/cache/cds</code> together with a <code>blade.jvmoptions</code>
+ * argument file that launchers can pass to the JVM.
+ *
+ * @author Gregory Amerson
+ */
+public class CdsArchive {
+
+	public static final String JVM_OPTIONS_FILE_NAME = "blade.jvmoptions";
+
+	/**
+	 * Regenerates the archive. Started in the background by blade when the
+	 * archive no longer matches the blade version or the installed extensions.
+	 *
+	 * @param args the blade cache directory and the extensions directory
+	 */
+	public static void main(String[] args) throws Exception {
+		CdsArchive cdsArchive = new CdsArchive(Paths.get(args[0]), Paths.get(args[1]));
+
+		cdsArchive.generate();
+	}
+
+	/**
+	 * Returns <code>true</code> if the running JVM can create dynamic CDS
+	 * archives (Java 13 or newer) and blade runs from jar files, as CDS does not
+	 * support directories in the class path.
+	 */
+	public static boolean isSupported() {
+		String specificationVersion = System.getProperty("java.specification.version");
+
+		if ((specificationVersion == null) || specificationVersion.startsWith("1.")) {
+			return false;
+		}
+
+		try {
+			if (Integer.parseInt(specificationVersion) < 13) {
+				return false;
+			}
+		}
+		catch (NumberFormatException numberFormatException) {
+			return false;
+		}
+
+		return Stream.of(
+			_getClassPath().split(File.pathSeparator)
+		).map(
+			Paths::get
+		).allMatch(
+			Files::isRegularFile
+		);
+	}
+
+	public CdsArchive(Path cachePath, Path extensionsPath) {
+		_cdsPath = cachePath.resolve("cds");
+		_extensionsPath = extensionsPath;
+	}
+
+	public void delete() throws IOException {
+		FileUtil.deleteDirIfExists(_cdsPath);
+	}
+
+	/**
+	 * Creates the archive with a training run of representative commands in a
+	 * separate JVM, and points the JVM options file to it.
+	 */
+	public Path generate() throws Exception {
+		Files.createDirectories(_cdsPath);
+
+		try (FileChannel fileChannel = FileChannel.open(
+				_cdsPath.resolve(".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			FileLock fileLock = fileChannel.lock()) {
+
+			Path archivePath = getArchivePath();
+
+			if (Files.exists(archivePath)) {
+				_writeJvmOptions(archivePath);
+
+				return archivePath;
+			}
+
+			Path keyPath = archivePath.getParent();
+
+			Files.createDirectories(keyPath);
+
+			Path trainingPath = Files.createTempDirectory("blade-cds-");
+
+			try {
+				Path tempArchivePath = keyPath.resolve("blade.jsa.tmp");
+
+				Files.deleteIfExists(tempArchivePath);
+
+				List<String> command = new ArrayList<>();
+
+				command.add(getJavaExecutable());
+				command.add("-XX:ArchiveClassesAtExit=" + tempArchivePath);
+				command.add("-Dblade.daemon=false");
+				command.add("-Duser.home=" + System.getProperty("user.home"));
+				command.add("-cp");
+				command.add(_getClassPath());
+				command.add(CdsTraining.class.getName());
+				command.add(trainingPath.toString());
+
+				ProcessBuilder processBuilder = new ProcessBuilder(command);
+
+				processBuilder.redirectErrorStream(true);
+				processBuilder.redirectOutput(ProcessBuilder.Redirect.to(_cdsPath.resolve("training.log").toFile()));
+
+				Process process = processBuilder.start();
+
+				if (!process.waitFor(_TRAINING_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+					process.destroyForcibly();
+
+					throw new IOException(
+						"CDS training run did not finish in " + _TRAINING_TIMEOUT_MINUTES + " minutes");
+				}
+
+				if (Files.notExists(tempArchivePath)) {
+					throw new IOException(
+						"CDS training run did not create an archive, see " + _cdsPath.resolve("training.log"));
+				}
+
+				Files.move(tempArchivePath, archivePath, StandardCopyOption.REPLACE_EXISTING);
+			}
+			finally {
+				FileUtil.deleteDirIfExists(trainingPath);
+			}
+
+			_writeJvmOptions(archivePath);
+
+			_deleteOtherArchives(keyPath);
+
+			return archivePath;
+		}
+	}
+
+	/**
+	 * Regenerates the archive in a detached JVM, so the current command is not
+	 * delayed by the training run. Does nothing if a regeneration of the same
+	 * archive was started less than an hour ago, so commands run while the
+	 * training runs, or after it failed, do not start more of them.
+	 */
+	public void generateInBackground() throws IOException {
+		Files.createDirectories(_cdsPath);
+
+		String key = _getKey();
+
+		Path attemptPath = _cdsPath.resolve(_ATTEMPT_FILE_NAME);
+
+		if (_isRecentAttempt(attemptPath, key)) {
+			return;
+		}
+
+		Files.write(attemptPath, key.getBytes(StandardCharsets.UTF_8));
+
+		List<String> command = new ArrayList<>();
+
+		command.add(getJavaExecutable());
+		command.add("-Dblade.daemon=false");
+		command.add("-cp");
+		command.add(_getClassPath());
+		command.add(CdsArchive.class.getName());
+		command.add(String.valueOf(_cdsPath.getParent()));
+		command.add(String.valueOf(_extensionsPath));
+
+		ProcessBuilder processBuilder = new ProcessBuilder(command);
+
+		processBuilder.redirectErrorStream(true);
+		processBuilder.redirectOutput(ProcessBuilder.Redirect.to(_cdsPath.resolve("generate.log").toFile()));
+
+		processBuilder.start();
+	}
+
+	/**
+	 * Returns the archive matching the current blade version, JVM and
+	 * extensions. The archive may not exist yet.
+	 */
+	public Path getArchivePath() throws IOException {
+		return _cdsPath.resolve(_getKey() + File.separator + "blade.jsa");
+	}
+
+	public String getJavaExecutable() {
+		String javaExecutable = "java";
+
+		if (File.separatorChar == '\\') {
+			javaExecutable = "java.exe";
+		}
+
+		Path javaPath = Paths.get(System.getProperty("java.home"), "bin", javaExecutable);
+
+		return javaPath.toString();
+	}
+
+	/**
+	 * Returns the JVM options that make a blade JVM use the archive, or an empty
+	 * list if there is no up to date archive for the running JVM.
+	 */
+	public List<String> getJvmOptions() {
+		if (!isSupported()) {
+			return Collections.emptyList();
+		}
+
+		try {
+			Path archivePath = getArchivePath();
+
+			if (Files.exists(archivePath)) {
+				return Arrays.asList("-XX:SharedArchiveFile=" + archivePath, "-Xshare:auto");
+			}
+		}
+		catch (IOException ioException) {
+		}
+
+		return Collections.emptyList();
+	}
+
+	public Path getJvmOptionsPath() {
+		return _cdsPath.resolve(JVM_OPTIONS_FILE_NAME);
+	}
+
+	/**
+	 * Returns <code>true</code> if an archive was generated before but does not
+	 * match the current blade version, JVM or extensions anymore.
+	 */
+	public boolean isStale() {
+		if (Files.notExists(getJvmOptionsPath()) || !isSupported()) {
+			return false;
+		}
+
+		try {
+			return Files.notExists(getArchivePath());
+		}
+		catch (IOException ioException) {
+			return false;
+		}
+	}
+
+	private static String _getClassPath() {
+		return System.getProperty("java.class.path");
+	}
+
+	private static boolean _isRecentAttempt(Path attemptPath, String key) {
+		try {
+			FileTime lastModifiedTime = Files.getLastModifiedTime(attemptPath);
+
+			if ((System.currentTimeMillis() - lastModifiedTime.toMillis()) >= _ATTEMPT_INTERVAL_MILLIS) {
+				return false;
+			}
+
+			byte[] bytes = Files.readAllBytes(attemptPath);
+
+			return key.equals(new String(bytes, StandardCharsets.UTF_8));
+		}
+		catch (IOException ioException) {
+			return false;
+		}
+	}
+
+	private void _deleteOtherArchives(Path keyPath) throws IOException {
+		try (Stream<Path> paths = Files.list(_cdsPath)) {
+			paths.filter(
+				Files::isDirectory
+			).filter(
+				path -> !Objects.equals(path, keyPath)
+			).forEach(
+				path -> {
+					try {
+						FileUtil.deleteDirIfExists(path);
+					}
+					catch (IOException ioException) {
+					}
+				}
+			);
+		}
+	}
+
+	private String _getKey() throws IOException {
+		StringBuilder sb = new StringBuilder();
+
+		sb.append(VersionCommand.getBladeCLIVersion());
+		sb.append('\n');
+		sb.append(System.getProperty("java.home"));
+		sb.append('\n');
+		sb.append(System.getProperty("java.vm.version"));
+		sb.append('\n');
+		sb.append(_getClassPath());
+		sb.append('\n');
+
+		if (Files.isDirectory(_extensionsPath)) {
+			try (Stream<Path> paths = Files.list(_extensionsPath)) {
+				paths.filter(
+					Files::isRegularFile
+				).map(
+					Path::toFile
+				).map(
+					file -> file.getName() + "|" + file.length() + "|" + file.lastModified()
+				).sorted(
+				).forEach(
+					extension -> sb.append(
+						extension
+					).append(
+						'\n'
+					)
+				);
+			}
+		}
+
+		String hash = StringUtil.getSha1(sb.toString());
+
+		return hash.substring(0, 16);
+	}
+
+	private void _writeJvmOptions(Path archivePath) throws IOException {
+		String archive = String.valueOf(archivePath);
+
+		// Backslashes are escape characters in JVM argument files
+
+		String jvmOptions =
+			"-XX:SharedArchiveFile=\"" + archive.replace('\\', '/') + "\"" + System.lineSeparator() +
+				"-Xshare:auto" + System.lineSeparator();
+
+		FileUtil.write(getJvmOptionsPath(), jvmOptions.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static final String _ATTEMPT_FILE_NAME = "generate.attempt";
+
+	private static final long _ATTEMPT_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+	private static final long _TRAINING_TIMEOUT_MINUTES = 10;
+
+	private final Path _cdsPath;
+	private final Path _extensionsPath;
+
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.cds;
+
+import com.liferay.blade.cli.BladeCLI;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.PrintStream;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Training run for {@link CdsArchive}. Runs representative blade commands in a
+ * single JVM so that the classes they load end up in the archive. The training
+ * never touches the network: the stub workspace has a Gradle wrapper that
+ * exits immediately.
+ *
+ * @author Gregory Amerson
+ */
+public class CdsTraining {
+
+	public static void main(String[] args) throws Exception {
+		Path trainingPath = Paths.get(args[0]);
+
+		Path workspacePath = _createStubWorkspace(trainingPath.resolve("workspace"));
+
+		String workspace = workspacePath.toString();
+
+		List<String[]> commands = new ArrayList<>();
+
+		commands.add(new String[] {"--help"});
+		commands.add(new String[] {"version"});
+		commands.add(new String[] {"help", "create"});
+		commands.add(new String[] {"--base", workspace, "create", "-t", "mvc-portlet", "-v", "7.4", "cds-training"});
+		commands.add(new String[] {"--base", workspace, "deploy"});
+
+		PrintStream out = System.out;
+
+		for (String[] command : commands) {
+			BladeCLI bladeCLI = new BladeCLI(out, out, new ByteArrayInputStream(new byte[0])) {
+
+				@Override
+				public void postRunCommand() {
+				}
+
+			};
+
+			try {
+				bladeCLI.run(command);
+			}
+			catch (Throwable throwable) {
+				throwable.printStackTrace(out);
+			}
+		}
+
+		System.exit(0);
+	}
+
+	private static Path _createStubWorkspace(Path workspacePath) throws Exception {
+		Files.createDirectories(workspacePath.resolve("modules"));
+
+		_write(workspacePath.resolve("settings.gradle"), "apply plugin: \"com.liferay.workspace\"\n");
+		_write(workspacePath.resolve("gradle.properties"), "liferay.workspace.product=portal-7.4-ga4\n");
+
+		Path gradlewPath = _write(workspacePath.resolve("gradlew"), "#!/bin/sh\nexit 0\n");
+
+		File gradlewFile = gradlewPath.toFile();
+
+		gradlewFile.setExecutable(true);
+
+		_write(workspacePath.resolve("gradlew.bat"), "@exit /b 0\r\n");
+
+		return workspacePath;
+	}
+
+	private static Path _write(Path path, String content) throws Exception {
+		return Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
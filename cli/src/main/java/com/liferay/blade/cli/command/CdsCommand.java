@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.blade.cli.command;
+
+import com.liferay.blade.cli.BladeCLI;
+import com.liferay.blade.cli.cds.CdsArchive;
+import com.liferay.blade.cli.util.BladeUtil;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Gregory Amerson
+ */
+public class CdsCommand extends BaseCommand<CdsArgs> {
+
+	public CdsCommand() {
+	}
+
+	@Override
+	public void execute() throws Exception {
+		BladeCLI bladeCLI = getBladeCLI();
+		CdsArgs cdsArgs = getArgs();
+
+		CdsArchive cdsArchive = new CdsArchive(BladeUtil.getBladeCachePath(), bladeCLI.getExtensionsPath());
+
+		if (cdsArgs.isDelete()) {
+			cdsArchive.delete();
+
+			bladeCLI.out("Deleted AppCDS archives.");
+
+			return;
+		}
+
+		if (!CdsArchive.isSupported()) {
+			bladeCLI.error("AppCDS archives require blade to run from blade.jar on Java 13 or newer.");
+
+			return;
+		}
+
+		bladeCLI.out("Measuring startup without an AppCDS archive...");
+
+		long before = _measureStartup(cdsArchive, Collections.emptyList());
+
+		bladeCLI.out("Running training commands...");
+
+		Path archivePath = cdsArchive.generate();
+
+		long after = _measureStartup(cdsArchive, cdsArchive.getJvmOptions());
+
+		bladeCLI.out("Created AppCDS archive " + archivePath);
+		bladeCLI.out("");
+		bladeCLI.out(String.format("Startup of \"blade version\" (median of %d runs):", _MEASURE_RUNS));
+		bladeCLI.out(String.format("  without AppCDS archive: %5d ms", before));
+		bladeCLI.out(String.format("  with AppCDS archive:    %5d ms", after));
+		bladeCLI.out("");
+		bladeCLI.out("The blade daemon uses the archive automatically. Other launchers can use it with:");
+		bladeCLI.out("  JDK_JAVA_OPTIONS=@" + cdsArchive.getJvmOptionsPath());
+		bladeCLI.out("The archive is regenerated in the background when blade or its extensions change.");
+	}
+
+	@Override
+	public Class<CdsArgs> getArgsClass() {
+		return CdsArgs.class;
+	}
+
+	private long _measureStartup(CdsArchive cdsArchive, List<String> jvmOptions) throws Exception {
+		List<String> command = new ArrayList<>();
+
+		command.add(cdsArchive.getJavaExecutable());
+		command.addAll(jvmOptions);
+		command.add("-Dblade.daemon=false");
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(BladeCLI.class.getName());
+		command.addAll(Arrays.asList("version", "--quiet"));
+
+		ProcessBuilder processBuilder = new ProcessBuilder(command);
+
+		File nullFile = new File(BladeUtil.isWindows() ? "NUL" : "/dev/null");
+
+		processBuilder.redirectErrorStream(true);
+		processBuilder.redirectOutput(ProcessBuilder.Redirect.to(nullFile));
+
+		long[] durations = new long[_MEASURE_RUNS];
+
+		for (int i = 0; i < _MEASURE_RUNS; i++) {
+			long start = System.nanoTime();
+
+			Process process = processBuilder.start();
+
+			if (!process.waitFor(1, TimeUnit.MINUTES)) {
+				process.destroyForcibly();
+
+				throw new IOException("Timed out measuring blade startup");
+			}
+
+			durations[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		}
+
+		Arrays.sort(durations);
+
+		return durations[_MEASURE_RUNS / 2];
+	}
+
+	private static final int _MEASURE_RUNS = 5;
+
+}
@@ -25,6 +25,7 @@ import com.liferay.blade.cli.WorkspaceConstants;
 import com.liferay.blade.cli.WorkspaceProvider;
 import com.liferay.blade.cli.gradle.GradleWorkspaceProvider;
 import com.liferay.blade.cli.util.BladeUtil;
+import com.liferay.blade.cli.util.TemplateCatalog;
 import com.liferay.project.templates.ProjectTemplates;
 import com.liferay.project.templates.extensions.ProjectTemplatesArgs;
 import com.liferay.project.templates.extensions.ProjectTemplatesArgsExt;
@@ -44,7 +45,6 @@ import java.nio.file.Path;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -315,7 +315,7 @@ public class CreateCommand extends BaseCommand<CreateArgs> {
 
 		Extensions extensions = bladeCLI.getExtensions();
 
-		Path extensionsTemplatesPath = extensions.getTemplatesPath();
+		Path extensionsTemplatesPath = extensions.getTemplatesPath(template);
 
 		List<File> archetypesDirs = new ArrayList<>();
 
@@ -555,9 +555,11 @@ public class CreateCommand extends BaseCommand<CreateArgs> {
 	}
 
 	private boolean _isExistingTemplate(String templateName) throws Exception {
-		Collection<String> templateNames = BladeUtil.getTemplateNames(getBladeCLI());
+		BladeCLI bladeCLI = getBladeCLI();
+
+		TemplateCatalog templateCatalog = bladeCLI.getTemplateCatalog();
 
-		return templateNames.contains(templateName);
+		return templateCatalog.hasTemplate(templateName);
 	}
 
 	private boolean _isWorkspaceDir(File dir) {
@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+
+/**
+ * @author Gregory Amerson
+ */
+@Parameters(
+	commandDescription = "Manage the blade daemon used when BLADE_DAEMON=true (or -Dblade.daemon=true) is set",
+	commandNames = "daemon"
+)
+public class DaemonArgs extends BaseArgs {
+
+	public boolean isStart() {
+		return _start;
+	}
+
+	public boolean isStatus() {
+		return _status;
+	}
+
+	public boolean isStop() {
+		return _stop;
+	}
+
+	public void setStart(boolean start) {
+		_start = start;
+	}
+
+	public void setStatus(boolean status) {
+		_status = status;
+	}
+
+	public void setStop(boolean stop) {
+		_stop = stop;
+	}
+
+	@Parameter(description = "Start the blade daemon if it is not running.", names = "--start")
+	private boolean _start;
+
+	@Parameter(description = "Show the status of the blade daemon.", names = "--status")
+	private boolean _status;
+
+	@Parameter(description = "Stop the blade daemon.", names = "--stop")
+	private boolean _stop;
+
+}
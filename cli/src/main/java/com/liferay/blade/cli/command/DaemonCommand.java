@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import com.liferay.blade.cli.BladeCLI;
+import com.liferay.blade.cli.daemon.DaemonClient;
+
+import java.util.Properties;
+
+/**
+ * @author Gregory Amerson
+ */
+public class DaemonCommand extends BaseCommand<DaemonArgs> {
+
+	public DaemonCommand() {
+	}
+
+	@Override
+	public void execute() throws Exception {
+		BladeCLI bladeCLI = getBladeCLI();
+		DaemonArgs daemonArgs = getArgs();
+
+		if (daemonArgs.isStop()) {
+			String message = DaemonClient.stop();
+
+			if (message == null) {
+				bladeCLI.out(_NOT_RUNNING_MESSAGE);
+			}
+			else {
+				bladeCLI.out(message);
+			}
+		}
+		else if (daemonArgs.isStart()) {
+			Properties info = DaemonClient.start();
+
+			if (info == null) {
+				bladeCLI.error("Unable to start the blade daemon.");
+			}
+			else {
+				bladeCLI.out(DaemonClient.getStatus());
+			}
+		}
+		else {
+			String status = DaemonClient.getStatus();
+
+			if (status == null) {
+				bladeCLI.out(_NOT_RUNNING_MESSAGE);
+			}
+			else {
+				bladeCLI.out(status);
+			}
+		}
+	}
+
+	@Override
+	public Class<DaemonArgs> getArgsClass() {
+		return DaemonArgs.class;
+	}
+
+	private static final String _NOT_RUNNING_MESSAGE = "Blade daemon is not running.";
+
+}
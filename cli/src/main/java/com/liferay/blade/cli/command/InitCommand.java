@@ -24,6 +24,7 @@ import com.liferay.blade.cli.WorkspaceProvider;
 import com.liferay.blade.cli.gradle.GradleExec;
 import com.liferay.blade.cli.util.BladeUtil;
 import com.liferay.blade.cli.util.ProductInfo;
+import com.liferay.blade.cli.util.WorkspaceCache;
 import com.liferay.project.templates.ProjectTemplates;
 import com.liferay.project.templates.extensions.ProjectTemplatesArgs;
 import com.liferay.project.templates.extensions.util.FileUtil;
@@ -58,7 +59,6 @@ public class InitCommand extends BaseCommand<InitArgs> {
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public void execute() throws Exception {
 		BladeCLI bladeCLI = getBladeCLI();
 
@@ -234,18 +234,15 @@ public class InitCommand extends BaseCommand<InitArgs> {
 				return;
 			}
 
-			Map<String, Object> productInfos = BladeUtil.getProductInfos(initArgs.isTrace(), bladeCLI.error());
+			ProductInfo productInfo = BladeUtil.getProductInfo(
+				workspaceProductKey, initArgs.isTrace(), bladeCLI.error());
 
-			Object productInfoObject = productInfos.get(workspaceProductKey);
-
-			if (productInfoObject == null) {
+			if (productInfo == null) {
 				_addError("Unable to get product info for selected version " + workspaceProductKey);
 
 				return;
 			}
 
-			ProductInfo productInfo = new ProductInfo((Map<String, String>)productInfoObject);
-
 			Version targetPlatformVersion = _makeCompatibleVersion(productInfo.getTargetPlatformVersion());
 
 			liferayVersion = new String(
@@ -284,6 +281,8 @@ public class InitCommand extends BaseCommand<InitArgs> {
 
 		new ProjectTemplates(projectTemplatesArgs);
 
+		WorkspaceCache.clear();
+
 		if (mavenBuild) {
 			FileUtil.deleteFiles(destDir.toPath(), "gradle.properties", "gradle-local.properties");
 		}
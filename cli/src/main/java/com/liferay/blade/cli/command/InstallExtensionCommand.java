@@ -17,6 +17,7 @@
 package com.liferay.blade.cli.command;
 
 import com.liferay.blade.cli.BladeCLI;
+import com.liferay.blade.cli.CommandIndex;
 import com.liferay.blade.cli.gradle.GradleExec;
 import com.liferay.blade.cli.gradle.GradleTooling;
 import com.liferay.blade.cli.gradle.ProcessResult;
@@ -37,7 +38,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -336,9 +336,7 @@ public class InstallExtensionCommand extends BaseCommand<InstallExtensionArgs> {
 				}
 			}
 
-			Files.copy(
-				extensionPath, extensionInstallPath, StandardCopyOption.REPLACE_EXISTING,
-				StandardCopyOption.COPY_ATTRIBUTES);
+			CommandIndex.copyWithIndex(extensionPath, extensionInstallPath);
 
 			BaseArgs baseArgs = bladeCLI.getArgs();
 
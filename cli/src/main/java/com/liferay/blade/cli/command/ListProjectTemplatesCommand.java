@@ -17,14 +17,12 @@
 package com.liferay.blade.cli.command;
 
 import com.liferay.blade.cli.BladeCLI;
-import com.liferay.blade.cli.util.BladeUtil;
+import com.liferay.blade.cli.util.TemplateCatalog;
 
 import java.io.PrintStream;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.Comparator;
-import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
@@ -48,11 +46,11 @@ public class ListProjectTemplatesCommand extends BaseCommand<ListProjectTemplate
 	private void _printTemplates() throws Exception {
 		BladeCLI bladeCLI = getBladeCLI();
 
-		Map<String, String> templates = BladeUtil.getTemplates(bladeCLI);
+		TemplateCatalog templateCatalog = bladeCLI.getTemplateCatalog();
 
-		List<String> templateNames = new ArrayList<>(BladeUtil.getTemplateNames(getBladeCLI()));
+		Map<String, String> templates = templateCatalog.getTemplates();
 
-		Collections.sort(templateNames);
+		Collection<String> templateNames = templateCatalog.getNames();
 
 		Comparator<String> compareLength = Comparator.comparingInt(String::length);
 
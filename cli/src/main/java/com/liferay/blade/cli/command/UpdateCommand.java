@@ -21,6 +21,7 @@ import aQute.bnd.version.Version;
 import com.liferay.blade.cli.BladeCLI;
 import com.liferay.blade.cli.util.BladeUtil;
 import com.liferay.blade.cli.util.BladeVersions;
+import com.liferay.blade.cli.util.MetadataCache;
 
 import java.io.File;
 import java.io.IOException;
@@ -48,7 +49,6 @@ import java.util.Scanner;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.jsoup.Connection;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -67,6 +67,49 @@ public class UpdateCommand extends BaseCommand<UpdateArgs> {
 		setBlade(bladeCLI);
 	}
 
+	/**
+	 * Determines the release and snapshot versions blade can be updated to,
+	 * without printing anything. The versions are available through
+	 * {@link #getReleaseUpdateVersion()} and
+	 * {@link #getSnapshotUpdateVersion()} afterwards.
+	 */
+	public void checkForUpdates() {
+		UpdateArgs updateArgs = getArgs();
+
+		if (_hasUpdateUrlFromBladeDir()) {
+			try {
+				updateArgs.setUrl(new URL(_getUpdateUrlFromBladeDir()));
+			}
+			catch (MalformedURLException malformedURLException) {
+				throw new RuntimeException(malformedURLException);
+			}
+		}
+
+		String updateUrl = null;
+
+		if (updateArgs.getUrl() != null) {
+			updateUrl = String.valueOf(updateArgs.getUrl());
+		}
+
+		BladeVersions versions = _getVersions();
+
+		String currentVersion = versions.getCurrentVersion();
+
+		currentVersion = currentVersion.toUpperCase();
+
+		Optional<String> updateReleaseVersion = versions.getReleasedUpdateVersion();
+
+		if (_shouldUpdate(currentVersion, updateReleaseVersion, updateUrl, true)) {
+			_releaseUpdateVersion = updateReleaseVersion;
+		}
+
+		Optional<String> updateSnapshotVersion = versions.getSnapshotUpdateVersion();
+
+		if (_shouldUpdate(currentVersion, updateSnapshotVersion, updateUrl, false)) {
+			_snapshotUpdateVersion = updateSnapshotVersion;
+		}
+	}
+
 	@Override
 	public void execute() {
 		UpdateArgs updateArgs = getArgs();
@@ -354,6 +397,14 @@ public class UpdateCommand extends BaseCommand<UpdateArgs> {
 		}
 	}
 
+	private static Document _getMetadataDocument(String url) throws IOException {
+		Path bladeCachePath = BladeUtil.getBladeCachePath();
+
+		MetadataCache metadataCache = new MetadataCache(bladeCachePath.resolve("metadata"));
+
+		return Jsoup.parse(metadataCache.get(url), url, Parser.xmlParser());
+	}
+
 	private static String _getUpdateJarMD5Url(UpdateArgs updateArgs) throws IOException {
 		String url = null;
 
@@ -380,11 +431,7 @@ public class UpdateCommand extends BaseCommand<UpdateArgs> {
 			}
 		}
 
-		Connection connection = Jsoup.connect(url + "maven-metadata.xml");
-
-		connection = connection.parser(Parser.xmlParser());
-
-		Document document = connection.get();
+		Document document = _getMetadataDocument(url + "maven-metadata.xml");
 
 		Elements versionElements = document.select("version");
 
@@ -416,9 +463,7 @@ public class UpdateCommand extends BaseCommand<UpdateArgs> {
 		String version = lastVersionElement.text();
 
 		if (Objects.equals(url, _SNAPSHOTS_REPO_URL) || snapshots) {
-			connection.url(url + "/" + version + "/maven-metadata.xml");
-
-			document = connection.get();
+			document = _getMetadataDocument(url + "/" + version + "/maven-metadata.xml");
 
 			Elements valueElements = document.select("snapshotVersion > value");
 
@@ -526,11 +571,7 @@ public class UpdateCommand extends BaseCommand<UpdateArgs> {
 			}
 		}
 
-		Connection connection = Jsoup.connect(url + "maven-metadata.xml");
-
-		connection = connection.parser(Parser.xmlParser());
-
-		Document document = connection.get();
+		Document document = _getMetadataDocument(url + "maven-metadata.xml");
 
 		Elements versionElements = document.select("version");
 
@@ -566,9 +607,7 @@ public class UpdateCommand extends BaseCommand<UpdateArgs> {
 		String version = lastVersion.text();
 
 		if (Objects.equals(url, _SNAPSHOTS_REPO_URL) || snapshots) {
-			connection.url(url + "/" + version + "/maven-metadata.xml");
-
-			document = connection.get();
+			document = _getMetadataDocument(url + "/" + version + "/maven-metadata.xml");
 
 			Elements valueElements = document.select("snapshotVersion > value");
 
@@ -623,11 +662,7 @@ public class UpdateCommand extends BaseCommand<UpdateArgs> {
 		}
 
 		try {
-			Connection connection = Jsoup.connect(url + "maven-metadata.xml");
-
-			connection = connection.parser(Parser.xmlParser());
-
-			Document document = connection.get();
+			Document document = _getMetadataDocument(url + "maven-metadata.xml");
 
 			Elements versionElements = document.select("version");
 
@@ -660,9 +695,7 @@ public class UpdateCommand extends BaseCommand<UpdateArgs> {
 
 			if (snapshotsArg) {
 				if (lastVersion != null) {
-					connection.url(url + lastVersion.text() + "/maven-metadata.xml");
-
-					document = connection.get();
+					document = _getMetadataDocument(url + lastVersion.text() + "/maven-metadata.xml");
 
 					Elements valueElements = document.select("snapshotVersion > value");
 
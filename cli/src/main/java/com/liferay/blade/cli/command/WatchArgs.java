@@ -55,6 +55,10 @@ public class WatchArgs extends BaseArgs {
 		);
 	}
 
+	public long getPollInterval() {
+		return _pollInterval;
+	}
+
 	public List<String> getProjectPaths() {
 		return Stream.concat(
 			_defaultProjectPaths.stream(), _projectPaths.stream()
@@ -63,26 +67,54 @@ public class WatchArgs extends BaseArgs {
 		);
 	}
 
+	public long getQuietPeriod() {
+		return _quietPeriod;
+	}
+
+	public boolean isGradleProcess() {
+		return _gradleProcess;
+	}
+
 	public boolean isSkipInit() {
 		return _skipInit;
 	}
 
+	public boolean isStats() {
+		return _stats;
+	}
+
 	public void setFastPaths(List<String> fastPaths) {
 		_fastPaths.addAll(fastPaths);
 	}
 
+	public void setGradleProcess(boolean gradleProcess) {
+		_gradleProcess = gradleProcess;
+	}
+
 	public void setIgnorePaths(List<String> ignorePaths) {
 		_ignorePaths.addAll(ignorePaths);
 	}
 
+	public void setPollInterval(long pollInterval) {
+		_pollInterval = pollInterval;
+	}
+
 	public void setProjectPaths(List<String> projectPaths) {
 		_projectPaths.addAll(projectPaths);
 	}
 
+	public void setQuietPeriod(long quietPeriod) {
+		_quietPeriod = quietPeriod;
+	}
+
 	public void setSkipInit(boolean skipInit) {
 		_skipInit = skipInit;
 	}
 
+	public void setStats(boolean stats) {
+		_stats = stats;
+	}
+
 	private static final List<String> _defaultFastPaths = Arrays.asList(
 		"**/*.css", "**/*.js", "**/*.jsp", "**/*.map", "**/*.scss");
 	private static final List<String> _defaultIgnorePaths = Arrays.asList(
@@ -91,16 +123,40 @@ public class WatchArgs extends BaseArgs {
 		"gradle");
 	private static final List<String> _defaultProjectPaths = Arrays.asList("src");
 
-	@Parameter(description = "File paths that will use deployFast instead of deploy.", names = {"-f", "--fast-paths"})
+	@Parameter(
+		description = "File paths that will be hot swapped, or use deployFast, instead of deploy.",
+		names = {"-f", "--fast-paths"}
+	)
 	private List<String> _fastPaths = new ArrayList<>();
 
+	@Parameter(
+		description = "Launch every build in a separate Gradle process instead of through the Gradle Tooling API.",
+		names = "--gradle-process"
+	)
+	private boolean _gradleProcess = false;
+
 	@Parameter(description = "Ignored watch paths.", names = {"-i", "--ignore-paths"})
 	private List<String> _ignorePaths = new ArrayList<>();
 
+	@Parameter(
+		description = "Milliseconds between polls of the directories that cannot be watched natively when the system limit of watched directories is reached.",
+		names = "--poll-interval"
+	)
+	private long _pollInterval = 1000;
+
 	@Parameter(description = "File paths to use to identify a project path.", names = {"-p", "--project-paths"})
 	private List<String> _projectPaths = new ArrayList<>();
 
+	@Parameter(
+		description = "Milliseconds to wait without further changes before deploying the changed projects.",
+		names = "--quiet-period"
+	)
+	private long _quietPeriod = 500;
+
 	@Parameter(description = "Skip initial deploy", names = {"-s", "--skip-init"})
 	private boolean _skipInit = false;
 
+	@Parameter(description = "Print the latencies of every deployment.", names = "--stats")
+	private boolean _stats = false;
+
 }
\ No newline at end of file
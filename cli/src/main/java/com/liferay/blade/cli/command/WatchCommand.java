@@ -17,7 +17,26 @@
 package com.liferay.blade.cli.command;
 
 import com.liferay.blade.cli.BladeCLI;
+import com.liferay.blade.cli.WorkspaceProvider;
+import com.liferay.blade.cli.command.watch.BundleActivationProbe;
+import com.liferay.blade.cli.command.watch.ChangeCollector;
+import com.liferay.blade.cli.command.watch.CombinedPathMatcher;
+import com.liferay.blade.cli.command.watch.DeployBatch;
+import com.liferay.blade.cli.command.watch.DeployStats;
+import com.liferay.blade.cli.command.watch.DirectoryPoller;
+import com.liferay.blade.cli.command.watch.FileFingerprints;
+import com.liferay.blade.cli.command.watch.LatencyHistogram;
+import com.liferay.blade.cli.command.watch.ProjectBundles;
+import com.liferay.blade.cli.command.watch.ProjectChanges;
+import com.liferay.blade.cli.command.watch.ProjectGraph;
+import com.liferay.blade.cli.command.watch.ProjectTrie;
+import com.liferay.blade.cli.command.watch.ResourceHotSwapper;
+import com.liferay.blade.cli.gradle.GradleBuild;
 import com.liferay.blade.cli.gradle.GradleExec;
+import com.liferay.blade.cli.gradle.GradleToolingSession;
+import com.liferay.blade.cli.util.DirectorySnapshot;
+import com.liferay.blade.cli.util.ExecutorUtil;
+import com.liferay.blade.gradle.tooling.ProjectInfo;
 
 import com.sun.nio.file.SensitivityWatchEventModifier;
 
@@ -40,12 +59,21 @@ import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 /**
@@ -88,7 +116,10 @@ public class WatchCommand extends BaseCommand<WatchArgs> {
 			bladeCLI::out
 		);
 
-		_watch(watchPath, projectPaths, watchArgs.getFastPaths(), ignorePaths, !watchArgs.isSkipInit());
+		_watch(
+			watchPath, projectPaths, watchArgs.getProjectPaths(), watchArgs.getFastPaths(), ignorePaths,
+			!watchArgs.isSkipInit(), watchArgs.getQuietPeriod(), watchArgs.getPollInterval(),
+			!watchArgs.isGradleProcess());
 	}
 
 	@Override
@@ -100,58 +131,286 @@ public class WatchCommand extends BaseCommand<WatchArgs> {
 		getBladeCLI().addErrors(prefix, Collections.singleton(msg));
 	}
 
-	private void _addPathMatcher(List<PathMatcher> pathMatchers, FileSystem fileSystem, String pattern) {
-		if (File.separatorChar == '\\') {
-			pattern = pattern.replace("/", "\\\\");
+	/**
+	 * Starts routing the changes under the directory to a new project, unless
+	 * it is already part of one.
+	 */
+	private void _addProject(
+		ProjectTrie projectTrie, Map<String, Path> deployablePaths, Path projectPath, Path gradleRootPath) {
+
+		if (projectTrie.get(projectPath) != null) {
+			return;
 		}
 
-		pathMatchers.add(fileSystem.getPathMatcher("glob:" + pattern));
-	}
+		String gradlePath = _getGradlePath(projectPath, gradleRootPath);
 
-	private String _getGradlePath(Path path, Path basePath) {
-		String gradlePath = ":" + String.valueOf(basePath.relativize(path));
+		projectTrie.add(gradlePath, projectPath);
+
+		deployablePaths.put(gradlePath, projectPath);
 
-		return gradlePath.replaceAll(File.separator, ":");
+		BladeCLI bladeCLI = getBladeCLI();
+
+		BaseArgs baseArgs = bladeCLI.getArgs();
+
+		if (!baseArgs.isQuiet()) {
+			bladeCLI.out("Watching new project " + gradlePath + ".");
+		}
 	}
 
-	private Path _getGradleProjectPath(Path basePath, Path path, Map<String, Path> projectPaths) {
-		String gradlePath = _getGradlePath(path, basePath);
+	private void _deploy(
+			GradleToolingSession gradleToolingSession, Path gradleRootPath, Path watchPath,
+			ChangeCollector changeCollector, DeployBatch deployBatch, ProjectGraph projectGraph,
+			ProjectBundles projectBundles, ResourceHotSwapper resourceHotSwapper, Map<String, Path> deployablePaths)
+		throws InterruptedException {
+
+		BladeCLI bladeCLI = getBladeCLI();
+
+		BaseArgs baseArgs = bladeCLI.getArgs();
 
-		for (Map.Entry<String, Path> entry : projectPaths.entrySet()) {
-			String projectPath = entry.getKey();
+		if (!baseArgs.isQuiet()) {
+			for (ProjectChanges projectChanges : deployBatch.getProjectChanges()) {
+				Set<Path> paths = projectChanges.getPaths();
 
-			if (gradlePath.startsWith(projectPath)) {
-				return projectPaths.get(projectPath);
+				if (paths.size() > _MAX_REPORTED_PATHS) {
+					bladeCLI.out(paths.size() + " files have changed in " + projectChanges.getProjectPath() + ".");
+
+					continue;
+				}
+
+				for (Path path : paths) {
+					bladeCLI.out(path + " has changed.");
+				}
+			}
+
+			if (deployBatch.getUnchangedCount() > 0) {
+				bladeCLI.out("Ignoring " + deployBatch.getUnchangedCount() + " files rewritten without changes.");
 			}
 		}
 
-		return basePath;
+		long startNanos = System.nanoTime();
+
+		long firstChangeNanos = startNanos;
+
+		for (ProjectChanges projectChanges : deployBatch.getProjectChanges()) {
+			if ((projectChanges.getFirstChangeNanos() - firstChangeNanos) < 0) {
+				firstChangeNanos = projectChanges.getFirstChangeNanos();
+			}
+		}
+
+		if (resourceHotSwapper != null) {
+			List<ProjectChanges> gradleProjectChanges = new ArrayList<>();
+
+			for (ProjectChanges projectChanges : deployBatch.getProjectChanges()) {
+				if (!_hotSwap(resourceHotSwapper, projectChanges)) {
+					gradleProjectChanges.add(projectChanges);
+				}
+			}
+
+			deployBatch = new DeployBatch(gradleProjectChanges, deployBatch.getUnchangedCount());
+		}
+
+		if (!deployBatch.isEmpty()) {
+			List<DeployBatch> deployBatches = projectGraph.getDeployBatches(deployBatch, deployablePaths);
+
+			for (int i = 0; i < deployBatches.size(); i++) {
+				if (!_deployStage(
+						gradleToolingSession, gradleRootPath, changeCollector, deployBatch,
+						deployBatches.subList(i, deployBatches.size()), projectBundles)) {
+
+					break;
+				}
+			}
+		}
+
+		WatchArgs watchArgs = getArgs();
+
+		if (watchArgs.isStats()) {
+			LatencyHistogram latencyHistogram = _deployStats.getLatencyHistogram(DeployStats.Latency.BUILD);
+
+			bladeCLI.out(
+				String.format(
+					"Deployed in %dms, %dms after the first change. Project builds p50 %dms, p95 %dms, max %dms " +
+						"over %d project builds.",
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstChangeNanos),
+					latencyHistogram.getValueAtPercentile(50), latencyHistogram.getValueAtPercentile(95),
+					latencyHistogram.getMax(), latencyHistogram.getCount()));
+		}
+
+		if (!baseArgs.isQuiet()) {
+			bladeCLI.out("Watching files in " + watchPath + ". Press Crtl + C to stop.");
+		}
 	}
 
-	private List<PathMatcher> _getPathMatchers(Path baseDirPath, String... patterns) {
-		FileSystem fileSystem = FileSystems.getDefault();
+	/**
+	 * Deploys the first of the pending stages of the batch and returns
+	 * <code>true</code> if the next stage can be deployed. If the batch is
+	 * superseded while deploying, the build is cancelled and the pending
+	 * stages, but not the stages already deployed, are added back to the
+	 * collector.
+	 */
+	private boolean _deployStage(
+			GradleToolingSession gradleToolingSession, Path gradleRootPath, ChangeCollector changeCollector,
+			DeployBatch deployBatch, List<DeployBatch> pendingDeployBatches, ProjectBundles projectBundles)
+		throws InterruptedException {
+
+		BladeCLI bladeCLI = getBladeCLI();
+
+		BaseArgs baseArgs = bladeCLI.getArgs();
+
+		DeployBatch stageDeployBatch = pendingDeployBatches.get(0);
+
+		String gradleCommand = stageDeployBatch.getGradleCommand();
+
+		if (!baseArgs.isQuiet()) {
+			for (ProjectChanges projectChanges : stageDeployBatch.getProjectChanges()) {
+				Set<String> changedDependencies = projectChanges.getChangedDependencies();
+
+				if (projectChanges.getPaths().isEmpty() && !changedDependencies.isEmpty()) {
+					bladeCLI.out(
+						"Redeploying " + projectChanges.getGradlePath() + " as it depends on " +
+							String.join(", ", changedDependencies) + ".");
+				}
+			}
+
+			bladeCLI.out("Deploying with `gradle " + gradleCommand + "`...");
+		}
+
+		long startNanos = System.nanoTime();
+
+		for (ProjectChanges projectChanges : stageDeployBatch.getProjectChanges()) {
+			_deployStats.recordLatency(
+				projectChanges.getGradlePath(), DeployStats.Latency.QUEUE,
+				startNanos - projectChanges.getFirstChangeNanos());
+		}
+
+		GradleBuild gradleBuild = null;
+
+		try {
+			gradleBuild = gradleToolingSession.startBuild(stageDeployBatch.getGradleArguments());
+
+			while (!gradleBuild.waitFor(_SUPERSEDED_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+				if (!changeCollector.isSuperseded(deployBatch) && !changeCollector.isSuperseded(stageDeployBatch)) {
+					continue;
+				}
+
+				gradleBuild.cancel(_CANCEL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+				long durationNanos = System.nanoTime() - startNanos;
+
+				long savedMillis = _deployStats.recordCancelledBuild(durationNanos);
 
-		List<PathMatcher> pathMatchers = new ArrayList<>(patterns.length);
+				for (DeployBatch pendingDeployBatch : pendingDeployBatches) {
+					changeCollector.addAll(pendingDeployBatch);
+				}
+
+				if (!baseArgs.isQuiet()) {
+					bladeCLI.out(
+						String.format(
+							"Cancelled the superseded build after %.1fs, saving about %.1fs. %d builds cancelled, " +
+								"about %.1fs saved so far.",
+							TimeUnit.NANOSECONDS.toMillis(durationNanos) / 1000.0, savedMillis / 1000.0,
+							_deployStats.getCancelledBuilds(), _deployStats.getSavedMillis() / 1000.0));
+				}
+
+				return false;
+			}
+
+			long endNanos = System.nanoTime();
+
+			_deployStats.recordCompletedBuild(endNanos - startNanos);
+
+			if (gradleBuild.getExitValue() > 0) {
+				bladeCLI.error(
+					"Gradle error executing task '" + gradleCommand + "' in " + gradleRootPath.toAbsolutePath());
+
+				return false;
+			}
+
+			for (ProjectChanges projectChanges : stageDeployBatch.getProjectChanges()) {
+				_deployStats.recordLatency(
+					projectChanges.getGradlePath(), DeployStats.Latency.BUILD, endNanos - startNanos);
+			}
 
-		String patternPrefix = baseDirPath.toAbsolutePath() + File.separator;
+			WatchArgs watchArgs = getArgs();
 
-		if (File.separatorChar != '/') {
-			patternPrefix = patternPrefix.replace(File.separatorChar, '/');
+			if (watchArgs.isStats() && (projectBundles != null)) {
+				_probeActivation(stageDeployBatch, projectBundles, endNanos);
+			}
+
+			return true;
+		}
+		catch (InterruptedException interruptedException) {
+			throw interruptedException;
+		}
+		catch (Exception exception) {
+			bladeCLI.error(exception.getMessage());
+
+			return false;
+		}
+		finally {
+			if ((gradleBuild != null) && gradleBuild.isAlive()) {
+				gradleBuild.cancel(_CANCEL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			}
 		}
+	}
+
+	private String _getGradlePath(Path path, Path basePath) {
+		String gradlePath = ":" + String.valueOf(basePath.relativize(path));
+
+		return gradlePath.replace(File.separatorChar, ':');
+	}
+
+	/**
+	 * Returns the root directory of the Gradle build, so the projects can be
+	 * deployed with a single invocation even if only part of the workspace is
+	 * watched.
+	 */
+	private Path _getGradleRootPath(Path watchPath) throws IOException {
+		BladeCLI bladeCLI = getBladeCLI();
 
-		for (String pattern : patterns) {
-			if (pattern.startsWith("**/")) {
-				String absolutePattern = patternPrefix + pattern.substring(3);
+		File watchDir = watchPath.toFile();
 
-				_addPathMatcher(pathMatchers, fileSystem, absolutePattern);
+		WorkspaceProvider workspaceProvider = bladeCLI.getWorkspaceProvider(watchDir);
+
+		if (workspaceProvider != null) {
+			File workspaceDir = workspaceProvider.getWorkspaceDir(watchDir);
+
+			if (workspaceDir != null) {
+				return Paths.get(workspaceDir.getCanonicalPath());
 			}
+		}
 
-			String absolutePattern = patternPrefix + pattern;
+		return watchPath;
+	}
 
-			_addPathMatcher(pathMatchers, fileSystem, absolutePattern);
+	/**
+	 * Returns the dependency graph of the Gradle build once its model is
+	 * loaded, so the first deployments do not wait for it.
+	 */
+	private ProjectGraph _getProjectGraph(ProjectInfo projectInfo) {
+		if (projectInfo == null) {
+			return ProjectGraph.EMPTY;
 		}
 
-		return pathMatchers;
+		return new ProjectGraph(projectInfo.getProjectDependencies());
+	}
+
+	/**
+	 * Returns the model of the Gradle build, or <code>null</code> until it is
+	 * loaded.
+	 */
+	private ProjectInfo _getProjectInfo(Future<ProjectInfo> projectInfoFuture) {
+		if (!projectInfoFuture.isDone()) {
+			return null;
+		}
+
+		try {
+			return projectInfoFuture.get();
+		}
+		catch (Exception exception) {
+			return null;
+		}
 	}
 
 	private Map<String, Path> _getProjectPaths(
@@ -160,14 +419,7 @@ public class WatchCommand extends BaseCommand<WatchArgs> {
 
 		final Map<String, Path> foundProjectPaths = new HashMap<>();
 
-		FileSystem fileSystem = FileSystems.getDefault();
-
-		List<PathMatcher> ignorePathMatchers = ignorePaths.stream(
-		).map(
-			ignorePath -> fileSystem.getPathMatcher("glob:" + ignorePath)
-		).collect(
-			Collectors.toList()
-		);
+		PathMatcher ignorePathMatcher = new CombinedPathMatcher(watchPath, ignorePaths);
 
 		Files.walkFileTree(
 			watchPath,
@@ -177,12 +429,7 @@ public class WatchCommand extends BaseCommand<WatchArgs> {
 				public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes basicFileAttributes)
 					throws IOException {
 
-					boolean shouldIgnorePath = ignorePathMatchers.stream(
-					).anyMatch(
-						pathMatcher -> pathMatcher.matches(path)
-					);
-
-					if (shouldIgnorePath) {
+					if (ignorePathMatcher.matches(path)) {
 						return FileVisitResult.SKIP_SUBTREE;
 					}
 
@@ -190,10 +437,7 @@ public class WatchCommand extends BaseCommand<WatchArgs> {
 						if (files.map(
 								p -> p.getFileName()
 							).filter(
-								p -> !ignorePathMatchers.stream(
-								).anyMatch(
-									pathMatcher -> pathMatcher.matches(path.resolve(p))
-								)
+								p -> !ignorePathMatcher.matches(path.resolve(p))
 							).anyMatch(
 								p -> projectPaths.stream(
 								).anyMatch(
@@ -215,6 +459,226 @@ public class WatchCommand extends BaseCommand<WatchArgs> {
 		return foundProjectPaths;
 	}
 
+	/**
+	 * Returns the hot swapper of the resources of the deployed bundles, or
+	 * <code>null</code> if the Liferay home is unknown.
+	 */
+	private ResourceHotSwapper _getResourceHotSwapper(
+		ProjectInfo projectInfo, ProjectBundles projectBundles, Path defaultLiferayHomePath) {
+
+		Path liferayHomePath = defaultLiferayHomePath;
+
+		String liferayHome = projectInfo.getLiferayHome();
+
+		if ((liferayHome != null) && !liferayHome.isEmpty() && !liferayHome.equals("null")) {
+			liferayHomePath = Paths.get(liferayHome);
+		}
+
+		if ((liferayHomePath == null) || !Files.isDirectory(liferayHomePath)) {
+			return null;
+		}
+
+		return new ResourceHotSwapper(liferayHomePath, projectBundles);
+	}
+
+	/**
+	 * Copies the changed resources of the project into its deployed bundle
+	 * and returns <code>true</code>, or returns <code>false</code> if the
+	 * project has to be deployed with Gradle.
+	 */
+	private boolean _hotSwap(ResourceHotSwapper resourceHotSwapper, ProjectChanges projectChanges) {
+		BladeCLI bladeCLI = getBladeCLI();
+
+		BaseArgs baseArgs = bladeCLI.getArgs();
+
+		long startNanos = System.nanoTime();
+
+		try {
+			if (!resourceHotSwapper.hotSwap(projectChanges)) {
+				return false;
+			}
+		}
+		catch (IOException ioException) {
+			if (baseArgs.isTrace()) {
+				bladeCLI.error(
+					"Unable to hot swap the resources of " + projectChanges.getGradlePath() + ": " +
+						ioException.getMessage());
+			}
+
+			return false;
+		}
+
+		_deployStats.recordHotSwap();
+
+		_deployStats.recordLatency(
+			projectChanges.getGradlePath(), DeployStats.Latency.QUEUE,
+			startNanos - projectChanges.getFirstChangeNanos());
+
+		if (!baseArgs.isQuiet()) {
+			Set<Path> paths = projectChanges.getPaths();
+
+			bladeCLI.out(
+				String.format(
+					"Hot swapped %d files of %s in %dms without Gradle.", paths.size(),
+					projectChanges.getGradlePath(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the paths that are not under any other of the paths.
+	 */
+	private List<Path> _getTopmostPaths(Collection<Path> paths) {
+		List<Path> sortedPaths = new ArrayList<>(paths);
+
+		sortedPaths.sort(Comparator.comparingInt(Path::getNameCount));
+
+		Set<Path> topmostPaths = new LinkedHashSet<>();
+
+		for (Path path : sortedPaths) {
+			if (!_isUnder(path, topmostPaths)) {
+				topmostPaths.add(path);
+			}
+		}
+
+		return new ArrayList<>(topmostPaths);
+	}
+
+	private boolean _isUnder(Path path, Set<Path> rootPaths) {
+		for (Path parentPath = path; parentPath != null; parentPath = parentPath.getParent()) {
+			if (rootPaths.contains(parentPath)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private ProjectInfo _loadProjectInfo(GradleToolingSession gradleToolingSession) {
+		BladeCLI bladeCLI = getBladeCLI();
+
+		try {
+			return gradleToolingSession.loadProjectInfo();
+		}
+		catch (Exception exception) {
+			BaseArgs baseArgs = bladeCLI.getArgs();
+
+			if (baseArgs.isTrace()) {
+				bladeCLI.error(
+					"Unable to load the project model, dependent projects will not be redeployed and resources " +
+						"will not be hot swapped");
+
+				exception.printStackTrace(bladeCLI.error());
+			}
+
+			return null;
+		}
+	}
+
+	/**
+	 * Measures in the background how long the bundles of the stage take to be
+	 * active again after the build ended.
+	 */
+	private void _probeActivation(DeployBatch stageDeployBatch, ProjectBundles projectBundles, long endNanos) {
+		BladeCLI bladeCLI = getBladeCLI();
+
+		for (ProjectChanges projectChanges : stageDeployBatch.getProjectChanges()) {
+			String gradlePath = projectChanges.getGradlePath();
+
+			String bundleSymbolicName = projectBundles.getBundleSymbolicName(gradlePath);
+
+			if (bundleSymbolicName == null) {
+				continue;
+			}
+
+			ExecutorUtil.execute(
+				"blade-watch-activation",
+				() -> {
+					try {
+						long activationNanos = _bundleActivationProbe.awaitActivation(bundleSymbolicName, endNanos);
+
+						if (activationNanos < 0) {
+							return;
+						}
+
+						_deployStats.recordLatency(gradlePath, DeployStats.Latency.ACTIVATION, activationNanos);
+
+						bladeCLI.out(
+							String.format(
+								"%s was active %dms after its build.", bundleSymbolicName,
+								TimeUnit.NANOSECONDS.toMillis(activationNanos)));
+					}
+					catch (InterruptedException interruptedException) {
+					}
+				});
+		}
+	}
+
+	/**
+	 * Records the snapshot of the directories to poll, skipping the native
+	 * roots, and returns their number.
+	 */
+	private int _recordDirectories(
+			Path basePath, PathMatcher ignorePathMatcher, DirectorySnapshot directorySnapshot,
+			Set<Path> nativeRootPaths)
+		throws IOException {
+
+		AtomicInteger count = new AtomicInteger();
+
+		Files.walkFileTree(
+			basePath,
+			new SimpleFileVisitor<Path>() {
+
+				@Override
+				public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes basicFileAttributes) {
+					if (nativeRootPaths.contains(path) || ignorePathMatcher.matches(path)) {
+						return FileVisitResult.SKIP_SUBTREE;
+					}
+
+					directorySnapshot.record(path);
+
+					count.incrementAndGet();
+
+					return FileVisitResult.CONTINUE;
+				}
+
+			});
+
+		return count.get();
+	}
+
+	/**
+	 * Registers the directory and its subdirectories with the watch service,
+	 * and adds them to the registered paths.
+	 */
+	private void _registerDirectories(
+			final WatchService watchService, final Map<WatchKey, Path> watchKeys, final Path basePath,
+			final PathMatcher ignorePathMatcher, final Set<Path> registeredPaths)
+		throws IOException {
+
+		Files.walkFileTree(
+			basePath,
+			new SimpleFileVisitor<Path>() {
+
+				@Override
+				public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes basicFileAttributes)
+					throws IOException {
+
+					if (ignorePathMatcher.matches(path)) {
+						return FileVisitResult.SKIP_SUBTREE;
+					}
+
+					_registerDirectory(watchService, watchKeys, path);
+
+					registeredPaths.add(path);
+
+					return FileVisitResult.CONTINUE;
+				}
+
+			});
+	}
+
 	private void _registerDirectory(WatchService watcher, Map<WatchKey, Path> keys, Path dir) throws IOException {
 		WatchKey watchKey = dir.register(
 			watcher,
@@ -227,9 +691,91 @@ public class WatchCommand extends BaseCommand<WatchArgs> {
 		keys.put(watchKey, dir);
 	}
 
+	/**
+	 * Registers the project directories themselves, without their
+	 * subdirectories, and the source roots of the projects with the watch
+	 * service, until the system limit is reached again. Everything else is
+	 * polled, so changes to project files such as <code>bnd.bnd</code> and
+	 * <code>build.gradle</code> are seen natively as well.
+	 */
+	private void _registerSourceRoots(
+		WatchService watchService, Map<WatchKey, Path> watchKeys, Collection<Path> projectPaths,
+		PathMatcher ignorePathMatcher, DirectorySnapshot directorySnapshot, Set<Path> nativeRootPaths) {
+
+		try {
+			for (Path projectPath : projectPaths) {
+				if (Files.isDirectory(projectPath) && !ignorePathMatcher.matches(projectPath)) {
+					_registerDirectory(watchService, watchKeys, projectPath);
+				}
+
+				for (String sourceRoot : _NATIVE_SOURCE_ROOTS) {
+					Path sourceRootPath = projectPath.resolve(sourceRoot);
+
+					if (Files.isDirectory(sourceRootPath) && !ignorePathMatcher.matches(sourceRootPath)) {
+						_walkAndRegisterDirectories(
+							watchService, watchKeys, sourceRootPath, ignorePathMatcher, directorySnapshot);
+
+						nativeRootPaths.add(sourceRootPath);
+					}
+				}
+			}
+		}
+		catch (IOException ioException) {
+			BladeCLI bladeCLI = getBladeCLI();
+
+			BaseArgs baseArgs = bladeCLI.getArgs();
+
+			if (baseArgs.isTrace()) {
+				bladeCLI.error("Unable to watch more source roots natively: " + ioException.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Records the fingerprints of the watched files in the background, so the
+	 * first event of a file rewritten without changes is already dropped.
+	 */
+	private void _seedFileFingerprints(
+		FileFingerprints fileFingerprints, Path basePath, PathMatcher ignorePathMatcher, long watchStartMillis) {
+
+		try {
+			Files.walkFileTree(
+				basePath,
+				new SimpleFileVisitor<Path>() {
+
+					@Override
+					public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes basicFileAttributes) {
+						if (ignorePathMatcher.matches(path)) {
+							return FileVisitResult.SKIP_SUBTREE;
+						}
+
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFile(Path path, BasicFileAttributes basicFileAttributes) {
+						Thread thread = Thread.currentThread();
+
+						if (thread.isInterrupted()) {
+							return FileVisitResult.TERMINATE;
+						}
+
+						if (!ignorePathMatcher.matches(path)) {
+							fileFingerprints.seed(path, watchStartMillis);
+						}
+
+						return FileVisitResult.CONTINUE;
+					}
+
+				});
+		}
+		catch (IOException ioException) {
+		}
+	}
+
 	private void _walkAndRegisterDirectories(
 			final WatchService watchService, final Map<WatchKey, Path> watchKeys, final Path basePath,
-			final List<PathMatcher> ignorePathMatchers)
+			final PathMatcher ignorePathMatcher, final DirectorySnapshot directorySnapshot)
 		throws IOException {
 
 		Files.walkFileTree(
@@ -240,14 +786,14 @@ public class WatchCommand extends BaseCommand<WatchArgs> {
 				public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes basicFileAttributes)
 					throws IOException {
 
-					for (PathMatcher pathMatcher : ignorePathMatchers) {
-						if (pathMatcher.matches(path)) {
-							return FileVisitResult.SKIP_SUBTREE;
-						}
+					if (ignorePathMatcher.matches(path)) {
+						return FileVisitResult.SKIP_SUBTREE;
 					}
 
 					_registerDirectory(watchService, watchKeys, path);
 
+					directorySnapshot.record(path);
+
 					return FileVisitResult.CONTINUE;
 				}
 
@@ -255,146 +801,305 @@ public class WatchCommand extends BaseCommand<WatchArgs> {
 	}
 
 	private void _watch(
-			Path watchPath, Map<String, Path> projectPaths, List<String> fastPaths, List<String> ignorePaths,
-			boolean deploy)
+			Path watchPath, Map<String, Path> projectPaths, List<String> projectFileNames, List<String> fastPaths,
+			List<String> ignorePaths, boolean deploy, long quietPeriod, long pollInterval, boolean useToolingApi)
 		throws Exception {
 
-		Thread watchThread = new Thread() {
+		BladeCLI bladeCLI = getBladeCLI();
+
+		BaseArgs baseArgs = bladeCLI.getArgs();
+
+		Path gradleRootPath = _getGradleRootPath(watchPath);
+
+		Map<String, Path> deployablePaths = new ConcurrentHashMap<>();
+
+		ProjectTrie projectTrie = new ProjectTrie();
+
+		for (Path projectPath : projectPaths.values()) {
+			String gradlePath = _getGradlePath(projectPath, gradleRootPath);
+
+			deployablePaths.put(gradlePath, projectPath);
+
+			projectTrie.add(gradlePath, projectPath);
+		}
+
+		ProjectTrie.Project rootProject = new ProjectTrie.Project(
+			_getGradlePath(watchPath, gradleRootPath), watchPath);
+
+		GradleExec gradleExec = new GradleExec(bladeCLI);
+
+		GradleToolingSession gradleToolingSession = new GradleToolingSession(
+			gradleExec, gradleRootPath.toFile(), useToolingApi, bladeCLI.out(), bladeCLI.error());
+
+		Future<ProjectInfo> projectInfoFuture = ExecutorUtil.submit(
+			"blade-watch-project-info", () -> _loadProjectInfo(gradleToolingSession));
+
+		LocalServer localServer = new LocalServer(bladeCLI);
+
+		ChangeCollector changeCollector = new ChangeCollector(quietPeriod);
+
+		FileFingerprints fileFingerprints = new FileFingerprints();
+
+		CountDownLatch registeredLatch = new CountDownLatch(1);
+
+		Runnable watchRunnable = new Runnable() {
 
 			@Override
 			public void run() {
-				BladeCLI bladeCLI = getBladeCLI();
-
-				BaseArgs baseArgs = bladeCLI.getArgs();
+				Future<?> seedFuture = null;
 
 				try (final FileSystem fileSystem = FileSystems.getDefault();
 					final WatchService watchService = fileSystem.newWatchService()) {
 
 					final Map<WatchKey, Path> watchKeys = new HashMap<>();
 
-					final List<PathMatcher> ignorePathMatchers = _getPathMatchers(
-						watchPath, ignorePaths.toArray(new String[0]));
+					final PathMatcher ignorePathMatcher = new CombinedPathMatcher(watchPath, ignorePaths);
+
+					final PathMatcher fastPathMatcher = new CombinedPathMatcher(watchPath, fastPaths);
+
+					final DirectorySnapshot directorySnapshot = new DirectorySnapshot(ignorePathMatcher::matches);
+
+					final Set<Path> nativeRootPaths = ConcurrentHashMap.newKeySet();
+
+					DirectoryPoller directoryPoller = null;
 
-					final List<PathMatcher> fastPathMatchers = _getPathMatchers(
-						watchPath, fastPaths.toArray(new String[0]));
+					long watchStartMillis = System.currentTimeMillis();
 
-					_walkAndRegisterDirectories(watchService, watchKeys, watchPath, ignorePathMatchers);
+					try {
+						_walkAndRegisterDirectories(
+							watchService, watchKeys, watchPath, ignorePathMatcher, directorySnapshot);
 
-					final GradleExec gradleExec = new GradleExec(bladeCLI);
+						if (baseArgs.isTrace()) {
+							bladeCLI.out("Watching " + watchKeys.size() + " directories natively.");
+						}
+					}
+					catch (IOException ioException) {
+						bladeCLI.out(
+							"Unable to watch every directory natively, polling all but the source roots: " +
+								ioException.getMessage());
+
+						for (WatchKey watchKey : watchKeys.keySet()) {
+							watchKey.cancel();
+						}
+
+						watchKeys.clear();
+
+						_registerSourceRoots(
+							watchService, watchKeys, projectPaths.values(), ignorePathMatcher, directorySnapshot,
+							nativeRootPaths);
+
+						int polledCount = _recordDirectories(
+							watchPath, ignorePathMatcher, directorySnapshot, nativeRootPaths);
+
+						directoryPoller = new DirectoryPoller(
+							directorySnapshot, watchPath, nativeRootPaths::contains, pollInterval);
 
-					if (deploy) {
 						if (!baseArgs.isQuiet()) {
-							bladeCLI.out("Deploying...  To skip initial deployment, use `blade watch -s`");
+							bladeCLI.out(
+								"Watching " + watchKeys.size() + " directories natively and polling " + polledCount +
+									" directories.");
 						}
+					}
+
+					registeredLatch.countDown();
+
+					seedFuture = ExecutorUtil.execute(
+						"blade-watch-fingerprints",
+						() -> _seedFileFingerprints(fileFingerprints, watchPath, ignorePathMatcher, watchStartMillis));
+
+					long nextPollNanos = System.nanoTime();
 
-						gradleExec.executeTask("deploy", false);
+					if (directoryPoller != null) {
+						nextPollNanos += TimeUnit.MILLISECONDS.toNanos(directoryPoller.getDelayMillis());
 					}
 
 					while (true) {
-						WatchKey watchKey;
+						WatchKey watchKey = null;
 
 						try {
-							watchKey = watchService.take();
+							if (directoryPoller == null) {
+								watchKey = watchService.take();
+							}
+							else {
+								long waitNanos = nextPollNanos - System.nanoTime();
+
+								if (waitNanos > 0) {
+									watchKey = watchService.poll(waitNanos, TimeUnit.NANOSECONDS);
+								}
+							}
 						}
 						catch (InterruptedException interruptedException) {
-							continue;
+							break;
 						}
 
-						Path dir = watchKeys.get(watchKey);
+						List<DirectorySnapshot.Change> changes = new ArrayList<>();
+
+						boolean nativeEvents = watchKey != null;
+
+						List<WatchKey> invalidWatchKeys = new ArrayList<>();
 
-						if (dir == null) {
-							bladeCLI.error("WatchKey not recognized!!");
+						if (watchKey == null) {
+							changes.addAll(directoryPoller.poll());
 
-							continue;
+							nextPollNanos =
+								System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(directoryPoller.getDelayMillis());
 						}
+						else {
+							Set<Path> lostPaths = new HashSet<>();
+
+							int overflowCount = 0;
+
+							// An overflow is signalled on every key, so take all the keys that are ready and
+							// rescan each affected subtree only once
+
+							while (watchKey != null) {
+								Path dir = watchKeys.get(watchKey);
+
+								if (dir == null) {
+									bladeCLI.error("WatchKey not recognized!!");
+								}
+								else {
+									boolean overflow = false;
 
-						for (WatchEvent<?> event : watchKey.pollEvents()) {
-							WatchEvent.Kind<?> kind = event.kind();
+									for (WatchEvent<?> event : watchKey.pollEvents()) {
+										WatchEvent.Kind<?> kind = event.kind();
 
-							Path path = (Path)event.context();
+										if (kind == StandardWatchEventKinds.OVERFLOW) {
+											overflow = true;
 
-							Path resolvedPath = dir.resolve(path);
+											continue;
+										}
 
-							boolean ignoredPath = false;
+										Path path = (Path)event.context();
 
-							for (PathMatcher pathMatcher : ignorePathMatchers) {
-								if (pathMatcher.matches(resolvedPath)) {
-									ignoredPath = true;
+										changes.add(new DirectorySnapshot.Change(dir.resolve(path), kind));
+									}
+
+									if (!watchKey.reset()) {
+										invalidWatchKeys.add(watchKey);
 
-									break;
+										lostPaths.add(dir);
+									}
+									else if (overflow) {
+										lostPaths.add(dir);
+									}
+
+									if (overflow) {
+										overflowCount++;
+									}
 								}
+
+								watchKey = watchService.poll();
 							}
 
-							if (ignoredPath) {
+							int rescannedCount = 0;
+
+							for (Path lostPath : _getTopmostPaths(lostPaths)) {
+								List<DirectorySnapshot.Change> rescannedChanges = directorySnapshot.rescan(lostPath);
+
+								rescannedCount += rescannedChanges.size();
+
+								changes.addAll(rescannedChanges);
+							}
+
+							if ((overflowCount > 0) && !baseArgs.isQuiet()) {
+								bladeCLI.out(
+									"Lost file events in " + overflowCount + " directories, rescanning them found " +
+										rescannedCount + " changes.");
+							}
+						}
+
+						Set<Path> registeredPaths = new HashSet<>();
+
+						for (int i = 0; i < changes.size(); i++) {
+							DirectorySnapshot.Change change = changes.get(i);
+
+							WatchEvent.Kind<?> kind = change.getKind();
+
+							Path resolvedPath = change.getPath();
+
+							if (ignorePathMatcher.matches(resolvedPath)) {
 								continue;
 							}
 
+							directorySnapshot.update(resolvedPath, kind);
+
 							boolean directory = Files.isDirectory(resolvedPath);
 
-							Path projectPath = _getGradleProjectPath(watchPath, resolvedPath, projectPaths);
+							if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+
+								// A recreated source root is polled until blade watch restarts
+
+								nativeRootPaths.remove(resolvedPath);
+							}
 
 							if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
-								if (directory) {
+								if (directory && nativeEvents && !registeredPaths.contains(resolvedPath) &&
+									((directoryPoller == null) ||
+									 _isUnder(resolvedPath.getParent(), nativeRootPaths))) {
+
 									try {
-										_walkAndRegisterDirectories(
-											watchService, watchKeys, resolvedPath, ignorePathMatchers);
+
+										// Files created before the directories were registered have no
+										// events, so rescan the new subtree once all of it is registered
+
+										_registerDirectories(
+											watchService, watchKeys, resolvedPath, ignorePathMatcher,
+											registeredPaths);
+
+										changes.addAll(directorySnapshot.rescan(resolvedPath));
 									}
 									catch (IOException ioException) {
 										bladeCLI.error("Could not register directory:" + resolvedPath);
 									}
 								}
+							}
+							else if ((kind == StandardWatchEventKinds.ENTRY_MODIFY) && directory) {
+								continue;
+							}
 
-								if (!baseArgs.isQuiet()) {
-									bladeCLI.out(resolvedPath + " has been created, deploying...");
-								}
+							if ((kind == StandardWatchEventKinds.ENTRY_CREATE) &&
+								projectFileNames.contains(String.valueOf(resolvedPath.getFileName()))) {
 
-								gradleExec.executeTask("deploy", projectPath.toFile(), false);
+								_addProject(projectTrie, deployablePaths, resolvedPath.getParent(), gradleRootPath);
 							}
-							else if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
-								if (!baseArgs.isQuiet()) {
-									bladeCLI.out(resolvedPath + " has been deleted, redeploying...");
-								}
 
-								gradleExec.executeTask("clean deploy", projectPath.toFile(), false);
+							if (!fileFingerprints.isChanged(resolvedPath, kind)) {
+								changeCollector.addUnchanged(resolvedPath);
+
+								continue;
 							}
-							else if (!directory) {
-								boolean fastExtension = false;
 
-								for (PathMatcher pathMatcher : fastPathMatchers) {
-									if (pathMatcher.matches(resolvedPath)) {
-										fastExtension = true;
+							boolean fastPath = fastPathMatcher.matches(resolvedPath);
 
-										break;
-									}
-								}
+							ProjectTrie.Project project = projectTrie.get(resolvedPath);
 
-								if (fastExtension) {
-									if (!baseArgs.isQuiet()) {
-										bladeCLI.out(resolvedPath + " has changed, fast deploying...");
-									}
+							if (project != null) {
+								changeCollector.add(
+									project.getGradlePath(), project.getProjectPath(), resolvedPath, kind, fastPath);
+							}
+							else if (watchPath.equals(gradleRootPath) || deployablePaths.isEmpty()) {
+								changeCollector.add(
+									rootProject.getGradlePath(), rootProject.getProjectPath(), resolvedPath, kind,
+									fastPath);
+							}
+							else {
 
-									gradleExec.executeTask("deployFast -a", projectPath.toFile(), false);
-								}
-								else {
-									System.out.println(resolvedPath + " has changed, deploying...");
+								// Builds run from the Gradle root, so deploy the projects an
+								// unqualified deploy from the watched directory would deploy
 
-									gradleExec.executeTask("deploy -a", projectPath.toFile(), false);
+								for (Map.Entry<String, Path> entry : deployablePaths.entrySet()) {
+									changeCollector.add(entry.getKey(), entry.getValue(), resolvedPath, kind, fastPath);
 								}
 							}
-
-							if (!baseArgs.isQuiet()) {
-								bladeCLI.out("Watching files in " + watchPath + ". Press Crtl + C to stop.");
-							}
 						}
 
-						boolean valid = watchKey.reset();
-
-						if (!valid) {
-							watchKeys.remove(watchKey);
+						for (WatchKey invalidWatchKey : invalidWatchKeys) {
+							watchKeys.remove(invalidWatchKey);
+						}
 
-							if (watchKeys.isEmpty()) {
-								break;
-							}
+						if (!invalidWatchKeys.isEmpty() && watchKeys.isEmpty()) {
+							break;
 						}
 					}
 				}
@@ -405,13 +1110,126 @@ public class WatchCommand extends BaseCommand<WatchArgs> {
 
 					exception.printStackTrace(error);
 				}
+				finally {
+					if (seedFuture != null) {
+						seedFuture.cancel(true);
+					}
+
+					changeCollector.close();
+
+					registeredLatch.countDown();
+				}
 			}
 
 		};
 
-		watchThread.start();
+		Future<?> future = ExecutorUtil.execute("blade-watch", watchRunnable);
+
+		Thread shutdownHook = new Thread(
+			() -> {
+				if (!baseArgs.isQuiet() && _deployStats.hasLatencies()) {
+					bladeCLI.out(_deployStats.getLatencySummary());
+				}
+			},
+			"blade-watch-stats");
+
+		Runtime runtime = Runtime.getRuntime();
+
+		runtime.addShutdownHook(shutdownHook);
+
+		try {
+			registeredLatch.await();
+
+			if (deploy && !changeCollector.isClosed()) {
+				if (!baseArgs.isQuiet()) {
+					bladeCLI.out("Deploying...  To skip initial deployment, use `blade watch -s`");
+				}
+
+				try {
+					gradleExec.executeTask("deploy", false);
+				}
+				catch (Exception exception) {
+					bladeCLI.error(exception.getMessage());
+				}
+			}
+
+			if (!baseArgs.isQuiet()) {
+				bladeCLI.out("Watching files in " + watchPath + ". Press Crtl + C to stop.");
+			}
+
+			DeployBatch deployBatch;
+
+			while ((deployBatch = changeCollector.take()) != null) {
+				if (deployBatch.isEmpty()) {
+					_deployStats.recordSkippedDeploy();
+
+					if (!baseArgs.isQuiet()) {
+						bladeCLI.out(
+							String.format(
+								"%d files were rewritten without changes, skipping the deploy. %d deploys skipped " +
+									"so far.",
+								deployBatch.getUnchangedCount(), _deployStats.getSkippedDeploys()));
+					}
+
+					continue;
+				}
+
+				ProjectInfo projectInfo = _getProjectInfo(projectInfoFuture);
+
+				ProjectGraph projectGraph = _getProjectGraph(projectInfo);
 
-		watchThread.join();
+				ProjectBundles projectBundles = null;
+
+				ResourceHotSwapper resourceHotSwapper = null;
+
+				if (projectInfo != null) {
+					projectBundles = new ProjectBundles(projectInfo.getProjectOutputFiles());
+
+					resourceHotSwapper = _getResourceHotSwapper(
+						projectInfo, projectBundles, localServer.getLiferayHomePath());
+				}
+
+				_deploy(
+					gradleToolingSession, gradleRootPath, watchPath, changeCollector, deployBatch, projectGraph,
+					projectBundles, resourceHotSwapper, deployablePaths);
+			}
+		}
+		finally {
+			changeCollector.close();
+
+			future.cancel(true);
+
+			projectInfoFuture.cancel(true);
+
+			gradleToolingSession.close();
+
+			try {
+				runtime.removeShutdownHook(shutdownHook);
+			}
+			catch (IllegalStateException illegalStateException) {
+
+				// Already shutting down, the hook prints the summary
+
+			}
+		}
 	}
 
-}
\ No newline at end of file
+	private static final long _ACTIVATION_TIMEOUT_MILLIS = 30000;
+
+	private static final long _CANCEL_TIMEOUT_SECONDS = 5;
+
+	private static final String _GOGO_SHELL_HOST = "localhost";
+
+	private static final int _GOGO_SHELL_PORT = 11311;
+
+	private static final int _MAX_REPORTED_PATHS = 10;
+
+	private static final String[] _NATIVE_SOURCE_ROOTS = {"src/main/java", "src/main/resources"};
+
+	private static final long _SUPERSEDED_CHECK_INTERVAL_MILLIS = 100;
+
+	private final BundleActivationProbe _bundleActivationProbe = new BundleActivationProbe(
+		_GOGO_SHELL_HOST, _GOGO_SHELL_PORT, _ACTIVATION_TIMEOUT_MILLIS);
+	private final DeployStats _deployStats = new DeployStats();
+
+}
@@ -81,10 +81,8 @@ public class WorkspaceProductComparator implements Comparator<Pair<String, Produ
 				ProductInfo bProductInfo = bPair.second();
 
 				try {
-					DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("M/d/yyyy", Locale.ENGLISH);
-
-					LocalDate aDate = LocalDate.parse(aProductInfo.getReleaseDate(), dateTimeFormatter);
-					LocalDate bDate = LocalDate.parse(bProductInfo.getReleaseDate(), dateTimeFormatter);
+					LocalDate aDate = LocalDate.parse(aProductInfo.getReleaseDate(), _releaseDateFormatter);
+					LocalDate bDate = LocalDate.parse(bProductInfo.getReleaseDate(), _releaseDateFormatter);
 
 					return bDate.compareTo(aDate);
 				}
@@ -125,6 +123,8 @@ public class WorkspaceProductComparator implements Comparator<Pair<String, Produ
 		return null;
 	}
 
+	private static final DateTimeFormatter _releaseDateFormatter = DateTimeFormatter.ofPattern(
+		"M/d/yyyy", Locale.ENGLISH);
 	private static final Pattern _versionPattern = Pattern.compile("([0-9\\.]+).*");
 
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import com.liferay.blade.cli.LiferayBundleDeployer;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.dto.BundleDTO;
+
+/**
+ * Measures how long a deployed bundle takes to be active again after its
+ * build ended, by polling the bundle states through the Gogo shell of the
+ * running Liferay instance. The bundle has to be seen leaving the active
+ * state first, so a bundle that was not updated yet is not mistaken for a
+ * restarted one.
+ *
+ * @author Gregory Amerson
+ */
+public class BundleActivationProbe {
+
+	public BundleActivationProbe(String host, int port, long timeoutMillis) {
+		_host = host;
+		_port = port;
+		_timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+	}
+
+	/**
+	 * Waits for the bundle to restart and returns the nanoseconds between the
+	 * end of the build and the bundle being active again, or -1 if it was not
+	 * seen restarting before the timeout or the Gogo shell is not reachable.
+	 */
+	public long awaitActivation(String bundleSymbolicName, long buildEndNanos) throws InterruptedException {
+		try (LiferayBundleDeployer liferayBundleDeployer = LiferayBundleDeployer.newInstance(_host, _port)) {
+			boolean inactive = false;
+
+			while ((System.nanoTime() - buildEndNanos) < _timeoutNanos) {
+				int state = _getState(liferayBundleDeployer, bundleSymbolicName);
+
+				if (state != Bundle.ACTIVE) {
+					inactive = true;
+				}
+				else if (inactive) {
+					return System.nanoTime() - buildEndNanos;
+				}
+
+				Thread.sleep(_POLL_INTERVAL_MILLIS);
+			}
+		}
+		catch (InterruptedException interruptedException) {
+			throw interruptedException;
+		}
+		catch (Exception exception) {
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Returns the state of the bundle, or 0 while it is not installed.
+	 */
+	private static int _getState(LiferayBundleDeployer liferayBundleDeployer, String bundleSymbolicName)
+		throws Exception {
+
+		Collection<BundleDTO> bundles = liferayBundleDeployer.getBundles();
+
+		for (BundleDTO bundle : bundles) {
+			if ((bundle == null) || (bundle.symbolicName == null)) {
+				continue;
+			}
+
+			String symbolicName = bundle.symbolicName.trim();
+
+			// Gogo may list the version after the symbolic name
+
+			if (symbolicName.equals(bundleSymbolicName) || symbolicName.startsWith(bundleSymbolicName + " (")) {
+				return bundle.state;
+			}
+		}
+
+		return 0;
+	}
+
+	private static final long _POLL_INTERVAL_MILLIS = 100;
+
+	private final String _host;
+	private final int _port;
+	private final long _timeoutNanos;
+
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the file changes reported by the watcher and hands them over to the
+ * build stage in batches. A batch is only taken once no change was added for
+ * the quiet period, so saving many files or switching branches results in a
+ * single deployment. To not wait forever on files that keep changing, a batch
+ * is also taken once its first change is ten quiet periods old. Files that were
+ * rewritten without changing are counted, so a batch of only such files can be
+ * reported as a skipped deployment.
+ *
+ * @author Gregory Amerson
+ */
+public class ChangeCollector {
+
+	public ChangeCollector(long quietPeriodMillis) {
+		_quietPeriodNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, quietPeriodMillis));
+	}
+
+	public synchronized void add(
+		String gradlePath, Path projectPath, Path path, WatchEvent.Kind<?> kind, boolean fastPath) {
+
+		ProjectChanges projectChanges = _projectChanges.computeIfAbsent(
+			gradlePath, key -> new ProjectChanges(gradlePath, projectPath));
+
+		projectChanges.add(path, kind, fastPath);
+
+		_touch();
+	}
+
+	/**
+	 * Adds back the changes of a batch whose deployment was cancelled, so they
+	 * are deployed with the next batch.
+	 */
+	public synchronized void addAll(DeployBatch deployBatch) {
+		for (ProjectChanges projectChanges : deployBatch.getProjectChanges()) {
+			ProjectChanges pendingProjectChanges = _projectChanges.get(projectChanges.getGradlePath());
+
+			if (pendingProjectChanges == null) {
+				_projectChanges.put(projectChanges.getGradlePath(), projectChanges);
+			}
+			else {
+				pendingProjectChanges.merge(projectChanges);
+			}
+		}
+
+		_touch();
+	}
+
+	/**
+	 * Adds a file that was rewritten with the same content. It does not need
+	 * to be deployed, but still delays the batch like any other change.
+	 */
+	public synchronized void addUnchanged(Path path) {
+		_unchangedCount++;
+
+		_touch();
+	}
+
+	/**
+	 * Stops the collector, waking up the build stage waiting for a batch.
+	 */
+	public synchronized void close() {
+		_closed = true;
+
+		notifyAll();
+	}
+
+	public synchronized boolean isClosed() {
+		return _closed;
+	}
+
+	/**
+	 * Returns <code>true</code> if a change arrived for any of the projects of
+	 * the batch, so deploying the batch is no longer up to date. Changes to the
+	 * root project supersede every batch.
+	 */
+	public synchronized boolean isSuperseded(DeployBatch deployBatch) {
+		if (_projectChanges.isEmpty()) {
+			return false;
+		}
+
+		if (_projectChanges.containsKey(ProjectChanges.ROOT_GRADLE_PATH)) {
+			return true;
+		}
+
+		for (ProjectChanges projectChanges : deployBatch.getProjectChanges()) {
+			String gradlePath = projectChanges.getGradlePath();
+
+			if (ProjectChanges.ROOT_GRADLE_PATH.equals(gradlePath) || _projectChanges.containsKey(gradlePath)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Waits for the next batch of changes, or returns <code>null</code> once
+	 * the collector is closed. The batch is empty if only unchanged files were
+	 * added.
+	 */
+	public synchronized DeployBatch take() throws InterruptedException {
+		while (!_closed) {
+			if (!_pending) {
+				wait();
+
+				continue;
+			}
+
+			long nanoTime = System.nanoTime();
+
+			long quietNanos = _lastChangeNanos + _quietPeriodNanos - nanoTime;
+			long maxNanos = _firstChangeNanos + (_quietPeriodNanos * 10) - nanoTime;
+
+			long waitNanos = Math.min(quietNanos, maxNanos);
+
+			if (waitNanos > 0) {
+				TimeUnit.NANOSECONDS.timedWait(this, waitNanos);
+
+				continue;
+			}
+
+			DeployBatch deployBatch = new DeployBatch(_projectChanges.values(), _unchangedCount);
+
+			_pending = false;
+			_projectChanges.clear();
+			_unchangedCount = 0;
+
+			return deployBatch;
+		}
+
+		return null;
+	}
+
+	private void _touch() {
+		long nanoTime = System.nanoTime();
+
+		if (!_pending) {
+			_firstChangeNanos = nanoTime;
+		}
+
+		_lastChangeNanos = nanoTime;
+		_pending = true;
+
+		notifyAll();
+	}
+
+	private boolean _closed;
+	private long _firstChangeNanos;
+	private long _lastChangeNanos;
+	private boolean _pending;
+	private final Map<String, ProjectChanges> _projectChanges = new LinkedHashMap<>();
+	private final long _quietPeriodNanos;
+	private int _unchangedCount;
+
+}
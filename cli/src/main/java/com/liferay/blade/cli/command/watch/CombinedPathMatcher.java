@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.io.File;
+
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matches paths against several glob patterns, relative to a base directory,
+ * with a single precompiled regular expression instead of one matcher per
+ * pattern. Patterns starting with <code>**&#47;</code> also match directly
+ * under the base directory.
+ *
+ * @author Gregory Amerson
+ */
+public class CombinedPathMatcher implements PathMatcher {
+
+	public CombinedPathMatcher(Path basePath, Collection<String> patterns) {
+		Path absolutePath = basePath.toAbsolutePath();
+
+		String prefix = _toSlashes(absolutePath.toString());
+
+		if (!prefix.endsWith("/")) {
+			prefix = prefix + "/";
+		}
+
+		String quotedPrefix = Pattern.quote(prefix);
+
+		List<String> regexes = new ArrayList<>();
+
+		for (String pattern : patterns) {
+			pattern = _toSlashes(pattern);
+
+			if (pattern.startsWith("**/")) {
+				regexes.add(quotedPrefix + _toRegex(pattern.substring(3)));
+			}
+
+			regexes.add(quotedPrefix + _toRegex(pattern));
+		}
+
+		if (regexes.isEmpty()) {
+			_pattern = null;
+		}
+		else {
+			_pattern = Pattern.compile("(?:" + String.join(")|(?:", regexes) + ")");
+		}
+	}
+
+	@Override
+	public boolean matches(Path path) {
+		if (_pattern == null) {
+			return false;
+		}
+
+		Matcher matcher = _pattern.matcher(_toSlashes(path.toString()));
+
+		return matcher.matches();
+	}
+
+	/**
+	 * Translates the glob to a regular expression with the semantics of the
+	 * <code>glob:</code> syntax of the default file system.
+	 */
+	private static String _toRegex(String glob) {
+		StringBuilder sb = new StringBuilder();
+
+		boolean inGroup = false;
+
+		for (int i = 0; i < glob.length(); i++) {
+			char c = glob.charAt(i);
+
+			if ((c == '\\') && ((i + 1) < glob.length())) {
+				sb.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+			}
+			else if (c == '*') {
+				if (((i + 1) < glob.length()) && (glob.charAt(i + 1) == '*')) {
+					sb.append(".*");
+
+					i++;
+				}
+				else {
+					sb.append("[^/]*");
+				}
+			}
+			else if (c == '?') {
+				sb.append("[^/]");
+			}
+			else if (c == '[') {
+				sb.append("[[^/]&&[");
+
+				if (((i + 1) < glob.length()) && (glob.charAt(i + 1) == '!')) {
+					sb.append('^');
+
+					i++;
+				}
+
+				while (((i + 1) < glob.length()) && (glob.charAt(i + 1) != ']')) {
+					char next = glob.charAt(++i);
+
+					if ((next == '[') || (next == '\\') || (next == '&') || (next == '^')) {
+						sb.append('\\');
+					}
+
+					sb.append(next);
+				}
+
+				sb.append("]]");
+
+				i++;
+			}
+			else if ((c == '{') && !inGroup) {
+				sb.append("(?:");
+
+				inGroup = true;
+			}
+			else if ((c == '}') && inGroup) {
+				sb.append(')');
+
+				inGroup = false;
+			}
+			else if ((c == ',') && inGroup) {
+				sb.append('|');
+			}
+			else if (_REGEX_META_CHARS.indexOf(c) != -1) {
+				sb.append('\\');
+				sb.append(c);
+			}
+			else {
+				sb.append(c);
+			}
+		}
+
+		return sb.toString();
+	}
+
+	private static String _toSlashes(String path) {
+		if (File.separatorChar == '/') {
+			return path;
+		}
+
+		return path.replace(File.separatorChar, '/');
+	}
+
+	private static final String _REGEX_META_CHARS = ".^$+{}[]|()";
+
+	private final Pattern _pattern;
+
+}
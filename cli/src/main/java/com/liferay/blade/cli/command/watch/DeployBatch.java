@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The projects to deploy together in a single Gradle invocation.
+ *
+ * @author Gregory Amerson
+ */
+public class DeployBatch {
+
+	public DeployBatch(Collection<ProjectChanges> projectChanges) {
+		this(projectChanges, 0);
+	}
+
+	public DeployBatch(Collection<ProjectChanges> projectChanges, int unchangedCount) {
+		_projectChanges = new ArrayList<>(projectChanges);
+		_unchangedCount = unchangedCount;
+	}
+
+	/**
+	 * Returns the arguments of the Gradle invocation that deploys every
+	 * project of the batch. The projects are only built without their
+	 * dependencies when files were only modified, and in parallel when there
+	 * is more than one.
+	 */
+	public List<String> getGradleArguments() {
+		List<String> arguments = new ArrayList<>();
+
+		boolean modifiedOnly = true;
+
+		for (ProjectChanges projectChanges : _projectChanges) {
+			arguments.addAll(projectChanges.getTasks());
+
+			modifiedOnly = modifiedOnly && projectChanges.isModifiedOnly();
+		}
+
+		if (modifiedOnly) {
+			arguments.add("-a");
+		}
+
+		if (_projectChanges.size() > 1) {
+			arguments.add("--parallel");
+		}
+
+		return arguments;
+	}
+
+	public String getGradleCommand() {
+		return String.join(" ", getGradleArguments());
+	}
+
+	public List<ProjectChanges> getProjectChanges() {
+		return Collections.unmodifiableList(_projectChanges);
+	}
+
+	/**
+	 * Returns the number of files that were rewritten without changing while
+	 * the batch was collected.
+	 */
+	public int getUnchangedCount() {
+		return _unchangedCount;
+	}
+
+	public boolean isEmpty() {
+		return _projectChanges.isEmpty();
+	}
+
+	private final List<ProjectChanges> _projectChanges;
+	private final int _unchangedCount;
+
+}
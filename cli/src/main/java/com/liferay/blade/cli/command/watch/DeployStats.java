@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.util.Formatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durations of the deployments of a watch session. The time saved by
+ * cancelling a build is estimated as the average duration of the completed
+ * builds, minus how long the cancelled build had been running. Deployments
+ * skipped because no file content changed, and resources hot swapped without
+ * Gradle, are counted as well. The latencies of every project, from the first
+ * change to the start of the build, of the build itself, and from the end of
+ * the build to the bundle being active, are kept in histograms.
+ *
+ * @author Gregory Amerson
+ */
+public class DeployStats {
+
+	public long getAverageBuildMillis() {
+		if (_completedBuilds == 0) {
+			return 0;
+		}
+
+		return TimeUnit.NANOSECONDS.toMillis(_completedBuildsNanos / _completedBuilds);
+	}
+
+	public int getCancelledBuilds() {
+		return _cancelledBuilds;
+	}
+
+	public int getCompletedBuilds() {
+		return _completedBuilds;
+	}
+
+	public int getHotSwaps() {
+		return _hotSwaps;
+	}
+
+	/**
+	 * Returns the histogram of the latencies of every project, in
+	 * milliseconds.
+	 */
+	public synchronized LatencyHistogram getLatencyHistogram(Latency latency) {
+		return getLatencyHistogram(_ALL_PROJECTS, latency);
+	}
+
+	/**
+	 * Returns the histogram of the latencies of the project, in milliseconds.
+	 */
+	public synchronized LatencyHistogram getLatencyHistogram(String gradlePath, Latency latency) {
+		Map<Latency, LatencyHistogram> latencyHistograms = _latencyHistograms.get(gradlePath);
+
+		if ((latencyHistograms == null) || !latencyHistograms.containsKey(latency)) {
+			return new LatencyHistogram();
+		}
+
+		return latencyHistograms.get(latency);
+	}
+
+	/**
+	 * Returns the count, median, 95th percentile and maximum of the latencies
+	 * of every project and of the whole session, as a table.
+	 */
+	public synchronized String getLatencySummary() {
+		Formatter formatter = new Formatter();
+
+		formatter.format("%-32s %8s %8s %8s %8s%n", "Latencies in ms", "count", "p50", "p95", "max");
+
+		for (Map.Entry<String, Map<Latency, LatencyHistogram>> entry : _latencyHistograms.entrySet()) {
+			String gradlePath = entry.getKey();
+
+			if (_ALL_PROJECTS.equals(gradlePath)) {
+				continue;
+			}
+
+			_formatLatencies(formatter, gradlePath, entry.getValue());
+		}
+
+		if (_latencyHistograms.size() > 2) {
+			_formatLatencies(formatter, "All projects", _latencyHistograms.get(_ALL_PROJECTS));
+		}
+
+		return formatter.toString();
+	}
+
+	public long getSavedMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(_savedNanos);
+	}
+
+	public int getSkippedDeploys() {
+		return _skippedDeploys;
+	}
+
+	/**
+	 * Returns whether any latency was recorded, including those of hot swaps
+	 * and of builds that did not complete.
+	 */
+	public synchronized boolean hasLatencies() {
+		return !_latencyHistograms.isEmpty();
+	}
+
+	/**
+	 * Records a cancelled build and returns the time it is estimated to have
+	 * saved, in milliseconds.
+	 */
+	public long recordCancelledBuild(long durationNanos) {
+		_cancelledBuilds++;
+
+		long savedNanos = 0;
+
+		if (_completedBuilds > 0) {
+			savedNanos = Math.max(0, (_completedBuildsNanos / _completedBuilds) - durationNanos);
+		}
+
+		_savedNanos += savedNanos;
+
+		return TimeUnit.NANOSECONDS.toMillis(savedNanos);
+	}
+
+	public void recordCompletedBuild(long durationNanos) {
+		_completedBuilds++;
+		_completedBuildsNanos += durationNanos;
+	}
+
+	/**
+	 * Records a project whose resources were copied into the deployed bundle
+	 * instead of being deployed with Gradle.
+	 */
+	public void recordHotSwap() {
+		_hotSwaps++;
+	}
+
+	public synchronized void recordLatency(String gradlePath, Latency latency, long durationNanos) {
+		long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+
+		for (String key : new String[] {gradlePath, _ALL_PROJECTS}) {
+			Map<Latency, LatencyHistogram> latencyHistograms = _latencyHistograms.computeIfAbsent(
+				key, k -> new LinkedHashMap<>());
+
+			LatencyHistogram latencyHistogram = latencyHistograms.computeIfAbsent(
+				latency, k -> new LatencyHistogram());
+
+			latencyHistogram.record(durationMillis);
+		}
+	}
+
+	/**
+	 * Records a deployment that was not needed because the changed files were
+	 * rewritten without changing.
+	 */
+	public void recordSkippedDeploy() {
+		_skippedDeploys++;
+	}
+
+	private static void _formatLatencies(
+		Formatter formatter, String name, Map<Latency, LatencyHistogram> latencyHistograms) {
+
+		formatter.format("%s%n", name);
+
+		for (Latency latency : Latency.values()) {
+			LatencyHistogram latencyHistogram = latencyHistograms.get(latency);
+
+			if (latencyHistogram == null) {
+				continue;
+			}
+
+			formatter.format(
+				"  %-30s %8d %8d %8d %8d%n", latency.getLabel(), latencyHistogram.getCount(),
+				latencyHistogram.getValueAtPercentile(50), latencyHistogram.getValueAtPercentile(95),
+				latencyHistogram.getMax());
+		}
+	}
+
+	private static final String _ALL_PROJECTS = "*";
+
+	private int _cancelledBuilds;
+	private int _completedBuilds;
+	private long _completedBuildsNanos;
+	private int _hotSwaps;
+	private final Map<String, Map<Latency, LatencyHistogram>> _latencyHistograms = new TreeMap<>();
+	private long _savedNanos;
+	private int _skippedDeploys;
+
+	public enum Latency {
+
+		QUEUE("first change to build start"), BUILD("build"), ACTIVATION("build end to bundle active");
+
+		public String getLabel() {
+			return _label;
+		}
+
+		private Latency(String label) {
+			_label = label;
+		}
+
+		private final String _label;
+
+	}
+
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import com.liferay.blade.cli.util.DirectorySnapshot;
+
+import java.nio.file.Path;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Finds the changes to the directories that are not watched natively by
+ * rescanning them, in parallel, and diffing their modification times and
+ * sizes against the snapshot. The delay until the next poll adapts to the
+ * workspace: it grows while nothing changes, up to twice the interval, and is
+ * kept well above the time a poll takes so polling never hogs the disk.
+ *
+ * @author Gregory Amerson
+ */
+public class DirectoryPoller {
+
+	public DirectoryPoller(
+		DirectorySnapshot directorySnapshot, Path basePath, Predicate<Path> nativePredicate, long intervalMillis) {
+
+		_directorySnapshot = directorySnapshot;
+		_basePath = basePath;
+		_nativePredicate = nativePredicate;
+		_intervalMillis = Math.max(_MIN_INTERVAL_MILLIS, intervalMillis);
+
+		_delayMillis = _intervalMillis;
+	}
+
+	public long getDelayMillis() {
+		return _delayMillis;
+	}
+
+	public long getLastPollMillis() {
+		return _lastPollMillis;
+	}
+
+	/**
+	 * Rescans the polled directories, skipping the subtrees watched natively,
+	 * and returns the changes since the previous poll.
+	 */
+	public List<DirectorySnapshot.Change> poll() {
+		long startNanos = System.nanoTime();
+
+		List<DirectorySnapshot.Change> changes = _directorySnapshot.rescan(
+			_basePath, path -> !_nativePredicate.test(path));
+
+		_lastPollMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+		if (changes.isEmpty()) {
+			_delayMillis = Math.min(_delayMillis + (_intervalMillis / 4), _intervalMillis * 2);
+		}
+		else {
+			_delayMillis = _intervalMillis;
+		}
+
+		_delayMillis = Math.max(_delayMillis, _lastPollMillis * _MIN_IDLE_FACTOR);
+
+		return changes;
+	}
+
+	private static final long _MIN_IDLE_FACTOR = 4;
+
+	private static final long _MIN_INTERVAL_MILLIS = 100;
+
+	private final Path _basePath;
+	private long _delayMillis;
+	private final DirectorySnapshot _directorySnapshot;
+	private final long _intervalMillis;
+	private long _lastPollMillis;
+	private final Predicate<Path> _nativePredicate;
+
+}
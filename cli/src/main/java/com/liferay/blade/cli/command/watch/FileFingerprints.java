@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The size, modification time and 64-bit content hash of the watched files,
+ * used to drop the events of files that were rewritten or touched without
+ * changing their content. A file is only hashed again when its size or
+ * modification time changed, or when it was modified so close to its last
+ * hashing that a change within the timestamp granularity would go unnoticed.
+ *
+ * @author Gregory Amerson
+ */
+public class FileFingerprints {
+
+	/**
+	 * Returns <code>true</code> if the event may have changed the content of
+	 * the file, and records its new fingerprint. Created files, files that were
+	 * not seeded yet, or that are too large to hash, are always considered
+	 * changed.
+	 */
+	public boolean isChanged(Path path, WatchEvent.Kind<?> kind) {
+		if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+			_fingerprints.remove(path);
+
+			return true;
+		}
+
+		Fingerprint fingerprint = _getFingerprint(path, _fingerprints.get(path));
+
+		if (fingerprint == null) {
+			_fingerprints.remove(path);
+
+			return true;
+		}
+
+		Fingerprint previousFingerprint = _fingerprints.put(path, fingerprint);
+
+		// A file deleted and created again may have the content of the deleted
+		// fingerprint while the project was built without it
+
+		if ((kind == StandardWatchEventKinds.ENTRY_CREATE) || (previousFingerprint == null) ||
+			(previousFingerprint.getHash() != fingerprint.getHash()) ||
+			(previousFingerprint.getSize() != fingerprint.getSize())) {
+
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Records the fingerprint of the file unless it is already known, so a
+	 * later event can be compared against it. Files modified after
+	 * <code>watchStartMillis</code>, within the timestamp granularity, are
+	 * not recorded, as their event may compare against the changed content.
+	 */
+	public void seed(Path path, long watchStartMillis) {
+		if (_fingerprints.containsKey(path)) {
+			return;
+		}
+
+		Fingerprint fingerprint = _getFingerprint(path, null);
+
+		if ((fingerprint != null) &&
+			(fingerprint.getLastModifiedTime() < (watchStartMillis - _TIMESTAMP_GRANULARITY_MILLIS))) {
+
+			_fingerprints.putIfAbsent(path, fingerprint);
+		}
+	}
+
+	public int size() {
+		return _fingerprints.size();
+	}
+
+	private static long _hash(Path path) throws IOException {
+		long hash = _FNV_OFFSET_BASIS;
+
+		byte[] buffer = new byte[8192];
+
+		try (InputStream inputStream = Files.newInputStream(path)) {
+			int length;
+
+			while ((length = inputStream.read(buffer)) != -1) {
+				for (int i = 0; i < length; i++) {
+					hash ^= buffer[i] & 0xff;
+					hash *= _FNV_PRIME;
+				}
+			}
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Returns the fingerprint of the file, reusing the previous fingerprint
+	 * if the size and modification time did not change and the file was
+	 * already settled when it was hashed.
+	 */
+	private Fingerprint _getFingerprint(Path path, Fingerprint previousFingerprint) {
+		try {
+			BasicFileAttributes basicFileAttributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+			if (!basicFileAttributes.isRegularFile() || (basicFileAttributes.size() > _MAX_HASHED_SIZE)) {
+				return null;
+			}
+
+			long size = basicFileAttributes.size();
+
+			FileTime fileTime = basicFileAttributes.lastModifiedTime();
+
+			long lastModifiedTime = fileTime.toMillis();
+
+			if ((previousFingerprint != null) && (previousFingerprint.getSize() == size) &&
+				(previousFingerprint.getLastModifiedTime() == lastModifiedTime) &&
+				((previousFingerprint.getHashedTime() - lastModifiedTime) > _TIMESTAMP_GRANULARITY_MILLIS)) {
+
+				return previousFingerprint;
+			}
+
+			long hashedTime = System.currentTimeMillis();
+
+			return new Fingerprint(size, lastModifiedTime, _hash(path), hashedTime);
+		}
+		catch (IOException ioException) {
+			return null;
+		}
+	}
+
+	private static final long _FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	private static final long _FNV_PRIME = 0x100000001b3L;
+
+	private static final long _MAX_HASHED_SIZE = 16 * 1024 * 1024;
+
+	private static final long _TIMESTAMP_GRANULARITY_MILLIS = 2000;
+
+	private final Map<Path, Fingerprint> _fingerprints = new ConcurrentHashMap<>();
+
+	private static class Fingerprint {
+
+		public long getHash() {
+			return _hash;
+		}
+
+		public long getHashedTime() {
+			return _hashedTime;
+		}
+
+		public long getLastModifiedTime() {
+			return _lastModifiedTime;
+		}
+
+		public long getSize() {
+			return _size;
+		}
+
+		private Fingerprint(long size, long lastModifiedTime, long hash, long hashedTime) {
+			_size = size;
+			_lastModifiedTime = lastModifiedTime;
+			_hash = hash;
+			_hashedTime = hashedTime;
+		}
+
+		private final long _hash;
+		private final long _hashedTime;
+		private final long _lastModifiedTime;
+		private final long _size;
+
+	}
+
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of durations with a bounded relative error, in the style of
+ * HdrHistogram. Values are counted in buckets whose width doubles with every
+ * power of two, each split into 64 sub-buckets, so the reported percentiles
+ * are within 1.6% of the recorded values whatever their magnitude.
+ *
+ * @author Gregory Amerson
+ */
+public class LatencyHistogram {
+
+	public long getCount() {
+		return _count;
+	}
+
+	public long getMax() {
+		return _max;
+	}
+
+	/**
+	 * Returns the highest value equivalent to the value at the percentile, or
+	 * 0 if nothing was recorded.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (_count == 0) {
+			return 0;
+		}
+
+		long countAtPercentile = (long)Math.ceil((Math.min(Math.max(percentile, 0), 100) / 100) * _count);
+
+		countAtPercentile = Math.max(countAtPercentile, 1);
+
+		long totalCount = 0;
+
+		for (int i = 0; i < _counts.length; i++) {
+			totalCount += _counts[i];
+
+			if (totalCount >= countAtPercentile) {
+				return Math.min(_getHighestEquivalentValue(i), _max);
+			}
+		}
+
+		return _max;
+	}
+
+	public void record(long value) {
+		value = Math.max(value, 0);
+
+		int index = _getIndex(value);
+
+		if (index >= _counts.length) {
+			_counts = Arrays.copyOf(_counts, index + _SUB_BUCKET_HALF_COUNT);
+		}
+
+		_counts[index]++;
+
+		_count++;
+
+		_max = Math.max(_max, value);
+	}
+
+	private static long _getHighestEquivalentValue(int index) {
+		if (index < _SUB_BUCKET_COUNT) {
+			return index;
+		}
+
+		int exponent = ((index - _SUB_BUCKET_COUNT) / _SUB_BUCKET_HALF_COUNT) + 1;
+
+		long subBucket = ((index - _SUB_BUCKET_COUNT) % _SUB_BUCKET_HALF_COUNT) + _SUB_BUCKET_HALF_COUNT;
+
+		return ((subBucket + 1) << exponent) - 1;
+	}
+
+	/**
+	 * Returns the index of the bucket of the value. Values below the sub-bucket
+	 * count are counted exactly, larger values are shifted right until they
+	 * fit in the upper half of the sub-buckets.
+	 */
+	private static int _getIndex(long value) {
+		if (value < _SUB_BUCKET_COUNT) {
+			return (int)value;
+		}
+
+		int exponent = (63 - Long.numberOfLeadingZeros(value)) - (_SUB_BUCKET_BITS - 1);
+
+		int subBucket = (int)(value >>> exponent);
+
+		return _SUB_BUCKET_COUNT + ((exponent - 1) * _SUB_BUCKET_HALF_COUNT) + (subBucket - _SUB_BUCKET_HALF_COUNT);
+	}
+
+	private static final int _SUB_BUCKET_BITS = 7;
+
+	private static final int _SUB_BUCKET_COUNT = 1 << _SUB_BUCKET_BITS;
+
+	private static final int _SUB_BUCKET_HALF_COUNT = _SUB_BUCKET_COUNT / 2;
+
+	private long _count;
+	private long[] _counts = new long[_SUB_BUCKET_COUNT];
+	private long _max;
+
+}
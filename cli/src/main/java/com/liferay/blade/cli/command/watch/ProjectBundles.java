@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import com.liferay.blade.cli.util.FileUtil;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The bundles built by the projects, read from the manifests of the jars in
+ * the output files of the tooling model.
+ *
+ * @author Gregory Amerson
+ */
+public class ProjectBundles {
+
+	public ProjectBundles(Map<String, Set<File>> projectOutputFiles) {
+		_projectOutputFiles = projectOutputFiles;
+	}
+
+	/**
+	 * Returns the symbolic name of the bundle built by the project, without
+	 * its directives, or <code>null</code> if the project did not build a
+	 * bundle yet.
+	 */
+	public String getBundleSymbolicName(String gradlePath) {
+		File jarFile = _getBundleJarFile(gradlePath);
+
+		if (jarFile == null) {
+			return null;
+		}
+
+		String bundleSymbolicName = _getManifestProperty(jarFile, "Bundle-SymbolicName");
+
+		int index = bundleSymbolicName.indexOf(';');
+
+		if (index != -1) {
+			bundleSymbolicName = bundleSymbolicName.substring(0, index);
+		}
+
+		return bundleSymbolicName.trim();
+	}
+
+	/**
+	 * Returns the version of the bundle built by the project, or
+	 * <code>null</code> if it is unknown.
+	 */
+	public String getBundleVersion(String gradlePath) {
+		File jarFile = _getBundleJarFile(gradlePath);
+
+		if (jarFile == null) {
+			return null;
+		}
+
+		String bundleVersion = _getManifestProperty(jarFile, "Bundle-Version");
+
+		if (bundleVersion == null) {
+			return null;
+		}
+
+		return bundleVersion.trim();
+	}
+
+	private static String _getManifestProperty(File jarFile, String name) {
+		try {
+			return FileUtil.getManifestProperty(jarFile, name);
+		}
+		catch (IOException ioException) {
+			return null;
+		}
+	}
+
+	private File _getBundleJarFile(String gradlePath) {
+		Set<File> outputFiles = _projectOutputFiles.getOrDefault(gradlePath, Collections.emptySet());
+
+		for (File outputFile : outputFiles) {
+			String fileName = outputFile.getName();
+
+			if (fileName.endsWith(".jar") && outputFile.isFile() &&
+				(_getManifestProperty(outputFile, "Bundle-SymbolicName") != null)) {
+
+				return outputFile;
+			}
+		}
+
+		return null;
+	}
+
+	private final Map<String, Set<File>> _projectOutputFiles;
+
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The changes to the files of a project since it was last deployed, merged
+ * into the tasks that deploy all of them: a deleted file requires a clean
+ * deploy, and a fast deploy is only enough if every change matched a fast
+ * path. A project is also redeployed when a project it depends on changed.
+ *
+ * @author Gregory Amerson
+ */
+public class ProjectChanges {
+
+	public static final String ROOT_GRADLE_PATH = ":";
+
+	public ProjectChanges(String gradlePath, Path projectPath) {
+		_gradlePath = gradlePath;
+		_projectPath = projectPath;
+
+		_firstChangeNanos = System.nanoTime();
+	}
+
+	public void add(Path path, WatchEvent.Kind<?> kind, boolean fastPath) {
+		_paths.add(path);
+
+		if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+			_clean = true;
+			_modifiedOnly = false;
+		}
+		else if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
+			_modifiedOnly = false;
+		}
+
+		if (!fastPath || !_modifiedOnly) {
+			_fast = false;
+		}
+	}
+
+	/**
+	 * Records that a project this project depends on changed, so it has to be
+	 * rebuilt against it with a full deploy.
+	 */
+	public void addChangedDependency(String gradlePath) {
+		_changedDependencies.add(gradlePath);
+
+		_fast = false;
+		_modifiedOnly = false;
+	}
+
+	public Set<String> getChangedDependencies() {
+		return Collections.unmodifiableSet(_changedDependencies);
+	}
+
+	/**
+	 * Returns the {@link System#nanoTime()} of the first change.
+	 */
+	public long getFirstChangeNanos() {
+		return _firstChangeNanos;
+	}
+
+	public String getGradlePath() {
+		return _gradlePath;
+	}
+
+	public Set<Path> getPaths() {
+		return Collections.unmodifiableSet(_paths);
+	}
+
+	public Path getProjectPath() {
+		return _projectPath;
+	}
+
+	/**
+	 * Returns the Gradle tasks that deploy the changes, qualified with the path
+	 * of the project unless it is the root project.
+	 */
+	public List<String> getTasks() {
+		String prefix = "";
+
+		if (!ROOT_GRADLE_PATH.equals(_gradlePath)) {
+			prefix = _gradlePath + ":";
+		}
+
+		List<String> tasks = new ArrayList<>();
+
+		if (_clean) {
+			tasks.add(prefix + "clean");
+			tasks.add(prefix + "deploy");
+		}
+		else if (_fast) {
+			tasks.add(prefix + "deployFast");
+		}
+		else {
+			tasks.add(prefix + "deploy");
+		}
+
+		return tasks;
+	}
+
+	public boolean isClean() {
+		return _clean;
+	}
+
+	public boolean isFast() {
+		return _fast;
+	}
+
+	/**
+	 * Returns <code>true</code> if files were only modified, so the
+	 * dependencies of the project do not have to be rebuilt.
+	 */
+	public boolean isModifiedOnly() {
+		return _modifiedOnly;
+	}
+
+	public void merge(ProjectChanges projectChanges) {
+		_changedDependencies.addAll(projectChanges._changedDependencies);
+		_paths.addAll(projectChanges._paths);
+
+		_clean = _clean || projectChanges._clean;
+		_fast = _fast && projectChanges._fast;
+		_modifiedOnly = _modifiedOnly && projectChanges._modifiedOnly;
+
+		if ((projectChanges._firstChangeNanos - _firstChangeNanos) < 0) {
+			_firstChangeNanos = projectChanges._firstChangeNanos;
+		}
+	}
+
+	private final Set<String> _changedDependencies = new LinkedHashSet<>();
+	private boolean _clean;
+	private boolean _fast = true;
+	private long _firstChangeNanos;
+	private final String _gradlePath;
+	private boolean _modifiedOnly = true;
+	private final Set<Path> _paths = new LinkedHashSet<>();
+	private final Path _projectPath;
+
+}
@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.nio.file.Path;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The dependencies between the projects of a Gradle build, used to redeploy
+ * the projects that depend on a changed project after it, in topological
+ * order.
+ *
+ * @author Gregory Amerson
+ */
+public class ProjectGraph {
+
+	public static final ProjectGraph EMPTY = new ProjectGraph(Collections.emptyMap());
+
+	public ProjectGraph(Map<String, Set<String>> projectDependencies) {
+		for (Map.Entry<String, Set<String>> entry : projectDependencies.entrySet()) {
+			String gradlePath = entry.getKey();
+
+			for (String dependencyGradlePath : entry.getValue()) {
+				Set<String> dependencies = _dependencies.computeIfAbsent(gradlePath, key -> new HashSet<>());
+
+				dependencies.add(dependencyGradlePath);
+
+				Set<String> dependents = _dependents.computeIfAbsent(dependencyGradlePath, key -> new HashSet<>());
+
+				dependents.add(gradlePath);
+			}
+		}
+	}
+
+	/**
+	 * Returns the batches to deploy one after the other: the projects of the
+	 * batch, and the deployable projects that transitively depend on them,
+	 * split into stages. Every project is deployed after the projects it
+	 * depends on, and the projects of a stage are independent of each other so
+	 * Gradle can build them in parallel.
+	 *
+	 * @param deployablePaths the Gradle paths of the projects that can be
+	 *        deployed, mapped to their directories
+	 */
+	public List<DeployBatch> getDeployBatches(DeployBatch deployBatch, Map<String, Path> deployablePaths) {
+		if (_dependents.isEmpty()) {
+			return Collections.singletonList(deployBatch);
+		}
+
+		Map<String, ProjectChanges> projectChangesMap = new LinkedHashMap<>();
+
+		for (ProjectChanges projectChanges : deployBatch.getProjectChanges()) {
+			String gradlePath = projectChanges.getGradlePath();
+
+			if (ProjectChanges.ROOT_GRADLE_PATH.equals(gradlePath)) {
+				return Collections.singletonList(deployBatch);
+			}
+
+			projectChangesMap.put(gradlePath, projectChanges);
+		}
+
+		for (ProjectChanges projectChanges : deployBatch.getProjectChanges()) {
+			String gradlePath = projectChanges.getGradlePath();
+
+			for (String dependentGradlePath : getDependents(gradlePath)) {
+				Path projectPath = deployablePaths.get(dependentGradlePath);
+
+				if (projectPath == null) {
+					continue;
+				}
+
+				ProjectChanges dependentProjectChanges = projectChangesMap.computeIfAbsent(
+					dependentGradlePath, key -> new ProjectChanges(dependentGradlePath, projectPath));
+
+				dependentProjectChanges.addChangedDependency(gradlePath);
+			}
+		}
+
+		List<DeployBatch> deployBatches = new ArrayList<>();
+
+		for (List<String> stage : getStages(projectChangesMap.keySet())) {
+			List<ProjectChanges> projectChangesList = new ArrayList<>();
+
+			for (String gradlePath : stage) {
+				projectChangesList.add(projectChangesMap.get(gradlePath));
+			}
+
+			deployBatches.add(new DeployBatch(projectChangesList));
+		}
+
+		return deployBatches;
+	}
+
+	/**
+	 * Returns the projects that transitively depend on the project.
+	 */
+	public Set<String> getDependents(String gradlePath) {
+		Set<String> dependents = new LinkedHashSet<>();
+
+		Deque<String> queue = new ArrayDeque<>();
+
+		queue.add(gradlePath);
+
+		while (!queue.isEmpty()) {
+			Set<String> directDependents = _dependents.getOrDefault(queue.poll(), Collections.emptySet());
+
+			for (String dependent : directDependents) {
+				if (!dependent.equals(gradlePath) && dependents.add(dependent)) {
+					queue.add(dependent);
+				}
+			}
+		}
+
+		return dependents;
+	}
+
+	/**
+	 * Splits the projects into stages in topological order. A project is put
+	 * in the stage after the last stage holding a project it transitively
+	 * depends on, so independent branches end up in the same stage.
+	 */
+	public List<List<String>> getStages(Collection<String> gradlePaths) {
+		Set<String> gradlePathsSet = new HashSet<>(gradlePaths);
+
+		Map<String, Integer> stageIndexes = new HashMap<>();
+
+		List<List<String>> stages = new ArrayList<>();
+
+		for (String gradlePath : gradlePaths) {
+			int stageIndex = _getStageIndex(gradlePath, gradlePathsSet, stageIndexes, new HashSet<>());
+
+			while (stages.size() <= stageIndex) {
+				stages.add(new ArrayList<>());
+			}
+
+			List<String> stage = stages.get(stageIndex);
+
+			stage.add(gradlePath);
+		}
+
+		return stages;
+	}
+
+	public boolean isEmpty() {
+		return _dependents.isEmpty();
+	}
+
+	/**
+	 * Returns the projects of the set the project transitively depends on,
+	 * looking through the projects outside of the set.
+	 */
+	private Set<String> _getDependencies(String gradlePath, Set<String> gradlePaths) {
+		Set<String> dependencies = new HashSet<>();
+
+		Set<String> visited = new HashSet<>();
+
+		Deque<String> queue = new ArrayDeque<>();
+
+		queue.add(gradlePath);
+
+		while (!queue.isEmpty()) {
+			Set<String> directDependencies = _dependencies.getOrDefault(queue.poll(), Collections.emptySet());
+
+			for (String dependency : directDependencies) {
+				if (!visited.add(dependency)) {
+					continue;
+				}
+
+				if (gradlePaths.contains(dependency)) {
+					dependencies.add(dependency);
+				}
+				else {
+					queue.add(dependency);
+				}
+			}
+		}
+
+		dependencies.remove(gradlePath);
+
+		return dependencies;
+	}
+
+	private int _getStageIndex(
+		String gradlePath, Set<String> gradlePaths, Map<String, Integer> stageIndexes, Set<String> visiting) {
+
+		Integer stageIndex = stageIndexes.get(gradlePath);
+
+		if (stageIndex != null) {
+			return stageIndex;
+		}
+
+		if (!visiting.add(gradlePath)) {
+
+			// Dependency cycle, Gradle reports it when building
+
+			return 0;
+		}
+
+		int index = 0;
+
+		for (String dependency : _getDependencies(gradlePath, gradlePaths)) {
+			index = Math.max(index, _getStageIndex(dependency, gradlePaths, stageIndexes, visiting) + 1);
+		}
+
+		visiting.remove(gradlePath);
+
+		stageIndexes.put(gradlePath, index);
+
+		return index;
+	}
+
+	private final Map<String, Set<String>> _dependencies = new HashMap<>();
+	private final Map<String, Set<String>> _dependents = new HashMap<>();
+
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.io.File;
+
+import java.nio.file.Path;
+
+import java.util.Arrays;
+
+/**
+ * The projects of a workspace indexed by the characters of their absolute
+ * paths, so the project holding a changed file is found in a single pass
+ * over its path, without allocating. A project only holds the paths it is a
+ * prefix of up to a separator, so <code>modules/foo</code> does not hold
+ * <code>modules/foo-bar</code>. Projects can be added while watching.
+ *
+ * @author Gregory Amerson
+ */
+public class ProjectTrie {
+
+	public synchronized void add(String gradlePath, Path projectPath) {
+		String pathString = projectPath.toString();
+
+		Node node = _root;
+
+		for (int i = 0; i < pathString.length(); i++) {
+			node = node.getOrAddChild(pathString.charAt(i));
+		}
+
+		if (node.getProject() == null) {
+			_size++;
+		}
+
+		node.setProject(new Project(gradlePath, projectPath));
+	}
+
+	/**
+	 * Returns the innermost project holding the path, or <code>null</code> if
+	 * it is not in any project.
+	 */
+	public synchronized Project get(Path path) {
+		String pathString = path.toString();
+
+		Project project = null;
+
+		Node node = _root;
+
+		for (int i = 0; i < pathString.length(); i++) {
+			node = node.getChild(pathString.charAt(i));
+
+			if (node == null) {
+				break;
+			}
+
+			Project nodeProject = node.getProject();
+
+			if ((nodeProject != null) &&
+				(((i + 1) == pathString.length()) || (pathString.charAt(i + 1) == File.separatorChar))) {
+
+				project = nodeProject;
+			}
+		}
+
+		return project;
+	}
+
+	public synchronized int size() {
+		return _size;
+	}
+
+	private final Node _root = new Node();
+	private int _size;
+
+	public static class Project {
+
+		public Project(String gradlePath, Path projectPath) {
+			_gradlePath = gradlePath;
+			_projectPath = projectPath;
+		}
+
+		public String getGradlePath() {
+			return _gradlePath;
+		}
+
+		public Path getProjectPath() {
+			return _projectPath;
+		}
+
+		@Override
+		public String toString() {
+			return _gradlePath + " " + _projectPath;
+		}
+
+		private final String _gradlePath;
+		private final Path _projectPath;
+
+	}
+
+	private static class Node {
+
+		public Node getChild(char c) {
+			for (int i = 0; i < _childCount; i++) {
+				if (_chars[i] == c) {
+					return _children[i];
+				}
+			}
+
+			return null;
+		}
+
+		public Node getOrAddChild(char c) {
+			Node child = getChild(c);
+
+			if (child != null) {
+				return child;
+			}
+
+			if (_childCount == _chars.length) {
+				_chars = Arrays.copyOf(_chars, Math.max(2, _childCount * 2));
+				_children = Arrays.copyOf(_children, Math.max(2, _childCount * 2));
+			}
+
+			child = new Node();
+
+			_chars[_childCount] = c;
+			_children[_childCount] = child;
+
+			_childCount++;
+
+			return child;
+		}
+
+		public Project getProject() {
+			return _project;
+		}
+
+		public void setProject(Project project) {
+			_project = project;
+		}
+
+		private int _childCount;
+		private char[] _chars = new char[0];
+		private Node[] _children = new Node[0];
+		private Project _project;
+
+	}
+
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.io.IOException;
+
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Deploys the changed static resources of a module without Gradle, by copying
+ * them into the work directory of the deployed bundle, where Liferay looks
+ * for resources that override the ones of the bundle.
+ *
+ * @author Gregory Amerson
+ */
+public class ResourceHotSwapper {
+
+	public ResourceHotSwapper(Path liferayHomePath, ProjectBundles projectBundles) {
+		_workPath = liferayHomePath.resolve("work");
+		_projectBundles = projectBundles;
+	}
+
+	/**
+	 * Copies the changed resources of the project into the work directory of
+	 * its bundle and returns <code>true</code>. Returns <code>false</code>,
+	 * without copying anything, if any change has to be deployed with Gradle:
+	 * files were created or deleted, a resource has to be compiled, or the
+	 * bundle is not deployed.
+	 */
+	public boolean hotSwap(ProjectChanges projectChanges) throws IOException {
+		if (!projectChanges.isFast() || projectChanges.isClean() ||
+			!projectChanges.getChangedDependencies().isEmpty()) {
+
+			return false;
+		}
+
+		Path bundleWorkPath = _getBundleWorkPath(projectChanges.getGradlePath());
+
+		if (bundleWorkPath == null) {
+			return false;
+		}
+
+		Path projectPath = projectChanges.getProjectPath();
+
+		Path resourcesPath = projectPath.resolve(_RESOURCES_DIR);
+
+		Map<Path, Path> targetPaths = new LinkedHashMap<>();
+
+		for (Path path : projectChanges.getPaths()) {
+			String fileName = String.valueOf(path.getFileName());
+
+			if (!path.startsWith(resourcesPath) || !Files.isRegularFile(path) || fileName.endsWith(".sass") ||
+				fileName.endsWith(".scss")) {
+
+				return false;
+			}
+
+			Path relativePath = resourcesPath.relativize(path);
+
+			targetPaths.put(path, bundleWorkPath.resolve(relativePath.toString()));
+		}
+
+		for (Map.Entry<Path, Path> entry : targetPaths.entrySet()) {
+			_copy(entry.getKey(), entry.getValue());
+		}
+
+		return true;
+	}
+
+	/**
+	 * Copies the file next to the target first, so Liferay never reads a
+	 * partially written resource.
+	 */
+	private static void _copy(Path sourcePath, Path targetPath) throws IOException {
+		Path targetDirPath = targetPath.getParent();
+
+		Files.createDirectories(targetDirPath);
+
+		Path tempPath = Files.createTempFile(targetDirPath, ".blade-", ".tmp");
+
+		try {
+			Files.copy(sourcePath, tempPath, StandardCopyOption.REPLACE_EXISTING);
+
+			try {
+				Files.move(
+					tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+				Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(tempPath);
+		}
+	}
+
+	/**
+	 * Returns the work directory of the bundle built by the project, or
+	 * <code>null</code> if it cannot be resolved or the bundle was not
+	 * deployed yet.
+	 */
+	private Path _getBundleWorkPath(String gradlePath) {
+		String bundleSymbolicName = _projectBundles.getBundleSymbolicName(gradlePath);
+
+		String bundleVersion = _projectBundles.getBundleVersion(gradlePath);
+
+		if ((bundleSymbolicName == null) || (bundleVersion == null)) {
+			return null;
+		}
+
+		Path bundleWorkPath = _workPath.resolve(bundleSymbolicName + "-" + bundleVersion);
+
+		if (!Files.isDirectory(bundleWorkPath)) {
+			return null;
+		}
+
+		return bundleWorkPath;
+	}
+
+	private static final String _RESOURCES_DIR = "src/main/resources";
+
+	private final ProjectBundles _projectBundles;
+	private final Path _workPath;
+
+}
@@ -0,0 +1,403 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.daemon;
+
+import com.liferay.blade.cli.BladeCLI;
+import com.liferay.blade.cli.command.VersionCommand;
+import com.liferay.blade.cli.gradle.GradleExecutionException;
+import com.liferay.blade.cli.util.ExecutorUtil;
+import com.liferay.blade.cli.util.ProcessesUtil;
+import com.liferay.blade.cli.util.StringUtil;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintStream;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.security.SecureRandom;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Long lived blade process that runs the commands forwarded by the blade
+ * launcher, so that the JVM, the classes of blade and the caches they fill stay
+ * warm between invocations. Only one command runs at a time, a launcher that
+ * finds the daemon busy runs its command in-process instead.
+ *
+ * @author Gregory Amerson
+ */
+public class BladeDaemon {
+
+	public static final String IDLE_TIMEOUT_PROPERTY = "blade.daemon.idle.timeout";
+
+	public static void main(String[] args) throws Exception {
+		long idleTimeoutMinutes = Long.getLong(IDLE_TIMEOUT_PROPERTY, _DEFAULT_IDLE_TIMEOUT_MINUTES);
+
+		BladeDaemon bladeDaemon = new BladeDaemon(TimeUnit.MINUTES.toMillis(idleTimeoutMinutes));
+
+		bladeDaemon.serve();
+
+		ExecutorUtil.shutdown(_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+		System.exit(0);
+	}
+
+	public BladeDaemon(long idleTimeoutMillis) {
+		_idleTimeoutMillis = idleTimeoutMillis;
+	}
+
+	public void serve() throws Exception {
+		_bladeVersion = String.valueOf(VersionCommand.getBladeCLIVersion());
+
+		_token = _generateToken();
+
+		try (ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+			_serverSocket = serverSocket;
+
+			serverSocket.setSoTimeout((int)Math.min(_idleTimeoutMillis, TimeUnit.MINUTES.toMillis(1)));
+
+			Properties properties = new Properties();
+
+			properties.setProperty(DaemonProtocol.PROPERTY_PID, String.valueOf(ProcessesUtil.getCurrentProcessId()));
+			properties.setProperty(DaemonProtocol.PROPERTY_PORT, String.valueOf(serverSocket.getLocalPort()));
+			properties.setProperty(DaemonProtocol.PROPERTY_TOKEN, _token);
+			properties.setProperty(DaemonProtocol.PROPERTY_VERSION, _bladeVersion);
+
+			DaemonProtocol.writeInfo(properties);
+
+			_lastActivity = System.currentTimeMillis();
+
+			while (!_stopped) {
+				try {
+					Socket socket = serverSocket.accept();
+
+					ExecutorUtil.execute("blade-daemon-connection", () -> _handle(socket));
+				}
+				catch (SocketTimeoutException socketTimeoutException) {
+					long idleMillis = System.currentTimeMillis() - _lastActivity;
+
+					if (!_runLock.isLocked() && (idleMillis >= _idleTimeoutMillis)) {
+						break;
+					}
+				}
+				catch (IOException ioException) {
+					if (!_stopped) {
+						throw ioException;
+					}
+				}
+			}
+		}
+		finally {
+			_runLock.lock();
+
+			_deleteInfo();
+		}
+	}
+
+	private static String _generateToken() {
+		SecureRandom secureRandom = new SecureRandom();
+
+		byte[] bytes = new byte[24];
+
+		secureRandom.nextBytes(bytes);
+
+		return StringUtil.toHex(bytes);
+	}
+
+	private void _awaitDisconnect(InputStream inputStream) throws IOException {
+		while (inputStream.read() != -1) {
+		}
+	}
+
+	private void _deleteInfo() {
+		Properties properties = DaemonProtocol.readInfo();
+
+		if ((properties != null) && Objects.equals(properties.getProperty(DaemonProtocol.PROPERTY_TOKEN), _token)) {
+			try {
+				Files.deleteIfExists(DaemonProtocol.getInfoPath());
+			}
+			catch (IOException ioException) {
+			}
+		}
+	}
+
+	private void _handle(Socket socket) {
+		try (Socket closeableSocket = socket) {
+			DataInputStream dataInputStream = new DataInputStream(
+				new BufferedInputStream(closeableSocket.getInputStream()));
+			DataOutputStream dataOutputStream = new DataOutputStream(
+				new BufferedOutputStream(closeableSocket.getOutputStream()));
+
+			String request = DaemonProtocol.readRequest(dataInputStream, _token);
+
+			if (request == null) {
+				return;
+			}
+
+			if (Objects.equals(request, DaemonProtocol.REQUEST_STATUS)) {
+				_reply(dataOutputStream, DaemonProtocol.RESPONSE_ACCEPTED, _getStatus());
+			}
+			else if (Objects.equals(request, DaemonProtocol.REQUEST_STOP)) {
+				_reply(dataOutputStream, DaemonProtocol.RESPONSE_ACCEPTED, "Stopping blade daemon.");
+
+				_stop();
+			}
+			else if (Objects.equals(request, DaemonProtocol.REQUEST_RUN)) {
+				_run(dataInputStream, dataOutputStream);
+			}
+		}
+		catch (IOException ioException) {
+		}
+	}
+
+	private String _getStatus() {
+		StringBuilder sb = new StringBuilder();
+
+		sb.append("Blade daemon is running.");
+		sb.append(System.lineSeparator());
+		sb.append("Version: " + _bladeVersion);
+		sb.append(System.lineSeparator());
+		sb.append("PID: " + ProcessesUtil.getCurrentProcessId());
+		sb.append(System.lineSeparator());
+		sb.append("Port: " + _serverSocket.getLocalPort());
+		sb.append(System.lineSeparator());
+		sb.append("Commands run: " + _commandCount.get());
+		sb.append(System.lineSeparator());
+		sb.append("Busy: " + _runLock.isLocked());
+		sb.append(System.lineSeparator());
+		sb.append("Executor: " + ExecutorUtil.getStatus());
+		sb.append(System.lineSeparator());
+		sb.append("Idle timeout: " + TimeUnit.MILLISECONDS.toMinutes(_idleTimeoutMillis) + " minutes");
+
+		return sb.toString();
+	}
+
+	private void _pumpStdin(
+		DataInputStream dataInputStream, PipedOutputStream stdinPipe, AtomicReference<Thread> commandThreadReference) {
+
+		try (PipedOutputStream pipedOutputStream = stdinPipe) {
+			while (true) {
+				byte type = dataInputStream.readByte();
+
+				byte[] bytes = DaemonProtocol.readBytes(dataInputStream, DaemonProtocol.MAX_FRAME_LENGTH);
+
+				if (type == DaemonProtocol.FRAME_STDIN_EOF) {
+					break;
+				}
+
+				if (type == DaemonProtocol.FRAME_STDIN) {
+					pipedOutputStream.write(bytes);
+					pipedOutputStream.flush();
+				}
+			}
+		}
+		catch (EOFException eofException) {
+		}
+		catch (IOException ioException) {
+		}
+
+		try {
+			_awaitDisconnect(dataInputStream);
+		}
+		catch (IOException ioException) {
+		}
+
+		// The launcher went away (e.g. Ctrl+C), stop the command it started
+
+		synchronized (commandThreadReference) {
+			Thread commandThread = commandThreadReference.get();
+
+			if (commandThread != null) {
+				commandThread.interrupt();
+			}
+		}
+	}
+
+	private void _reply(DataOutputStream dataOutputStream, byte response, String message) throws IOException {
+		dataOutputStream.writeByte(response);
+
+		DaemonProtocol.writeString(dataOutputStream, message);
+
+		dataOutputStream.flush();
+	}
+
+	private void _run(DataInputStream dataInputStream, DataOutputStream dataOutputStream) throws IOException {
+		String bladeVersion = DaemonProtocol.readString(dataInputStream);
+		String workingDir = DaemonProtocol.readString(dataInputStream);
+
+		List<String> args = new ArrayList<>();
+
+		for (int i = dataInputStream.readInt(); i > 0; i--) {
+			args.add(DaemonProtocol.readString(dataInputStream));
+		}
+
+		Map<String, String> environment = new HashMap<>();
+
+		for (int i = dataInputStream.readInt(); i > 0; i--) {
+			environment.put(DaemonProtocol.readString(dataInputStream), DaemonProtocol.readString(dataInputStream));
+		}
+
+		if (!Objects.equals(bladeVersion, _bladeVersion)) {
+			_reply(dataOutputStream, DaemonProtocol.RESPONSE_REJECTED, "Blade daemon version is " + _bladeVersion);
+
+			return;
+		}
+
+		if (!Objects.equals(environment, DaemonProtocol.getRelevantEnvironment(System.getenv()))) {
+			_reply(dataOutputStream, DaemonProtocol.RESPONSE_REJECTED, "Environment differs from blade daemon");
+
+			return;
+		}
+
+		if (_stopped || !_runLock.tryLock()) {
+			_reply(dataOutputStream, DaemonProtocol.RESPONSE_REJECTED, "Blade daemon is busy");
+
+			return;
+		}
+
+		PrintStream systemOut = System.out;
+		PrintStream systemErr = System.err;
+
+		AtomicReference<Thread> commandThreadReference = new AtomicReference<>(Thread.currentThread());
+
+		try {
+			_reply(dataOutputStream, DaemonProtocol.RESPONSE_ACCEPTED, "");
+
+			_commandCount.incrementAndGet();
+
+			// Relative paths resolve against the daemon's working directory, so
+			// the launcher keeps arguments naming them in-process and only the
+			// default base directory needs the launcher's working directory
+
+			if (!args.contains("--base")) {
+				args.add("--base");
+				args.add(workingDir);
+			}
+
+			PipedInputStream stdin = new PipedInputStream(65536);
+
+			PipedOutputStream stdinPipe = new PipedOutputStream(stdin);
+
+			ExecutorUtil.execute(
+				"blade-daemon-stdin", () -> _pumpStdin(dataInputStream, stdinPipe, commandThreadReference));
+
+			int exitCode = 0;
+
+			try (PrintStream out = new PrintStream(
+					new DaemonProtocol.FrameOutputStream(dataOutputStream, DaemonProtocol.FRAME_STDOUT), true, "UTF-8");
+				PrintStream err = new PrintStream(
+					new DaemonProtocol.FrameOutputStream(dataOutputStream, DaemonProtocol.FRAME_STDERR), true,
+					"UTF-8")) {
+
+				// Output written straight to System.out and System.err by the
+				// command or the libraries it uses belongs to this launcher too
+
+				System.setOut(out);
+				System.setErr(err);
+
+				BladeCLI bladeCLI = new BladeCLI(out, err, stdin);
+
+				try {
+					bladeCLI.run(args.toArray(new String[0]));
+				}
+				catch (GradleExecutionException gradleExecutionException) {
+					exitCode = gradleExecutionException.getReturnCode();
+				}
+				catch (Throwable th) {
+					bladeCLI.error("Unexpected error occured.");
+
+					th.printStackTrace(err);
+
+					exitCode = 1;
+				}
+			}
+
+			byte[] exitCodeBytes = String.valueOf(
+				exitCode
+			).getBytes(
+				StandardCharsets.UTF_8
+			);
+
+			DaemonProtocol.writeFrame(
+				dataOutputStream, DaemonProtocol.FRAME_EXIT, exitCodeBytes, 0, exitCodeBytes.length);
+		}
+		finally {
+			System.setOut(systemOut);
+			System.setErr(systemErr);
+
+			// The pooled thread may run the next request, so the stdin pump of
+			// this one must not interrupt it anymore
+
+			synchronized (commandThreadReference) {
+				commandThreadReference.set(null);
+
+				Thread.interrupted();
+			}
+
+			_lastActivity = System.currentTimeMillis();
+
+			_runLock.unlock();
+		}
+	}
+
+	private void _stop() {
+		_stopped = true;
+
+		try {
+			_serverSocket.close();
+		}
+		catch (IOException ioException) {
+		}
+	}
+
+	private static final long _DEFAULT_IDLE_TIMEOUT_MINUTES = 180;
+
+	private static final long _SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+	private String _bladeVersion;
+	private final AtomicInteger _commandCount = new AtomicInteger();
+	private final long _idleTimeoutMillis;
+	private volatile long _lastActivity;
+	private final ReentrantLock _runLock = new ReentrantLock();
+	private volatile ServerSocket _serverSocket;
+	private volatile boolean _stopped;
+	private String _token;
+
+}
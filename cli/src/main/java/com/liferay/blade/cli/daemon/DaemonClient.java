@@ -0,0 +1,399 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.daemon;
+
+import com.liferay.blade.cli.cds.CdsArchive;
+import com.liferay.blade.cli.command.VersionCommand;
+import com.liferay.blade.cli.util.BladeUtil;
+import com.liferay.blade.cli.util.ExecutorUtil;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thin launcher side of the blade daemon. Forwards the arguments, working
+ * directory, environment and standard streams of a blade invocation to the
+ * daemon, starting (or restarting, when its version differs) the daemon first
+ * if needed.
+ *
+ * @author Gregory Amerson
+ */
+public class DaemonClient {
+
+	public static final String DAEMON_ENVIRONMENT_VARIABLE = "BLADE_DAEMON";
+
+	public static final String DAEMON_PROPERTY = "blade.daemon";
+
+	public static String getStatus() {
+		Properties info = DaemonProtocol.readInfo();
+
+		if (info == null) {
+			return null;
+		}
+
+		return _request(info, DaemonProtocol.REQUEST_STATUS);
+	}
+
+	/**
+	 * Returns <code>true</code> if the daemon is enabled through the
+	 * <code>blade.daemon</code> system property or the
+	 * <code>BLADE_DAEMON</code> environment variable, the system property taking
+	 * precedence. The <code>daemon</code> command always runs in-process.
+	 */
+	public static boolean isEnabled(String[] args) {
+		if (Objects.equals(_getCommandName(args), "daemon")) {
+			return false;
+		}
+
+		String daemonProperty = System.getProperty(DAEMON_PROPERTY);
+
+		if (daemonProperty != null) {
+			return Boolean.parseBoolean(daemonProperty);
+		}
+
+		return Boolean.parseBoolean(System.getenv(DAEMON_ENVIRONMENT_VARIABLE));
+	}
+
+	/**
+	 * Runs the command in the daemon and returns its exit code, or
+	 * <code>null</code> if the command should run in-process because the daemon
+	 * could not be used.
+	 */
+	public static Integer run(String[] args) {
+		if (_hasRelativePath(args)) {
+			return null;
+		}
+
+		boolean accepted = false;
+
+		try {
+			String bladeVersion = _getBladeVersion();
+
+			Properties info = start();
+
+			if (info == null) {
+				return null;
+			}
+
+			try (Socket socket = _connect(info)) {
+				DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				DataOutputStream dataOutputStream = new DataOutputStream(
+					new BufferedOutputStream(socket.getOutputStream()));
+
+				_writeHeader(dataOutputStream, info, DaemonProtocol.REQUEST_RUN);
+
+				DaemonProtocol.writeString(dataOutputStream, bladeVersion);
+
+				File workingDir = new File(System.getProperty("user.dir"));
+
+				DaemonProtocol.writeString(dataOutputStream, workingDir.getAbsolutePath());
+
+				dataOutputStream.writeInt(args.length);
+
+				for (String arg : args) {
+					DaemonProtocol.writeString(dataOutputStream, arg);
+				}
+
+				Map<String, String> environment = DaemonProtocol.getRelevantEnvironment(System.getenv());
+
+				dataOutputStream.writeInt(environment.size());
+
+				for (Map.Entry<String, String> entry : environment.entrySet()) {
+					DaemonProtocol.writeString(dataOutputStream, entry.getKey());
+					DaemonProtocol.writeString(dataOutputStream, entry.getValue());
+				}
+
+				dataOutputStream.flush();
+
+				byte response = dataInputStream.readByte();
+
+				DaemonProtocol.readString(dataInputStream);
+
+				if (response != DaemonProtocol.RESPONSE_ACCEPTED) {
+					return null;
+				}
+
+				accepted = true;
+
+				ExecutorUtil.execute("blade-daemon-stdin", () -> _pumpStdin(dataOutputStream));
+
+				while (true) {
+					byte type = dataInputStream.readByte();
+
+					byte[] bytes = DaemonProtocol.readBytes(dataInputStream, DaemonProtocol.MAX_FRAME_LENGTH);
+
+					if (type == DaemonProtocol.FRAME_STDOUT) {
+						_write(System.out, bytes);
+					}
+					else if (type == DaemonProtocol.FRAME_STDERR) {
+						_write(System.err, bytes);
+					}
+					else if (type == DaemonProtocol.FRAME_EXIT) {
+						return Integer.parseInt(new String(bytes, StandardCharsets.UTF_8));
+					}
+				}
+			}
+		}
+		catch (IOException | RuntimeException exception) {
+			if (accepted) {
+				System.err.println("Lost connection to the blade daemon: " + exception.getMessage());
+
+				return 1;
+			}
+
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the connection information of a running daemon of this blade
+	 * version, starting a new daemon (and stopping one of another version) if
+	 * needed.
+	 */
+	public static Properties start() throws IOException {
+		String bladeVersion = _getBladeVersion();
+
+		Properties info = DaemonProtocol.readInfo();
+
+		if (info != null) {
+			if (Objects.equals(info.getProperty(DaemonProtocol.PROPERTY_VERSION), bladeVersion) &&
+				(_request(info, DaemonProtocol.REQUEST_STATUS) != null)) {
+
+				return info;
+			}
+
+			_request(info, DaemonProtocol.REQUEST_STOP);
+		}
+
+		String staleToken = (info == null) ? null : info.getProperty(DaemonProtocol.PROPERTY_TOKEN);
+
+		_startDaemon();
+
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(_START_TIMEOUT_SECONDS);
+
+		while (System.currentTimeMillis() < deadline) {
+			info = DaemonProtocol.readInfo();
+
+			if ((info != null) && !Objects.equals(info.getProperty(DaemonProtocol.PROPERTY_TOKEN), staleToken) &&
+				Objects.equals(info.getProperty(DaemonProtocol.PROPERTY_VERSION), bladeVersion)) {
+
+				return info;
+			}
+
+			try {
+				Thread.sleep(100);
+			}
+			catch (InterruptedException interruptedException) {
+				Thread.currentThread().interrupt();
+
+				break;
+			}
+		}
+
+		return null;
+	}
+
+	public static String stop() {
+		Properties info = DaemonProtocol.readInfo();
+
+		if (info == null) {
+			return null;
+		}
+
+		return _request(info, DaemonProtocol.REQUEST_STOP);
+	}
+
+	private static Socket _connect(Properties info) throws IOException {
+		Socket socket = new Socket();
+
+		int port = Integer.parseInt(info.getProperty(DaemonProtocol.PROPERTY_PORT));
+
+		socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), _CONNECT_TIMEOUT_MILLIS);
+
+		return socket;
+	}
+
+	private static String _getBladeVersion() throws IOException {
+		return String.valueOf(VersionCommand.getBladeCLIVersion());
+	}
+
+	/**
+	 * Returns the first argument that is neither an option nor the value of
+	 * one of the global options taking a value.
+	 */
+	private static String _getCommandName(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+
+			if (_GLOBAL_VALUE_OPTIONS.contains(arg)) {
+				i++;
+			}
+			else if (!arg.startsWith("-")) {
+				return arg;
+			}
+		}
+
+		return null;
+	}
+
+	private static Path _getExtensionsPath() {
+		return Paths.get(System.getProperty("user.home"), ".blade", "extensions");
+	}
+
+	/**
+	 * Returns <code>true</code> if any argument looks like a relative path.
+	 * The daemon runs with the working directory of the launcher as
+	 * <code>user.dir</code>, but the process directory it was started in cannot
+	 * be changed, so such arguments could resolve against the wrong directory.
+	 */
+	private static boolean _hasRelativePath(String[] args) {
+		for (String arg : args) {
+			if (arg.isEmpty() || arg.startsWith("-")) {
+				continue;
+			}
+
+			File file = new File(arg);
+
+			if (file.isAbsolute()) {
+				continue;
+			}
+
+			if (arg.startsWith(".") || (arg.indexOf('/') != -1) || (arg.indexOf(File.separatorChar) != -1) ||
+				file.exists()) {
+
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static void _pumpStdin(DataOutputStream dataOutputStream) {
+		InputStream inputStream = System.in;
+
+		byte[] buffer = new byte[8192];
+
+		try {
+			int count;
+
+			while ((count = inputStream.read(buffer)) != -1) {
+				DaemonProtocol.writeFrame(dataOutputStream, DaemonProtocol.FRAME_STDIN, buffer, 0, count);
+			}
+
+			DaemonProtocol.writeFrame(dataOutputStream, DaemonProtocol.FRAME_STDIN_EOF, buffer, 0, 0);
+		}
+		catch (IOException ioException) {
+		}
+	}
+
+	private static String _request(Properties info, String request) {
+		try (Socket socket = _connect(info)) {
+			DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DataOutputStream dataOutputStream = new DataOutputStream(
+				new BufferedOutputStream(socket.getOutputStream()));
+
+			_writeHeader(dataOutputStream, info, request);
+
+			dataOutputStream.flush();
+
+			dataInputStream.readByte();
+
+			return DaemonProtocol.readString(dataInputStream);
+		}
+		catch (IOException | NumberFormatException exception) {
+			return null;
+		}
+	}
+
+	private static void _startDaemon() throws IOException {
+		Path daemonPath = DaemonProtocol.getDaemonPath();
+
+		Files.createDirectories(daemonPath);
+
+		CdsArchive cdsArchive = new CdsArchive(BladeUtil.getBladeCachePath(), _getExtensionsPath());
+
+		List<String> command = new ArrayList<>();
+
+		command.add(cdsArchive.getJavaExecutable());
+		command.addAll(cdsArchive.getJvmOptions());
+		command.add("-Duser.home=" + System.getProperty("user.home"));
+
+		String idleTimeout = System.getProperty(BladeDaemon.IDLE_TIMEOUT_PROPERTY);
+
+		if (idleTimeout != null) {
+			command.add("-D" + BladeDaemon.IDLE_TIMEOUT_PROPERTY + "=" + idleTimeout);
+		}
+
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(BladeDaemon.class.getName());
+
+		ProcessBuilder processBuilder = new ProcessBuilder(command);
+
+		Path logPath = daemonPath.resolve("daemon.log");
+
+		processBuilder.redirectErrorStream(true);
+		processBuilder.redirectOutput(ProcessBuilder.Redirect.to(logPath.toFile()));
+
+		processBuilder.start();
+	}
+
+	private static void _write(PrintStream printStream, byte[] bytes) {
+		printStream.write(bytes, 0, bytes.length);
+
+		printStream.flush();
+	}
+
+	private static void _writeHeader(DataOutputStream dataOutputStream, Properties info, String request)
+		throws IOException {
+
+		DaemonProtocol.writeString(dataOutputStream, DaemonProtocol.MAGIC);
+		DaemonProtocol.writeString(dataOutputStream, info.getProperty(DaemonProtocol.PROPERTY_TOKEN));
+		DaemonProtocol.writeString(dataOutputStream, request);
+	}
+
+	private static final int _CONNECT_TIMEOUT_MILLIS = 2000;
+
+	private static final List<String> _GLOBAL_VALUE_OPTIONS = Arrays.asList(
+		"--base", "--build", "--profile-name", "-b", "-P");
+
+	private static final long _START_TIMEOUT_SECONDS = 30;
+
+}
@@ -0,0 +1,268 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import java.security.MessageDigest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Wire format shared by the blade launcher and the blade daemon. Every message
+ * after the handshake is a frame made of a type byte, a length and a payload.
+ *
+ * @author Gregory Amerson
+ */
+final class DaemonProtocol {
+
+	public static final byte FRAME_EXIT = 3;
+
+	public static final byte FRAME_STDERR = 2;
+
+	public static final byte FRAME_STDIN = 4;
+
+	public static final byte FRAME_STDIN_EOF = 5;
+
+	public static final byte FRAME_STDOUT = 1;
+
+	public static final String MAGIC = "blade-daemon-1";
+
+	public static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+	public static final int MAX_STRING_LENGTH = 1024 * 1024;
+
+	public static final String PROPERTY_PID = "pid";
+
+	public static final String PROPERTY_PORT = "port";
+
+	public static final String PROPERTY_TOKEN = "token";
+
+	public static final String PROPERTY_VERSION = "version";
+
+	public static final String REQUEST_RUN = "run";
+
+	public static final String REQUEST_STATUS = "status";
+
+	public static final String REQUEST_STOP = "stop";
+
+	public static final byte RESPONSE_ACCEPTED = 0;
+
+	public static final byte RESPONSE_REJECTED = 1;
+
+	public static Path getDaemonPath() {
+		return Paths.get(System.getProperty("user.home"), ".blade", "daemon");
+	}
+
+	/**
+	 * Returns the environment variables that change the outcome of a blade
+	 * command. A launcher whose variables differ from the daemon's runs its
+	 * command in-process.
+	 */
+	public static Map<String, String> getRelevantEnvironment(Map<String, String> environment) {
+		Map<String, String> relevantEnvironment = new TreeMap<>();
+
+		for (Map.Entry<String, String> entry : environment.entrySet()) {
+			String name = entry.getKey();
+
+			String upperCaseName = name.toUpperCase(Locale.ROOT);
+
+			if (_ENVIRONMENT_VARIABLE_NAMES.contains(upperCaseName) ||
+				_ENVIRONMENT_VARIABLE_PREFIXES.stream(
+				).anyMatch(
+					upperCaseName::startsWith
+				)) {
+
+				relevantEnvironment.put(name, entry.getValue());
+			}
+		}
+
+		return relevantEnvironment;
+	}
+
+	public static Path getInfoPath() {
+		Path daemonPath = getDaemonPath();
+
+		return daemonPath.resolve("daemon.properties");
+	}
+
+	public static Properties readInfo() {
+		Path infoPath = getInfoPath();
+
+		if (Files.notExists(infoPath)) {
+			return null;
+		}
+
+		Properties properties = new Properties();
+
+		try (InputStream inputStream = Files.newInputStream(infoPath)) {
+			properties.load(inputStream);
+		}
+		catch (IOException ioException) {
+			return null;
+		}
+
+		if ((properties.getProperty(PROPERTY_PORT) == null) || (properties.getProperty(PROPERTY_TOKEN) == null)) {
+			return null;
+		}
+
+		return properties;
+	}
+
+	/**
+	 * Reads a length prefixed payload, refusing negative lengths and lengths
+	 * above the given maximum before allocating anything for it.
+	 */
+	public static byte[] readBytes(DataInputStream dataInputStream, int maxLength) throws IOException {
+		int length = dataInputStream.readInt();
+
+		if ((length < 0) || (length > maxLength)) {
+			throw new IOException("Invalid length " + length + ", expected at most " + maxLength);
+		}
+
+		byte[] bytes = new byte[length];
+
+		dataInputStream.readFully(bytes);
+
+		return bytes;
+	}
+
+	/**
+	 * Reads the handshake of a connection and returns the request it makes, or
+	 * <code>null</code> if the magic or the token do not match. Both are read
+	 * with their expected length as the limit, so an unauthenticated peer
+	 * cannot make the daemon allocate more than that.
+	 */
+	public static String readRequest(DataInputStream dataInputStream, String token) throws IOException {
+		byte[] magicBytes = MAGIC.getBytes(StandardCharsets.UTF_8);
+
+		if (!Arrays.equals(readBytes(dataInputStream, magicBytes.length), magicBytes)) {
+			return null;
+		}
+
+		byte[] tokenBytes = token.getBytes(StandardCharsets.UTF_8);
+
+		if (!MessageDigest.isEqual(readBytes(dataInputStream, tokenBytes.length), tokenBytes)) {
+			return null;
+		}
+
+		return readString(dataInputStream);
+	}
+
+	public static String readString(DataInputStream dataInputStream) throws IOException {
+		byte[] bytes = readBytes(dataInputStream, MAX_STRING_LENGTH);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	public static void writeFrame(DataOutputStream dataOutputStream, byte type, byte[] bytes, int offset, int length)
+		throws IOException {
+
+		synchronized (dataOutputStream) {
+			dataOutputStream.writeByte(type);
+			dataOutputStream.writeInt(length);
+			dataOutputStream.write(bytes, offset, length);
+			dataOutputStream.flush();
+		}
+	}
+
+	public static void writeInfo(Properties properties) throws IOException {
+		Path daemonPath = getDaemonPath();
+
+		Files.createDirectories(daemonPath);
+
+		Path tempPath = Files.createTempFile(daemonPath, "daemon", ".tmp");
+
+		try {
+			Files.setPosixFilePermissions(tempPath, PosixFilePermissions.fromString("rw-------"));
+		}
+		catch (UnsupportedOperationException unsupportedOperationException) {
+		}
+
+		try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+			properties.store(outputStream, null);
+		}
+
+		Files.move(tempPath, getInfoPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	public static void writeString(DataOutputStream dataOutputStream, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+		dataOutputStream.writeInt(bytes.length);
+		dataOutputStream.write(bytes);
+	}
+
+	/**
+	 * Output stream sending everything written to it as frames of the given
+	 * type.
+	 */
+	public static class FrameOutputStream extends OutputStream {
+
+		public FrameOutputStream(DataOutputStream dataOutputStream, byte type) {
+			_dataOutputStream = dataOutputStream;
+			_type = type;
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			while (length > 0) {
+				int frameLength = Math.min(length, MAX_FRAME_LENGTH);
+
+				writeFrame(_dataOutputStream, _type, bytes, offset, frameLength);
+
+				offset += frameLength;
+				length -= frameLength;
+			}
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] {(byte)b}, 0, 1);
+		}
+
+		private final DataOutputStream _dataOutputStream;
+		private final byte _type;
+
+	}
+
+	private DaemonProtocol() {
+	}
+
+	private static final List<String> _ENVIRONMENT_VARIABLE_NAMES = Arrays.asList(
+		"HOME", "HTTP_PROXY", "HTTPS_PROXY", "NO_PROXY", "PATH", "USERPROFILE");
+
+	private static final List<String> _ENVIRONMENT_VARIABLE_PREFIXES = Arrays.asList(
+		"BLADE_", "GRADLE_", "JAVA_", "LIFERAY_", "M2_", "MAVEN_");
+
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.gradle;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Gradle build started without waiting for it to finish.
+ *
+ * @author Gregory Amerson
+ */
+public interface GradleBuild {
+
+	/**
+	 * Cancels the build, waiting up to the timeout for it to stop.
+	 */
+	public void cancel(long timeout, TimeUnit timeUnit) throws InterruptedException;
+
+	/**
+	 * Returns <code>0</code> if the build succeeded. Only valid once the build
+	 * finished.
+	 */
+	public int getExitValue();
+
+	public boolean isAlive();
+
+	/**
+	 * Waits up to the timeout for the build to finish, and returns
+	 * <code>true</code> if it did.
+	 */
+	public boolean waitFor(long timeout, TimeUnit timeUnit) throws InterruptedException;
+
+}
@@ -58,9 +58,9 @@ public class GradleExec {
 	}
 
 	public ProcessResult executeTask(String task, File baseDir, boolean captureOutput) throws Exception {
-		String executable = _getGradleExecutable(baseDir);
-
 		if (captureOutput) {
+			String executable = _getGradleExecutable(baseDir);
+
 			StringPrintStream outputStream = StringPrintStream.newInstance();
 
 			StringPrintStream errorStream = StringPrintStream.newInstance();
@@ -81,7 +81,7 @@ public class GradleExec {
 			return new ProcessResult(returnCode, output, error);
 		}
 
-		Process process = BladeUtil.startProcess("\"" + executable + "\" " + task, baseDir);
+		Process process = startTask(task, baseDir);
 
 		int returnCode = process.waitFor();
 
@@ -93,6 +93,16 @@ public class GradleExec {
 		return new ProcessResult(returnCode, null, null);
 	}
 
+	/**
+	 * Starts the task without waiting for it to finish, so the caller can
+	 * cancel it by destroying the returned process.
+	 */
+	public Process startTask(String task, File baseDir) throws Exception {
+		String executable = _getGradleExecutable(baseDir);
+
+		return BladeUtil.startProcess("\"" + executable + "\" " + task, baseDir);
+	}
+
 	private String _getGradleExecutable(File dir) throws Exception {
 		File gradlew = BladeUtil.getGradleWrapper(dir);
 
@@ -37,8 +37,6 @@ import org.gradle.tooling.ProjectConnection;
 public class GradleTooling {
 
 	public static ProjectInfo loadProjectInfo(Path projectPath) throws Exception {
-		ProjectInfo projectInfo = null;
-
 		GradleConnector connector = GradleConnector.newConnector();
 
 		connector.forProjectDirectory(projectPath.toFile());
@@ -48,45 +46,51 @@ public class GradleTooling {
 		try {
 			connection = connector.connect();
 
-			ModelBuilder<ProjectInfo> modelBuilder = connection.model(ProjectInfo.class);
+			return loadProjectInfo(connection);
+		}
+		finally {
+			if (connection != null) {
+				connection.close();
+			}
+		}
+	}
+
+	/**
+	 * Loads the project info through a connection that is kept open by the
+	 * caller.
+	 */
+	public static ProjectInfo loadProjectInfo(ProjectConnection connection) throws Exception {
+		ModelBuilder<ProjectInfo> modelBuilder = connection.model(ProjectInfo.class);
 
-			Path tempPath = Files.createTempDirectory("tooling");
+		Path tempPath = Files.createTempDirectory("tooling");
 
-			InputStream in = GradleTooling.class.getResourceAsStream("/tooling.zip");
+		InputStream in = GradleTooling.class.getResourceAsStream("/tooling.zip");
 
-			FileUtil.unzip(in, tempPath.toFile());
+		FileUtil.unzip(in, tempPath.toFile());
 
-			try (Stream<Path> toolingFiles = Files.list(tempPath)) {
-				String files = toolingFiles.map(
-					Path::toAbsolutePath
-				).map(
-					Path::toString
-				).map(
-					path -> "\"" + path.replaceAll("\\\\", "/") + "\""
-				).collect(
-					Collectors.joining(", ")
-				);
+		try (Stream<Path> toolingFiles = Files.list(tempPath)) {
+			String files = toolingFiles.map(
+				Path::toAbsolutePath
+			).map(
+				Path::toString
+			).map(
+				path -> "\"" + path.replaceAll("\\\\", "/") + "\""
+			).collect(
+				Collectors.joining(", ")
+			);
 
-				String initScriptTemplate = FileUtil.collect(GradleTooling.class.getResourceAsStream("init.gradle"));
+			String initScriptTemplate = FileUtil.collect(GradleTooling.class.getResourceAsStream("init.gradle"));
 
-				String initScriptContents = initScriptTemplate.replaceAll("%files%", files);
+			String initScriptContents = initScriptTemplate.replaceAll("%files%", files);
 
-				Path initPath = tempPath.resolve("init.gradle");
+			Path initPath = tempPath.resolve("init.gradle");
 
-				Files.write(initPath, initScriptContents.getBytes());
+			Files.write(initPath, initScriptContents.getBytes());
 
-				modelBuilder.withArguments("--init-script", initPath.toString(), "--stacktrace");
+			modelBuilder.withArguments("--init-script", initPath.toString(), "--stacktrace");
 
-				projectInfo = modelBuilder.get();
-			}
-		}
-		finally {
-			if (connection != null) {
-				connection.close();
-			}
+			return modelBuilder.get();
 		}
-
-		return projectInfo;
 	}
 
 }
\ No newline at end of file
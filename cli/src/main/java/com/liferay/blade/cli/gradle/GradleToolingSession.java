@@ -0,0 +1,307 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.gradle;
+
+import com.liferay.blade.gradle.tooling.ProjectInfo;
+
+import java.io.File;
+import java.io.PrintStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.gradle.tooling.BuildCancelledException;
+import org.gradle.tooling.BuildException;
+import org.gradle.tooling.BuildLauncher;
+import org.gradle.tooling.CancellationTokenSource;
+import org.gradle.tooling.GradleConnectionException;
+import org.gradle.tooling.GradleConnector;
+import org.gradle.tooling.ProjectConnection;
+import org.gradle.tooling.ResultHandler;
+
+/**
+ * Launches the builds of a Gradle project through a single Tooling API
+ * connection, kept open for the whole session so every build talks to the
+ * daemon directly instead of forking the wrapper and a client JVM. Once the
+ * connection fails, or if the Tooling API is not used at all, builds are
+ * launched in a separate process instead.
+ *
+ * @author Gregory Amerson
+ */
+public class GradleToolingSession implements AutoCloseable {
+
+	public GradleToolingSession(
+		GradleExec gradleExec, File projectDir, boolean useToolingApi, PrintStream out, PrintStream err) {
+
+		_gradleExec = gradleExec;
+		_projectDir = projectDir;
+		_useToolingApi = useToolingApi;
+		_out = out;
+		_err = err;
+	}
+
+	@Override
+	public synchronized void close() {
+		_closed = true;
+
+		if (_projectConnection != null) {
+			_projectConnection.close();
+
+			_projectConnection = null;
+		}
+	}
+
+	public synchronized boolean isConnected() {
+		return _useToolingApi && !_failed && !_closed;
+	}
+
+	public ProjectInfo loadProjectInfo() throws Exception {
+		ProjectConnection projectConnection = _getProjectConnection();
+
+		if (projectConnection == null) {
+			return GradleTooling.loadProjectInfo(_projectDir.toPath());
+		}
+
+		return GradleTooling.loadProjectInfo(projectConnection);
+	}
+
+	/**
+	 * Starts a build with the tasks and arguments, through the Tooling API
+	 * connection unless it failed.
+	 */
+	public GradleBuild startBuild(List<String> arguments) throws Exception {
+		ProjectConnection projectConnection = _getProjectConnection();
+
+		if (projectConnection == null) {
+			return _startProcessBuild(arguments);
+		}
+
+		ToolingGradleBuild toolingGradleBuild = new ToolingGradleBuild(arguments);
+
+		toolingGradleBuild.start(projectConnection);
+
+		return toolingGradleBuild;
+	}
+
+	private synchronized void _fail(Throwable throwable) {
+		if (_failed) {
+			return;
+		}
+
+		_failed = true;
+
+		_err.println(
+			"Unable to build through the Gradle Tooling API, launching Gradle instead: " + throwable.getMessage());
+
+		if (_projectConnection != null) {
+			_projectConnection.close();
+
+			_projectConnection = null;
+		}
+	}
+
+	private synchronized ProjectConnection _getProjectConnection() {
+		if (!isConnected()) {
+			return null;
+		}
+
+		if (_projectConnection == null) {
+			try {
+				GradleConnector gradleConnector = GradleConnector.newConnector();
+
+				gradleConnector.forProjectDirectory(_projectDir);
+
+				_projectConnection = gradleConnector.connect();
+			}
+			catch (Exception exception) {
+				_fail(exception);
+			}
+		}
+
+		return _projectConnection;
+	}
+
+	private GradleBuild _startProcessBuild(List<String> arguments) throws Exception {
+		Process process = _gradleExec.startTask(String.join(" ", arguments), _projectDir);
+
+		return new ProcessGradleBuild(process);
+	}
+
+	private boolean _closed;
+	private final PrintStream _err;
+	private boolean _failed;
+	private final GradleExec _gradleExec;
+	private final PrintStream _out;
+	private final File _projectDir;
+	private ProjectConnection _projectConnection;
+	private final boolean _useToolingApi;
+
+	private class ToolingGradleBuild implements GradleBuild, ResultHandler<Void> {
+
+		@Override
+		public void cancel(long timeout, TimeUnit timeUnit) throws InterruptedException {
+			GradleBuild processGradleBuild;
+
+			synchronized (this) {
+				_cancelled = true;
+
+				processGradleBuild = _processGradleBuild;
+			}
+
+			if (processGradleBuild != null) {
+				processGradleBuild.cancel(timeout, timeUnit);
+
+				return;
+			}
+
+			_cancellationTokenSource.cancel();
+
+			_completedLatch.await(timeout, timeUnit);
+		}
+
+		@Override
+		public synchronized int getExitValue() {
+			if (_processGradleBuild != null) {
+				return _processGradleBuild.getExitValue();
+			}
+
+			if (_failure != null) {
+				return 1;
+			}
+
+			return 0;
+		}
+
+		@Override
+		public boolean isAlive() {
+			if (_completedLatch.getCount() > 0) {
+				return true;
+			}
+
+			GradleBuild processGradleBuild = _getProcessGradleBuild();
+
+			if (processGradleBuild != null) {
+				return processGradleBuild.isAlive();
+			}
+
+			return false;
+		}
+
+		@Override
+		public void onComplete(Void result) {
+			_completedLatch.countDown();
+		}
+
+		/**
+		 * Keeps the failure of the build itself, but falls back to launching
+		 * Gradle in a separate process when the connection failed.
+		 */
+		@Override
+		public void onFailure(GradleConnectionException gradleConnectionException) {
+			try {
+				if ((gradleConnectionException instanceof BuildCancelledException) ||
+					(gradleConnectionException instanceof BuildException)) {
+
+					_setFailure(gradleConnectionException);
+
+					return;
+				}
+
+				_fail(gradleConnectionException);
+
+				synchronized (this) {
+					if (_cancelled) {
+						_failure = gradleConnectionException;
+					}
+					else {
+						_processGradleBuild = _startProcessBuild(_arguments);
+					}
+				}
+			}
+			catch (Exception exception) {
+				_setFailure(exception);
+			}
+			finally {
+				_completedLatch.countDown();
+			}
+		}
+
+		public void start(ProjectConnection projectConnection) {
+			List<String> arguments = new ArrayList<>();
+			List<String> tasks = new ArrayList<>();
+
+			for (String argument : _arguments) {
+				if (argument.startsWith("-")) {
+					arguments.add(argument);
+				}
+				else {
+					tasks.add(argument);
+				}
+			}
+
+			BuildLauncher buildLauncher = projectConnection.newBuild();
+
+			buildLauncher.forTasks(tasks.toArray(new String[0]));
+			buildLauncher.setStandardError(_err);
+			buildLauncher.setStandardOutput(_out);
+			buildLauncher.withArguments(arguments);
+			buildLauncher.withCancellationToken(_cancellationTokenSource.token());
+
+			buildLauncher.run(this);
+		}
+
+		@Override
+		public boolean waitFor(long timeout, TimeUnit timeUnit) throws InterruptedException {
+			long deadlineNanos = System.nanoTime() + timeUnit.toNanos(timeout);
+
+			if (!_completedLatch.await(timeout, timeUnit)) {
+				return false;
+			}
+
+			GradleBuild processGradleBuild = _getProcessGradleBuild();
+
+			if (processGradleBuild == null) {
+				return true;
+			}
+
+			return processGradleBuild.waitFor(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+		}
+
+		private ToolingGradleBuild(List<String> arguments) {
+			_arguments = arguments;
+		}
+
+		private synchronized GradleBuild _getProcessGradleBuild() {
+			return _processGradleBuild;
+		}
+
+		private synchronized void _setFailure(Exception exception) {
+			_failure = exception;
+		}
+
+		private final List<String> _arguments;
+		private final CancellationTokenSource _cancellationTokenSource = GradleConnector.newCancellationTokenSource();
+		private boolean _cancelled;
+		private final CountDownLatch _completedLatch = new CountDownLatch(1);
+		private Exception _failure;
+		private GradleBuild _processGradleBuild;
+
+	}
+
+}
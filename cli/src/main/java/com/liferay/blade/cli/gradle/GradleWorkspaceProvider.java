@@ -24,15 +24,16 @@ import com.liferay.blade.cli.WorkspaceProvider;
 import com.liferay.blade.cli.command.BaseArgs;
 import com.liferay.blade.cli.util.BladeUtil;
 import com.liferay.blade.cli.util.ProductInfo;
+import com.liferay.blade.cli.util.WorkspaceCache;
 import com.liferay.project.templates.extensions.util.VersionUtil;
 
 import java.io.File;
 import java.io.FilenameFilter;
 
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -64,7 +65,6 @@ public class GradleWorkspaceProvider implements WorkspaceProvider {
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public String getLiferayVersion(File workspaceDir) {
 		try {
 			Properties gradleProperties = getGradleProperties(workspaceDir);
@@ -78,9 +78,7 @@ public class GradleWorkspaceProvider implements WorkspaceProvider {
 			if (!baseLiferayVersion.isPresent()) {
 				String productKey = gradleProperties.getProperty(WorkspaceConstants.DEFAULT_WORKSPACE_PRODUCT_PROPERTY);
 
-				Map<String, Object> productInfoMap = BladeUtil.getProductInfos();
-
-				ProductInfo productInfo = new ProductInfo((Map<String, String>)productInfoMap.get(productKey));
+				ProductInfo productInfo = BladeUtil.getProductInfo(productKey);
 
 				if (productInfo != null) {
 					baseLiferayVersion = Optional.ofNullable(
@@ -184,23 +182,7 @@ public class GradleWorkspaceProvider implements WorkspaceProvider {
 
 	@Override
 	public File getWorkspaceDir(File dir) {
-		File gradleParent = BladeUtil.findParentFile(
-			dir, new String[] {_SETTINGS_GRADLE_FILE_NAME, _GRADLE_PROPERTIES_FILE_NAME}, true);
-
-		if ((gradleParent != null) && gradleParent.exists()) {
-			return gradleParent;
-		}
-
-		FilenameFilter gradleFilter =
-			(file, name) -> _SETTINGS_GRADLE_FILE_NAME.equals(name) || _GRADLE_PROPERTIES_FILE_NAME.equals(name);
-
-		File[] matches = dir.listFiles(gradleFilter);
-
-		if (Objects.nonNull(matches) && (matches.length > 0)) {
-			return dir;
-		}
-
-		return null;
+		return WorkspaceCache.resolve("gradle.workspaceDir", dir, this::_getWorkspaceDir);
 	}
 
 	@Override
@@ -248,6 +230,32 @@ public class GradleWorkspaceProvider implements WorkspaceProvider {
 
 	@Override
 	public boolean isWorkspace(File dir) {
+		Boolean workspace = WorkspaceCache.resolve("gradle.workspace", dir, this::_isWorkspace);
+
+		return workspace;
+	}
+
+	private File _getWorkspaceDir(File dir) {
+		File gradleParent = BladeUtil.findParentFile(
+			dir, new String[] {_SETTINGS_GRADLE_FILE_NAME, _GRADLE_PROPERTIES_FILE_NAME}, true);
+
+		if ((gradleParent != null) && gradleParent.exists()) {
+			return gradleParent;
+		}
+
+		FilenameFilter gradleFilter =
+			(file, name) -> _SETTINGS_GRADLE_FILE_NAME.equals(name) || _GRADLE_PROPERTIES_FILE_NAME.equals(name);
+
+		File[] matches = dir.listFiles(gradleFilter);
+
+		if (Objects.nonNull(matches) && (matches.length > 0)) {
+			return dir;
+		}
+
+		return null;
+	}
+
+	private boolean _isWorkspace(File dir) {
 		File workspaceDir = getWorkspaceDir(dir);
 
 		if (Objects.isNull(dir) || Objects.isNull(workspaceDir)) {
@@ -260,28 +268,95 @@ public class GradleWorkspaceProvider implements WorkspaceProvider {
 			return false;
 		}
 
-		try {
-			String script = BladeUtil.read(gradleFile);
+		if (WorkspaceCache.anyLineMatches(_WORKSPACE_PLUGIN_SCAN_KEY, gradleFile, new WorkspacePluginScanner())) {
 
-			Matcher matcher = patternWorkspacePlugin.matcher(script);
+			return true;
+		}
 
-			if (matcher.find()) {
+		//For workspace plugin < 1.0.5
+
+		gradleFile = new File(workspaceDir, _BUILD_GRADLE_FILE_NAME);
+
+		return WorkspaceCache.anyLineMatches(_WORKSPACE_PLUGIN_SCAN_KEY, gradleFile, new WorkspacePluginScanner());
+	}
+
+	/**
+	 * Finds the same text as {@link #patternWorkspacePlugin} with a single pass
+	 * over the script, whereas the leading <code>.*</code> of the pattern makes
+	 * it backtrack over the whole script. The lines of the script are given to
+	 * {@link #test(String)} in order.
+	 */
+	private static class WorkspacePluginScanner implements Predicate<String> {
+
+		@Override
+		public boolean test(String line) {
+			for (int i = 0; i < line.length(); i++) {
+				_accept(line.charAt(i));
+			}
+
+			_accept('\n');
+
+			return _matched;
+		}
+
+		private static boolean _isWhitespace(char c) {
+			if ((c == ' ') || (c == '\t') || (c == '\n') || (c == '\u000B') || (c == '\f') || (c == '\r')) {
 				return true;
 			}
 
-			//For workspace plugin < 1.0.5
+			return false;
+		}
+
+		private void _accept(char c) {
+			while (_index < _PATTERN.length()) {
+				char expected = _PATTERN.charAt(_index);
 
-			gradleFile = new File(workspaceDir, _BUILD_GRADLE_FILE_NAME);
+				if (expected == ' ') {
+					if (_isWhitespace(c)) {
+						return;
+					}
 
-			script = BladeUtil.read(gradleFile);
+					_index++;
 
-			matcher = patternWorkspacePlugin.matcher(script);
+					continue;
+				}
 
-			return matcher.find();
+				if ((c == expected) || ((expected == '\'') && (c == '"'))) {
+					_index++;
+				}
+				else {
+					_restart(c);
+				}
+
+				return;
+			}
+
+			if (c == '\n') {
+				_matched = true;
+			}
+			else if (!_isWhitespace(c)) {
+				_restart(c);
+			}
 		}
-		catch (Exception exception) {
-			return false;
+
+		private void _restart(char c) {
+			if (c == _PATTERN.charAt(0)) {
+				_index = 1;
+			}
+			else {
+				_index = 0;
+			}
 		}
+
+		/**
+		 * Spaces stand for optional whitespace, including line breaks, and
+		 * single quotes for either quote.
+		 */
+		private static final String _PATTERN = "apply plugin : 'com.liferay.workspace'";
+
+		private int _index;
+		private boolean _matched;
+
 	}
 
 	private static final String _BUILD_GRADLE_FILE_NAME = "build.gradle";
@@ -290,4 +365,6 @@ public class GradleWorkspaceProvider implements WorkspaceProvider {
 
 	private static final String _SETTINGS_GRADLE_FILE_NAME = "settings.gradle";
 
+	private static final String _WORKSPACE_PLUGIN_SCAN_KEY = "gradle.workspacePlugin";
+
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.gradle;
+
+import com.liferay.blade.cli.util.ProcessesUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Gradle build running in a separate process, cancelled by destroying the
+ * process and its children.
+ *
+ * @author Gregory Amerson
+ */
+public class ProcessGradleBuild implements GradleBuild {
+
+	public ProcessGradleBuild(Process process) {
+		_process = process;
+	}
+
+	@Override
+	public void cancel(long timeout, TimeUnit timeUnit) throws InterruptedException {
+		ProcessesUtil.destroyProcessTree(_process, timeout, timeUnit);
+	}
+
+	@Override
+	public int getExitValue() {
+		return _process.exitValue();
+	}
+
+	@Override
+	public boolean isAlive() {
+		return _process.isAlive();
+	}
+
+	@Override
+	public boolean waitFor(long timeout, TimeUnit timeUnit) throws InterruptedException {
+		return _process.waitFor(timeout, timeUnit);
+	}
+
+	private final Process _process;
+
+}
@@ -17,15 +17,9 @@
 package com.liferay.blade.cli.util;
 
 import com.liferay.blade.cli.BladeCLI;
-import com.liferay.blade.cli.Extensions;
 import com.liferay.blade.cli.command.SamplesCommand;
-import com.liferay.blade.cli.command.validator.WorkspaceProductComparator;
-import com.liferay.portal.tools.bundle.support.commands.DownloadCommand;
-import com.liferay.project.templates.ProjectTemplates;
 import com.liferay.project.templates.extensions.util.ProjectTemplatesUtil;
 
-import groovy.json.JsonSlurper;
-
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
@@ -51,9 +45,7 @@ import java.security.ProtectionDomain;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -243,51 +235,36 @@ public class BladeUtil {
 		}
 	}
 
-	public static Map<String, Object> getProductInfos() {
-		return getProductInfos(false, null);
+	public static ProductInfo getProductInfo(String productKey) {
+		return getProductInfo(productKey, false, null);
 	}
 
-	@SuppressWarnings("unchecked")
-	public static synchronized Map<String, Object> getProductInfos(boolean trace, PrintStream printStream) {
-		if (!_productInfoMap.isEmpty()) {
-			return _productInfoMap;
-		}
+	/**
+	 * Returns the product with the given key from the product info index,
+	 * refreshing the index first if it does not know the product yet.
+	 */
+	public static ProductInfo getProductInfo(String productKey, boolean trace, PrintStream printStream) {
+		ProductInfoIndex productInfoIndex = ProductInfoIndex.get(trace, printStream);
 
-		JsonSlurper jsonSlurper = new JsonSlurper();
+		ProductInfo productInfo = productInfoIndex.getProductInfo(productKey);
 
-		try {
-			DownloadCommand downloadCommand = new DownloadCommand();
+		if ((productInfo == null) && (productKey != null)) {
+			productInfoIndex = ProductInfoIndex.refresh(trace, printStream);
 
-			downloadCommand.setCacheDir(_workspaceCacheDir);
-			downloadCommand.setConnectionTimeout(5000);
-			downloadCommand.setPassword(null);
-			downloadCommand.setToken(false);
-			downloadCommand.setUrl(new URL(_PRODUCT_INFO_URL));
-			downloadCommand.setUserName(null);
-			downloadCommand.setQuiet(true);
+			productInfo = productInfoIndex.getProductInfo(productKey);
+		}
 
-			downloadCommand.execute();
+		return productInfo;
+	}
 
-			try (BufferedReader reader = Files.newBufferedReader(downloadCommand.getDownloadPath())) {
-				_productInfoMap = (Map<String, Object>)jsonSlurper.parse(reader);
-			}
-		}
-		catch (Exception exception1) {
-			if (trace && (printStream != null)) {
-				exception1.printStackTrace(printStream);
-			}
+	public static Map<String, Object> getProductInfos() {
+		return getProductInfos(false, null);
+	}
 
-			try (InputStream resourceAsStream = BladeUtil.class.getResourceAsStream("/.product_info.json")) {
-				_productInfoMap = (Map<String, Object>)jsonSlurper.parse(resourceAsStream);
-			}
-			catch (Exception exception2) {
-				if (trace && (printStream != null)) {
-					exception2.printStackTrace(printStream);
-				}
-			}
-		}
+	public static Map<String, Object> getProductInfos(boolean trace, PrintStream printStream) {
+		ProductInfoIndex productInfoIndex = ProductInfoIndex.get(trace, printStream);
 
-		return _productInfoMap;
+		return productInfoIndex.getProductInfos();
 	}
 
 	public static Properties getProperties(File file) {
@@ -304,51 +281,21 @@ public class BladeUtil {
 	}
 
 	public static Collection<String> getTemplateNames(BladeCLI blade) throws Exception {
-		Map<String, String> templates = getTemplates(blade);
+		TemplateCatalog templateCatalog = blade.getTemplateCatalog();
 
-		return templates.keySet();
+		return templateCatalog.getNames();
 	}
 
 	public static Map<String, String> getTemplates(BladeCLI bladeCLI) throws Exception {
-		Path extensionsPath = bladeCLI.getExtensionsPath();
-
-		Collection<File> templatesFiles = new HashSet<>();
-
-		templatesFiles.add(extensionsPath.toFile());
-
-		Extensions extensions = bladeCLI.getExtensions();
-
-		Path extensionTemplates = extensions.getTemplatesPath();
-
-		templatesFiles.add(extensionTemplates.toFile());
+		TemplateCatalog templateCatalog = bladeCLI.getTemplateCatalog();
 
-		return ProjectTemplates.getTemplates(templatesFiles);
+		return templateCatalog.getTemplates();
 	}
 
-	@SuppressWarnings("unchecked")
 	public static List<String> getWorkspaceProductKeys(boolean promoted) {
-		Map<String, Object> productInfos = getProductInfos();
-
-		return productInfos.entrySet(
-		).stream(
-		).filter(
-			entry -> Objects.nonNull(productInfos.get(entry.getKey()))
-		).map(
-			entry -> new Pair<>(entry.getKey(), new ProductInfo((Map<String, String>)productInfos.get(entry.getKey())))
-		).filter(
-			pair -> {
-				ProductInfo productInfo = pair.second();
-
-				return Objects.nonNull(productInfo.getTargetPlatformVersion()) &&
-					   (!promoted || (promoted && productInfo.isPromoted()));
-			}
-		).sorted(
-			new WorkspaceProductComparator()
-		).map(
-			Pair::first
-		).collect(
-			Collectors.toList()
-		);
+		ProductInfoIndex productInfoIndex = ProductInfoIndex.get();
+
+		return new ArrayList<>(productInfoIndex.getKeys(promoted));
 	}
 
 	public static boolean hasGradleWrapper(File dir) {
@@ -450,26 +397,19 @@ public class BladeUtil {
 	}
 
 	public static void readProcessStream(final InputStream inputStream, final PrintStream printStream) {
-		Thread thread = new Thread(
-			new Runnable() {
-
-				@Override
-				public void run() {
-					try (Scanner scanner = new Scanner(inputStream)) {
-						while (scanner.hasNextLine()) {
-							String line = scanner.nextLine();
-
-							if (line != null) {
-								AnsiLinePrinter.println(printStream, line);
-							}
+		ExecutorUtil.execute(
+			"blade-process-stream",
+			() -> {
+				try (Scanner scanner = new Scanner(inputStream)) {
+					while (scanner.hasNextLine()) {
+						String line = scanner.nextLine();
+
+						if (line != null) {
+							AnsiLinePrinter.println(printStream, line);
 						}
 					}
 				}
-
 			});
-
-		thread.setDaemon(true);
-		thread.start();
 	}
 
 	public static boolean searchZip(Path path, Predicate<String> test) {
@@ -661,16 +601,8 @@ public class BladeUtil {
 		"build." + System.getenv("HOSTNAME") + ".properties", "build.properties"
 	};
 
-	private static final String _DEFAULT_WORKSPACE_CACHE_DIR_NAME = ".liferay/workspace";
-
 	private static final String _GRADLEW_UNIX_FILE_NAME = "gradlew";
 
 	private static final String _GRADLEW_WINDOWS_FILE_NAME = "gradlew.bat";
 
-	private static final String _PRODUCT_INFO_URL = "https://releases.liferay.com/tools/workspace/.product_info.json";
-
-	private static Map<String, Object> _productInfoMap = Collections.emptyMap();
-	private static File _workspaceCacheDir = new File(
-		System.getProperty("user.home"), _DEFAULT_WORKSPACE_CACHE_DIR_NAME);
-
 }
\ No newline at end of file
@@ -29,11 +29,19 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
-import java.util.Objects;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
+ * Class loader that finds classes and resources in a list of delegates. Found
+ * resources and misses are cached, and lookups try the delegate that provided
+ * the other resources of the same package first, so packages are expected not
+ * to be split across delegates.
+ *
  * @author Christopher Bryan Boyd
  */
 public class CombinedClassLoader extends ClassLoader implements AutoCloseable {
@@ -57,6 +65,10 @@ public class CombinedClassLoader extends ClassLoader implements AutoCloseable {
 			catch (Throwable th) {
 			}
 		}
+
+		_missingResources.clear();
+		_packageClassLoaders.clear();
+		_resources.clear();
 	}
 
 	@Override
@@ -83,16 +95,48 @@ public class CombinedClassLoader extends ClassLoader implements AutoCloseable {
 
 	@Override
 	protected URL findResource(String name) {
-		Stream<ClassLoader> urlStream = _classLoaders.stream();
+		URL url = _resources.get(name);
+
+		if (url != null) {
+			return url;
+		}
+
+		if (_missingResources.contains(name)) {
+			return null;
+		}
+
+		String packageName = _getPackageName(name);
 
-		return urlStream.map(
-			c -> c.getResource(name)
-		).filter(
-			Objects::nonNull
-		).findAny(
-		).orElse(
-			null
-		);
+		ClassLoader packageClassLoader = _packageClassLoaders.get(packageName);
+
+		if (packageClassLoader != null) {
+			url = packageClassLoader.getResource(name);
+
+			if (url != null) {
+				_resources.put(name, url);
+
+				return url;
+			}
+		}
+
+		for (ClassLoader classLoader : _classLoaders) {
+			if (classLoader == packageClassLoader) {
+				continue;
+			}
+
+			url = classLoader.getResource(name);
+
+			if (url != null) {
+				_packageClassLoaders.putIfAbsent(packageName, classLoader);
+				_resources.put(name, url);
+
+				return url;
+			}
+		}
+
+		_missingResources.add(name);
+
+		return null;
 	}
 
 	@Override
@@ -111,6 +155,16 @@ public class CombinedClassLoader extends ClassLoader implements AutoCloseable {
 			));
 	}
 
+	private static String _getPackageName(String name) {
+		int index = name.lastIndexOf('/');
+
+		if (index == -1) {
+			return "";
+		}
+
+		return name.substring(0, index);
+	}
+
 	private void _add(ClassLoader classLoader) {
 		_classLoaders.add(classLoader);
 	}
@@ -143,6 +197,13 @@ public class CombinedClassLoader extends ClassLoader implements AutoCloseable {
 		}
 	}
 
-	private Collection<ClassLoader> _classLoaders = new ArrayList<>();
+	static {
+		ClassLoader.registerAsParallelCapable();
+	}
+
+	private final List<ClassLoader> _classLoaders = new ArrayList<>();
+	private final Set<String> _missingResources = ConcurrentHashMap.newKeySet();
+	private final Map<String, ClassLoader> _packageClassLoaders = new ConcurrentHashMap<>();
+	private final Map<String, URL> _resources = new ConcurrentHashMap<>();
 
 }
\ No newline at end of file
@@ -0,0 +1,410 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.io.IOException;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * The names, sizes and modification times of the entries of the watched
+ * directories. When a watch service loses events, rescanning the affected
+ * subtree and diffing it against the snapshot gives back the changes that
+ * were missed.
+ *
+ * @author Gregory Amerson
+ */
+public class DirectorySnapshot {
+
+	public DirectorySnapshot(Predicate<Path> ignoredPredicate) {
+		_ignoredPredicate = ignoredPredicate;
+	}
+
+	/**
+	 * Records the entries of the directory, replacing its previous snapshot.
+	 */
+	public void record(Path dir) {
+		Map<String, Entry> entries = _list(dir);
+
+		if (entries == null) {
+			_remove(dir);
+		}
+		else {
+			_snapshots.put(dir, entries);
+		}
+	}
+
+	/**
+	 * Rescans the directory and its subdirectories, in parallel, and returns
+	 * the differences with the snapshot as watch event kinds. Entries of new
+	 * directories are reported as created, entries of directories that no
+	 * longer exist as deleted. The snapshot is updated to the rescanned state.
+	 */
+	public List<Change> rescan(Path dir) {
+		return rescan(dir, path -> true);
+	}
+
+	/**
+	 * Rescans the directory, only descending into the subdirectories accepted
+	 * by the predicate. Subdirectories that are not descended into are still
+	 * reported when they are created or deleted. Each level of the tree is
+	 * split across the shared blade executor.
+	 */
+	public List<Change> rescan(Path dir, Predicate<Path> descendPredicate) {
+		List<Change> changes = new ArrayList<>();
+
+		List<Path> dirs = Collections.singletonList(dir);
+
+		while (!dirs.isEmpty()) {
+			List<Path> subdirs = new ArrayList<>();
+
+			for (Rescan rescan : _rescan(dirs, descendPredicate)) {
+				changes.addAll(rescan.getChanges());
+				subdirs.addAll(rescan.getSubdirs());
+			}
+
+			dirs = subdirs;
+		}
+
+		return changes;
+	}
+
+	public int size() {
+		return _snapshots.size();
+	}
+
+	/**
+	 * Updates the snapshot of the parent directory with an entry reported by
+	 * the watch service, so a later rescan does not report it again.
+	 */
+	public void update(Path path, WatchEvent.Kind<?> kind) {
+		Map<String, Entry> entries = _snapshots.get(path.getParent());
+
+		if (entries == null) {
+			return;
+		}
+
+		String name = String.valueOf(path.getFileName());
+
+		Entry entry = null;
+
+		if (kind != StandardWatchEventKinds.ENTRY_DELETE) {
+			entry = _getEntry(path);
+		}
+
+		if (entry == null) {
+			Entry previousEntry = entries.remove(name);
+
+			if ((previousEntry != null) && previousEntry.isDirectory()) {
+				_remove(path);
+			}
+		}
+		else {
+			entries.put(name, entry);
+		}
+	}
+
+	private static <T> List<List<T>> _partition(List<T> list, int count) {
+		List<List<T>> partitions = new ArrayList<>();
+
+		int size = (list.size() + count - 1) / count;
+
+		for (int i = 0; i < list.size(); i += size) {
+			partitions.add(list.subList(i, Math.min(i + size, list.size())));
+		}
+
+		return partitions;
+	}
+
+	private Entry _getEntry(Path path) {
+		try {
+			BasicFileAttributes basicFileAttributes = Files.readAttributes(
+				path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+
+			FileTime fileTime = basicFileAttributes.lastModifiedTime();
+
+			return new Entry(basicFileAttributes.isDirectory(), basicFileAttributes.size(), fileTime.toMillis());
+		}
+		catch (IOException ioException) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the entries of the directory that are not ignored, or
+	 * <code>null</code> if it is no longer a directory.
+	 */
+	private Map<String, Entry> _list(Path dir) {
+		Map<String, Entry> entries = new HashMap<>();
+
+		try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(dir)) {
+			for (Path path : directoryStream) {
+				if (_ignoredPredicate.test(path)) {
+					continue;
+				}
+
+				Entry entry = _getEntry(path);
+
+				if (entry != null) {
+					entries.put(String.valueOf(path.getFileName()), entry);
+				}
+			}
+		}
+		catch (IOException ioException) {
+			return null;
+		}
+
+		return entries;
+	}
+
+	/**
+	 * Removes the snapshots of the directory and its subdirectories, and
+	 * returns the deletions of their recorded entries.
+	 */
+	private List<Change> _remove(Path dir) {
+		Map<String, Entry> entries = _snapshots.remove(dir);
+
+		if (entries == null) {
+			return Collections.emptyList();
+		}
+
+		List<Change> changes = new ArrayList<>();
+
+		for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+			changes.addAll(_removeEntry(dir.resolve(mapEntry.getKey()), mapEntry.getValue()));
+		}
+
+		return changes;
+	}
+
+	private List<Change> _removeEntry(Path path, Entry entry) {
+		List<Change> changes = new ArrayList<>();
+
+		if (entry.isDirectory()) {
+			changes.addAll(_remove(path));
+		}
+
+		changes.add(new Change(path, StandardWatchEventKinds.ENTRY_DELETE));
+
+		return changes;
+	}
+
+	/**
+	 * Rescans the directories of one level of the tree, splitting them across
+	 * the shared executor when there are several. The tasks never wait for
+	 * each other, so they cannot exhaust the executor.
+	 */
+	private List<Rescan> _rescan(List<Path> dirs, Predicate<Path> descendPredicate) {
+		if (dirs.size() < _PARALLEL_THRESHOLD) {
+			return Collections.singletonList(_rescanDirs(dirs, descendPredicate));
+		}
+
+		Runtime runtime = Runtime.getRuntime();
+
+		List<Future<Rescan>> futures = new ArrayList<>();
+
+		for (List<Path> partition : _partition(dirs, runtime.availableProcessors())) {
+			futures.add(ExecutorUtil.submit("blade-rescan", () -> _rescanDirs(partition, descendPredicate)));
+		}
+
+		List<Rescan> rescans = new ArrayList<>();
+
+		for (Future<Rescan> future : futures) {
+			try {
+				rescans.add(future.get());
+			}
+			catch (ExecutionException executionException) {
+				throw new RuntimeException(executionException.getCause());
+			}
+			catch (InterruptedException interruptedException) {
+				Thread thread = Thread.currentThread();
+
+				thread.interrupt();
+
+				break;
+			}
+		}
+
+		return rescans;
+	}
+
+	private Rescan _rescanDirs(List<Path> dirs, Predicate<Path> descendPredicate) {
+		Rescan rescan = new Rescan();
+
+		for (Path dir : dirs) {
+			Map<String, Entry> entries = _list(dir);
+
+			Map<String, Entry> previousEntries;
+
+			if (entries == null) {
+				previousEntries = _snapshots.remove(dir);
+
+				entries = Collections.emptyMap();
+			}
+			else {
+				previousEntries = _snapshots.put(dir, entries);
+			}
+
+			if (previousEntries == null) {
+				previousEntries = Collections.emptyMap();
+			}
+
+			List<Change> changes = rescan.getChanges();
+
+			for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+				Path path = dir.resolve(mapEntry.getKey());
+
+				Entry entry = mapEntry.getValue();
+
+				Entry previousEntry = previousEntries.get(mapEntry.getKey());
+
+				if ((previousEntry == null) || (previousEntry.isDirectory() != entry.isDirectory())) {
+					if (previousEntry != null) {
+						changes.addAll(_removeEntry(path, previousEntry));
+					}
+
+					changes.add(new Change(path, StandardWatchEventKinds.ENTRY_CREATE));
+				}
+				else if (!entry.isDirectory() && !entry.equals(previousEntry)) {
+					changes.add(new Change(path, StandardWatchEventKinds.ENTRY_MODIFY));
+				}
+
+				if (entry.isDirectory() && descendPredicate.test(path)) {
+					List<Path> subdirs = rescan.getSubdirs();
+
+					subdirs.add(path);
+				}
+			}
+
+			for (Map.Entry<String, Entry> mapEntry : previousEntries.entrySet()) {
+				if (!entries.containsKey(mapEntry.getKey())) {
+					changes.addAll(_removeEntry(dir.resolve(mapEntry.getKey()), mapEntry.getValue()));
+				}
+			}
+		}
+
+		return rescan;
+	}
+
+	private static final int _PARALLEL_THRESHOLD = 8;
+
+	private final Predicate<Path> _ignoredPredicate;
+	private final Map<Path, Map<String, Entry>> _snapshots = new ConcurrentHashMap<>();
+
+	public static class Change {
+
+		public Change(Path path, WatchEvent.Kind<?> kind) {
+			_path = path;
+			_kind = kind;
+		}
+
+		public WatchEvent.Kind<?> getKind() {
+			return _kind;
+		}
+
+		public Path getPath() {
+			return _path;
+		}
+
+		@Override
+		public String toString() {
+			return _kind.name() + " " + _path;
+		}
+
+		private final WatchEvent.Kind<?> _kind;
+		private final Path _path;
+
+	}
+
+	private static class Entry {
+
+		@Override
+		public boolean equals(Object object) {
+			if (this == object) {
+				return true;
+			}
+
+			if (!(object instanceof Entry)) {
+				return false;
+			}
+
+			Entry entry = (Entry)object;
+
+			if ((_directory == entry._directory) && (_lastModifiedTime == entry._lastModifiedTime) &&
+				(_size == entry._size)) {
+
+				return true;
+			}
+
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(_directory, _lastModifiedTime, _size);
+		}
+
+		public boolean isDirectory() {
+			return _directory;
+		}
+
+		private Entry(boolean directory, long size, long lastModifiedTime) {
+			_directory = directory;
+			_size = size;
+			_lastModifiedTime = lastModifiedTime;
+		}
+
+		private final boolean _directory;
+		private final long _lastModifiedTime;
+		private final long _size;
+
+	}
+
+	private static class Rescan {
+
+		public List<Change> getChanges() {
+			return _changes;
+		}
+
+		public List<Path> getSubdirs() {
+			return _subdirs;
+		}
+
+		private final List<Change> _changes = new ArrayList<>();
+		private final List<Path> _subdirs = new ArrayList<>();
+
+	}
+
+}
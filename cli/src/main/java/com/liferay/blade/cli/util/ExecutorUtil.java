@@ -0,0 +1,284 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.lang.reflect.Method;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared executor for the background work of blade, such as pumping process
+ * output, watching files and checking for updates. Tasks run on virtual threads
+ * on JDK 21 and later, and otherwise on a bounded pool of daemon threads that
+ * are released when idle, so long running sessions reuse threads instead of
+ * accumulating them. Each task runs under the thread name it is submitted
+ * with.
+ *
+ * <p>
+ * The size of the pool defaults to four threads per processor, with a minimum
+ * of 16, and can be set with the <code>blade.executor.threads</code> system
+ * property. Tasks are never queued behind busy threads, as many of them block
+ * for as long as a process or a connection lives. Once every thread of the
+ * pool is busy, tasks run on a thread of their own instead.
+ * </p>
+ *
+ * @author Gregory Amerson
+ */
+public class ExecutorUtil {
+
+	public static final String THREADS_PROPERTY = "blade.executor.threads";
+
+	public static Future<?> execute(String name, Runnable runnable) {
+		return submit(
+			name,
+			() -> {
+				runnable.run();
+
+				return null;
+			});
+	}
+
+	/**
+	 * Returns the number of tasks that are running.
+	 */
+	public static int getActiveCount() {
+		return _activeCount.get();
+	}
+
+	/**
+	 * Returns the number of tasks running on threads of their own because
+	 * every thread of the pool was busy. Always <code>0</code> with virtual
+	 * threads.
+	 */
+	public static int getOverflowCount() {
+		return _overflowCount.get();
+	}
+
+	public static String getStatus() {
+		StringBuilder sb = new StringBuilder();
+
+		if (isVirtual()) {
+			sb.append("virtual threads, ");
+		}
+		else {
+			sb.append("platform threads (max " + _getMaxThreads() + "), ");
+		}
+
+		sb.append(getThreadCount());
+		sb.append(" threads, ");
+		sb.append(getActiveCount());
+		sb.append(" active tasks, ");
+		sb.append(getOverflowCount());
+		sb.append(" overflow threads");
+
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the number of threads the executor holds, idle ones and
+	 * overflow threads included.
+	 */
+	public static int getThreadCount() {
+		ExecutorService executorService = _executorService;
+
+		if (executorService instanceof ThreadPoolExecutor) {
+			ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor)executorService;
+
+			return threadPoolExecutor.getPoolSize() + _overflowCount.get();
+		}
+
+		return _activeCount.get();
+	}
+
+	public static boolean isVirtual() {
+		return _VIRTUAL_THREAD_FACTORY != null;
+	}
+
+	/**
+	 * Stops accepting tasks and waits for the running ones to finish,
+	 * interrupting them once the timeout elapses. Tasks submitted afterwards
+	 * run on a new executor.
+	 */
+	public static void shutdown(long timeout, TimeUnit timeUnit) {
+		ExecutorService executorService;
+
+		synchronized (ExecutorUtil.class) {
+			executorService = _executorService;
+
+			_executorService = null;
+		}
+
+		if (executorService == null) {
+			return;
+		}
+
+		executorService.shutdown();
+
+		try {
+			if (!executorService.awaitTermination(timeout, timeUnit)) {
+				executorService.shutdownNow();
+			}
+		}
+		catch (InterruptedException interruptedException) {
+			executorService.shutdownNow();
+
+			Thread thread = Thread.currentThread();
+
+			thread.interrupt();
+		}
+	}
+
+	public static <T> Future<T> submit(String name, Callable<T> callable) {
+		ExecutorService executorService = _getExecutorService();
+
+		return executorService.submit(
+			() -> {
+				Thread thread = Thread.currentThread();
+
+				String threadName = thread.getName();
+
+				thread.setName(name);
+
+				_activeCount.incrementAndGet();
+
+				try {
+					return callable.call();
+				}
+				finally {
+					_activeCount.decrementAndGet();
+
+					thread.setName(threadName);
+				}
+			});
+	}
+
+	private static ThreadFactory _createVirtualThreadFactory() {
+		try {
+			Method ofVirtualMethod = Thread.class.getMethod("ofVirtual");
+
+			Object builder = ofVirtualMethod.invoke(null);
+
+			Class<?> builderClass = ofVirtualMethod.getReturnType();
+
+			Method nameMethod = builderClass.getMethod("name", String.class, long.class);
+
+			builder = nameMethod.invoke(builder, "blade-virtual-", 0L);
+
+			Method factoryMethod = builderClass.getMethod("factory");
+
+			return (ThreadFactory)factoryMethod.invoke(builder);
+		}
+		catch (ReflectiveOperationException reflectiveOperationException) {
+
+			// Virtual threads need JDK 21
+
+			return null;
+		}
+	}
+
+	private static synchronized ExecutorService _getExecutorService() {
+		if (_executorService != null) {
+			return _executorService;
+		}
+
+		if (_VIRTUAL_THREAD_FACTORY != null) {
+			try {
+				Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+
+				_executorService = (ExecutorService)method.invoke(null, _VIRTUAL_THREAD_FACTORY);
+
+				return _executorService;
+			}
+			catch (ReflectiveOperationException reflectiveOperationException) {
+			}
+		}
+
+		AtomicInteger threadNumber = new AtomicInteger();
+
+		int maxThreads = _getMaxThreads();
+
+		ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+			0, maxThreads, _KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<>(),
+			runnable -> {
+				Thread thread = new Thread(runnable, "blade-pool-" + threadNumber.incrementAndGet());
+
+				thread.setDaemon(true);
+
+				return thread;
+			},
+			ExecutorUtil::_runOnOverflowThread);
+
+		_executorService = threadPoolExecutor;
+
+		return _executorService;
+	}
+
+	private static int _getMaxThreads() {
+		Runtime runtime = Runtime.getRuntime();
+
+		int maxThreads = Integer.getInteger(THREADS_PROPERTY, Math.max(16, runtime.availableProcessors() * 4));
+
+		return Math.max(1, maxThreads);
+	}
+
+	/**
+	 * Runs a task rejected by the saturated pool on a new thread. Running it
+	 * on the submitting thread instead could block that thread for as long as
+	 * the task lives, or deadlock it when the task waits for the submitter.
+	 */
+	private static void _runOnOverflowThread(Runnable runnable, ThreadPoolExecutor threadPoolExecutor) {
+		if (threadPoolExecutor.isShutdown()) {
+			throw new RejectedExecutionException("Executor is shut down");
+		}
+
+		Thread thread = new Thread(
+			() -> {
+				try {
+					runnable.run();
+				}
+				finally {
+					_overflowCount.decrementAndGet();
+				}
+			},
+			"blade-overflow-" + _overflowThreadNumber.incrementAndGet());
+
+		thread.setDaemon(true);
+
+		_overflowCount.incrementAndGet();
+
+		thread.start();
+	}
+
+	private static final long _KEEP_ALIVE_SECONDS = 30;
+
+	private static final ThreadFactory _VIRTUAL_THREAD_FACTORY = _createVirtualThreadFactory();
+
+	private static final AtomicInteger _activeCount = new AtomicInteger();
+	private static volatile ExecutorService _executorService;
+	private static final AtomicInteger _overflowCount = new AtomicInteger();
+	private static final AtomicInteger _overflowThreadNumber = new AtomicInteger();
+
+}
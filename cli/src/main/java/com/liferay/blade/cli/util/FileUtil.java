@@ -17,6 +17,7 @@
 package com.liferay.blade.cli.util;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -42,9 +43,12 @@ import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
 
+import java.security.MessageDigest;
+
 import java.util.Date;
 import java.util.EnumSet;
 import java.util.Enumeration;
+import java.util.Properties;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
@@ -130,6 +134,25 @@ public class FileUtil {
 		}
 	}
 
+	/**
+	 * Returns the hex encoded SHA-1 hash of the file content.
+	 */
+	public static String getSha1(Path path) throws IOException {
+		MessageDigest messageDigest = StringUtil.getSha1MessageDigest();
+
+		try (InputStream inputStream = Files.newInputStream(path)) {
+			byte[] buffer = new byte[8192];
+
+			int bytesCount = -1;
+
+			while ((bytesCount = inputStream.read(buffer)) != -1) {
+				messageDigest.update(buffer, 0, bytesCount);
+			}
+		}
+
+		return StringUtil.toHex(messageDigest.digest());
+	}
+
 	public static String read(File file) throws IOException {
 		return _collect(file.toPath(), _UTF_8);
 	}
@@ -274,6 +297,37 @@ public class FileUtil {
 		}
 	}
 
+	/**
+	 * Writes the content to a temporary file next to the path and moves it
+	 * into place, so concurrent readers never see a partially written file.
+	 */
+	public static void write(Path path, byte[] content) throws IOException {
+		Path absolutePath = path.toAbsolutePath();
+
+		Path dirPath = absolutePath.getParent();
+
+		Files.createDirectories(dirPath);
+
+		Path tempPath = Files.createTempFile(dirPath, path.getFileName() + "-", ".tmp");
+
+		try {
+			Files.write(tempPath, content);
+
+			Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			Files.deleteIfExists(tempPath);
+		}
+	}
+
+	public static void write(Path path, Properties properties) throws IOException {
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		properties.store(byteArrayOutputStream, null);
+
+		write(path, byteArrayOutputStream.toByteArray());
+	}
+
 	private static String _collect(Path path, Charset encoding) throws IOException {
 		return _collect(_reader(path, encoding));
 	}
@@ -48,8 +48,10 @@ import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -123,12 +125,18 @@ public class FileWatcher {
 
 			final Set<Path> reportModified = new HashSet<>();
 
+			List<DirectorySnapshot.Change> changes = new ArrayList<>();
+
+			boolean overflow = false;
+
 			for (WatchEvent<?> event : key.pollEvents()) {
 				WatchEvent.Kind<?> kind = event.kind();
 
-				// TBD - provide example of how OVERFLOW event is handled
+				// events were lost, the directory is rescanned below
 
 				if (kind == StandardWatchEventKinds.OVERFLOW) {
+					overflow = true;
+
 					continue;
 				}
 
@@ -140,6 +148,30 @@ public class FileWatcher {
 
 				Path child = dir.resolve(name);
 
+				_directorySnapshot.update(child, kind);
+
+				changes.add(new DirectorySnapshot.Change(child, kind));
+			}
+
+			// reset key and rescan the directory if it lost events or is no
+			// longer accessible, only creations are watched, so the entries of
+			// the directory itself are enough, every subdirectory has its own key
+
+			boolean valid = key.reset();
+
+			if (overflow || !valid) {
+				for (DirectorySnapshot.Change change : _directorySnapshot.rescan(dir, path -> false)) {
+					if (change.getKind() == StandardWatchEventKinds.ENTRY_CREATE) {
+						changes.add(change);
+					}
+				}
+			}
+
+			for (DirectorySnapshot.Change change : changes) {
+				WatchEvent.Kind<?> kind = change.getKind();
+
+				Path child = change.getPath();
+
 				if ((child.equals(fileToWatch) || (fileToWatch == null)) &&
 					((kind == StandardWatchEventKinds.ENTRY_CREATE) ||
 					 (kind == StandardWatchEventKinds.ENTRY_MODIFY))) {
@@ -175,9 +207,7 @@ public class FileWatcher {
 				}
 			}
 
-			// reset key and remove from set if directory no longer accessible
-
-			boolean valid = key.reset();
+			// remove key from set if directory no longer accessible
 
 			if (!valid) {
 				_keys.remove(key);
@@ -223,6 +253,8 @@ public class FileWatcher {
 		}
 
 		_keys.put(key, dir);
+
+		_directorySnapshot.record(dir);
 	}
 
 	/**
@@ -250,6 +282,7 @@ public class FileWatcher {
 	@SuppressWarnings("rawtypes")
 	private static final WatchEvent.Kind[] _WATCH_KINDS = {StandardWatchEventKinds.ENTRY_CREATE};
 
+	private final DirectorySnapshot _directorySnapshot = new DirectorySnapshot(path -> false);
 	private final Map<WatchKey, Path> _keys;
 	private final boolean _recursive;
 	private final WatchService _watcher;
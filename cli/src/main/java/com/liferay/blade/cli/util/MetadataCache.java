@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.blade.cli.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Properties;
+
+/**
+ * Local copies of remote metadata files, such as <code>maven-metadata.xml</code>
+ * of the blade repositories. Every read revalidates the copy with a conditional
+ * request using its <code>ETag</code> and <code>Last-Modified</code> headers,
+ * so unchanged files are not downloaded again.
+ *
+ * @author Gregory Amerson
+ */
+public class MetadataCache {
+
+	public MetadataCache(Path cachePath) {
+		_cachePath = cachePath;
+	}
+
+	/**
+	 * Returns the content of the URL, downloading it only if it changed since
+	 * it was cached.
+	 */
+	public String get(String url) throws IOException {
+		String key = StringUtil.getSha1(url);
+
+		Path contentPath = _cachePath.resolve(key + ".content");
+		Path headersPath = _cachePath.resolve(key + ".properties");
+
+		Properties headers = new Properties();
+
+		if (Files.exists(contentPath) && Files.exists(headersPath)) {
+			try (InputStream inputStream = Files.newInputStream(headersPath)) {
+				headers.load(inputStream);
+			}
+		}
+
+		URL remoteURL = new URL(url);
+
+		URLConnection urlConnection = remoteURL.openConnection();
+
+		urlConnection.setConnectTimeout(_TIMEOUT_MILLIS);
+		urlConnection.setReadTimeout(_TIMEOUT_MILLIS);
+		urlConnection.setUseCaches(false);
+
+		String eTag = headers.getProperty(_ETAG);
+
+		if (eTag != null) {
+			urlConnection.setRequestProperty("If-None-Match", eTag);
+		}
+
+		String lastModified = headers.getProperty(_LAST_MODIFIED);
+
+		if (lastModified != null) {
+			urlConnection.setRequestProperty("If-Modified-Since", lastModified);
+		}
+
+		if (urlConnection instanceof HttpURLConnection) {
+			HttpURLConnection httpURLConnection = (HttpURLConnection)urlConnection;
+
+			int responseCode = httpURLConnection.getResponseCode();
+
+			if ((responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) && !headers.isEmpty()) {
+				httpURLConnection.disconnect();
+
+				return new String(Files.readAllBytes(contentPath), StandardCharsets.UTF_8);
+			}
+
+			if (responseCode != HttpURLConnection.HTTP_OK) {
+				httpURLConnection.disconnect();
+
+				throw new IOException("Unable to get " + url + ", server returned " + responseCode);
+			}
+		}
+
+		byte[] content;
+
+		try (InputStream inputStream = urlConnection.getInputStream()) {
+			content = _read(inputStream);
+		}
+
+		headers.clear();
+
+		headers.setProperty("url", url);
+
+		eTag = urlConnection.getHeaderField(_ETAG);
+
+		if (eTag != null) {
+			headers.setProperty(_ETAG, eTag);
+		}
+
+		lastModified = urlConnection.getHeaderField(_LAST_MODIFIED);
+
+		if (lastModified != null) {
+			headers.setProperty(_LAST_MODIFIED, lastModified);
+		}
+
+		try {
+			FileUtil.write(contentPath, content);
+			FileUtil.write(headersPath, headers);
+		}
+		catch (IOException ioException) {
+
+			// The content was downloaded, caching it is best effort
+
+		}
+
+		return new String(content, StandardCharsets.UTF_8);
+	}
+
+	private static byte[] _read(InputStream inputStream) throws IOException {
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		byte[] buffer = new byte[8192];
+
+		int bytesCount = -1;
+
+		while ((bytesCount = inputStream.read(buffer)) != -1) {
+			byteArrayOutputStream.write(buffer, 0, bytesCount);
+		}
+
+		return byteArrayOutputStream.toByteArray();
+	}
+
+	private static final String _ETAG = "ETag";
+
+	private static final String _LAST_MODIFIED = "Last-Modified";
+
+	private static final int _TIMEOUT_MILLIS = 10000;
+
+	private final Path _cachePath;
+
+}
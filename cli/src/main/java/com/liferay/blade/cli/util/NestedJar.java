@@ -0,0 +1,426 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Random access view of a jar, read in place from a memory mapped jar file or
+ * from a jar embedded in another one, such as the extensions embedded in
+ * blade.jar. Entries of an embedded jar that is stored without compression
+ * are read straight from the mapping of the outer jar, while a compressed
+ * embedded jar is inflated in memory once. Nothing is extracted to disk.
+ *
+ * <p>
+ * Entries are available as <code>blade-nested:</code> URLs, so that a
+ * {@link NestedJarClassLoader} can return them as resources.
+ * </p>
+ *
+ * @author Gregory Amerson
+ */
+public class NestedJar implements Closeable {
+
+	public static final String PROTOCOL = "blade-nested";
+
+	public static NestedJar open(Path jarPath) throws IOException {
+		try (FileChannel fileChannel = FileChannel.open(jarPath, StandardOpenOption.READ)) {
+			ByteBuffer byteBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+
+			File jarFile = jarPath.toFile();
+
+			URI jarURI = jarPath.toUri();
+
+			return new NestedJar(jarURI.getPath(), byteBuffer, jarFile.lastModified());
+		}
+	}
+
+	@Override
+	public void close() {
+		_entries.clear();
+	}
+
+	/**
+	 * Returns the uncompressed content of the entry, or <code>null</code> if
+	 * the jar has no such entry.
+	 */
+	public byte[] getBytes(String entryName) throws IOException {
+		Entry entry = _entries.get(entryName);
+
+		if (entry == null) {
+			return null;
+		}
+
+		ByteBuffer byteBuffer = _getData(entry);
+
+		if (entry._method == _STORED) {
+			byte[] bytes = new byte[byteBuffer.remaining()];
+
+			byteBuffer.get(bytes);
+
+			return bytes;
+		}
+
+		if (entry._method != _DEFLATED) {
+			throw new ZipException("Unsupported compression method " + entry._method + " for " + entryName);
+		}
+
+		// Inflating without the zlib wrapper needs an extra dummy input byte
+
+		byte[] compressedBytes = new byte[byteBuffer.remaining() + 1];
+
+		byteBuffer.get(compressedBytes, 0, compressedBytes.length - 1);
+
+		byte[] bytes = new byte[(int)entry._size];
+
+		Inflater inflater = new Inflater(true);
+
+		try {
+			inflater.setInput(compressedBytes);
+
+			int length = 0;
+
+			while (length < bytes.length) {
+				int count = inflater.inflate(bytes, length, bytes.length - length);
+
+				if ((count == 0) && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+
+				length += count;
+			}
+
+			if (length != bytes.length) {
+				throw new ZipException("Truncated entry " + entryName + " in " + _name);
+			}
+
+			return bytes;
+		}
+		catch (DataFormatException dataFormatException) {
+			throw new ZipException("Invalid entry " + entryName + " in " + _name + ": " + dataFormatException);
+		}
+		finally {
+			inflater.end();
+		}
+	}
+
+	public Collection<String> getEntryNames() {
+		return Collections.unmodifiableSet(_entries.keySet());
+	}
+
+	/**
+	 * Returns the name of the jar, without the path of the jar or jars it is
+	 * embedded in.
+	 */
+	public String getFileName() {
+		return _name.substring(_name.lastIndexOf('/') + 1);
+	}
+
+	public long getLastModified() {
+		return _lastModified;
+	}
+
+	/**
+	 * Returns a view of a jar embedded in this jar, or <code>null</code> if
+	 * this jar has no such entry.
+	 */
+	public NestedJar getNestedJar(String entryName) throws IOException {
+		Entry entry = _entries.get(entryName);
+
+		if (entry == null) {
+			return null;
+		}
+
+		ByteBuffer byteBuffer;
+
+		if (entry._method == _STORED) {
+			byteBuffer = _getData(entry);
+		}
+		else {
+			byteBuffer = ByteBuffer.wrap(getBytes(entryName));
+		}
+
+		return new NestedJar(_name + _SEPARATOR + entryName, byteBuffer, _lastModified);
+	}
+
+	public URL getURL() {
+		return _url;
+	}
+
+	/**
+	 * Returns the URL of the entry, or <code>null</code> if the jar has no such
+	 * entry.
+	 */
+	public URL getURL(String entryName) {
+		if (!hasEntry(entryName)) {
+			return null;
+		}
+
+		try {
+			return new URL(PROTOCOL, null, -1, _name + _SEPARATOR + entryName, _urlStreamHandler);
+		}
+		catch (MalformedURLException malformedURLException) {
+			return null;
+		}
+	}
+
+	public boolean hasEntry(String entryName) {
+		return _entries.containsKey(entryName);
+	}
+
+	@Override
+	public String toString() {
+		return _name;
+	}
+
+	private NestedJar(String name, ByteBuffer byteBuffer, long lastModified) throws IOException {
+		_name = name;
+		_byteBuffer = byteBuffer.order(ByteOrder.LITTLE_ENDIAN);
+		_lastModified = lastModified;
+
+		_url = new URL(PROTOCOL, null, -1, name, _urlStreamHandler);
+
+		_readCentralDirectory();
+	}
+
+	private ByteBuffer _getData(Entry entry) throws IOException {
+		int localHeaderOffset = (int)entry._localHeaderOffset;
+
+		if (_byteBuffer.getInt(localHeaderOffset) != _LOCAL_HEADER_SIGNATURE) {
+			throw new ZipException("Invalid local header in " + _name);
+		}
+
+		int offset =
+			localHeaderOffset + 30 + _getUnsignedShort(localHeaderOffset + 26) +
+				_getUnsignedShort(localHeaderOffset + 28);
+
+		ByteBuffer byteBuffer = _byteBuffer.duplicate();
+
+		byteBuffer.limit(offset + (int)entry._compressedSize);
+		byteBuffer.position(offset);
+
+		return byteBuffer.slice();
+	}
+
+	private long _getUnsignedInt(int index) {
+		return _byteBuffer.getInt(index) & 0xFFFFFFFFL;
+	}
+
+	private int _getUnsignedShort(int index) {
+		return _byteBuffer.getShort(index) & 0xFFFF;
+	}
+
+	private void _readCentralDirectory() throws IOException {
+		int limit = _byteBuffer.limit();
+
+		int endOffset = -1;
+
+		for (int i = limit - 22; i >= Math.max(0, limit - 22 - 0xFFFF); i--) {
+			if (_byteBuffer.getInt(i) == _END_SIGNATURE) {
+				endOffset = i;
+
+				break;
+			}
+		}
+
+		if (endOffset == -1) {
+			throw new ZipException("Unable to find the central directory of " + _name);
+		}
+
+		int count = _getUnsignedShort(endOffset + 10);
+		long centralDirectoryOffset = _getUnsignedInt(endOffset + 16);
+
+		if ((count == 0xFFFF) || (centralDirectoryOffset == 0xFFFFFFFFL)) {
+			throw new ZipException("ZIP64 is not supported, unable to read " + _name);
+		}
+
+		int offset = (int)centralDirectoryOffset;
+
+		for (int i = 0; i < count; i++) {
+			if (_byteBuffer.getInt(offset) != _CENTRAL_HEADER_SIGNATURE) {
+				throw new ZipException("Invalid central directory header in " + _name);
+			}
+
+			int method = _getUnsignedShort(offset + 10);
+			long compressedSize = _getUnsignedInt(offset + 20);
+			long size = _getUnsignedInt(offset + 24);
+			int nameLength = _getUnsignedShort(offset + 28);
+			int extraLength = _getUnsignedShort(offset + 30);
+			int commentLength = _getUnsignedShort(offset + 32);
+			long localHeaderOffset = _getUnsignedInt(offset + 42);
+
+			if ((compressedSize == 0xFFFFFFFFL) || (size == 0xFFFFFFFFL) || (localHeaderOffset == 0xFFFFFFFFL)) {
+				throw new ZipException("ZIP64 is not supported, unable to read " + _name);
+			}
+
+			byte[] nameBytes = new byte[nameLength];
+
+			ByteBuffer byteBuffer = _byteBuffer.duplicate();
+
+			byteBuffer.position(offset + 46);
+
+			byteBuffer.get(nameBytes);
+
+			_entries.put(
+				new String(nameBytes, StandardCharsets.UTF_8),
+				new Entry(method, compressedSize, size, localHeaderOffset));
+
+			offset += 46 + nameLength + extraLength + commentLength;
+		}
+	}
+
+	private static final int _CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+
+	private static final int _DEFLATED = 8;
+
+	private static final int _END_SIGNATURE = 0x06054b50;
+
+	private static final int _LOCAL_HEADER_SIGNATURE = 0x04034b50;
+
+	private static final String _SEPARATOR = "!/";
+
+	private static final int _STORED = 0;
+
+	private final ByteBuffer _byteBuffer;
+	private final Map<String, Entry> _entries = new HashMap<>();
+	private final long _lastModified;
+	private final String _name;
+	private final URL _url;
+	private final URLStreamHandler _urlStreamHandler = new EntryURLStreamHandler();
+
+	private static class Entry {
+
+		private Entry(int method, long compressedSize, long size, long localHeaderOffset) {
+			_method = method;
+			_compressedSize = compressedSize;
+			_size = size;
+			_localHeaderOffset = localHeaderOffset;
+		}
+
+		private final long _compressedSize;
+		private final long _localHeaderOffset;
+		private final int _method;
+		private final long _size;
+
+	}
+
+	private class EntryURLConnection extends URLConnection {
+
+		@Override
+		public void connect() throws IOException {
+			if (connected) {
+				return;
+			}
+
+			_bytes = getBytes(_entryName);
+
+			if (_bytes == null) {
+				throw new FileNotFoundException(String.valueOf(getURL()));
+			}
+
+			connected = true;
+		}
+
+		@Override
+		public int getContentLength() {
+			long contentLength = getContentLengthLong();
+
+			if (contentLength > Integer.MAX_VALUE) {
+				return -1;
+			}
+
+			return (int)contentLength;
+		}
+
+		@Override
+		public long getContentLengthLong() {
+			try {
+				connect();
+
+				return _bytes.length;
+			}
+			catch (IOException ioException) {
+				return -1;
+			}
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			connect();
+
+			return new ByteArrayInputStream(_bytes);
+		}
+
+		@Override
+		public long getLastModified() {
+			return _lastModified;
+		}
+
+		private EntryURLConnection(URL url, String entryName) {
+			super(url);
+
+			_entryName = entryName;
+		}
+
+		private byte[] _bytes;
+		private final String _entryName;
+
+	}
+
+	private class EntryURLStreamHandler extends URLStreamHandler {
+
+		@Override
+		protected URLConnection openConnection(URL url) throws IOException {
+			String file = url.getFile();
+
+			String prefix = _name + _SEPARATOR;
+
+			if (!file.startsWith(prefix)) {
+				throw new FileNotFoundException(String.valueOf(url));
+			}
+
+			return new EntryURLConnection(url, file.substring(prefix.length()));
+		}
+
+	}
+
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import java.net.URL;
+
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class loader for jars read in place through {@link NestedJar}, such as the
+ * extensions embedded in blade.jar, so they do not have to be extracted first.
+ *
+ * @author Gregory Amerson
+ */
+public class NestedJarClassLoader extends ClassLoader implements Closeable {
+
+	public NestedJarClassLoader(Collection<NestedJar> nestedJars, ClassLoader parent) {
+		super(parent);
+
+		for (NestedJar nestedJar : nestedJars) {
+			CodeSource codeSource = new CodeSource(nestedJar.getURL(), (Certificate[])null);
+
+			_protectionDomains.put(nestedJar, new ProtectionDomain(codeSource, null, this, null));
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		for (NestedJar nestedJar : _protectionDomains.keySet()) {
+			nestedJar.close();
+		}
+	}
+
+	@Override
+	protected Class<?> findClass(String name) throws ClassNotFoundException {
+		String entryName = name.replace('.', '/') + ".class";
+
+		for (Map.Entry<NestedJar, ProtectionDomain> entry : _protectionDomains.entrySet()) {
+			NestedJar nestedJar = entry.getKey();
+
+			if (!nestedJar.hasEntry(entryName)) {
+				continue;
+			}
+
+			try {
+				byte[] bytes = nestedJar.getBytes(entryName);
+
+				_definePackage(name);
+
+				return defineClass(name, bytes, 0, bytes.length, entry.getValue());
+			}
+			catch (IOException ioException) {
+				throw new ClassNotFoundException(name, ioException);
+			}
+		}
+
+		throw new ClassNotFoundException(name);
+	}
+
+	@Override
+	protected URL findResource(String name) {
+		for (NestedJar nestedJar : _protectionDomains.keySet()) {
+			URL url = nestedJar.getURL(name);
+
+			if (url != null) {
+				return url;
+			}
+		}
+
+		return null;
+	}
+
+	@Override
+	protected Enumeration<URL> findResources(String name) {
+		List<URL> urls = new ArrayList<>();
+
+		for (NestedJar nestedJar : _protectionDomains.keySet()) {
+			URL url = nestedJar.getURL(name);
+
+			if (url != null) {
+				urls.add(url);
+			}
+		}
+
+		return Collections.enumeration(urls);
+	}
+
+	@SuppressWarnings("deprecation")
+	private void _definePackage(String className) {
+		int index = className.lastIndexOf('.');
+
+		if (index == -1) {
+			return;
+		}
+
+		String packageName = className.substring(0, index);
+
+		if (getPackage(packageName) != null) {
+			return;
+		}
+
+		try {
+			definePackage(packageName, null, null, null, null, null, null, null);
+		}
+		catch (IllegalArgumentException illegalArgumentException) {
+
+			// Defined concurrently by another thread
+
+		}
+	}
+
+	static {
+		ClassLoader.registerAsParallelCapable();
+	}
+
+	private final Map<NestedJar, ProtectionDomain> _protectionDomains = new LinkedHashMap<>();
+
+}
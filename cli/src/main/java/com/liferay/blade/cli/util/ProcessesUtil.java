@@ -16,18 +16,66 @@
 
 package com.liferay.blade.cli.util;
 
+import java.io.File;
+
 import java.lang.management.ManagementFactory;
 import java.lang.management.RuntimeMXBean;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author Seiphon Wang
  */
 public class ProcessesUtil {
 
+	/**
+	 * Terminates the process and its descendants, such as the Gradle client
+	 * started through a shell, and kills them forcibly if the process does not
+	 * exit within the timeout. Descendants are found with
+	 * <code>ProcessHandle</code> on Java 9 or newer, and with
+	 * <code>pkill</code> otherwise.
+	 */
+	public static void destroyProcessTree(Process process, long timeout, TimeUnit timeUnit)
+		throws InterruptedException {
+
+		List<Object> descendants = _getDescendants(process);
+
+		if (descendants == null) {
+			_destroyChildren(process);
+
+			descendants = Collections.emptyList();
+		}
+
+		for (Object descendant : descendants) {
+			_invoke(descendant, "destroy");
+		}
+
+		process.destroy();
+
+		if (!process.waitFor(timeout, timeUnit)) {
+			process.destroyForcibly();
+		}
+
+		for (Object descendant : descendants) {
+			if (Boolean.TRUE.equals(_invoke(descendant, "isAlive"))) {
+				_invoke(descendant, "destroyForcibly");
+			}
+		}
+	}
+
 	public static List<Long> getAllProcessIds() {
 		List<Long> processIds = new ArrayList<>();
 
@@ -89,4 +137,91 @@ public class ProcessesUtil {
 		return Long.parseLong(vmName.substring(0, vmName.indexOf("@")));
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Returns whether the process is alive, or <code>null</code> if that cannot
+	 * be determined without starting another process. Uses
+	 * <code>ProcessHandle</code> on Java 9 or newer and <code>/proc</code>
+	 * otherwise.
+	 */
+	public static Boolean isAlive(long pid) {
+		try {
+			Class<?> processHandleClass = Class.forName("java.lang.ProcessHandle");
+
+			Method ofMethod = processHandleClass.getMethod("of", long.class);
+
+			Optional<?> processHandle = (Optional<?>)ofMethod.invoke(null, pid);
+
+			if (!processHandle.isPresent()) {
+				return false;
+			}
+
+			Method isAliveMethod = processHandleClass.getMethod("isAlive");
+
+			return (Boolean)isAliveMethod.invoke(processHandle.get());
+		}
+		catch (ReflectiveOperationException reflectiveOperationException) {
+		}
+
+		Path procPath = Paths.get("/proc");
+
+		if (Files.isDirectory(procPath.resolve("self"))) {
+			return Files.exists(procPath.resolve(String.valueOf(pid)));
+		}
+
+		return null;
+	}
+
+	private static void _destroyChildren(Process process) {
+		if (File.separatorChar == '\\') {
+			return;
+		}
+
+		try {
+			Class<?> processClass = process.getClass();
+
+			Field field = processClass.getDeclaredField("pid");
+
+			field.setAccessible(true);
+
+			Object pid = field.get(process);
+
+			ProcessBuilder processBuilder = new ProcessBuilder("pkill", "-TERM", "-P", String.valueOf(pid));
+
+			Process pkillProcess = processBuilder.start();
+
+			pkillProcess.waitFor();
+		}
+		catch (Exception exception) {
+		}
+	}
+
+	private static List<Object> _getDescendants(Process process) {
+		try {
+			Method descendantsMethod = Process.class.getMethod("descendants");
+
+			Stream<?> descendants = (Stream<?>)descendantsMethod.invoke(process);
+
+			return descendants.collect(Collectors.toList());
+		}
+		catch (ReflectiveOperationException reflectiveOperationException) {
+
+			// ProcessHandle needs Java 9
+
+			return null;
+		}
+	}
+
+	private static Object _invoke(Object processHandle, String methodName) {
+		try {
+			Class<?> processHandleClass = Class.forName("java.lang.ProcessHandle");
+
+			Method method = processHandleClass.getMethod(methodName);
+
+			return method.invoke(processHandle);
+		}
+		catch (ReflectiveOperationException reflectiveOperationException) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,402 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import com.liferay.blade.cli.command.VersionCommand;
+import com.liferay.blade.cli.command.validator.WorkspaceProductComparator;
+
+import groovy.json.JsonSlurper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Index of the Liferay products a workspace can target, kept in the blade
+ * cache. The index is first built from the <code>.product_info.json</code>
+ * bundled with blade, and then refreshed in the background with a conditional
+ * request, so reading it never waits on the network. The products are sorted
+ * once when the index is built, so listing product keys does not compare
+ * versions or release dates again.
+ *
+ * @author Gregory Amerson
+ */
+public class ProductInfoIndex {
+
+	public static final String PRODUCT_INFO_URL = "https://releases.liferay.com/tools/workspace/.product_info.json";
+
+	public static ProductInfoIndex get() {
+		return get(false, null);
+	}
+
+	/**
+	 * Returns the index from the blade cache, building it from the bundled
+	 * product info if there is none yet, and schedules a background refresh if
+	 * the index was not checked recently.
+	 */
+	public static synchronized ProductInfoIndex get(boolean trace, PrintStream printStream) {
+		if (_productInfoIndex != null) {
+			_refreshInBackgroundIfStale();
+
+			return _productInfoIndex;
+		}
+
+		Path indexPath = _getIndexPath();
+
+		String bladeVersion = _getBladeVersion();
+
+		ProductInfoIndex productInfoIndex = read(indexPath);
+
+		boolean checked = true;
+
+		if ((productInfoIndex == null) || !Objects.equals(bladeVersion, productInfoIndex._bladeVersion)) {
+			checked = false;
+
+			try (InputStream inputStream = ProductInfoIndex.class.getResourceAsStream("/.product_info.json")) {
+				if (inputStream != null) {
+					productInfoIndex = parse(new String(_read(inputStream), StandardCharsets.UTF_8), bladeVersion);
+
+					productInfoIndex.write(indexPath);
+				}
+			}
+			catch (Exception exception) {
+				if (trace && (printStream != null)) {
+					exception.printStackTrace(printStream);
+				}
+			}
+		}
+
+		if (productInfoIndex == null) {
+
+			// Nothing bundled, such as when running from the build directory
+
+			_productInfoIndex = _EMPTY_PRODUCT_INFO_INDEX;
+
+			return refresh(trace, printStream);
+		}
+
+		_productInfoIndex = productInfoIndex;
+
+		if (checked) {
+			File indexFile = indexPath.toFile();
+
+			_checkedMillis = indexFile.lastModified();
+		}
+
+		_refreshInBackgroundIfStale();
+
+		return _productInfoIndex;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static ProductInfoIndex parse(String json, String bladeVersion) throws Exception {
+		JsonSlurper jsonSlurper = new JsonSlurper();
+
+		Map<String, Object> productInfoMaps = (Map<String, Object>)jsonSlurper.parseText(json);
+
+		Properties properties = new Properties();
+
+		List<Pair<String, ProductInfo>> pairs = new ArrayList<>();
+
+		for (Map.Entry<String, Object> entry : productInfoMaps.entrySet()) {
+			if (!(entry.getValue() instanceof Map)) {
+				continue;
+			}
+
+			String productKey = entry.getKey();
+
+			Map<String, String> productInfoMap = new HashMap<>();
+
+			Map<String, Object> values = (Map<String, Object>)entry.getValue();
+
+			for (Map.Entry<String, Object> valueEntry : values.entrySet()) {
+				if (valueEntry.getValue() == null) {
+					continue;
+				}
+
+				String value = String.valueOf(valueEntry.getValue());
+
+				productInfoMap.put(valueEntry.getKey(), value);
+
+				properties.setProperty(productKey + "|" + valueEntry.getKey(), value);
+			}
+
+			pairs.add(new Pair<>(productKey, new ProductInfo(productInfoMap)));
+		}
+
+		pairs.sort(new WorkspaceProductComparator());
+
+		StringBuilder sb = new StringBuilder();
+
+		for (Pair<String, ProductInfo> pair : pairs) {
+			if (sb.length() > 0) {
+				sb.append(',');
+			}
+
+			sb.append(pair.first());
+		}
+
+		properties.setProperty(_BLADE_VERSION_KEY, String.valueOf(bladeVersion));
+		properties.setProperty(_HASH_KEY, StringUtil.getSha1(json));
+		properties.setProperty(_KEYS_KEY, sb.toString());
+
+		return new ProductInfoIndex(properties);
+	}
+
+	public static ProductInfoIndex read(Path indexPath) {
+		if (Files.notExists(indexPath)) {
+			return null;
+		}
+
+		try (InputStream inputStream = Files.newInputStream(indexPath)) {
+			Properties properties = new Properties();
+
+			properties.load(inputStream);
+
+			if (properties.getProperty(_KEYS_KEY) == null) {
+				return null;
+			}
+
+			return new ProductInfoIndex(properties);
+		}
+		catch (Exception exception) {
+			return null;
+		}
+	}
+
+	/**
+	 * Revalidates the product info with the remote one and rebuilds the index
+	 * if it changed. The remote product info is only requested once per
+	 * refresh interval, so long running processes such as the daemon still
+	 * pick up new products.
+	 */
+	public static ProductInfoIndex refresh(boolean trace, PrintStream printStream) {
+		synchronized (_refreshLock) {
+			long now = System.currentTimeMillis();
+
+			if ((now - _refreshedMillis) < _REFRESH_INTERVAL_MILLIS) {
+				return _getProductInfoIndex();
+			}
+
+			_checkedMillis = now;
+			_refreshedMillis = now;
+
+			Path indexPath = _getIndexPath();
+
+			try {
+				Path bladeCachePath = BladeUtil.getBladeCachePath();
+
+				MetadataCache metadataCache = new MetadataCache(bladeCachePath.resolve("metadata"));
+
+				String json = metadataCache.get(PRODUCT_INFO_URL);
+
+				ProductInfoIndex productInfoIndex = _getProductInfoIndex();
+
+				if (Objects.equals(StringUtil.getSha1(json), productInfoIndex._hash)) {
+					Files.setLastModifiedTime(indexPath, FileTime.fromMillis(System.currentTimeMillis()));
+				}
+				else {
+					productInfoIndex = parse(json, _getBladeVersion());
+
+					productInfoIndex.write(indexPath);
+
+					_productInfoIndex = productInfoIndex;
+				}
+			}
+			catch (Exception exception) {
+				if (trace && (printStream != null)) {
+					exception.printStackTrace(printStream);
+				}
+			}
+
+			return _getProductInfoIndex();
+		}
+	}
+
+	/**
+	 * Returns the product keys, from the newest product to the oldest one.
+	 */
+	public List<String> getKeys(boolean promoted) {
+		if (promoted) {
+			return _promotedKeys;
+		}
+
+		return _keys;
+	}
+
+	public ProductInfo getProductInfo(String productKey) {
+		if (productKey == null) {
+			return null;
+		}
+
+		return _productInfos.get(productKey);
+	}
+
+	/**
+	 * Returns the properties of each product, keyed by product key, as they
+	 * appear in <code>.product_info.json</code>.
+	 */
+	public Map<String, Object> getProductInfos() {
+		return _productInfoMaps;
+	}
+
+	public void write(Path indexPath) throws IOException {
+		FileUtil.write(indexPath, _properties);
+	}
+
+	private static String _getBladeVersion() {
+		try {
+			return String.valueOf(VersionCommand.getBladeCLIVersion());
+		}
+		catch (IOException ioException) {
+			return "null";
+		}
+	}
+
+	private static Path _getIndexPath() {
+		Path bladeCachePath = BladeUtil.getBladeCachePath();
+
+		return bladeCachePath.resolve("product-info.properties");
+	}
+
+	private static ProductInfoIndex _getProductInfoIndex() {
+		ProductInfoIndex productInfoIndex = _productInfoIndex;
+
+		if (productInfoIndex == null) {
+			return _EMPTY_PRODUCT_INFO_INDEX;
+		}
+
+		return productInfoIndex;
+	}
+
+	private static byte[] _read(InputStream inputStream) throws IOException {
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		byte[] buffer = new byte[8192];
+
+		int bytesCount = -1;
+
+		while ((bytesCount = inputStream.read(buffer)) != -1) {
+			byteArrayOutputStream.write(buffer, 0, bytesCount);
+		}
+
+		return byteArrayOutputStream.toByteArray();
+	}
+
+	private static void _refreshInBackgroundIfStale() {
+		long now = System.currentTimeMillis();
+
+		if ((now - _checkedMillis) <= _REFRESH_INTERVAL_MILLIS) {
+			return;
+		}
+
+		_checkedMillis = now;
+
+		ExecutorUtil.execute("blade-product-info-refresh", () -> refresh(false, null));
+	}
+
+	private ProductInfoIndex(Properties properties) {
+		_properties = properties;
+
+		_bladeVersion = properties.getProperty(_BLADE_VERSION_KEY);
+		_hash = properties.getProperty(_HASH_KEY);
+
+		Map<String, Map<String, String>> productInfoMaps = new HashMap<>();
+
+		for (String key : properties.stringPropertyNames()) {
+			int index = key.indexOf('|');
+
+			if (index == -1) {
+				continue;
+			}
+
+			Map<String, String> productInfoMap = productInfoMaps.computeIfAbsent(
+				key.substring(0, index), productKey -> new HashMap<>());
+
+			productInfoMap.put(key.substring(index + 1), properties.getProperty(key));
+		}
+
+		List<String> keys = new ArrayList<>();
+		Map<String, Object> orderedProductInfoMaps = new LinkedHashMap<>();
+		List<String> promotedKeys = new ArrayList<>();
+
+		for (String productKey : StringUtil.split(properties.getProperty(_KEYS_KEY, ""), ",")) {
+			if (productKey.isEmpty()) {
+				continue;
+			}
+
+			Map<String, String> productInfoMap = productInfoMaps.getOrDefault(productKey, Collections.emptyMap());
+
+			ProductInfo productInfo = new ProductInfo(productInfoMap);
+
+			keys.add(productKey);
+
+			orderedProductInfoMaps.put(productKey, Collections.unmodifiableMap(productInfoMap));
+
+			_productInfos.put(productKey, productInfo);
+
+			if (productInfo.isPromoted()) {
+				promotedKeys.add(productKey);
+			}
+		}
+
+		_keys = Collections.unmodifiableList(keys);
+		_productInfoMaps = Collections.unmodifiableMap(orderedProductInfoMaps);
+		_promotedKeys = Collections.unmodifiableList(promotedKeys);
+	}
+
+	private static final String _BLADE_VERSION_KEY = "bladeVersion";
+
+	private static final ProductInfoIndex _EMPTY_PRODUCT_INFO_INDEX = new ProductInfoIndex(new Properties());
+
+	private static final String _HASH_KEY = "hash";
+
+	private static final String _KEYS_KEY = "keys";
+
+	private static final long _REFRESH_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+	private static volatile long _checkedMillis;
+	private static volatile ProductInfoIndex _productInfoIndex;
+	private static volatile long _refreshedMillis;
+	private static final Object _refreshLock = new Object();
+
+	private final String _bladeVersion;
+	private final String _hash;
+	private final List<String> _keys;
+	private final Map<String, Object> _productInfoMaps;
+	private final Map<String, ProductInfo> _productInfos = new HashMap<>();
+	private final List<String> _promotedKeys;
+	private final Properties _properties;
+
+}
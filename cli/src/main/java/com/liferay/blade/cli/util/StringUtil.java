@@ -16,6 +16,11 @@
 
 package com.liferay.blade.cli.util;
 
+import java.nio.charset.StandardCharsets;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -42,6 +47,27 @@ public class StringUtil {
 		return s1.equals(o.toString());
 	}
 
+	/**
+	 * Returns the hex encoded SHA-1 hash of the UTF-8 bytes of the string.
+	 */
+	public static String getSha1(String s) {
+		MessageDigest messageDigest = getSha1MessageDigest();
+
+		return toHex(messageDigest.digest(s.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	public static MessageDigest getSha1MessageDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException noSuchAlgorithmException) {
+
+			// Every Java platform implementation supports SHA-1
+
+			throw new IllegalStateException(noSuchAlgorithmException);
+		}
+	}
+
 	public static boolean isNullOrEmpty(String arg) {
 		boolean hasContent = Optional.of(
 			arg
@@ -122,6 +148,17 @@ public class StringUtil {
 		return nodeValues.toArray(new String[0]);
 	}
 
+	public static String toHex(byte[] bytes) {
+		StringBuilder sb = new StringBuilder(bytes.length * 2);
+
+		for (byte b : bytes) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+			sb.append(Character.forDigit(b & 0xF, 16));
+		}
+
+		return sb.toString();
+	}
+
 	private static void _split(Collection<String> values, String s, int offset, char delimiter) {
 		int pos = s.indexOf(delimiter, offset);
 
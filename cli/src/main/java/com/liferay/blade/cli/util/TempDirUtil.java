@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.blade.cli.util;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temporary directories owned by a blade process. The owner holds an advisory
+ * lock on a file inside the directory for as long as it uses it, so other
+ * blade processes can tell whether the directory is orphaned without listing
+ * the running processes.
+ *
+ * @author Gregory Amerson
+ */
+public class TempDirUtil {
+
+	public static final String LOCK_FILE_NAME = ".blade.lock";
+
+	/**
+	 * Creates a temporary directory named after the prefix and the current
+	 * process id, and locks it until {@link #release(Path)} is called or the
+	 * process exits.
+	 */
+	public static Path createLockedTempDirectory(String prefix) throws IOException {
+		long pid = ProcessesUtil.getCurrentProcessId();
+
+		Path tempDirPath = Files.createTempDirectory(prefix + pid + "-");
+
+		FileChannel fileChannel = FileChannel.open(
+			tempDirPath.resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+
+		try {
+			FileLock fileLock = fileChannel.tryLock();
+
+			if (fileLock == null) {
+				throw new IOException("Unable to lock " + tempDirPath);
+			}
+		}
+		catch (IOException | RuntimeException exception) {
+			fileChannel.close();
+
+			throw exception;
+		}
+
+		_lockFileChannels.put(_getKey(tempDirPath), fileChannel);
+
+		return tempDirPath;
+	}
+
+	/**
+	 * Returns <code>true</code> if a running process still uses the directory.
+	 * Directories created by older blade versions have no lock file, and fall
+	 * back to checking the process id in their name.
+	 */
+	public static boolean isInUse(Path tempDirPath) {
+
+		// Closing any channel of the lock file releases the locks this process
+		// holds on it, so never open one for a directory locked by this process
+
+		if (_lockFileChannels.containsKey(_getKey(tempDirPath))) {
+			return true;
+		}
+
+		Path lockFilePath = tempDirPath.resolve(LOCK_FILE_NAME);
+
+		if (Files.notExists(lockFilePath)) {
+			return _isOwnerAlive(tempDirPath);
+		}
+
+		try (FileChannel fileChannel = FileChannel.open(lockFilePath, StandardOpenOption.WRITE);
+			FileLock fileLock = fileChannel.tryLock()) {
+
+			return fileLock == null;
+		}
+		catch (OverlappingFileLockException overlappingFileLockException) {
+			return true;
+		}
+		catch (IOException ioException) {
+
+			// Windows refuses to open files locked by another process
+
+			return Files.exists(lockFilePath);
+		}
+	}
+
+	/**
+	 * Deletes the directories in <code>tempDirPath</code> starting with one of
+	 * the prefixes that are no longer in use. Does nothing if the directories
+	 * were already reaped less than <code>interval</code> milliseconds ago
+	 * according to the stamp file.
+	 *
+	 * @return the number of deleted directories, or <code>-1</code> if reaping
+	 *         was skipped
+	 */
+	public static int reapOrphanedTempDirs(
+		Path tempDirPath, Collection<String> prefixes, Path stampPath, long interval) {
+
+		try {
+			if (Files.exists(stampPath)) {
+				FileTime lastModifiedTime = Files.getLastModifiedTime(stampPath);
+
+				if ((System.currentTimeMillis() - lastModifiedTime.toMillis()) < interval) {
+					return -1;
+				}
+			}
+
+			Files.createDirectories(stampPath.getParent());
+
+			if (Files.notExists(stampPath)) {
+				Files.createFile(stampPath);
+			}
+
+			Files.setLastModifiedTime(stampPath, FileTime.fromMillis(System.currentTimeMillis()));
+		}
+		catch (IOException ioException) {
+			return -1;
+		}
+
+		File[] files = tempDirPath.toFile(
+		).listFiles();
+
+		if (files == null) {
+			return 0;
+		}
+
+		int count = 0;
+
+		for (File file : files) {
+			String fileName = file.getName();
+
+			if (!file.isDirectory() || !_startsWithAny(fileName, prefixes)) {
+				continue;
+			}
+
+			Path path = file.toPath();
+
+			if (isInUse(path)) {
+				continue;
+			}
+
+			try {
+				FileUtil.deleteDirIfExists(path);
+
+				count++;
+			}
+			catch (IOException ioException) {
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Releases the lock of a directory created by
+	 * {@link #createLockedTempDirectory(String)}, so it can be deleted.
+	 */
+	public static void release(Path tempDirPath) {
+		FileChannel fileChannel = _lockFileChannels.remove(_getKey(tempDirPath));
+
+		if (fileChannel != null) {
+			try {
+				fileChannel.close();
+			}
+			catch (IOException ioException) {
+			}
+		}
+	}
+
+	private static Path _getKey(Path tempDirPath) {
+		Path absolutePath = tempDirPath.toAbsolutePath();
+
+		return absolutePath.normalize();
+	}
+
+	private static boolean _isOwnerAlive(Path tempDirPath) {
+		Path fileNamePath = tempDirPath.getFileName();
+
+		String[] segments = String.valueOf(
+			fileNamePath
+		).split(
+			"-"
+		);
+
+		try {
+			Boolean alive = ProcessesUtil.isAlive(Long.parseLong(segments[2]));
+
+			if (alive != null) {
+				return alive;
+			}
+		}
+		catch (RuntimeException runtimeException) {
+		}
+
+		// Without a way to look up the process, only reap directories that have
+		// not been touched for a long time
+
+		try {
+			FileTime lastModifiedTime = Files.getLastModifiedTime(tempDirPath);
+
+			return (System.currentTimeMillis() - lastModifiedTime.toMillis()) < _UNKNOWN_OWNER_MAX_AGE;
+		}
+		catch (IOException ioException) {
+			return true;
+		}
+	}
+
+	private static boolean _startsWithAny(String fileName, Collection<String> prefixes) {
+		for (String prefix : prefixes) {
+			if (fileName.startsWith(prefix)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static final long _UNKNOWN_OWNER_MAX_AGE = TimeUnit.DAYS.toMillis(1);
+
+	private static final Map<Path, FileChannel> _lockFileChannels = new ConcurrentHashMap<>();
+
+}
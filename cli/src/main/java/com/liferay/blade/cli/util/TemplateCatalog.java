@@ -0,0 +1,316 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import com.liferay.blade.cli.BladeCLI;
+import com.liferay.blade.cli.Extensions;
+import com.liferay.blade.cli.command.VersionCommand;
+import com.liferay.project.templates.ProjectTemplates;
+import com.liferay.project.templates.extensions.util.ProjectTemplatesUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Catalog of the project templates available to blade, with the description,
+ * jar and hash of each one. The catalog is kept in the blade cache and only
+ * rebuilt when the blade version or the content of the extensions directory
+ * changes, so validating, prompting and listing template names does not have
+ * to scan the template jars again.
+ *
+ * @author Gregory Amerson
+ */
+public class TemplateCatalog {
+
+	public static final String FILE_NAME = "templates-catalog.properties";
+
+	public static TemplateCatalog load(BladeCLI bladeCLI) throws Exception {
+		Path extensionsPath = bladeCLI.getExtensionsPath();
+
+		Path userBladePath = extensionsPath.getParent();
+
+		Path catalogPath = userBladePath.resolve("cache/" + FILE_NAME);
+
+		String fingerprint = _getFingerprint(extensionsPath);
+
+		Properties properties = _read(catalogPath);
+
+		if ((properties == null) || !Objects.equals(fingerprint, properties.getProperty(_FINGERPRINT_KEY))) {
+			properties = _build(bladeCLI, fingerprint);
+
+			try {
+				FileUtil.write(catalogPath, properties);
+			}
+			catch (IOException ioException) {
+
+				// The catalog was built, caching it is best effort
+
+			}
+		}
+
+		return new TemplateCatalog(properties);
+	}
+
+	public Entry getEntry(String name) {
+		return _entries.get(name);
+	}
+
+	/**
+	 * Returns the names of the templates, sorted.
+	 */
+	public Collection<String> getNames() {
+		return Collections.unmodifiableCollection(_entries.keySet());
+	}
+
+	/**
+	 * Returns the descriptions of the templates, keyed by template name.
+	 */
+	public Map<String, String> getTemplates() {
+		Map<String, String> templates = new LinkedHashMap<>();
+
+		for (Entry entry : _entries.values()) {
+			templates.put(entry.getName(), entry.getDescription());
+		}
+
+		return templates;
+	}
+
+	public boolean hasTemplate(String name) {
+		return _entries.containsKey(name);
+	}
+
+	private TemplateCatalog(Properties properties) {
+		for (String key : properties.stringPropertyNames()) {
+			if (!key.endsWith(_DESCRIPTION_SUFFIX)) {
+				continue;
+			}
+
+			String name = key.substring(0, key.length() - _DESCRIPTION_SUFFIX.length());
+
+			String jar = properties.getProperty(name + _JAR_SUFFIX);
+
+			Path jarPath = null;
+
+			if (jar != null) {
+				File jarFile = new File(jar);
+
+				jarPath = jarFile.toPath();
+			}
+
+			Entry entry = new Entry(
+				name, properties.getProperty(key), jarPath, properties.getProperty(name + _HASH_SUFFIX));
+
+			_entries.put(name, entry);
+		}
+	}
+
+	private static Properties _build(BladeCLI bladeCLI, String fingerprint) throws Exception {
+		Path extensionsPath = bladeCLI.getExtensionsPath();
+
+		Extensions extensions = bladeCLI.getExtensions();
+
+		Path templatesPath = extensions.getTemplatesPath();
+
+		Collection<File> templatesFiles = new ArrayList<>();
+
+		templatesFiles.add(extensionsPath.toFile());
+		templatesFiles.add(templatesPath.toFile());
+
+		Map<String, String> templates = ProjectTemplates.getTemplates(templatesFiles);
+
+		Map<String, Path> jarPaths = new HashMap<>();
+
+		_putJarPaths(templatesPath, jarPaths);
+
+		// Templates installed as extensions override the embedded ones
+
+		_putJarPaths(extensionsPath, jarPaths);
+
+		Properties properties = new Properties();
+
+		properties.setProperty(_FINGERPRINT_KEY, fingerprint);
+
+		for (Map.Entry<String, String> entry : templates.entrySet()) {
+			String name = entry.getKey();
+
+			String description = entry.getValue();
+
+			if (description == null) {
+				description = "";
+			}
+
+			properties.setProperty(name + _DESCRIPTION_SUFFIX, description);
+
+			Path jarPath = jarPaths.get(name);
+
+			if (jarPath != null) {
+				properties.setProperty(name + _JAR_SUFFIX, String.valueOf(jarPath.toAbsolutePath()));
+				properties.setProperty(name + _HASH_SUFFIX, FileUtil.getSha1(jarPath));
+			}
+		}
+
+		return properties;
+	}
+
+	/**
+	 * Describes everything the catalog depends on without opening any jar: the
+	 * version and location of blade, which carries the built-in and embedded
+	 * templates, and the name, size and modification time of each jar in the
+	 * extensions directory.
+	 */
+	private static String _getFingerprint(Path extensionsPath) throws IOException {
+		StringBuilder sb = new StringBuilder();
+
+		sb.append(VersionCommand.getBladeCLIVersion());
+		sb.append('|');
+
+		Path bladeJarPath = BladeUtil.getBladeJarPath();
+
+		File bladeJarFile = bladeJarPath.toFile();
+
+		sb.append(bladeJarFile.getAbsolutePath());
+		sb.append(':');
+		sb.append(bladeJarFile.lastModified());
+		sb.append('|');
+
+		sb.append(extensionsPath.toAbsolutePath());
+
+		List<String> jars = new ArrayList<>();
+
+		try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(extensionsPath, "*.jar")) {
+			for (Path path : directoryStream) {
+				File file = path.toFile();
+
+				jars.add(file.getName() + ":" + file.length() + ":" + file.lastModified());
+			}
+		}
+
+		Collections.sort(jars);
+
+		for (String jar : jars) {
+			sb.append('|');
+			sb.append(jar);
+		}
+
+		return sb.toString();
+	}
+
+	private static void _putJarPaths(Path dirPath, Map<String, Path> jarPaths) throws IOException {
+		if (Files.notExists(dirPath)) {
+			return;
+		}
+
+		try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(dirPath, "*.project.templates.*.jar")) {
+			for (Path path : directoryStream) {
+				String fileName = String.valueOf(path.getFileName());
+
+				try {
+					jarPaths.put(ProjectTemplatesUtil.getTemplateName(fileName), path);
+				}
+				catch (Exception exception) {
+
+					// Not named like a project template
+
+				}
+			}
+		}
+	}
+
+	private static Properties _read(Path catalogPath) {
+		if (Files.notExists(catalogPath)) {
+			return null;
+		}
+
+		try (InputStream inputStream = Files.newInputStream(catalogPath)) {
+			Properties properties = new Properties();
+
+			properties.load(inputStream);
+
+			return properties;
+		}
+		catch (Exception exception) {
+			return null;
+		}
+	}
+
+	private static final String _DESCRIPTION_SUFFIX = "|description";
+
+	private static final String _FINGERPRINT_KEY = "fingerprint";
+
+	private static final String _HASH_SUFFIX = "|hash";
+
+	private static final String _JAR_SUFFIX = "|jar";
+
+	private final Map<String, Entry> _entries = new TreeMap<>();
+
+	public static class Entry {
+
+		public String getDescription() {
+			return _description;
+		}
+
+		/**
+		 * Returns the SHA-1 hash of the template jar, or <code>null</code> for
+		 * the templates built in the project templates library.
+		 */
+		public String getHash() {
+			return _hash;
+		}
+
+		/**
+		 * Returns the template jar, or <code>null</code> for the templates
+		 * built in the project templates library.
+		 */
+		public Path getJarPath() {
+			return _jarPath;
+		}
+
+		public String getName() {
+			return _name;
+		}
+
+		private Entry(String name, String description, Path jarPath, String hash) {
+			_name = name;
+			_description = description;
+			_jarPath = jarPath;
+			_hash = hash;
+		}
+
+		private final String _description;
+		private final String _hash;
+		private final Path _jarPath;
+		private final String _name;
+
+	}
+
+}
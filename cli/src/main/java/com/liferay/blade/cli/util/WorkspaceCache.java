@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Memoizes workspace detection. Resolutions keyed by directory are kept while
+ * a blade run is in progress, between {@link #startRun()} and
+ * {@link #endRun()}, while the results of scanning build files are kept for as
+ * long as the file modification time and size stay the same.
+ * Setting the <code>blade.workspace.cache</code> system property or the
+ * <code>BLADE_WORKSPACE_CACHE</code> environment variable to <code>true</code>
+ * also persists the scan results in <code>~/.blade/cache</code>, so later runs
+ * do not read unchanged build files again.
+ *
+ * @author Gregory Amerson
+ */
+public class WorkspaceCache {
+
+	public static final String PERSISTENT_ENVIRONMENT_VARIABLE = "BLADE_WORKSPACE_CACHE";
+
+	public static final String PERSISTENT_PROPERTY = "blade.workspace.cache";
+
+	/**
+	 * Returns <code>true</code> if any line of the file matches the predicate.
+	 * The file is read line by line until the first match, and the result is
+	 * reused until the file is modified.
+	 *
+	 * @param key identifies the predicate, as the result is cached per key and
+	 *        file
+	 */
+	public static boolean anyLineMatches(String key, File file, Predicate<String> predicate) {
+		if ((file == null) || !file.isFile()) {
+			return false;
+		}
+
+		String stamp = file.lastModified() + "|" + file.length() + "|";
+
+		String scanKey = key + "|" + _getPath(file);
+
+		Map<String, String> scans = _getScans();
+
+		String scan = scans.get(scanKey);
+
+		if ((scan != null) && scan.startsWith(stamp)) {
+			return Boolean.parseBoolean(scan.substring(stamp.length()));
+		}
+
+		boolean matches = false;
+
+		try (InputStream inputStream = Files.newInputStream(file.toPath());
+			BufferedReader bufferedReader = new BufferedReader(
+				new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+
+			String line;
+
+			while ((line = bufferedReader.readLine()) != null) {
+				if (predicate.test(line)) {
+					matches = true;
+
+					break;
+				}
+			}
+		}
+		catch (IOException ioException) {
+			return false;
+		}
+
+		scans.put(scanKey, stamp + matches);
+
+		_dirty = true;
+
+		return matches;
+	}
+
+	/**
+	 * Forgets the resolutions of the current run. Called by commands that
+	 * create or convert workspaces.
+	 */
+	public static void clear() {
+		_resolutions.clear();
+	}
+
+	/**
+	 * Ends the run started by the matching {@link #startRun()}, forgetting its
+	 * resolutions and persisting the new scan results.
+	 */
+	public static void endRun() {
+		if (_runs.decrementAndGet() == 0) {
+			clear();
+		}
+
+		store();
+	}
+
+	public static boolean isPersistent() {
+		String persistent = System.getProperty(PERSISTENT_PROPERTY);
+
+		if (persistent != null) {
+			return Boolean.parseBoolean(persistent);
+		}
+
+		return Boolean.parseBoolean(System.getenv(PERSISTENT_ENVIRONMENT_VARIABLE));
+	}
+
+	/**
+	 * Returns the resolution of the directory, calling the resolver only the
+	 * first time the directory is resolved with the key during the run. Outside
+	 * of a run the resolver is always called.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T resolve(String key, File dir, Function<File, T> resolver) {
+		if ((dir == null) || (_runs.get() == 0)) {
+			return resolver.apply(dir);
+		}
+
+		String resolutionKey = key + "|" + _getPath(dir);
+
+		Optional<Object> resolution = _resolutions.get(resolutionKey);
+
+		if (resolution == null) {
+			resolution = Optional.ofNullable(resolver.apply(dir));
+
+			_resolutions.put(resolutionKey, resolution);
+		}
+
+		return (T)resolution.orElse(null);
+	}
+
+	public static void startRun() {
+		if (_runs.getAndIncrement() == 0) {
+			clear();
+		}
+	}
+
+	/**
+	 * Writes the scan results to the persistent cache, if it is enabled and
+	 * there are new results.
+	 */
+	public static synchronized void store() {
+		if (!_dirty || !isPersistent()) {
+			return;
+		}
+
+		Path cachePath = BladeUtil.getBladeCachePath();
+
+		try {
+			Properties properties = new Properties();
+
+			properties.putAll(_getScans());
+
+			FileUtil.write(cachePath.resolve(_SCANS_FILE_NAME), properties);
+
+			_dirty = false;
+		}
+		catch (IOException ioException) {
+		}
+	}
+
+	private static String _getPath(File file) {
+		Path path = file.toPath();
+
+		path = path.toAbsolutePath();
+
+		path = path.normalize();
+
+		return path.toString();
+	}
+
+	private static synchronized Map<String, String> _getScans() {
+		if (_scans != null) {
+			return _scans;
+		}
+
+		_scans = new ConcurrentHashMap<>();
+
+		if (!isPersistent()) {
+			return _scans;
+		}
+
+		Path cachePath = BladeUtil.getBladeCachePath();
+
+		Path scansPath = cachePath.resolve(_SCANS_FILE_NAME);
+
+		if (Files.notExists(scansPath)) {
+			return _scans;
+		}
+
+		Properties properties = new Properties();
+
+		try (InputStream inputStream = Files.newInputStream(scansPath)) {
+			properties.load(inputStream);
+		}
+		catch (IOException ioException) {
+			return _scans;
+		}
+
+		for (String name : properties.stringPropertyNames()) {
+			_scans.put(name, properties.getProperty(name));
+		}
+
+		return _scans;
+	}
+
+	private static final String _SCANS_FILE_NAME = "workspace-scans.properties";
+
+	private static volatile boolean _dirty;
+	private static final Map<String, Optional<Object>> _resolutions = new ConcurrentHashMap<>();
+	private static final AtomicInteger _runs = new AtomicInteger();
+	private static Map<String, String> _scans;
+
+}
@@ -50,6 +50,35 @@ public class BladeCliTest {
 		Assert.assertFalse("Current jar should be the latest version", updateAvailable);
 	}
 
+	@Test
+	public void testTimings() throws Exception {
+		BladeTestResults results = TestUtil.runBlade(_rootDir, _extensionsDir, false, "--timings", "version");
+
+		String errors = results.getErrors();
+
+		Assert.assertTrue(errors, errors.contains("Phase"));
+		Assert.assertTrue(errors, errors.contains("getExtensions"));
+		Assert.assertTrue(errors, errors.contains("execute"));
+		Assert.assertTrue(errors, errors.contains("Total"));
+
+		String output = results.getOutput();
+
+		Assert.assertFalse(output, output.contains("--timings"));
+	}
+
+	@Test
+	public void testTimingsJson() throws Exception {
+		BladeTestResults results = TestUtil.runBlade(_rootDir, _extensionsDir, false, "--timings=json", "version");
+
+		String errors = results.getErrors();
+
+		errors = errors.trim();
+
+		Assert.assertTrue(errors, errors.startsWith("{\"command\":\"version\""));
+		Assert.assertTrue(errors, errors.contains("{\"name\":\"parse\",\"nanos\":"));
+		Assert.assertTrue(errors, errors.endsWith("}"));
+	}
+
 	@Rule
 	public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
@@ -72,6 +72,10 @@ public class BladeTest extends BladeCLI {
 		return new BladeTestBuilder();
 	}
 
+	@Override
+	public void checkForUpdatesInBackground(String[] args) {
+	}
+
 	@Override
 	public BladeSettings getBladeSettings() throws IOException {
 		File settingsBaseDir = _getSettingsBaseDir();
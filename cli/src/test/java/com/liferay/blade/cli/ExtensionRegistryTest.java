@@ -0,0 +1,259 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.ServiceLoader;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Gregory Amerson
+ */
+public class ExtensionRegistryTest {
+
+	@Test
+	public void testNonServiceLookupsOpenOwningExtension() throws Exception {
+		String helperFileName = Helper.class.getName();
+
+		helperFileName = helperFileName.replace('.', '/') + ".class";
+
+		Path supplierJarPath = _createJar(
+			"supplier.jar", Supplier.class, Greeter.class, helperFileName, "templates/greeting.txt");
+		Path callableJarPath = _createJar("callable.jar", Callable.class, Counter.class);
+
+		Path indexPath = _getIndexPath();
+
+		try (ExtensionRegistry extensionRegistry = new ExtensionRegistry(indexPath, null)) {
+			extensionRegistry.addExtension(supplierJarPath);
+			extensionRegistry.addExtension(callableJarPath);
+
+			ClassLoader classLoader = extensionRegistry.getClassLoader();
+
+			Assert.assertNotNull(classLoader.getResource("templates/greeting.txt"));
+			Assert.assertNull(classLoader.getResource("templates/missing.txt"));
+
+			Assert.assertEquals(
+				Collections.singletonList("supplier.jar"), extensionRegistry.getOpenedExtensionNames());
+		}
+
+		try (ExtensionRegistry extensionRegistry = new ExtensionRegistry(indexPath, null)) {
+			extensionRegistry.addExtension(supplierJarPath);
+			extensionRegistry.addExtension(callableJarPath);
+
+			ClassLoader classLoader = extensionRegistry.getClassLoader();
+
+			Class<?> helperClass = classLoader.loadClass(Helper.class.getName());
+
+			Assert.assertNotSame(Helper.class, helperClass);
+		}
+	}
+
+	@Test
+	public void testOnlyOwningExtensionIsOpened() throws Exception {
+		Path supplierJarPath = _createJar("supplier.jar", Supplier.class, Greeter.class);
+		Path callableJarPath = _createJar("callable.jar", Callable.class, Counter.class);
+
+		Path indexPath = _getIndexPath();
+
+		try (ExtensionRegistry extensionRegistry = new ExtensionRegistry(indexPath, null)) {
+			extensionRegistry.addExtension(supplierJarPath);
+			extensionRegistry.addExtension(callableJarPath);
+
+			ClassLoader classLoader = extensionRegistry.getClassLoader();
+
+			Assert.assertNotNull(classLoader.getResource("META-INF/services/" + Supplier.class.getName()));
+
+			Assert.assertEquals(Collections.emptyList(), extensionRegistry.getOpenedExtensionNames());
+
+			@SuppressWarnings("rawtypes")
+			ServiceLoader<Supplier> serviceLoader = ServiceLoader.load(Supplier.class, classLoader);
+
+			@SuppressWarnings("rawtypes")
+			Iterator<Supplier> iterator = serviceLoader.iterator();
+
+			Supplier<?> supplier = iterator.next();
+
+			Assert.assertFalse(iterator.hasNext());
+
+			Class<?> supplierClass = supplier.getClass();
+
+			Assert.assertEquals(Greeter.class.getName(), supplierClass.getName());
+			Assert.assertNotSame(classLoader, supplierClass.getClassLoader());
+
+			Assert.assertEquals(
+				Collections.singletonList("supplier.jar"), extensionRegistry.getOpenedExtensionNames());
+		}
+
+		Properties index = new Properties();
+
+		try (InputStream inputStream = Files.newInputStream(indexPath)) {
+			index.load(inputStream);
+		}
+
+		Assert.assertEquals(
+			Greeter.class.getName(), index.getProperty("supplier.jar|service|" + Supplier.class.getName()));
+		Assert.assertEquals(
+			Counter.class.getName(), index.getProperty("callable.jar|service|" + Callable.class.getName()));
+	}
+
+	@Test
+	public void testRescanChangedExtension() throws Exception {
+		Path jarPath = _createJar("extension.jar", Supplier.class, Greeter.class);
+
+		Path indexPath = _getIndexPath();
+
+		try (ExtensionRegistry extensionRegistry = new ExtensionRegistry(indexPath, null)) {
+			extensionRegistry.addExtension(jarPath);
+
+			ClassLoader classLoader = extensionRegistry.getClassLoader();
+
+			Assert.assertNotNull(classLoader.getResource("META-INF/services/" + Supplier.class.getName()));
+		}
+
+		jarPath = _createJar("extension.jar", Callable.class, Counter.class);
+
+		File jarFile = jarPath.toFile();
+
+		jarFile.setLastModified(jarFile.lastModified() + 2000);
+
+		try (ExtensionRegistry extensionRegistry = new ExtensionRegistry(indexPath, null)) {
+			extensionRegistry.addExtension(jarPath);
+
+			ClassLoader classLoader = extensionRegistry.getClassLoader();
+
+			Assert.assertNull(classLoader.getResource("META-INF/services/" + Supplier.class.getName()));
+			Assert.assertNotNull(classLoader.getResource("META-INF/services/" + Callable.class.getName()));
+
+			Class<?> counterClass = classLoader.loadClass(Counter.class.getName());
+
+			Assert.assertNotSame(Counter.class, counterClass);
+		}
+	}
+
+	public static class Counter implements Callable<Integer> {
+
+		@Override
+		public Integer call() {
+			return 1;
+		}
+
+	}
+
+	public static class Greeter implements Supplier<String> {
+
+		@Override
+		public String get() {
+			return "hello";
+		}
+
+	}
+
+	public static class Helper {
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static byte[] _read(InputStream inputStream) throws Exception {
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		StringConverter.readInputStreamToOutputStream(inputStream, byteArrayOutputStream);
+
+		return byteArrayOutputStream.toByteArray();
+	}
+
+	private Path _createJar(
+			String fileName, Class<?> serviceClass, Class<?> implementationClass, String... entryNames)
+		throws Exception {
+
+		File root = temporaryFolder.getRoot();
+
+		Path rootPath = root.toPath();
+
+		Path jarPath = rootPath.resolve(fileName);
+
+		String classFileName = implementationClass.getName();
+
+		classFileName = classFileName.replace('.', '/') + ".class";
+
+		try (OutputStream outputStream = Files.newOutputStream(jarPath);
+			ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+			InputStream inputStream = implementationClass.getResourceAsStream("/" + classFileName)) {
+
+			zipOutputStream.putNextEntry(new ZipEntry(classFileName));
+
+			zipOutputStream.write(_read(inputStream));
+
+			zipOutputStream.closeEntry();
+
+			zipOutputStream.putNextEntry(new ZipEntry("META-INF/services/" + serviceClass.getName()));
+
+			String implementationClassName = implementationClass.getName();
+
+			zipOutputStream.write(implementationClassName.getBytes(StandardCharsets.UTF_8));
+
+			zipOutputStream.closeEntry();
+
+			for (String entryName : entryNames) {
+				zipOutputStream.putNextEntry(new ZipEntry(entryName));
+
+				if (entryName.endsWith(".class")) {
+					try (InputStream entryInputStream = ExtensionRegistryTest.class.getResourceAsStream(
+							"/" + entryName)) {
+
+						zipOutputStream.write(_read(entryInputStream));
+					}
+				}
+				else {
+					zipOutputStream.write(entryName.getBytes(StandardCharsets.UTF_8));
+				}
+
+				zipOutputStream.closeEntry();
+			}
+		}
+
+		return jarPath;
+	}
+
+	private Path _getIndexPath() {
+		File root = temporaryFolder.getRoot();
+
+		Path rootPath = root.toPath();
+
+		return rootPath.resolve("cache/services.properties");
+	}
+
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli;
+
+import java.net.URL;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Gregory Amerson
+ */
+public class ExtensionsCacheTest {
+
+	@Test
+	public void testEvictUnreferenced() throws Exception {
+		Path extensionsPath = temporaryFolder.newFolder("extensions").toPath();
+
+		Path cachePath = temporaryFolder.newFolder("cache").toPath();
+
+		Path fooJarPath = Files.write(extensionsPath.resolve("foo.jar"), new byte[] {1, 2, 3});
+		Path barJarPath = Files.write(extensionsPath.resolve("bar.jar"), new byte[] {4, 5, 6});
+
+		ExtensionsCache extensionsCache = new ExtensionsCache(cachePath, "1.0.0");
+
+		Path cachedFooJarPath = extensionsCache.materialize(fooJarPath);
+		Path cachedBarJarPath = extensionsCache.materialize(barJarPath);
+
+		extensionsCache.evictUnreferenced();
+
+		Files.delete(barJarPath);
+
+		extensionsCache = new ExtensionsCache(cachePath, "1.0.0");
+
+		Assert.assertEquals(cachedFooJarPath, extensionsCache.materialize(fooJarPath));
+
+		extensionsCache.evictUnreferenced();
+
+		Assert.assertTrue(Files.exists(cachedFooJarPath));
+		Assert.assertTrue(Files.exists(cachedBarJarPath));
+
+		Files.setLastModifiedTime(
+			cachedBarJarPath.getParent(),
+			FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(8)));
+
+		extensionsCache.evictUnreferenced();
+
+		Assert.assertTrue(Files.exists(cachedFooJarPath));
+		Assert.assertFalse(Files.exists(cachedBarJarPath));
+	}
+
+	@Test
+	public void testMaterializeEmbeddedJar() throws Exception {
+		Path cachePath = temporaryFolder.newFolder("cache").toPath();
+
+		Path bladeJarPath = temporaryFolder.newFile("blade.jar").toPath();
+
+		_writeJar(bladeJarPath, new byte[] {1, 2, 3});
+
+		URL resourceUrl = new URL("jar:" + bladeJarPath.toUri() + "!/foo.jar");
+
+		ExtensionsCache extensionsCache = new ExtensionsCache(cachePath, "1.0.0");
+
+		Path cachedJarPath = extensionsCache.materialize(resourceUrl, "foo.jar");
+
+		Assert.assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(cachedJarPath));
+
+		extensionsCache = new ExtensionsCache(cachePath, "1.0.0");
+
+		Assert.assertEquals(cachedJarPath, extensionsCache.materialize(resourceUrl, "foo.jar"));
+
+		_writeJar(bladeJarPath, new byte[] {1, 2, 3, 4});
+
+		Path changedJarPath = extensionsCache.materialize(resourceUrl, "foo.jar");
+
+		Assert.assertNotEquals(cachedJarPath, changedJarPath);
+		Assert.assertArrayEquals(new byte[] {1, 2, 3, 4}, Files.readAllBytes(changedJarPath));
+	}
+
+	@Test
+	public void testMaterializeIsContentAddressed() throws Exception {
+		Path extensionsPath = temporaryFolder.newFolder("extensions").toPath();
+
+		Path cachePath = temporaryFolder.newFolder("cache").toPath();
+
+		Path jarPath = Files.write(extensionsPath.resolve("foo.jar"), new byte[] {1, 2, 3});
+
+		ExtensionsCache extensionsCache = new ExtensionsCache(cachePath, "1.0.0");
+
+		Path cachedJarPath = extensionsCache.materialize(jarPath);
+
+		Assert.assertTrue(cachedJarPath.startsWith(extensionsCache.getVersionPath()));
+		Assert.assertArrayEquals(Files.readAllBytes(jarPath), Files.readAllBytes(cachedJarPath));
+
+		extensionsCache = new ExtensionsCache(cachePath, "1.0.0");
+
+		Assert.assertEquals(cachedJarPath, extensionsCache.materialize(jarPath));
+
+		Files.write(jarPath, new byte[] {1, 2, 3, 4});
+
+		Path changedJarPath = extensionsCache.materialize(jarPath);
+
+		Assert.assertNotEquals(cachedJarPath, changedJarPath);
+
+		extensionsCache = new ExtensionsCache(cachePath, "1.0.1");
+
+		Assert.assertNotEquals(changedJarPath, extensionsCache.materialize(jarPath));
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static void _writeJar(Path jarPath, byte[] bytes) throws Exception {
+		try (JarOutputStream jarOutputStream = new JarOutputStream(Files.newOutputStream(jarPath))) {
+			jarOutputStream.putNextEntry(new JarEntry("foo.jar"));
+
+			jarOutputStream.write(bytes);
+
+			jarOutputStream.closeEntry();
+		}
+	}
+
+}
@@ -26,6 +26,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -109,6 +110,25 @@ public class ExtensionsTest {
 		Assert.assertTrue(errorOccurred);
 	}
 
+	@Test
+	public void testIndexedCommandNamesMatchCommands() throws Exception {
+		_setupTestExtensions();
+
+		ClassLoader classLoader = _extensionsClassLoaderSupplier.get();
+
+		for (String profileName : new String[] {"gradle", "maven", "foo"}) {
+			try (Extensions indexedExtensions = new Extensions(classLoader);
+				Extensions extensions = new Extensions(classLoader)) {
+
+				Map<String, BaseCommand<? extends BaseArgs>> commands = extensions.getCommands(profileName);
+
+				Assert.assertEquals(
+					profileName, new ArrayList<>(commands.keySet()),
+					new ArrayList<>(indexedExtensions.getCommandNames(profileName)));
+			}
+		}
+	}
+
 	@Test
 	public void testLoadCommandsBuiltIn() throws Exception {
 		ClassLoader classLoader = _extensionsClassLoaderSupplier.get();
@@ -185,6 +205,50 @@ public class ExtensionsTest {
 		}
 	}
 
+	@Test
+	public void testLoadInvokedCommandOnly() throws Exception {
+		ClassLoader classLoader = _extensionsClassLoaderSupplier.get();
+
+		try (Extensions extensions = new Extensions(classLoader)) {
+			String[] args = Extensions.sortArgs(
+				extensions.getCommandNames("gradle"), new String[] {"--base", "foo", "create", "-t", "mvc-portlet"});
+
+			Map<String, BaseCommand<? extends BaseArgs>> commands = extensions.getCommands("gradle", args);
+
+			Assert.assertEquals(commands.toString(), 1, commands.size());
+
+			BaseCommand<? extends BaseArgs> baseCommand = commands.get("create");
+
+			Assert.assertNotNull(baseCommand);
+			Assert.assertNotNull(baseCommand.getArgs());
+		}
+	}
+
+	@Test
+	public void testParseWithExtensionCommands() throws Exception {
+		_setupTestExtensions();
+
+		String[] args = {"--base", _rootDir.getPath(), "hello", "--name", "foobar"};
+
+		BladeTestResults results = TestUtil.runBlade(_rootDir, _extensionsDir, args);
+
+		String output = results.getOutput();
+
+		Assert.assertTrue(output, output.contains("foobar"));
+
+		args = new String[] {"--base", _rootDir.getPath(), "goodbye"};
+
+		results = TestUtil.runBlade(_rootDir, _extensionsDir, false, args);
+
+		String errors = results.getErrors();
+
+		Assert.assertTrue(errors, errors.contains("No such command"));
+
+		output = results.getOutput() + errors;
+
+		Assert.assertTrue(output, output.contains("hello"));
+	}
+
 	@Rule
 	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
 
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Gregory Amerson
+ */
+public class ChangeCollectorTest {
+
+	@Test
+	public void testChangesAreCoalescedPerProject() throws Exception {
+		ChangeCollector changeCollector = new ChangeCollector(0);
+
+		changeCollector.add(
+			":modules:a", _aPath, _aPath.resolve("A.java"), StandardWatchEventKinds.ENTRY_MODIFY, false);
+		changeCollector.add(":modules:a", _aPath, _aPath.resolve("a.css"), StandardWatchEventKinds.ENTRY_MODIFY, true);
+		changeCollector.add(":modules:b", _bPath, _bPath.resolve("b.css"), StandardWatchEventKinds.ENTRY_MODIFY, true);
+		changeCollector.add(":modules:b", _bPath, _bPath.resolve("b.js"), StandardWatchEventKinds.ENTRY_MODIFY, true);
+
+		DeployBatch deployBatch = changeCollector.take();
+
+		List<ProjectChanges> projectChanges = deployBatch.getProjectChanges();
+
+		Assert.assertEquals(projectChanges.toString(), 2, projectChanges.size());
+
+		ProjectChanges aProjectChanges = projectChanges.get(0);
+
+		Assert.assertEquals(2, aProjectChanges.getPaths().size());
+
+		Assert.assertEquals(
+			Arrays.asList(":modules:a:deploy", ":modules:b:deployFast", "-a", "--parallel"),
+			deployBatch.getGradleArguments());
+	}
+
+	@Test
+	public void testCloseWakesUpTake() throws Exception {
+		ChangeCollector changeCollector = new ChangeCollector(TimeUnit.MINUTES.toMillis(1));
+
+		changeCollector.add(
+			":modules:a", _aPath, _aPath.resolve("A.java"), StandardWatchEventKinds.ENTRY_MODIFY, false);
+
+		Thread thread = new Thread(changeCollector::close);
+
+		thread.start();
+
+		Assert.assertNull(changeCollector.take());
+	}
+
+	@Test
+	public void testDeletedFileCleansProject() throws Exception {
+		ChangeCollector changeCollector = new ChangeCollector(0);
+
+		changeCollector.add(":modules:a", _aPath, _aPath.resolve("a.css"), StandardWatchEventKinds.ENTRY_MODIFY, true);
+		changeCollector.add(":modules:a", _aPath, _aPath.resolve("b.css"), StandardWatchEventKinds.ENTRY_DELETE, true);
+
+		DeployBatch deployBatch = changeCollector.take();
+
+		Assert.assertEquals(Arrays.asList(":modules:a:clean", ":modules:a:deploy"), deployBatch.getGradleArguments());
+	}
+
+	@Test
+	public void testQuietPeriod() throws Exception {
+		long quietPeriod = 200;
+
+		ChangeCollector changeCollector = new ChangeCollector(quietPeriod);
+
+		long start = System.nanoTime();
+
+		changeCollector.add(":", _aPath, _aPath.resolve("A.java"), StandardWatchEventKinds.ENTRY_CREATE, false);
+
+		DeployBatch deployBatch = changeCollector.take();
+
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		Assert.assertTrue("Took batch after " + elapsed + "ms", elapsed >= quietPeriod);
+
+		Assert.assertEquals(Arrays.asList("deploy"), deployBatch.getGradleArguments());
+	}
+
+	@Test
+	public void testSupersededBatchIsRequeued() throws Exception {
+		ChangeCollector changeCollector = new ChangeCollector(0);
+
+		changeCollector.add(":modules:a", _aPath, _aPath.resolve("a.css"), StandardWatchEventKinds.ENTRY_DELETE, true);
+		changeCollector.add(":modules:b", _bPath, _bPath.resolve("b.css"), StandardWatchEventKinds.ENTRY_MODIFY, true);
+
+		DeployBatch deployBatch = changeCollector.take();
+
+		Assert.assertFalse(changeCollector.isSuperseded(deployBatch));
+
+		changeCollector.add(
+			":modules:c", _aPath.resolveSibling("c"), _aPath.resolveSibling("c/c.css"),
+			StandardWatchEventKinds.ENTRY_MODIFY, true);
+
+		Assert.assertFalse(changeCollector.isSuperseded(deployBatch));
+
+		changeCollector.add(
+			":modules:b", _bPath, _bPath.resolve("B.java"), StandardWatchEventKinds.ENTRY_MODIFY, false);
+
+		Assert.assertTrue(changeCollector.isSuperseded(deployBatch));
+
+		changeCollector.addAll(deployBatch);
+
+		deployBatch = changeCollector.take();
+
+		Assert.assertEquals(
+			Arrays.asList(
+				":modules:c:deployFast", ":modules:b:deploy", ":modules:a:clean", ":modules:a:deploy", "--parallel"),
+			deployBatch.getGradleArguments());
+	}
+
+	@Test
+	public void testUnchangedFilesGiveEmptyBatch() throws Exception {
+		ChangeCollector changeCollector = new ChangeCollector(0);
+
+		changeCollector.addUnchanged(_aPath.resolve("a.css"));
+		changeCollector.addUnchanged(_bPath.resolve("b.css"));
+
+		DeployBatch deployBatch = changeCollector.take();
+
+		Assert.assertTrue(deployBatch.isEmpty());
+		Assert.assertEquals(2, deployBatch.getUnchangedCount());
+
+		changeCollector.addUnchanged(_aPath.resolve("a.css"));
+		changeCollector.add(":modules:b", _bPath, _bPath.resolve("b.css"), StandardWatchEventKinds.ENTRY_MODIFY, true);
+
+		deployBatch = changeCollector.take();
+
+		Assert.assertFalse(deployBatch.isEmpty());
+		Assert.assertEquals(1, deployBatch.getUnchangedCount());
+	}
+
+	private final Path _aPath = Paths.get("modules", "a");
+	private final Path _bPath = Paths.get("modules", "b");
+
+}
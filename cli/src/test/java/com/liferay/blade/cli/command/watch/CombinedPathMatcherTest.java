@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Gregory Amerson
+ */
+public class CombinedPathMatcherTest {
+
+	@Test
+	public void testEmptyPatternsMatchNothing() throws Exception {
+		PathMatcher pathMatcher = new CombinedPathMatcher(_basePath, Collections.emptyList());
+
+		Assert.assertFalse(pathMatcher.matches(_basePath.resolve("build")));
+	}
+
+	@Test
+	public void testMatchesLikeGlobMatchers() throws Exception {
+		List<String> patterns = Arrays.asList(
+			".gradle", "**/build", "**/node_modules", "bundles", "**/*.{css,scss}", "**/view?.jsp", "**/[!a]*.js");
+
+		PathMatcher pathMatcher = new CombinedPathMatcher(_basePath, patterns);
+
+		FileSystem fileSystem = FileSystems.getDefault();
+
+		String prefix = _basePath + "/";
+
+		for (String name : _NAMES) {
+			Path path = _basePath.resolve(name);
+
+			boolean expected = false;
+
+			for (String pattern : patterns) {
+				if (pattern.startsWith("**/")) {
+					PathMatcher globPathMatcher = fileSystem.getPathMatcher("glob:" + prefix + pattern.substring(3));
+
+					expected = expected || globPathMatcher.matches(path);
+				}
+
+				PathMatcher globPathMatcher = fileSystem.getPathMatcher("glob:" + prefix + pattern);
+
+				expected = expected || globPathMatcher.matches(path);
+			}
+
+			Assert.assertEquals(name, expected, pathMatcher.matches(path));
+		}
+	}
+
+	private static final String[] _NAMES = {
+		".gradle", "a.js", "b.js", "build", "bundles", "bundles/tomcat", "main.css", "modules/foo/build",
+		"modules/foo/build.gradle", "modules/foo/src/main/resources/META-INF/resources/view1.jsp",
+		"modules/foo/src/main/resources/META-INF/resources/view10.jsp", "modules/foo/src/main/resources/main.scss",
+		"modules/web/node_modules", "modules/web/src/app.js", "modules/web/src/apple.js"
+	};
+
+	private static final Path _basePath = Paths.get(
+		"workspace"
+	).toAbsolutePath();
+
+}
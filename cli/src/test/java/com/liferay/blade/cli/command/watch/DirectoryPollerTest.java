@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import com.liferay.blade.cli.util.DirectorySnapshot;
+
+import java.io.File;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Gregory Amerson
+ */
+public class DirectoryPollerTest {
+
+	@Before
+	public void setUp() throws Exception {
+		File rootFolder = temporaryFolder.getRoot();
+
+		_basePath = rootFolder.toPath();
+
+		_nativePath = _basePath.resolve("native");
+
+		Files.createDirectories(_nativePath);
+
+		Files.createDirectories(_basePath.resolve("polled"));
+
+		_directorySnapshot = new DirectorySnapshot(path -> false);
+
+		_directorySnapshot.record(_basePath);
+		_directorySnapshot.record(_basePath.resolve("polled"));
+	}
+
+	@Test
+	public void testDelayGrowsWhileIdle() throws Exception {
+		DirectoryPoller directoryPoller = new DirectoryPoller(
+			_directorySnapshot, _basePath, _nativePath::equals, 1000);
+
+		Assert.assertEquals(1000, directoryPoller.getDelayMillis());
+
+		for (int i = 0; i < 10; i++) {
+			directoryPoller.poll();
+		}
+
+		Assert.assertEquals(2000, directoryPoller.getDelayMillis());
+
+		Files.write(_basePath.resolve("polled/view.jsp"), "<p>".getBytes());
+
+		List<DirectorySnapshot.Change> changes = directoryPoller.poll();
+
+		Assert.assertEquals(changes.toString(), 1, changes.size());
+
+		Assert.assertEquals(1000, directoryPoller.getDelayMillis());
+	}
+
+	@Test
+	public void testNativeDirectoriesAreNotPolled() throws Exception {
+		DirectoryPoller directoryPoller = new DirectoryPoller(
+			_directorySnapshot, _basePath, _nativePath::equals, 1000);
+
+		Files.write(_nativePath.resolve("Foo.java"), "class Foo {}".getBytes());
+
+		Assert.assertTrue(directoryPoller.poll().isEmpty());
+
+		Files.write(_basePath.resolve("polled/Bar.java"), "class Bar {}".getBytes());
+
+		List<DirectorySnapshot.Change> changes = directoryPoller.poll();
+
+		Assert.assertEquals(changes.toString(), 1, changes.size());
+
+		DirectorySnapshot.Change change = changes.get(0);
+
+		Assert.assertEquals(_basePath.resolve("polled/Bar.java"), change.getPath());
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path _basePath;
+	private DirectorySnapshot _directorySnapshot;
+	private Path _nativePath;
+
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.attribute.FileTime;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Gregory Amerson
+ */
+public class FileFingerprintsTest {
+
+	@Test
+	public void testChangedContent() throws Exception {
+		Path path = _createFile("a { color: red; }");
+
+		FileFingerprints fileFingerprints = new FileFingerprints();
+
+		fileFingerprints.seed(path, System.currentTimeMillis());
+
+		Files.write(path, "a { color: tan; }".getBytes());
+
+		Assert.assertTrue(fileFingerprints.isChanged(path, StandardWatchEventKinds.ENTRY_MODIFY));
+
+		Files.write(path, "a { color: tan; }".getBytes());
+
+		Assert.assertFalse(fileFingerprints.isChanged(path, StandardWatchEventKinds.ENTRY_MODIFY));
+	}
+
+	@Test
+	public void testDeletedFile() throws Exception {
+		Path path = _createFile("a { color: red; }");
+
+		FileFingerprints fileFingerprints = new FileFingerprints();
+
+		fileFingerprints.seed(path, System.currentTimeMillis());
+
+		Files.delete(path);
+
+		Assert.assertTrue(fileFingerprints.isChanged(path, StandardWatchEventKinds.ENTRY_DELETE));
+		Assert.assertEquals(0, fileFingerprints.size());
+	}
+
+	@Test
+	public void testRewrittenFile() throws Exception {
+		Path path = _createFile("a { color: red; }");
+
+		FileFingerprints fileFingerprints = new FileFingerprints();
+
+		fileFingerprints.seed(path, System.currentTimeMillis());
+
+		Files.write(path, "a { color: red; }".getBytes());
+
+		Assert.assertFalse(fileFingerprints.isChanged(path, StandardWatchEventKinds.ENTRY_MODIFY));
+
+		Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+
+		Assert.assertFalse(fileFingerprints.isChanged(path, StandardWatchEventKinds.ENTRY_MODIFY));
+		Assert.assertTrue(fileFingerprints.isChanged(path, StandardWatchEventKinds.ENTRY_CREATE));
+	}
+
+	@Test
+	public void testSeedSkipsFileModifiedAfterWatchStart() throws Exception {
+		Path path = _createFile("a { color: red; }");
+
+		FileFingerprints fileFingerprints = new FileFingerprints();
+
+		fileFingerprints.seed(path, System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(2));
+
+		Assert.assertEquals(0, fileFingerprints.size());
+
+		fileFingerprints.seed(path, System.currentTimeMillis());
+
+		Assert.assertEquals(1, fileFingerprints.size());
+	}
+
+	@Test
+	public void testUnseededFile() throws Exception {
+		Path path = _createFile("a { color: red; }");
+
+		FileFingerprints fileFingerprints = new FileFingerprints();
+
+		Assert.assertTrue(fileFingerprints.isChanged(path, StandardWatchEventKinds.ENTRY_MODIFY));
+		Assert.assertFalse(fileFingerprints.isChanged(path, StandardWatchEventKinds.ENTRY_MODIFY));
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path _createFile(String content) throws Exception {
+		Path path = temporaryFolder.newFile(
+			"main.css"
+		).toPath();
+
+		Files.write(path, content.getBytes());
+
+		long lastModifiedTime = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(1);
+
+		Files.setLastModifiedTime(path, FileTime.fromMillis(lastModifiedTime));
+
+		return path;
+	}
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Gregory Amerson
+ */
+public class LatencyHistogramTest {
+
+	@Test
+	public void testEmptyHistogram() throws Exception {
+		LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+		Assert.assertEquals(0, latencyHistogram.getCount());
+		Assert.assertEquals(0, latencyHistogram.getValueAtPercentile(50));
+	}
+
+	@Test
+	public void testLatencySummary() throws Exception {
+		DeployStats deployStats = new DeployStats();
+
+		deployStats.recordLatency(":modules:api", DeployStats.Latency.BUILD, TimeUnit.SECONDS.toNanos(2));
+		deployStats.recordLatency(":modules:web", DeployStats.Latency.BUILD, TimeUnit.SECONDS.toNanos(4));
+		deployStats.recordLatency(":modules:web", DeployStats.Latency.QUEUE, TimeUnit.MILLISECONDS.toNanos(500));
+
+		LatencyHistogram latencyHistogram = deployStats.getLatencyHistogram(DeployStats.Latency.BUILD);
+
+		Assert.assertEquals(2, latencyHistogram.getCount());
+		Assert.assertEquals(4000, latencyHistogram.getMax());
+
+		String latencySummary = deployStats.getLatencySummary();
+
+		Assert.assertTrue(latencySummary, latencySummary.contains(":modules:api"));
+		Assert.assertTrue(latencySummary, latencySummary.contains("All projects"));
+		Assert.assertTrue(latencySummary, latencySummary.contains("first change to build start"));
+	}
+
+	@Test
+	public void testPercentilesAreWithinPrecision() throws Exception {
+		LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+		for (long value = 1; value <= 10000; value++) {
+			latencyHistogram.record(value);
+		}
+
+		Assert.assertEquals(10000, latencyHistogram.getCount());
+		Assert.assertEquals(10000, latencyHistogram.getMax());
+
+		_assertWithinPrecision(5000, latencyHistogram.getValueAtPercentile(50));
+		_assertWithinPrecision(9500, latencyHistogram.getValueAtPercentile(95));
+
+		Assert.assertEquals(10000, latencyHistogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void testSmallValuesAreExact() throws Exception {
+		LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+		latencyHistogram.record(3);
+		latencyHistogram.record(7);
+		latencyHistogram.record(100);
+
+		Assert.assertEquals(3, latencyHistogram.getValueAtPercentile(0));
+		Assert.assertEquals(7, latencyHistogram.getValueAtPercentile(50));
+		Assert.assertEquals(100, latencyHistogram.getValueAtPercentile(95));
+	}
+
+	private void _assertWithinPrecision(long expected, long actual) {
+		Assert.assertTrue(expected + " != " + actual, Math.abs(expected - actual) <= (expected / 64));
+	}
+
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Gregory Amerson
+ */
+public class ProjectGraphTest {
+
+	@Test
+	public void testChangedProjectIsDeployedBeforeDependents() throws Exception {
+		ProjectGraph projectGraph = new ProjectGraph(_projectDependencies);
+
+		ChangeCollector changeCollector = new ChangeCollector(0);
+
+		Path apiPath = _deployablePaths.get(":modules:api");
+
+		changeCollector.add(
+			":modules:api", apiPath, apiPath.resolve("Api.java"), StandardWatchEventKinds.ENTRY_MODIFY, false);
+
+		List<DeployBatch> deployBatches = projectGraph.getDeployBatches(changeCollector.take(), _deployablePaths);
+
+		Assert.assertEquals(deployBatches.toString(), 3, deployBatches.size());
+
+		DeployBatch deployBatch = deployBatches.get(0);
+
+		Assert.assertEquals(Arrays.asList(":modules:api:deploy", "-a"), deployBatch.getGradleArguments());
+
+		deployBatch = deployBatches.get(1);
+
+		Set<String> gradleArguments = new HashSet<>(deployBatch.getGradleArguments());
+
+		Assert.assertEquals(
+			new HashSet<>(Arrays.asList(":modules:service:deploy", ":modules:web:deploy", "--parallel")),
+			gradleArguments);
+
+		deployBatch = deployBatches.get(2);
+
+		Assert.assertEquals(Arrays.asList(":modules:portlet:deploy"), deployBatch.getGradleArguments());
+
+		List<ProjectChanges> projectChangesList = deployBatch.getProjectChanges();
+
+		ProjectChanges projectChanges = projectChangesList.get(0);
+
+		Assert.assertEquals(
+			new HashSet<>(Arrays.asList(":modules:api")), new HashSet<>(projectChanges.getChangedDependencies()));
+	}
+
+	@Test
+	public void testGetDependents() throws Exception {
+		ProjectGraph projectGraph = new ProjectGraph(_projectDependencies);
+
+		Assert.assertEquals(
+			new HashSet<>(Arrays.asList(":modules:portlet", ":modules:service", ":modules:util", ":modules:web")),
+			projectGraph.getDependents(":modules:api"));
+
+		Assert.assertEquals(Collections.emptySet(), projectGraph.getDependents(":modules:portlet"));
+	}
+
+	@Test
+	public void testGetStagesLooksThroughOtherProjects() throws Exception {
+		ProjectGraph projectGraph = new ProjectGraph(_projectDependencies);
+
+		List<List<String>> stages = projectGraph.getStages(Arrays.asList(":modules:portlet", ":modules:api"));
+
+		Assert.assertEquals(
+			Arrays.asList(Arrays.asList(":modules:api"), Arrays.asList(":modules:portlet")), stages);
+	}
+
+	@Test
+	public void testRootChangeIsNotStaged() throws Exception {
+		ProjectGraph projectGraph = new ProjectGraph(_projectDependencies);
+
+		ChangeCollector changeCollector = new ChangeCollector(0);
+
+		Path apiPath = _deployablePaths.get(":modules:api");
+
+		changeCollector.add(
+			":modules:api", apiPath, apiPath.resolve("Api.java"), StandardWatchEventKinds.ENTRY_MODIFY, false);
+		changeCollector.add(
+			ProjectChanges.ROOT_GRADLE_PATH, Paths.get("."), Paths.get("build.gradle"),
+			StandardWatchEventKinds.ENTRY_MODIFY, false);
+
+		DeployBatch deployBatch = changeCollector.take();
+
+		Assert.assertEquals(
+			Collections.singletonList(deployBatch), projectGraph.getDeployBatches(deployBatch, _deployablePaths));
+	}
+
+	private static final Map<String, Path> _deployablePaths = new HashMap<>();
+
+	private static final Map<String, Set<String>> _projectDependencies = new HashMap<>();
+
+	static {
+		_deployablePaths.put(":modules:api", Paths.get("modules", "api"));
+		_deployablePaths.put(":modules:portlet", Paths.get("modules", "portlet"));
+		_deployablePaths.put(":modules:service", Paths.get("modules", "service"));
+		_deployablePaths.put(":modules:web", Paths.get("modules", "web"));
+
+		_projectDependencies.put(":modules:api", Collections.emptySet());
+		_projectDependencies.put(":modules:portlet", new HashSet<>(Arrays.asList(":modules:service")));
+		_projectDependencies.put(":modules:service", new HashSet<>(Arrays.asList(":modules:api")));
+		_projectDependencies.put(":modules:util", new HashSet<>(Arrays.asList(":modules:api")));
+		_projectDependencies.put(":modules:web", new HashSet<>(Arrays.asList(":modules:util")));
+	}
+
+}
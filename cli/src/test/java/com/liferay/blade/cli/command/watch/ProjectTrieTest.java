@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Gregory Amerson
+ */
+public class ProjectTrieTest {
+
+	@Test
+	public void testGetInnermostProject() throws Exception {
+		ProjectTrie projectTrie = new ProjectTrie();
+
+		projectTrie.add(":modules", _workspacePath.resolve("modules"));
+		projectTrie.add(":modules:foo", _workspacePath.resolve("modules/foo"));
+
+		ProjectTrie.Project project = projectTrie.get(_workspacePath.resolve("modules/foo/src/main/Foo.java"));
+
+		Assert.assertEquals(":modules:foo", project.getGradlePath());
+
+		project = projectTrie.get(_workspacePath.resolve("modules/build.gradle"));
+
+		Assert.assertEquals(":modules", project.getGradlePath());
+
+		Assert.assertEquals(2, projectTrie.size());
+	}
+
+	@Test
+	public void testProjectWithCommonPrefixIsNotMatched() throws Exception {
+		ProjectTrie projectTrie = new ProjectTrie();
+
+		projectTrie.add(":modules:foo", _workspacePath.resolve("modules/foo"));
+
+		Assert.assertNull(projectTrie.get(_workspacePath.resolve("modules/foo-bar/build.gradle")));
+		Assert.assertNull(projectTrie.get(_workspacePath.resolve("modules/fo")));
+
+		projectTrie.add(":modules:foo-bar", _workspacePath.resolve("modules/foo-bar"));
+
+		ProjectTrie.Project project = projectTrie.get(_workspacePath.resolve("modules/foo-bar/build.gradle"));
+
+		Assert.assertEquals(":modules:foo-bar", project.getGradlePath());
+
+		project = projectTrie.get(_workspacePath.resolve("modules/foo"));
+
+		Assert.assertEquals(":modules:foo", project.getGradlePath());
+	}
+
+	private static final Path _workspacePath = Paths.get(
+		"workspace"
+	).toAbsolutePath();
+
+}
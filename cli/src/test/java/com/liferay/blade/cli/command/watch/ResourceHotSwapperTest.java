@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command.watch;
+
+import java.io.File;
+import java.io.OutputStream;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Gregory Amerson
+ */
+public class ResourceHotSwapperTest {
+
+	@Before
+	public void setUp() throws Exception {
+		File rootFolder = temporaryFolder.getRoot();
+
+		Path rootPath = rootFolder.toPath();
+
+		Path liferayHomePath = rootPath.resolve("bundles");
+
+		_bundleWorkPath = liferayHomePath.resolve("work/com.example.web-1.0.0");
+
+		Files.createDirectories(_bundleWorkPath);
+
+		_projectPath = rootPath.resolve("modules/web");
+
+		Path jarPath = _projectPath.resolve("build/libs/com.example.web-1.0.0.jar");
+
+		Files.createDirectories(jarPath.getParent());
+
+		Manifest manifest = new Manifest();
+
+		Attributes attributes = manifest.getMainAttributes();
+
+		attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		attributes.putValue("Bundle-SymbolicName", "com.example.web;singleton:=true");
+		attributes.putValue("Bundle-Version", "1.0.0");
+
+		try (OutputStream outputStream = Files.newOutputStream(jarPath);
+			JarOutputStream jarOutputStream = new JarOutputStream(outputStream, manifest)) {
+		}
+
+		Map<String, Set<File>> projectOutputFiles = new HashMap<>();
+
+		projectOutputFiles.put(":modules:web", Collections.singleton(jarPath.toFile()));
+
+		_resourceHotSwapper = new ResourceHotSwapper(liferayHomePath, new ProjectBundles(projectOutputFiles));
+	}
+
+	@Test
+	public void testHotSwapCopiesResourceIntoBundleWorkDir() throws Exception {
+		Path jspPath = _writeResource("META-INF/resources/view.jsp", "<p>Hello</p>");
+
+		ProjectChanges projectChanges = new ProjectChanges(":modules:web", _projectPath);
+
+		projectChanges.add(jspPath, StandardWatchEventKinds.ENTRY_MODIFY, true);
+
+		Assert.assertTrue(_resourceHotSwapper.hotSwap(projectChanges));
+
+		Path targetPath = _bundleWorkPath.resolve("META-INF/resources/view.jsp");
+
+		Assert.assertEquals("<p>Hello</p>", new String(Files.readAllBytes(targetPath)));
+	}
+
+	@Test
+	public void testSassFallsBackToGradle() throws Exception {
+		Path jspPath = _writeResource("META-INF/resources/view.jsp", "<p>Hello</p>");
+		Path scssPath = _writeResource("META-INF/resources/css/main.scss", "p { color: red; }");
+
+		ProjectChanges projectChanges = new ProjectChanges(":modules:web", _projectPath);
+
+		projectChanges.add(jspPath, StandardWatchEventKinds.ENTRY_MODIFY, true);
+		projectChanges.add(scssPath, StandardWatchEventKinds.ENTRY_MODIFY, true);
+
+		Assert.assertFalse(_resourceHotSwapper.hotSwap(projectChanges));
+
+		Assert.assertFalse(Files.exists(_bundleWorkPath.resolve("META-INF/resources/view.jsp")));
+	}
+
+	@Test
+	public void testUndeployedBundleFallsBackToGradle() throws Exception {
+		Files.delete(_bundleWorkPath);
+
+		Path jspPath = _writeResource("META-INF/resources/view.jsp", "<p>Hello</p>");
+
+		ProjectChanges projectChanges = new ProjectChanges(":modules:web", _projectPath);
+
+		projectChanges.add(jspPath, StandardWatchEventKinds.ENTRY_MODIFY, true);
+
+		Assert.assertFalse(_resourceHotSwapper.hotSwap(projectChanges));
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path _writeResource(String name, String content) throws Exception {
+		Path path = _projectPath.resolve("src/main/resources/" + name);
+
+		Files.createDirectories(path.getParent());
+
+		Files.write(path, content.getBytes());
+
+		return path;
+	}
+
+	private Path _bundleWorkPath;
+	private Path _projectPath;
+	private ResourceHotSwapper _resourceHotSwapper;
+
+}
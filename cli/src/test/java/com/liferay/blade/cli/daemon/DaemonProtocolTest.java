@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.daemon;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Gregory Amerson
+ */
+public class DaemonProtocolTest {
+
+	@Test
+	public void testFrameOutputStreamRoundTrip() throws Exception {
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+
+		DaemonProtocol.FrameOutputStream frameOutputStream = new DaemonProtocol.FrameOutputStream(
+			dataOutputStream, DaemonProtocol.FRAME_STDOUT);
+
+		frameOutputStream.write("hello".getBytes(StandardCharsets.UTF_8));
+
+		DataInputStream dataInputStream = _toDataInputStream(byteArrayOutputStream);
+
+		Assert.assertEquals(DaemonProtocol.FRAME_STDOUT, dataInputStream.readByte());
+
+		byte[] bytes = DaemonProtocol.readBytes(dataInputStream, DaemonProtocol.MAX_FRAME_LENGTH);
+
+		Assert.assertEquals("hello", new String(bytes, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testReadRequest() throws Exception {
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+
+		DaemonProtocol.writeString(dataOutputStream, DaemonProtocol.MAGIC);
+		DaemonProtocol.writeString(dataOutputStream, _TOKEN);
+		DaemonProtocol.writeString(dataOutputStream, DaemonProtocol.REQUEST_STATUS);
+
+		String request = DaemonProtocol.readRequest(_toDataInputStream(byteArrayOutputStream), _TOKEN);
+
+		Assert.assertEquals(DaemonProtocol.REQUEST_STATUS, request);
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadRequestRejectsOversizedToken() throws Exception {
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+
+		DaemonProtocol.writeString(dataOutputStream, DaemonProtocol.MAGIC);
+
+		dataOutputStream.writeInt(Integer.MAX_VALUE);
+
+		DaemonProtocol.readRequest(_toDataInputStream(byteArrayOutputStream), _TOKEN);
+	}
+
+	@Test
+	public void testReadRequestRejectsWrongMagic() throws Exception {
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+
+		DaemonProtocol.writeString(dataOutputStream, "blade-daemon-0");
+		DaemonProtocol.writeString(dataOutputStream, _TOKEN);
+		DaemonProtocol.writeString(dataOutputStream, DaemonProtocol.REQUEST_STOP);
+
+		Assert.assertNull(DaemonProtocol.readRequest(_toDataInputStream(byteArrayOutputStream), _TOKEN));
+	}
+
+	@Test
+	public void testReadRequestRejectsWrongToken() throws Exception {
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+
+		DaemonProtocol.writeString(dataOutputStream, DaemonProtocol.MAGIC);
+		DaemonProtocol.writeString(dataOutputStream, "0123456789abcdef0123456789abcdef0123456789abcdef");
+		DaemonProtocol.writeString(dataOutputStream, DaemonProtocol.REQUEST_STOP);
+
+		Assert.assertNull(DaemonProtocol.readRequest(_toDataInputStream(byteArrayOutputStream), _TOKEN));
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadStringRejectsNegativeLength() throws Exception {
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+
+		dataOutputStream.writeInt(-1);
+
+		DaemonProtocol.readString(_toDataInputStream(byteArrayOutputStream));
+	}
+
+	@Test
+	public void testStringRoundTrip() throws Exception {
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+
+		DaemonProtocol.writeString(dataOutputStream, "");
+		DaemonProtocol.writeString(dataOutputStream, "h\u00e9llo w\u00f6rld");
+
+		DataInputStream dataInputStream = _toDataInputStream(byteArrayOutputStream);
+
+		Assert.assertEquals("", DaemonProtocol.readString(dataInputStream));
+		Assert.assertEquals("h\u00e9llo w\u00f6rld", DaemonProtocol.readString(dataInputStream));
+	}
+
+	private static DataInputStream _toDataInputStream(ByteArrayOutputStream byteArrayOutputStream) {
+		return new DataInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()));
+	}
+
+	private static final String _TOKEN = "fedcba9876543210fedcba9876543210fedcba9876543210";
+
+}
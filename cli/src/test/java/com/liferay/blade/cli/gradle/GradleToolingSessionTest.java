@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.gradle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Gregory Amerson
+ */
+public class GradleToolingSessionTest {
+
+	@Before
+	public void setUp() throws Exception {
+		Assume.assumeTrue(File.separatorChar == '/');
+
+		_projectDir = temporaryFolder.getRoot();
+	}
+
+	@Test
+	public void testCancelProcessBuild() throws Exception {
+		TestGradleExec testGradleExec = new TestGradleExec("sleep 60");
+
+		try (GradleToolingSession gradleToolingSession = _newGradleToolingSession(testGradleExec, false)) {
+			GradleBuild gradleBuild = gradleToolingSession.startBuild(Arrays.asList("deploy"));
+
+			Assert.assertTrue(gradleBuild.isAlive());
+
+			gradleBuild.cancel(5, TimeUnit.SECONDS);
+
+			Assert.assertTrue(gradleBuild.waitFor(5, TimeUnit.SECONDS));
+			Assert.assertFalse(gradleBuild.isAlive());
+		}
+	}
+
+	@Test
+	public void testProcessBuildAfterClose() throws Exception {
+		TestGradleExec testGradleExec = new TestGradleExec("exit 0");
+
+		GradleToolingSession gradleToolingSession = _newGradleToolingSession(testGradleExec, true);
+
+		gradleToolingSession.close();
+
+		Assert.assertFalse(gradleToolingSession.isConnected());
+
+		GradleBuild gradleBuild = gradleToolingSession.startBuild(Arrays.asList("deploy"));
+
+		Assert.assertTrue(gradleBuild.waitFor(5, TimeUnit.SECONDS));
+
+		Assert.assertEquals(0, gradleBuild.getExitValue());
+		Assert.assertEquals(Arrays.asList("deploy"), testGradleExec.getTasks());
+	}
+
+	@Test
+	public void testProcessBuildWithoutToolingApi() throws Exception {
+		TestGradleExec testGradleExec = new TestGradleExec("exit 3");
+
+		try (GradleToolingSession gradleToolingSession = _newGradleToolingSession(testGradleExec, false)) {
+			Assert.assertFalse(gradleToolingSession.isConnected());
+
+			GradleBuild gradleBuild = gradleToolingSession.startBuild(
+				Arrays.asList(":modules:foo:deploy", "-x", "test"));
+
+			Assert.assertTrue(gradleBuild.waitFor(5, TimeUnit.SECONDS));
+
+			Assert.assertEquals(3, gradleBuild.getExitValue());
+		}
+
+		Assert.assertEquals(Arrays.asList(":modules:foo:deploy -x test"), testGradleExec.getTasks());
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private GradleToolingSession _newGradleToolingSession(GradleExec gradleExec, boolean useToolingApi) {
+		PrintStream printStream = new PrintStream(new ByteArrayOutputStream());
+
+		return new GradleToolingSession(gradleExec, _projectDir, useToolingApi, printStream, printStream);
+	}
+
+	private File _projectDir;
+
+	private static class TestGradleExec extends GradleExec {
+
+		public List<String> getTasks() {
+			return _tasks;
+		}
+
+		@Override
+		public Process startTask(String task, File baseDir) throws Exception {
+			_tasks.add(task);
+
+			ProcessBuilder processBuilder = new ProcessBuilder("sh", "-c", _script);
+
+			processBuilder.directory(baseDir);
+
+			return processBuilder.start();
+		}
+
+		private TestGradleExec(String script) {
+			super(null);
+
+			_script = script;
+		}
+
+		private final String _script;
+		private final List<String> _tasks = new ArrayList<>();
+
+	}
+
+}
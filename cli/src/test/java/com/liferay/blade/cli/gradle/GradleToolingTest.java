@@ -111,6 +111,29 @@ public class GradleToolingTest {
 		Assert.assertTrue(pluginClassNames.contains("com.liferay.gradle.plugins.LiferayOSGiPlugin"));
 	}
 
+	@Test
+	public void testGetProjectDependencies() throws Exception {
+		ProjectInfo projectInfo = GradleTooling.loadProjectInfo(_wsPath);
+
+		Map<String, Set<String>> projectDependencies = projectInfo.getProjectDependencies();
+
+		Assert.assertNotNull(projectDependencies);
+
+		Assert.assertEquals(
+			projectDependencies.toString(), true, projectDependencies.containsKey(":modules:testportlet"));
+
+		Set<String> dependencies = projectDependencies.get(":modules:testportlet");
+
+		Assert.assertEquals(dependencies.toString(), 0, dependencies.size());
+
+		dependencies = projectDependencies.get(":modules:testconsumer");
+
+		Assert.assertNotNull(projectDependencies.toString(), dependencies);
+
+		Assert.assertEquals(dependencies.toString(), 1, dependencies.size());
+		Assert.assertTrue(dependencies.toString(), dependencies.contains(":modules:testportlet"));
+	}
+
 	@Test
 	public void testIsLiferayModule() throws Exception {
 		Path projectPath = _wsPath.resolve("modules/testportlet");
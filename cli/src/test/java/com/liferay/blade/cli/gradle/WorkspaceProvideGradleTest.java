@@ -98,6 +98,43 @@ public class WorkspaceProvideGradleTest {
 		Assert.assertTrue(workspaceProviderGradle.isWorkspace(workspace.toFile()));
 	}
 
+	@Test
+	public void testIsWorkspaceLargeScript() throws Exception {
+		File root = temporaryFolder.getRoot();
+
+		Path workspace = root.toPath();
+
+		workspace = workspace.resolve("workspace");
+
+		Files.createDirectories(workspace);
+
+		StringBuilder sb = new StringBuilder();
+
+		for (int i = 0; i < 10000; i++) {
+			sb.append("include \"modules:module");
+			sb.append(i);
+			sb.append("\" // apply plugin: \"com.liferay.workspace\" later\n");
+		}
+
+		Path settingsFile = workspace.resolve("settings.gradle");
+
+		String settings = sb.toString();
+
+		Files.write(settingsFile, settings.getBytes());
+
+		GradleWorkspaceProvider workspaceProviderGradle = new GradleWorkspaceProvider();
+
+		Assert.assertFalse(workspaceProviderGradle.isWorkspace(workspace.toFile()));
+
+		sb.append("apply plugin: \"com.liferay.workspace\"  \n");
+
+		settings = sb.toString();
+
+		Files.write(settingsFile, settings.getBytes());
+
+		Assert.assertTrue(workspaceProviderGradle.isWorkspace(workspace.toFile()));
+	}
+
 	@Rule
 	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
 
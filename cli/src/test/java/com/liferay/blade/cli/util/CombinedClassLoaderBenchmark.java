@@ -0,0 +1,222 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.blade.cli.util;
+
+import java.io.File;
+import java.io.OutputStream;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Measures the class and resource lookup throughput of
+ * {@link CombinedClassLoader} with the blade classes in a jar behind two other
+ * delegates. Run with the test runtime class path:
+ *
+ * <pre>
+ * java -cp &lt;test runtime class path&gt; com.liferay.blade.cli.util.CombinedClassLoaderBenchmark
+ * </pre>
+ *
+ * @author Gregory Amerson
+ */
+public class CombinedClassLoaderBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		Path classesPath = _getClassesPath();
+
+		Path jarPath = Files.createTempFile("combined-class-loader-benchmark", ".jar");
+
+		List<String> paths = _createJar(classesPath, jarPath);
+
+		List<String> classNames = paths.stream(
+		).map(
+			path -> path.substring(0, path.length() - 6)
+		).map(
+			path -> path.replace('/', '.')
+		).collect(
+			Collectors.toList()
+		);
+
+		List<String> missingPaths = paths.stream(
+		).map(
+			path -> path.replace(".class", "Missing.class")
+		).collect(
+			Collectors.toList()
+		);
+
+		URL[] urls = {jarPath.toUri().toURL()};
+
+		try (URLClassLoader firstClassLoader = new URLClassLoader(new URL[0], null);
+			URLClassLoader secondClassLoader = new URLClassLoader(new URL[0], null);
+			URLClassLoader jarClassLoader = new URLClassLoader(urls, null)) {
+
+			for (int i = 0; i < _WARMUP_ROUNDS; i++) {
+				_run(firstClassLoader, secondClassLoader, jarClassLoader, classNames, paths, missingPaths);
+			}
+
+			// Best of all rounds, as garbage collection makes single rounds noisy
+
+			long[] best = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE};
+
+			for (int i = 0; i < _ROUNDS; i++) {
+				long[] nanos = _run(
+					firstClassLoader, secondClassLoader, jarClassLoader, classNames, paths, missingPaths);
+
+				for (int j = 0; j < best.length; j++) {
+					best[j] = Math.min(best[j], nanos[j]);
+				}
+			}
+
+			System.out.println(String.format("%d classes, best of %d rounds", classNames.size(), _ROUNDS));
+			System.out.println(String.format("findClass:             %12.0f classes/s", _rate(classNames.size(), best[0])));
+			System.out.println(
+				String.format("findResource (hits):   %12.0f lookups/s", _rate(paths.size() * _LOOKUPS, best[1])));
+			System.out.println(
+				String.format(
+					"findResource (misses): %12.0f lookups/s", _rate(missingPaths.size() * _LOOKUPS, best[2])));
+		}
+		finally {
+			Files.deleteIfExists(jarPath);
+		}
+	}
+
+	private static List<String> _createJar(Path classesPath, Path jarPath) throws Exception {
+		List<String> paths = new ArrayList<>();
+
+		FileSystem fileSystem = null;
+
+		if (Files.isRegularFile(classesPath)) {
+			fileSystem = FileSystems.newFileSystem(classesPath, (ClassLoader)null);
+
+			classesPath = fileSystem.getPath("/");
+		}
+
+		try (OutputStream outputStream = Files.newOutputStream(jarPath);
+			JarOutputStream jarOutputStream = new JarOutputStream(outputStream);
+			Stream<Path> stream = Files.walk(classesPath)) {
+
+			for (Path path : (Iterable<Path>)stream::iterator) {
+				String name = String.valueOf(classesPath.relativize(path));
+
+				name = name.replace(File.separatorChar, '/');
+
+				if (!name.endsWith(".class") || name.contains("$")) {
+					continue;
+				}
+
+				jarOutputStream.putNextEntry(new JarEntry(name));
+
+				jarOutputStream.write(Files.readAllBytes(path));
+
+				jarOutputStream.closeEntry();
+
+				paths.add(name);
+			}
+		}
+		finally {
+			if (fileSystem != null) {
+				fileSystem.close();
+			}
+		}
+
+		return paths;
+	}
+
+	private static Path _getClassesPath() throws Exception {
+		ProtectionDomain protectionDomain = CombinedClassLoader.class.getProtectionDomain();
+
+		CodeSource codeSource = protectionDomain.getCodeSource();
+
+		URL location = codeSource.getLocation();
+
+		return Paths.get(location.toURI());
+	}
+
+	private static double _rate(long count, long nanos) {
+		return count / (nanos / (double)TimeUnit.SECONDS.toNanos(1));
+	}
+
+	private static long[] _run(
+			ClassLoader firstClassLoader, ClassLoader secondClassLoader, ClassLoader jarClassLoader,
+			List<String> classNames, List<String> paths, List<String> missingPaths)
+		throws Exception {
+
+		long[] nanos = new long[3];
+
+		// Not closed, as closing would close the delegates shared by all rounds
+
+		CombinedClassLoader combinedClassLoader = new CombinedClassLoader(
+			firstClassLoader, secondClassLoader, jarClassLoader);
+
+		long start = System.nanoTime();
+
+		for (String className : classNames) {
+			try {
+				combinedClassLoader.findClass(className);
+			}
+			catch (LinkageError linkageError) {
+			}
+		}
+
+		nanos[0] = System.nanoTime() - start;
+
+		start = System.nanoTime();
+
+		for (int i = 0; i < _LOOKUPS; i++) {
+			for (String path : paths) {
+				combinedClassLoader.findResource(path);
+			}
+		}
+
+		nanos[1] = System.nanoTime() - start;
+
+		start = System.nanoTime();
+
+		for (int i = 0; i < _LOOKUPS; i++) {
+			for (String path : missingPaths) {
+				combinedClassLoader.findResource(path);
+			}
+		}
+
+		nanos[2] = System.nanoTime() - start;
+
+		return nanos;
+	}
+
+	private static final int _LOOKUPS = 10;
+
+	private static final int _ROUNDS = 20;
+
+	private static final int _WARMUP_ROUNDS = 20;
+
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.blade.cli.util;
+
+import java.io.File;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Gregory Amerson
+ */
+public class CombinedClassLoaderTest {
+
+	@Test
+	public void testFindResource() throws Exception {
+		File firstDir = temporaryFolder.newFolder("first");
+		File secondDir = temporaryFolder.newFolder("second");
+
+		_write(firstDir, "foo/shared.txt");
+		_write(secondDir, "foo/shared.txt");
+		_write(secondDir, "foo/second.txt");
+		_write(secondDir, "bar/second.txt");
+
+		try (URLClassLoader firstClassLoader = new URLClassLoader(new URL[] {_toURL(firstDir)}, null);
+			URLClassLoader secondClassLoader = new URLClassLoader(new URL[] {_toURL(secondDir)}, null);
+			CombinedClassLoader combinedClassLoader = new CombinedClassLoader(firstClassLoader, secondClassLoader)) {
+
+			Assert.assertEquals(
+				firstClassLoader.getResource("foo/shared.txt"), combinedClassLoader.getResource("foo/shared.txt"));
+			Assert.assertEquals(
+				secondClassLoader.getResource("foo/second.txt"), combinedClassLoader.getResource("foo/second.txt"));
+			Assert.assertEquals(
+				secondClassLoader.getResource("bar/second.txt"), combinedClassLoader.getResource("bar/second.txt"));
+
+			Assert.assertNull(combinedClassLoader.getResource("foo/missing.txt"));
+			Assert.assertNull(combinedClassLoader.getResource("foo/missing.txt"));
+
+			Assert.assertEquals(
+				firstClassLoader.getResource("foo/shared.txt"), combinedClassLoader.getResource("foo/shared.txt"));
+		}
+	}
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static URL _toURL(File dir) throws Exception {
+		return dir.toURI(
+		).toURL();
+	}
+
+	private static void _write(File dir, String name) throws Exception {
+		Path path = dir.toPath(
+		).resolve(
+			name
+		);
+
+		Files.createDirectories(path.getParent());
+
+		Files.write(path, name.getBytes());
+	}
+
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.io.File;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.attribute.FileTime;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Gregory Amerson
+ */
+public class DirectorySnapshotTest {
+
+	@Before
+	public void setUp() throws Exception {
+		File baseDir = temporaryFolder.newFolder("watch");
+
+		_basePath = baseDir.toPath();
+
+		Files.createDirectories(_basePath.resolve("src/main/java"));
+		Files.createDirectories(_basePath.resolve("build"));
+
+		Files.write(_basePath.resolve("build.gradle"), "apply plugin: 'java'".getBytes());
+		Files.write(_basePath.resolve("src/main/java/A.java"), "class A {}".getBytes());
+	}
+
+	@Test
+	public void testRescanDeletedDirectory() throws Exception {
+		DirectorySnapshot directorySnapshot = _record();
+
+		Files.delete(_basePath.resolve("src/main/java/A.java"));
+		Files.delete(_basePath.resolve("src/main/java"));
+
+		List<DirectorySnapshot.Change> changes = directorySnapshot.rescan(_basePath);
+
+		Assert.assertEquals(
+			_toSet("ENTRY_DELETE src/main/java", "ENTRY_DELETE src/main/java/A.java"), _toSet(changes));
+	}
+
+	@Test
+	public void testRescanFindsLostChanges() throws Exception {
+		DirectorySnapshot directorySnapshot = _record();
+
+		Files.createDirectories(_basePath.resolve("src/main/resources"));
+
+		Files.write(_basePath.resolve("src/main/resources/main.css"), "a {}".getBytes());
+		Files.write(_basePath.resolve("src/main/java/A.java"), "class A { int a; }".getBytes());
+		Files.write(_basePath.resolve("build/ignored.txt"), "ignored".getBytes());
+
+		Files.delete(_basePath.resolve("build.gradle"));
+
+		List<DirectorySnapshot.Change> changes = directorySnapshot.rescan(_basePath);
+
+		Assert.assertEquals(
+			_toSet(
+				"ENTRY_CREATE src/main/resources", "ENTRY_CREATE src/main/resources/main.css",
+				"ENTRY_DELETE build.gradle", "ENTRY_MODIFY src/main/java/A.java"),
+			_toSet(changes));
+
+		Assert.assertTrue(directorySnapshot.rescan(_basePath).isEmpty());
+	}
+
+	@Test
+	public void testRescanManyDirectories() throws Exception {
+		DirectorySnapshot directorySnapshot = _record();
+
+		Set<String> expectedChanges = new TreeSet<>();
+
+		for (int i = 0; i < 20; i++) {
+			Path modulePath = _basePath.resolve("modules/module" + i);
+
+			Files.createDirectories(modulePath.resolve("src"));
+
+			Files.write(modulePath.resolve("src/main.css"), "a {}".getBytes());
+
+			expectedChanges.add("ENTRY_CREATE modules/module" + i);
+			expectedChanges.add("ENTRY_CREATE modules/module" + i + "/src");
+			expectedChanges.add("ENTRY_CREATE modules/module" + i + "/src/main.css");
+		}
+
+		expectedChanges.add("ENTRY_CREATE modules");
+
+		List<DirectorySnapshot.Change> changes = directorySnapshot.rescan(_basePath);
+
+		Assert.assertEquals(expectedChanges.size(), changes.size());
+		Assert.assertEquals(expectedChanges, _toSet(changes));
+
+		Assert.assertTrue(directorySnapshot.rescan(_basePath).isEmpty());
+	}
+
+	@Test
+	public void testUpdatedEntriesAreNotReportedAgain() throws Exception {
+		DirectorySnapshot directorySnapshot = _record();
+
+		Path path = _basePath.resolve("src/main/java/A.java");
+
+		Files.write(path, "class A { int a; }".getBytes());
+
+		Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+
+		directorySnapshot.update(path, StandardWatchEventKinds.ENTRY_MODIFY);
+
+		Assert.assertTrue(directorySnapshot.rescan(_basePath).isEmpty());
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private DirectorySnapshot _record() throws Exception {
+		Path ignoredPath = _basePath.resolve("build");
+
+		DirectorySnapshot directorySnapshot = new DirectorySnapshot(path -> path.equals(ignoredPath));
+
+		directorySnapshot.record(_basePath);
+		directorySnapshot.record(_basePath.resolve("src"));
+		directorySnapshot.record(_basePath.resolve("src/main"));
+		directorySnapshot.record(_basePath.resolve("src/main/java"));
+
+		Path javaPath = _basePath.resolve("src/main/java/A.java");
+
+		Files.setLastModifiedTime(javaPath, FileTime.fromMillis(0));
+
+		directorySnapshot.update(javaPath, StandardWatchEventKinds.ENTRY_MODIFY);
+
+		return directorySnapshot;
+	}
+
+	private Set<String> _toSet(List<DirectorySnapshot.Change> changes) {
+		Set<String> set = new TreeSet<>();
+
+		for (DirectorySnapshot.Change change : changes) {
+			Path relativePath = _basePath.relativize(change.getPath());
+
+			String path = String.valueOf(relativePath);
+
+			set.add(change.getKind() + " " + path.replace(File.separatorChar, '/'));
+		}
+
+		return set;
+	}
+
+	private Set<String> _toSet(String... changes) {
+		return new TreeSet<>(Arrays.asList(changes));
+	}
+
+	private Path _basePath;
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Gregory Amerson
+ */
+public class ExecutorUtilTest {
+
+	@Before
+	public void setUp() throws Exception {
+		Assume.assumeFalse(ExecutorUtil.isVirtual());
+
+		ExecutorUtil.shutdown(5, TimeUnit.SECONDS);
+
+		System.setProperty(ExecutorUtil.THREADS_PROPERTY, "2");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		System.clearProperty(ExecutorUtil.THREADS_PROPERTY);
+
+		ExecutorUtil.shutdown(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testBlockingTasksBeyondPoolSize() throws Exception {
+		CountDownLatch startedLatch = new CountDownLatch(3);
+		CountDownLatch releaseLatch = new CountDownLatch(1);
+
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int i = 0; i < 3; i++) {
+			futures.add(
+				ExecutorUtil.execute(
+					"blade-test-" + i,
+					() -> {
+						startedLatch.countDown();
+
+						try {
+							releaseLatch.await();
+						}
+						catch (InterruptedException interruptedException) {
+						}
+					}));
+		}
+
+		Assert.assertTrue(
+			"Tasks beyond the pool size must not wait for a busy thread", startedLatch.await(5, TimeUnit.SECONDS));
+
+		Assert.assertEquals(3, ExecutorUtil.getActiveCount());
+		Assert.assertEquals(3, ExecutorUtil.getThreadCount());
+		Assert.assertEquals(1, ExecutorUtil.getOverflowCount());
+
+		releaseLatch.countDown();
+
+		for (Future<?> future : futures) {
+			future.get(5, TimeUnit.SECONDS);
+		}
+
+		_awaitOverflowCount(0);
+
+		Assert.assertEquals(0, ExecutorUtil.getActiveCount());
+	}
+
+	@Test
+	public void testTaskRunsUnderGivenName() throws Exception {
+		Future<String> future = ExecutorUtil.submit(
+			"blade-test-name",
+			() -> {
+				Thread thread = Thread.currentThread();
+
+				return thread.getName();
+			});
+
+		Assert.assertEquals("blade-test-name", future.get(5, TimeUnit.SECONDS));
+		Assert.assertEquals(1, ExecutorUtil.getThreadCount());
+		Assert.assertEquals(0, ExecutorUtil.getOverflowCount());
+	}
+
+	private void _awaitOverflowCount(int overflowCount) throws Exception {
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+
+		while ((ExecutorUtil.getOverflowCount() != overflowCount) && (System.currentTimeMillis() < deadline)) {
+			Thread.sleep(10);
+		}
+
+		Assert.assertEquals(overflowCount, ExecutorUtil.getOverflowCount());
+	}
+
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.blade.cli.util;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.OutputStream;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Gregory Amerson
+ */
+public class MetadataCacheTest {
+
+	@Test
+	public void testConditionalGet() throws Exception {
+		List<String> eTags = new ArrayList<>();
+
+		String[] content = {"<metadata>1</metadata>"};
+
+		HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+
+		httpServer.createContext(
+			"/maven-metadata.xml",
+			httpExchange -> {
+				String eTag = "\"" + content[0].hashCode() + "\"";
+
+				eTags.add(httpExchange.getRequestHeaders().getFirst("If-None-Match"));
+
+				if (eTag.equals(httpExchange.getRequestHeaders().getFirst("If-None-Match"))) {
+					httpExchange.sendResponseHeaders(304, -1);
+				}
+				else {
+					byte[] bytes = content[0].getBytes(StandardCharsets.UTF_8);
+
+					httpExchange.getResponseHeaders().set("ETag", eTag);
+
+					httpExchange.sendResponseHeaders(200, bytes.length);
+
+					try (OutputStream outputStream = httpExchange.getResponseBody()) {
+						outputStream.write(bytes);
+					}
+				}
+
+				httpExchange.close();
+			});
+
+		httpServer.start();
+
+		try {
+			Path cachePath = temporaryFolder.newFolder(
+				"metadata"
+			).toPath();
+
+			MetadataCache metadataCache = new MetadataCache(cachePath);
+
+			String url = "http://localhost:" + httpServer.getAddress().getPort() + "/maven-metadata.xml";
+
+			Assert.assertEquals("<metadata>1</metadata>", metadataCache.get(url));
+			Assert.assertEquals("<metadata>1</metadata>", metadataCache.get(url));
+
+			content[0] = "<metadata>2</metadata>";
+
+			Assert.assertEquals("<metadata>2</metadata>", metadataCache.get(url));
+
+			Assert.assertNull(eTags.get(0));
+			Assert.assertEquals("\"" + "<metadata>1</metadata>".hashCode() + "\"", eTags.get(1));
+			Assert.assertEquals(eTags.get(1), eTags.get(2));
+		}
+		finally {
+			httpServer.stop(0);
+		}
+	}
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+}
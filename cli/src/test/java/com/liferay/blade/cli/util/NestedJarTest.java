@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.net.URL;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Gregory Amerson
+ */
+public class NestedJarTest {
+
+	@Test
+	public void testLoadClassFromCompressedNestedJar() throws Exception {
+		_testLoadClass(ZipEntry.DEFLATED);
+	}
+
+	@Test
+	public void testLoadClassFromStoredNestedJar() throws Exception {
+		_testLoadClass(ZipEntry.STORED);
+	}
+
+	@Test
+	public void testReadEntries() throws Exception {
+		Path jarPath = _createOuterJar(ZipEntry.DEFLATED);
+
+		try (NestedJar outerJar = NestedJar.open(jarPath)) {
+			Assert.assertEquals(Arrays.asList("README.txt", "extension.jar"), _sort(outerJar.getEntryNames()));
+
+			Assert.assertEquals("readme", new String(outerJar.getBytes("README.txt"), StandardCharsets.UTF_8));
+
+			Assert.assertNull(outerJar.getBytes("missing.txt"));
+			Assert.assertNull(outerJar.getNestedJar("missing.jar"));
+
+			NestedJar nestedJar = outerJar.getNestedJar("extension.jar");
+
+			Assert.assertEquals("extension.jar", nestedJar.getFileName());
+
+			URL url = nestedJar.getURL(_SERVICE_FILE_NAME);
+
+			Assert.assertEquals(NestedJar.PROTOCOL, url.getProtocol());
+
+			try (InputStream inputStream = url.openStream()) {
+				Assert.assertEquals(Greeter.class.getName(), new String(_read(inputStream), StandardCharsets.UTF_8));
+			}
+
+			Assert.assertNull(nestedJar.getURL("missing.txt"));
+		}
+	}
+
+	public static class Greeter implements Supplier<String> {
+
+		@Override
+		public String get() {
+			return "hello from " + getClass().getClassLoader();
+		}
+
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static byte[] _read(InputStream inputStream) throws Exception {
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		byte[] buffer = new byte[8192];
+
+		int count;
+
+		while ((count = inputStream.read(buffer)) != -1) {
+			byteArrayOutputStream.write(buffer, 0, count);
+		}
+
+		return byteArrayOutputStream.toByteArray();
+	}
+
+	private static List<String> _sort(Iterable<String> names) {
+		List<String> list = new ArrayList<>();
+
+		names.forEach(list::add);
+
+		Collections.sort(list);
+
+		return list;
+	}
+
+	private static void _write(ZipOutputStream zipOutputStream, String name, byte[] bytes, int method)
+		throws Exception {
+
+		ZipEntry zipEntry = new ZipEntry(name);
+
+		zipEntry.setMethod(method);
+
+		if (method == ZipEntry.STORED) {
+			CRC32 crc32 = new CRC32();
+
+			crc32.update(bytes);
+
+			zipEntry.setCompressedSize(bytes.length);
+			zipEntry.setCrc(crc32.getValue());
+			zipEntry.setSize(bytes.length);
+		}
+
+		zipOutputStream.putNextEntry(zipEntry);
+
+		zipOutputStream.write(bytes);
+
+		zipOutputStream.closeEntry();
+	}
+
+	private Path _createOuterJar(int nestedJarMethod) throws Exception {
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		String classFileName = Greeter.class.getName();
+
+		classFileName = classFileName.replace('.', '/') + ".class";
+
+		try (ZipOutputStream zipOutputStream = new ZipOutputStream(byteArrayOutputStream);
+			InputStream inputStream = Greeter.class.getResourceAsStream("/" + classFileName)) {
+
+			_write(zipOutputStream, classFileName, _read(inputStream), ZipEntry.DEFLATED);
+
+			String greeterName = Greeter.class.getName();
+
+			_write(zipOutputStream, _SERVICE_FILE_NAME, greeterName.getBytes(StandardCharsets.UTF_8), ZipEntry.STORED);
+		}
+
+		File root = temporaryFolder.getRoot();
+
+		Path jarPath = root.toPath();
+
+		jarPath = jarPath.resolve("outer.jar");
+
+		try (OutputStream outputStream = Files.newOutputStream(jarPath);
+			ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+
+			_write(zipOutputStream, "README.txt", "readme".getBytes(StandardCharsets.UTF_8), ZipEntry.DEFLATED);
+			_write(zipOutputStream, "extension.jar", byteArrayOutputStream.toByteArray(), nestedJarMethod);
+		}
+
+		return jarPath;
+	}
+
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private void _testLoadClass(int nestedJarMethod) throws Exception {
+		Path jarPath = _createOuterJar(nestedJarMethod);
+
+		try (NestedJar outerJar = NestedJar.open(jarPath);
+			NestedJarClassLoader nestedJarClassLoader = new NestedJarClassLoader(
+				Collections.singleton(outerJar.getNestedJar("extension.jar")), null)) {
+
+			Class<?> greeterClass = nestedJarClassLoader.loadClass(Greeter.class.getName());
+
+			Assert.assertSame(nestedJarClassLoader, greeterClass.getClassLoader());
+
+			Assert.assertNotSame(Greeter.class, greeterClass);
+
+			Package greeterPackage = greeterClass.getPackage();
+
+			Assert.assertEquals(Greeter.class.getPackage().getName(), greeterPackage.getName());
+
+			ServiceLoader<Supplier> serviceLoader = ServiceLoader.load(Supplier.class, nestedJarClassLoader);
+
+			Iterator<Supplier> iterator = serviceLoader.iterator();
+
+			Supplier<String> supplier = iterator.next();
+
+			Assert.assertSame(greeterClass, supplier.getClass());
+
+			Assert.assertEquals("hello from " + nestedJarClassLoader, supplier.get());
+		}
+	}
+
+	private static final String _SERVICE_FILE_NAME = "META-INF/services/java.util.function.Supplier";
+
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * @author Gregory Amerson
+ */
+public class ProcessesUtilTest {
+
+	@Test
+	public void testDestroyProcessTree() throws Exception {
+		Assume.assumeTrue(File.separatorChar == '/');
+
+		ProcessBuilder processBuilder = new ProcessBuilder("sh", "-c", "sleep 60 & echo $!; wait");
+
+		Process process = processBuilder.start();
+
+		long childPid;
+
+		try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			childPid = Long.parseLong(bufferedReader.readLine());
+
+			Assert.assertEquals(Boolean.TRUE, ProcessesUtil.isAlive(childPid));
+
+			ProcessesUtil.destroyProcessTree(process, 5, TimeUnit.SECONDS);
+		}
+
+		Assert.assertFalse(process.isAlive());
+
+		long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+		while (Boolean.TRUE.equals(ProcessesUtil.isAlive(childPid)) && (System.nanoTime() < deadlineNanos)) {
+			Thread.sleep(50);
+		}
+
+		Assert.assertNotEquals(Boolean.TRUE, ProcessesUtil.isAlive(childPid));
+	}
+
+	@Test
+	public void testIsAliveAfterExit() throws Exception {
+		Assume.assumeTrue(File.separatorChar == '/');
+
+		ProcessBuilder processBuilder = new ProcessBuilder("sh", "-c", "echo $$");
+
+		Process process = processBuilder.start();
+
+		long pid;
+
+		try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			pid = Long.parseLong(bufferedReader.readLine());
+		}
+
+		Assert.assertTrue(process.waitFor(5, TimeUnit.SECONDS));
+
+		Assert.assertNotEquals(Boolean.TRUE, ProcessesUtil.isAlive(pid));
+	}
+
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.io.File;
+
+import java.nio.file.Path;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Gregory Amerson
+ */
+public class ProductInfoIndexTest {
+
+	@Test
+	public void testKeysAreSorted() throws Exception {
+		ProductInfoIndex productInfoIndex = ProductInfoIndex.parse(_PRODUCT_INFO_JSON, "1.0.0");
+
+		Assert.assertEquals(
+			Arrays.asList("dxp-7.3-u1", "dxp-7.2-sp1", "portal-7.3-ga1", "portal-7.2-ga2"),
+			productInfoIndex.getKeys(false));
+		Assert.assertEquals(Arrays.asList("dxp-7.3-u1", "portal-7.3-ga1"), productInfoIndex.getKeys(true));
+	}
+
+	@Test
+	public void testReadMissingIndex() throws Exception {
+		File root = temporaryFolder.getRoot();
+
+		Path indexPath = root.toPath();
+
+		Assert.assertNull(ProductInfoIndex.read(indexPath.resolve("missing.properties")));
+	}
+
+	@Test
+	public void testReadWrittenIndex() throws Exception {
+		ProductInfoIndex productInfoIndex = ProductInfoIndex.parse(_PRODUCT_INFO_JSON, "1.0.0");
+
+		File root = temporaryFolder.getRoot();
+
+		Path indexPath = root.toPath();
+
+		indexPath = indexPath.resolve("cache/product-info.properties");
+
+		productInfoIndex.write(indexPath);
+
+		ProductInfoIndex readProductInfoIndex = ProductInfoIndex.read(indexPath);
+
+		Assert.assertNotNull(readProductInfoIndex);
+
+		Assert.assertEquals(productInfoIndex.getKeys(false), readProductInfoIndex.getKeys(false));
+		Assert.assertEquals(productInfoIndex.getKeys(true), readProductInfoIndex.getKeys(true));
+
+		ProductInfo productInfo = readProductInfoIndex.getProductInfo("portal-7.3-ga1");
+
+		Assert.assertEquals("7.3.0", productInfo.getTargetPlatformVersion());
+		Assert.assertEquals("liferay/portal:7.3.0-ga1", productInfo.getLiferayDockerImage());
+		Assert.assertTrue(productInfo.isPromoted());
+
+		Assert.assertNull(readProductInfoIndex.getProductInfo("portal-7.0-ga1"));
+
+		Map<String, Object> productInfos = readProductInfoIndex.getProductInfos();
+
+		Assert.assertEquals(
+			Collections.singletonMap("targetPlatformVersion", "7.2.1"), productInfos.get("portal-7.2-ga2"));
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static final String _PRODUCT_INFO_JSON = String.join(
+		"", "{", "\"dxp-7.2-sp1\": {\"targetPlatformVersion\": \"7.2.10.1\", \"releaseDate\": \"10/4/2019\"},",
+		"\"dxp-7.3-u1\": {\"targetPlatformVersion\": \"7.3.10.u1\", \"promoted\": \"true\"},",
+		"\"portal-7.2-ga2\": {\"targetPlatformVersion\": \"7.2.1\"},",
+		"\"portal-7.3-ga1\": {\"targetPlatformVersion\": \"7.3.0\", \"liferayDockerImage\": ",
+		"\"liferay/portal:7.3.0-ga1\", \"promoted\": \"true\"}", "}");
+
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.liferay.blade.cli.util;
+
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Gregory Amerson
+ */
+public class TempDirUtilTest {
+
+	@Test
+	public void testCreateLockedTempDirectory() throws Exception {
+		Path tempDirPath = TempDirUtil.createLockedTempDirectory("blade-test-");
+
+		try {
+			Assert.assertTrue(Files.exists(tempDirPath.resolve(TempDirUtil.LOCK_FILE_NAME)));
+
+			Assert.assertTrue(TempDirUtil.isInUse(tempDirPath));
+
+			TempDirUtil.release(tempDirPath);
+
+			Assert.assertFalse(TempDirUtil.isInUse(tempDirPath));
+		}
+		finally {
+			TempDirUtil.release(tempDirPath);
+
+			FileUtil.deleteDirIfExists(tempDirPath);
+		}
+	}
+
+	@Test
+	public void testReapOrphanedTempDirs() throws Exception {
+		Path tempDirPath = temporaryFolder.newFolder(
+			"tmp"
+		).toPath();
+
+		Path stampPath = temporaryFolder.getRoot(
+		).toPath(
+		).resolve(
+			"cache/temp-dirs.reaped"
+		);
+
+		Path orphanedPath = _createTempDir(tempDirPath, "blade-templates-1-orphaned");
+		Path lockedPath = _createTempDir(tempDirPath, "blade-templates-1-locked");
+		Path legacyPath = Files.createDirectories(
+			tempDirPath.resolve("blade-extensions-" + ProcessesUtil.getCurrentProcessId() + "-legacy"));
+		Path otherPath = _createTempDir(tempDirPath, "other-1-orphaned");
+
+		Collection<String> prefixes = Arrays.asList("blade-extensions-", "blade-templates-");
+
+		try (FileChannel fileChannel = FileChannel.open(
+				lockedPath.resolve(TempDirUtil.LOCK_FILE_NAME), StandardOpenOption.WRITE);
+			FileLock fileLock = fileChannel.lock()) {
+
+			Assert.assertEquals(
+				1, TempDirUtil.reapOrphanedTempDirs(tempDirPath, prefixes, stampPath, TimeUnit.HOURS.toMillis(1)));
+		}
+
+		Assert.assertFalse(Files.exists(orphanedPath));
+		Assert.assertTrue(Files.exists(lockedPath));
+		Assert.assertTrue(Files.exists(legacyPath));
+		Assert.assertTrue(Files.exists(otherPath));
+
+		Assert.assertEquals(
+			-1, TempDirUtil.reapOrphanedTempDirs(tempDirPath, prefixes, stampPath, TimeUnit.HOURS.toMillis(1)));
+
+		Assert.assertTrue(Files.exists(lockedPath));
+
+		Files.setLastModifiedTime(stampPath, FileTime.fromMillis(0));
+
+		Assert.assertEquals(
+			1, TempDirUtil.reapOrphanedTempDirs(tempDirPath, prefixes, stampPath, TimeUnit.HOURS.toMillis(1)));
+
+		Assert.assertFalse(Files.exists(lockedPath));
+	}
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static Path _createTempDir(Path parentPath, String name) throws Exception {
+		Path path = Files.createDirectories(parentPath.resolve(name));
+
+		Files.createFile(path.resolve(TempDirUtil.LOCK_FILE_NAME));
+
+		return path;
+	}
+
+}
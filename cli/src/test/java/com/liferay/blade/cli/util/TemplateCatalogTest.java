@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import com.liferay.blade.cli.BladeTest;
+
+import java.io.File;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.util.Collection;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Gregory Amerson
+ */
+public class TemplateCatalogTest {
+
+	@Before
+	public void setUp() throws Exception {
+		_extensionsDir = temporaryFolder.newFolder(".blade", "extensions");
+	}
+
+	@Test
+	public void testCatalogIsPersisted() throws Exception {
+		TemplateCatalog templateCatalog = TemplateCatalog.load(_buildBladeTest());
+
+		Assert.assertTrue(templateCatalog.hasTemplate("mvc-portlet"));
+		Assert.assertFalse(templateCatalog.hasTemplate("sample"));
+
+		TemplateCatalog.Entry entry = templateCatalog.getEntry("mvc-portlet");
+
+		Assert.assertNotNull(entry.getDescription());
+
+		File userBladeDir = _extensionsDir.getParentFile();
+
+		Path catalogPath = userBladeDir.toPath();
+
+		catalogPath = catalogPath.resolve("cache/" + TemplateCatalog.FILE_NAME);
+
+		Assert.assertTrue(Files.exists(catalogPath));
+
+		TemplateCatalog reloadedTemplateCatalog = TemplateCatalog.load(_buildBladeTest());
+
+		Collection<String> names = templateCatalog.getNames();
+
+		Assert.assertEquals(names.toString(), names, reloadedTemplateCatalog.getNames());
+	}
+
+	@Test
+	public void testCatalogIsRebuiltWhenExtensionIsInstalled() throws Exception {
+		TemplateCatalog templateCatalog = TemplateCatalog.load(_buildBladeTest());
+
+		Assert.assertFalse(templateCatalog.hasTemplate("sample"));
+
+		File sampleJarFile = new File(System.getProperty("sampleTemplateJarFile"));
+
+		Assert.assertTrue(sampleJarFile.getAbsolutePath() + " does not exist.", sampleJarFile.exists());
+
+		Path sampleJarPath = _extensionsDir.toPath();
+
+		sampleJarPath = sampleJarPath.resolve(sampleJarFile.getName());
+
+		Files.copy(sampleJarFile.toPath(), sampleJarPath, StandardCopyOption.REPLACE_EXISTING);
+
+		templateCatalog = TemplateCatalog.load(_buildBladeTest());
+
+		Assert.assertTrue(templateCatalog.hasTemplate("sample"));
+
+		TemplateCatalog.Entry entry = templateCatalog.getEntry("sample");
+
+		Assert.assertEquals(sampleJarPath.toAbsolutePath(), entry.getJarPath());
+		Assert.assertNotNull(entry.getHash());
+
+		Files.delete(sampleJarPath);
+
+		templateCatalog = TemplateCatalog.load(_buildBladeTest());
+
+		Assert.assertFalse(templateCatalog.hasTemplate("sample"));
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private BladeTest _buildBladeTest() {
+		BladeTest.BladeTestBuilder bladeTestBuilder = BladeTest.builder();
+
+		bladeTestBuilder.setExtensionsDir(_extensionsDir.toPath());
+
+		File rootDir = temporaryFolder.getRoot();
+
+		bladeTestBuilder.setSettingsDir(rootDir.toPath());
+
+		return bladeTestBuilder.build();
+	}
+
+	private File _extensionsDir = null;
+
+}
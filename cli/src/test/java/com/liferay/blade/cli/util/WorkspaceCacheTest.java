@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.io.File;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author Gregory Amerson
+ */
+public class WorkspaceCacheTest {
+
+	@Test
+	public void testAnyLineMatchesRescansModifiedFile() throws Exception {
+		File root = temporaryFolder.getRoot();
+
+		Path path = root.toPath();
+
+		path = path.resolve("settings.gradle");
+
+		Files.write(path, "apply plugin: \"java\"\n".getBytes());
+
+		AtomicInteger lines = new AtomicInteger();
+
+		Predicate<String> predicate = line -> {
+			lines.incrementAndGet();
+
+			return line.contains("workspace");
+		};
+
+		Assert.assertFalse(WorkspaceCache.anyLineMatches("test", path.toFile(), predicate));
+
+		Assert.assertFalse(WorkspaceCache.anyLineMatches("test", path.toFile(), predicate));
+
+		Assert.assertEquals(1, lines.get());
+
+		Files.write(path, "apply plugin: \"com.liferay.workspace\"\n".getBytes());
+
+		Assert.assertTrue(WorkspaceCache.anyLineMatches("test", path.toFile(), predicate));
+
+		Assert.assertEquals(2, lines.get());
+	}
+
+	@Test
+	public void testResolvePassesDirectory() throws Exception {
+		File dir = temporaryFolder.getRoot();
+
+		Assert.assertEquals(dir, WorkspaceCache.resolve("dir", dir, file -> file));
+
+		WorkspaceCache.startRun();
+
+		try {
+			Assert.assertEquals(dir, WorkspaceCache.resolve("dir", dir, file -> file));
+			Assert.assertEquals(dir, WorkspaceCache.resolve("dir", dir, file -> file));
+		}
+		finally {
+			WorkspaceCache.endRun();
+		}
+
+		Assert.assertNull(WorkspaceCache.resolve("dir", null, file -> file));
+	}
+
+	@Test
+	public void testResolveOnlyCachesDuringRun() throws Exception {
+		File dir = temporaryFolder.getRoot();
+
+		AtomicInteger resolutions = new AtomicInteger();
+
+		WorkspaceCache.resolve("test", dir, file -> resolutions.incrementAndGet());
+		WorkspaceCache.resolve("test", dir, file -> resolutions.incrementAndGet());
+
+		Assert.assertEquals(2, resolutions.get());
+
+		WorkspaceCache.startRun();
+
+		try {
+			Object first = WorkspaceCache.resolve("test", dir, file -> resolutions.incrementAndGet());
+			Object second = WorkspaceCache.resolve("test", new File(dir, "."), file -> resolutions.incrementAndGet());
+
+			Assert.assertEquals(3, resolutions.get());
+			Assert.assertEquals(first, second);
+
+			Assert.assertNull(WorkspaceCache.resolve("null", dir, file -> null));
+			Assert.assertNull(WorkspaceCache.resolve("null", dir, file -> resolutions.incrementAndGet()));
+
+			WorkspaceCache.clear();
+
+			WorkspaceCache.resolve("test", dir, file -> resolutions.incrementAndGet());
+
+			Assert.assertEquals(4, resolutions.get());
+		}
+		finally {
+			WorkspaceCache.endRun();
+		}
+
+		WorkspaceCache.resolve("test", dir, file -> resolutions.incrementAndGet());
+
+		Assert.assertEquals(5, resolutions.get());
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+}
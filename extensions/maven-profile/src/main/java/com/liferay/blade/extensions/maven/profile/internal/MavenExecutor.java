@@ -16,12 +16,13 @@
 
 package com.liferay.blade.extensions.maven.profile.internal;
 
+import com.liferay.blade.cli.util.ExecutorUtil;
+
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.InputStreamReader;
 
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -86,7 +87,8 @@ public interface MavenExecutor {
 
 				CountDownLatch latch = new CountDownLatch(2);
 
-				CompletableFuture.runAsync(
+				ExecutorUtil.execute(
+					"blade-maven-stdout",
 					() -> {
 						String line = null;
 
@@ -112,7 +114,8 @@ public interface MavenExecutor {
 						}
 					});
 
-				CompletableFuture.runAsync(
+				ExecutorUtil.execute(
+					"blade-maven-stderr",
 					() -> {
 						String line = null;
 
@@ -44,7 +44,7 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
-import com.liferay.blade.cli.util.BladeUtil;
+import com.liferay.blade.cli.util.WorkspaceCache;
 
 /**
  * @author Christopher Bryan Boyd
@@ -93,35 +93,13 @@ public class MavenUtil {
 	}
 
 	public static File getWorkspaceDir(File dir) {
-		File mavenParent = _findWorkspacePomFile(dir);
-
-		if (_isWorkspacePomFile(new File(mavenParent, "pom.xml"))) {
-			return mavenParent;
-		}
-
-		File mavenPom = new File(dir, "pom.xml");
-
-		if (mavenPom.exists() && _isWorkspacePomFile(mavenPom)) {
-			return dir;
-		}
-
-		return null;
+		return WorkspaceCache.resolve("maven.workspaceDir", dir, MavenUtil::_getWorkspaceDir);
 	}
 
 	public static boolean isWorkspace(File dir) {
-		File workspaceDir = getWorkspaceDir(dir);
+		Boolean workspace = WorkspaceCache.resolve("maven.workspace", dir, MavenUtil::_isWorkspace);
 
-		if (Objects.isNull(dir) || Objects.isNull(workspaceDir)) {
-			return false;
-		}
-
-		File pomFile = new File(workspaceDir, "pom.xml");
-
-		if (_isWorkspacePomFile(pomFile)) {
-			return true;
-		}
-
-		return false;
+		return workspace;
 	}
 
 	private static File _findWorkspacePomFile(File dir) {
@@ -143,31 +121,50 @@ public class MavenUtil {
 			return dir;
 		}
 
-		return _findWorkspacePomFile(dir.getParentFile());
+		return WorkspaceCache.resolve("maven.workspacePomDir", dir.getParentFile(), MavenUtil::_findWorkspacePomFile);
 	}
 
-	private static boolean _isWorkspacePomFile(File pomFile) {
-		boolean pom = false;
+	private static File _getWorkspaceDir(File dir) {
+		File mavenParent = _findWorkspacePomFile(dir);
+
+		if (_isWorkspacePomFile(new File(mavenParent, "pom.xml"))) {
+			return mavenParent;
+		}
+
+		File mavenPom = new File(dir, "pom.xml");
 
-		if (Objects.equals("pom.xml", pomFile.getName()) && pomFile.exists()) {
-			pom = true;
+		if (mavenPom.exists() && _isWorkspacePomFile(mavenPom)) {
+			return dir;
 		}
 
-		if (pom) {
-			try {
-				String content = BladeUtil.read(pomFile);
+		return null;
+	}
 
-				if (content.contains("portal.tools.bundle.support")) {
-					return true;
-				}
-			}
-			catch (Exception exception) {
-			}
+	private static boolean _isWorkspace(File dir) {
+		File workspaceDir = getWorkspaceDir(dir);
+
+		if (Objects.isNull(dir) || Objects.isNull(workspaceDir)) {
+			return false;
+		}
+
+		File pomFile = new File(workspaceDir, "pom.xml");
+
+		if (_isWorkspacePomFile(pomFile)) {
+			return true;
 		}
 
 		return false;
 	}
 
+	private static boolean _isWorkspacePomFile(File pomFile) {
+		if (!Objects.equals("pom.xml", pomFile.getName())) {
+			return false;
+		}
+
+		return WorkspaceCache.anyLineMatches(
+			"maven.workspacePom", pomFile, line -> line.contains("portal.tools.bundle.support"));
+	}
+
 	private static final String _POM_XML_FILE_NAME = "pom.xml";
 
 }
\ No newline at end of file
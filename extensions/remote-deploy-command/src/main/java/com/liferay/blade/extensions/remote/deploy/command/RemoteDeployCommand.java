@@ -27,6 +27,7 @@ import com.liferay.blade.cli.gradle.GradleExec;
 import com.liferay.blade.cli.gradle.GradleTooling;
 import com.liferay.blade.cli.gradle.ProcessResult;
 import com.liferay.blade.cli.util.BladeUtil;
+import com.liferay.blade.cli.util.ExecutorUtil;
 import com.liferay.blade.cli.util.FileWatcher;
 import com.liferay.blade.gradle.tooling.ProjectInfo;
 
@@ -43,6 +44,7 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -251,7 +253,7 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 
 		BladeCLI bladeCLI = getBladeCLI();
 
-		Thread thread = new Thread() {
+		Runnable assembleRunnable = new Runnable() {
 
 			@Override
 			public void run() {
@@ -275,7 +277,7 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 
 		};
 
-		thread.start();
+		Future<?> assembleFuture = ExecutorUtil.execute("blade-remote-deploy-assemble", assembleRunnable);
 
 		FileWatcher.Consumer<Path> consumer = new FileWatcher.Consumer<Path>() {
 
@@ -312,7 +314,12 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 
 		File baseDir = args.getBase();
 
-		new FileWatcher(baseDir.toPath(), true, consumer);
+		try {
+			new FileWatcher(baseDir.toPath(), true, consumer);
+		}
+		finally {
+			assembleFuture.cancel(true);
+		}
 	}
 
 	private void _installNewBundle(
@@ -30,11 +30,13 @@ import java.util.Set;
 public class DefaultModel implements ProjectInfo, Serializable {
 
 	public DefaultModel(
-		Set<String> pluginClassNames, Map<String, Set<File>> projectOutputFiles, String deployDir, String liferayHome,
-		String dockerImageLiferay, String dockerImageId, String dockerContainerId) {
+		Set<String> pluginClassNames, Map<String, Set<File>> projectOutputFiles,
+		Map<String, Set<String>> projectDependencies, String deployDir, String liferayHome, String dockerImageLiferay,
+		String dockerImageId, String dockerContainerId) {
 
 		_pluginClassNames = pluginClassNames;
 		_projectOutputFiles = projectOutputFiles;
+		_projectDependencies = projectDependencies;
 		_deployDir = deployDir;
 		_liferayHome = liferayHome;
 		_dockerImageLiferay = dockerImageLiferay;
@@ -72,6 +74,11 @@ public class DefaultModel implements ProjectInfo, Serializable {
 		return _pluginClassNames;
 	}
 
+	@Override
+	public Map<String, Set<String>> getProjectDependencies() {
+		return _projectDependencies;
+	}
+
 	@Override
 	public Map<String, Set<File>> getProjectOutputFiles() {
 		return _projectOutputFiles;
@@ -99,6 +106,7 @@ public class DefaultModel implements ProjectInfo, Serializable {
 	private final String _dockerImageLiferay;
 	private final String _liferayHome;
 	private final Set<String> _pluginClassNames;
+	private final Map<String, Set<String>> _projectDependencies;
 	private final Map<String, Set<File>> _projectOutputFiles;
 
 }
\ No newline at end of file
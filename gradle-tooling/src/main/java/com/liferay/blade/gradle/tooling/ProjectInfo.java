@@ -39,6 +39,12 @@ public interface ProjectInfo {
 
 	public Set<String> getPluginClassNames();
 
+	/**
+	 * Returns the paths of the projects of the build mapped to the paths of
+	 * the projects they declare a dependency on.
+	 */
+	public Map<String, Set<String>> getProjectDependencies();
+
 	public Map<String, Set<File>> getProjectOutputFiles();
 
 	public boolean isLiferayProject();
@@ -37,6 +37,8 @@ import org.gradle.api.Task;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.ConfigurationContainer;
 import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.DependencySet;
+import org.gradle.api.artifacts.ProjectDependency;
 import org.gradle.api.artifacts.PublishArtifactSet;
 import org.gradle.api.file.FileCollection;
 import org.gradle.api.plugins.ExtensionAware;
@@ -102,6 +104,8 @@ public class ProjectInfoPlugin implements Plugin<Project> {
 				outputFiles.addAll(files);
 			}
 
+			Map<String, Set<String>> projectDependencies = _getProjectDependencies(project);
+
 			ConfigurationContainer configurations = project.getConfigurations();
 
 			String liferayHome = _getLiferayHome(project);
@@ -131,8 +135,8 @@ public class ProjectInfoPlugin implements Plugin<Project> {
 			}
 
 			return new DefaultModel(
-				pluginClassNames, projectOutputFiles, deployDir, liferayHome, dockerImageLiferay, dockerImageId,
-				dockerContainerId);
+				pluginClassNames, projectOutputFiles, projectDependencies, deployDir, liferayHome, dockerImageLiferay,
+				dockerImageId, dockerContainerId);
 		}
 
 		@Override
@@ -200,6 +204,36 @@ public class ProjectInfoPlugin implements Plugin<Project> {
 			return _getExtensionProperty(project, "liferay", "liferayHome");
 		}
 
+		/**
+		 * Reads the project dependencies as declared, without resolving any
+		 * configuration, so building the model stays cheap.
+		 */
+		private Map<String, Set<String>> _getProjectDependencies(Project project) {
+			Map<String, Set<String>> projectDependencies = new HashMap<>();
+
+			for (Project subproject : project.getAllprojects()) {
+				Set<String> dependencyPaths = new HashSet<>();
+
+				ConfigurationContainer configurations = subproject.getConfigurations();
+
+				for (Configuration configuration : configurations) {
+					DependencySet dependencies = configuration.getDependencies();
+
+					for (ProjectDependency projectDependency : dependencies.withType(ProjectDependency.class)) {
+						Project dependencyProject = projectDependency.getDependencyProject();
+
+						dependencyPaths.add(dependencyProject.getPath());
+					}
+				}
+
+				dependencyPaths.remove(subproject.getPath());
+
+				projectDependencies.put(subproject.getPath(), dependencyPaths);
+			}
+
+			return projectDependencies;
+		}
+
 	}
 
 }
\ No newline at end of file